@@ -0,0 +1,71 @@
+package com.driveinsights.benchmark;
+
+import com.driveinsights.config.AnomalyDetectionProperties;
+import com.driveinsights.model.AlertRule;
+import com.driveinsights.service.EngineAnomalyDetector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-reading cost of EngineAnomalyDetector across a fleet, single-threaded and with writers contending
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnomalyDetectionBenchmark {
+
+    private static final int READINGS = 1 << 16;
+
+    @Param({"1000", "100000"})
+    private int vehicles;
+
+    private EngineAnomalyDetector detector;
+    private long[] vehicleIds;
+    private double[] temperatures;
+    private int[] rpms;
+    private long startEpochSecond;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        detector = new EngineAnomalyDetector(new AnomalyDetectionProperties());
+        SplittableRandom random = new SplittableRandom(42);
+        vehicleIds = new long[READINGS];
+        temperatures = new double[READINGS];
+        rpms = new int[READINGS];
+        for (int i = 0; i < READINGS; i++) {
+            vehicleIds[i] = 1 + random.nextInt(vehicles);
+            // Mostly normal readings with the occasional spike past the limits
+            temperatures[i] = random.nextInt(100) == 0 ? 120 : 85 + random.nextDouble() * 10;
+            rpms[i] = random.nextInt(100) == 0 ? 7000 : 1500 + random.nextInt(2000);
+        }
+        startEpochSecond = BenchmarkData.START.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Benchmark
+    public void evaluate(Cursor cursor, Blackhole blackhole) {
+        int i = cursor.next++ & (READINGS - 1);
+        detector.evaluate(blackhole, vehicleIds[i], startEpochSecond + cursor.next, temperatures[i], rpms[i], 60,
+                AnomalyDetectionBenchmark::consume);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void evaluateContended(Cursor cursor, Blackhole blackhole) {
+        evaluate(cursor, blackhole);
+    }
+
+    private static void consume(Blackhole blackhole, AlertRule rule, double observed, double expected,
+                                double deviationScore) {
+        blackhole.consume(rule);
+    }
+}
@@ -0,0 +1,75 @@
+package com.driveinsights.benchmark;
+
+import com.driveinsights.DriveInsightsApplication;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.model.Vehicle;
+import com.driveinsights.repository.TelemetryBatchRepository;
+import com.driveinsights.repository.VehicleRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic fixtures shared by the benchmarks
+final class BenchmarkData {
+
+    static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private BenchmarkData() {
+    }
+
+    // One reading per vehicle every intervalMinutes, interleaved across vehicles
+    static List<EngineDataDTO> engineData(int count, List<Long> vehicleIds, int intervalMinutes) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<EngineDataDTO> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Long vehicleId = vehicleIds.get(i % vehicleIds.size());
+            LocalDateTime time = START.plusMinutes((long) (i / vehicleIds.size()) * intervalMinutes);
+            records.add(new EngineDataDTO(null, vehicleId,
+                    180 + random.nextDouble() * 40,
+                    700 + random.nextInt(5000),
+                    random.nextInt(600),
+                    time));
+        }
+        return records;
+    }
+
+    static Vehicle vehicle(Long id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        vehicle.setMake("Toyota");
+        vehicle.setModel("Camry");
+        vehicle.setYear(2020);
+        vehicle.setLicensePlate("BENCH" + id);
+        vehicle.setFuelType("Gasoline");
+        vehicle.setEngineSize(2.5);
+        return vehicle;
+    }
+
+    static List<Long> createVehicles(ConfigurableApplicationContext context, int count) {
+        VehicleRepository vehicleRepository = context.getBean(VehicleRepository.class);
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Vehicle vehicle = vehicle(null);
+            vehicle.setLicensePlate("BENCH" + i);
+            ids.add(vehicleRepository.save(vehicle).getId());
+        }
+        return ids;
+    }
+
+    // Full application context on the in-memory H2 database from application.properties;
+    // args are command line style (--key=value) so they override that file
+    static ConfigurableApplicationContext startApplication(String... args) {
+        return new SpringApplicationBuilder(DriveInsightsApplication.class).run(args);
+    }
+
+    static void insertEngineData(ConfigurableApplicationContext context, List<EngineDataDTO> records) {
+        TelemetryBatchRepository telemetryBatchRepository = context.getBean(TelemetryBatchRepository.class);
+        for (int from = 0; from < records.size(); from += 10_000) {
+            telemetryBatchRepository.insertEngineData(records.subList(from, Math.min(from + 10_000, records.size())));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.driveinsights.benchmark;
+
+import com.driveinsights.DriveInsightsApplication;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Runs the benchmarks selected on the command line (all by default) and writes the results
+ * as JSON to target/jmh-results/jmh-&lt;version&gt;-&lt;timestamp&gt;.json for comparison across releases.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path resultDirectory = Path.of("target", "jmh-results");
+        Files.createDirectories(resultDirectory);
+        String version = Optional.ofNullable(DriveInsightsApplication.class.getPackage().getImplementationVersion())
+                .orElse("dev");
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path resultFile = resultDirectory.resolve("jmh-" + version + "-" + timestamp + ".json");
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + resultFile.toAbsolutePath());
+    }
+}
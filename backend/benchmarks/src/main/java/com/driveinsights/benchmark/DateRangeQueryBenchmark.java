@@ -0,0 +1,86 @@
+package com.driveinsights.benchmark;
+
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.service.EngineDataService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// EngineDataService date-range reads over 200k readings (10 vehicles, one reading every 10 minutes),
+// from H2 or from the in-memory hot tier
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateRangeQueryBenchmark {
+
+    private static final int ROWS = 200_000;
+    private static final int VEHICLES = 10;
+
+    @Param({"1", "30"})
+    private int days;
+
+    @Param({"false", "true"})
+    private boolean hotTier;
+
+    private ConfigurableApplicationContext context;
+    private EngineDataService engineDataService;
+    private Long vehicleId;
+    private LocalDateTime startDate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkData.startApplication();
+        List<Long> vehicleIds = BenchmarkData.createVehicles(context, VEHICLES);
+        BenchmarkData.insertEngineData(context, BenchmarkData.engineData(ROWS, vehicleIds, 10));
+        context.getBean(JdbcTemplate.class).execute(
+                "CREATE INDEX idx_engine_data_vehicle_recording_time ON engine_data(vehicle_id, recording_time)");
+        vehicleId = vehicleIds.get(0);
+        startDate = BenchmarkData.START.plusDays(30);
+        if (hotTier) {
+            // Restart on the same in-memory database so the tier warms from the rows just written
+            Duration window = Duration.between(BenchmarkData.START, LocalDateTime.now()).plusDays(1);
+            context.close();
+            context = BenchmarkData.startApplication(
+                    "--spring.jpa.hibernate.ddl-auto=none",
+                    "--drive-insights.hot-tier.enabled=true",
+                    "--drive-insights.hot-tier.window=" + window,
+                    "--drive-insights.hot-tier.max-readings-per-vehicle=" + ROWS);
+        }
+        engineDataService = context.getBean(EngineDataService.class);
+        if (hotTier) {
+            awaitWarmUp(context.getBean(MeterRegistry.class));
+        }
+    }
+
+    private void awaitWarmUp(MeterRegistry meterRegistry) throws InterruptedException {
+        Counter hits = meterRegistry.get("telemetry.hot.tier.lookups").tag("result", "hit").counter();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (hits.count() == 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Hot tier did not warm up");
+            }
+            Thread.sleep(100);
+            dateRangeQuery();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EngineDataDTO> dateRangeQuery() {
+        return engineDataService.getEngineDataByVehicleIdAndDateRange(vehicleId, startDate, startDate.plusDays(days));
+    }
+}
@@ -0,0 +1,98 @@
+package com.driveinsights.benchmark;
+
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.model.EngineData;
+import com.driveinsights.model.Vehicle;
+import com.driveinsights.repository.EngineDataRepository;
+import com.driveinsights.repository.TelemetryBatchRepository;
+import com.driveinsights.service.RecentTelemetryKeys;
+import com.driveinsights.service.TelemetryIngestionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writing one batch of engine readings: a JPA save per row versus one JDBC batch insert, and
+// re-sending a stored batch, absorbed by ON CONFLICT DO NOTHING or by the recent-key window
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestionBenchmark {
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private EngineDataRepository engineDataRepository;
+    private TelemetryBatchRepository telemetryBatchRepository;
+    private TelemetryIngestionService telemetryIngestionService;
+    private TransactionTemplate transactionTemplate;
+    private Vehicle vehicle;
+    private List<EngineDataDTO> records;
+    private List<EngineDataDTO> storedRecords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        engineDataRepository = context.getBean(EngineDataRepository.class);
+        telemetryBatchRepository = context.getBean(TelemetryBatchRepository.class);
+        telemetryIngestionService = context.getBean(TelemetryIngestionService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        vehicle = BenchmarkData.vehicle(BenchmarkData.createVehicles(context, 1).get(0));
+        records = BenchmarkData.engineData(batchSize, List.of(vehicle.getId()), 1);
+        storedRecords = BenchmarkData.engineData(batchSize, List.of(vehicle.getId()), 1);
+        storedRecords.forEach(record -> record.setRecordingTime(record.getRecordingTime().minusYears(1)));
+        BenchmarkData.insertEngineData(context, storedRecords);
+        // Stands in for the commit of an ingest, which H2 cannot run: the rollup upsert is PostgreSQL-only
+        context.getBean(RecentTelemetryKeys.class).onTelemetryRecorded(
+                new TelemetryRecordedEvent(new TelemetryBatchDTO(storedRecords, List.of(), List.of())));
+    }
+
+    // Readings are unique per vehicle and time, so every invocation writes a later batch
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        for (EngineDataDTO record : records) {
+            record.setRecordingTime(record.getRecordingTime().plusMinutes(batchSize));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void singleRowSaves() {
+        for (EngineDataDTO record : records) {
+            EngineData engineData = new EngineData();
+            engineData.setVehicle(vehicle);
+            engineData.setEngineTemperature(record.getEngineTemperature());
+            engineData.setEngineRpm(record.getEngineRpm());
+            engineData.setIdlingTimeSeconds(record.getIdlingTimeSeconds());
+            engineData.setRecordingTime(record.getRecordingTime());
+            engineDataRepository.save(engineData);
+        }
+    }
+
+    @Benchmark
+    public void batchInsert() {
+        transactionTemplate.executeWithoutResult(status -> telemetryBatchRepository.insertEngineData(records));
+    }
+
+    @Benchmark
+    public void batchInsertDuplicates() {
+        transactionTemplate.executeWithoutResult(status -> telemetryBatchRepository.insertEngineData(storedRecords));
+    }
+
+    @Benchmark
+    public void ingestDuplicates() {
+        telemetryIngestionService.ingest(new TelemetryBatchDTO(storedRecords, List.of(), List.of()));
+    }
+}
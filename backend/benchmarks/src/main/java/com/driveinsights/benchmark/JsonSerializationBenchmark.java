@@ -0,0 +1,61 @@
+package com.driveinsights.benchmark;
+
+import com.driveinsights.config.BinaryFormatConfig;
+import com.driveinsights.dto.EngineDataDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of list responses in each wire format, configured like the application's converters
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final TypeReference<List<EngineDataDTO>> ENGINE_DATA_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10000", "100000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<EngineDataDTO> engineData;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper = switch (format) {
+            case "cbor" -> BinaryFormatConfig.binaryObjectMapper(builder, new CBORFactory());
+            case "smile" -> BinaryFormatConfig.binaryObjectMapper(builder, new SmileFactory());
+            default -> builder.build();
+        };
+        engineData = BenchmarkData.engineData(size, List.of(1L, 2L, 3L, 4L, 5L), 1);
+        encoded = objectMapper.writeValueAsBytes(engineData);
+        System.out.printf("%n%s: %d bytes for %d readings%n", format, encoded.length, size);
+    }
+
+    @Benchmark
+    public byte[] serializeEngineData() throws Exception {
+        return objectMapper.writeValueAsBytes(engineData);
+    }
+
+    @Benchmark
+    public List<EngineDataDTO> deserializeEngineData() throws Exception {
+        return objectMapper.readValue(encoded, ENGINE_DATA_LIST);
+    }
+}
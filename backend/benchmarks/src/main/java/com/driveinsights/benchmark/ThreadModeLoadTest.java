@@ -0,0 +1,158 @@
+package com.driveinsights.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load test comparing drive-insights.threads.mode=platform and virtual.
+ * Each client thread repeatedly requests one day of engine data for a random vehicle.
+ * Usage: ThreadModeLoadTest [concurrency=400] [durationSeconds=30]. Virtual mode needs Java 21.
+ */
+public final class ThreadModeLoadTest {
+
+    private static final int VEHICLES = 50;
+    private static final int ROWS = 200_000;
+    private static final int POOL_SIZE = 20;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private ThreadModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        List<String> modes = new ArrayList<>(List.of("platform"));
+        if (Runtime.version().feature() >= 21) {
+            modes.add("virtual");
+        } else {
+            System.out.println("Running on Java " + Runtime.version() + "; virtual mode needs Java 21 and is skipped");
+        }
+
+        List<String> report = new ArrayList<>();
+        for (String mode : modes) {
+            report.add(mode + "\t" + run(mode, concurrency, duration));
+        }
+        System.out.println();
+        System.out.println("Concurrency " + concurrency + ", " + duration.toSeconds() + " s per mode, pool size " + POOL_SIZE);
+        System.out.println("mode\trequests\terrors\treq/s\tp50 ms\tp99 ms\tp99.9 ms\tmax ms");
+        report.forEach(System.out::println);
+    }
+
+    private static Result run(String mode, int concurrency, Duration duration) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkData.startApplication(
+                "--spring.main.web-application-type=servlet",
+                "--server.port=0",
+                "--drive-insights.threads.mode=" + mode,
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE)) {
+            List<Long> vehicleIds = BenchmarkData.createVehicles(context, VEHICLES);
+            BenchmarkData.insertEngineData(context, BenchmarkData.engineData(ROWS, vehicleIds, 10));
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            drive(client, port, vehicleIds, concurrency, WARMUP);
+            return drive(client, port, vehicleIds, concurrency, duration);
+        }
+    }
+
+    private static Result drive(HttpClient client, int port, List<Long> vehicleIds, int concurrency,
+                                Duration duration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(client, port, vehicleIds, deadline, i);
+            futures.add(clients.submit(worker::call));
+        }
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            errors += worker.errors;
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+        Arrays.sort(latencies);
+        return new Result(latencies, errors, elapsed);
+    }
+
+    private static final class Worker {
+        private final HttpClient client;
+        private final int port;
+        private final List<Long> vehicleIds;
+        private final long deadline;
+        private final SplittableRandom random;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker(HttpClient client, int port, List<Long> vehicleIds, long deadline, int seed) {
+            this.client = client;
+            this.port = port;
+            this.vehicleIds = vehicleIds;
+            this.deadline = deadline;
+            this.random = new SplittableRandom(seed);
+        }
+
+        Worker call() {
+            while (System.nanoTime() < deadline) {
+                Long vehicleId = vehicleIds.get(random.nextInt(vehicleIds.size()));
+                LocalDateTime day = BenchmarkData.START.plusDays(random.nextInt(30));
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/api/engine-data/vehicle/" + vehicleId + "/date-range?startDate=" + day
+                        + "&endDate=" + day.plusDays(1)))
+                        .GET()
+                        .build();
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - sent;
+            }
+            return this;
+        }
+    }
+
+    private record Result(long[] latencies, long errors, long elapsedNanos) {
+
+        private double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return String.format("%d\t%d\t%.0f\t%.1f\t%.1f\t%.1f\t%.1f", latencies.length, errors,
+                    latencies.length / seconds, percentileMillis(0.5), percentileMillis(0.99),
+                    percentileMillis(0.999), percentileMillis(1.0));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.anomaly")
+public class AnomalyDetectionProperties {
+
+    private boolean enabled = true;
+
+    // Fixed limits; a reading above any of them raises an alert immediately
+    private double maxEngineTemperature = 110.0;
+    private int maxEngineRpm = 6500;
+    private int maxIdlingTimeSeconds = 1800;
+
+    // Weight of the newest reading in the per-vehicle moving mean and variance
+    private double ewmaAlpha = 0.05;
+
+    // Deviations from the moving mean, in standard deviations, that count as anomalous
+    private double zScoreThreshold = 4.0;
+
+    // Readings a vehicle needs before deviation rules apply
+    private int warmupSamples = 30;
+
+    // Repeats of the same rule for the same vehicle are suppressed within this recording-time window
+    private Duration cooldown = Duration.ofMinutes(10);
+
+    // Alerts waiting to be written; further alerts are dropped (and counted) while it is full
+    private int queueCapacity = 10000;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private int flushBatchSize = 500;
+}
@@ -0,0 +1,23 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.carbon")
+public class CarbonProperties {
+
+    // Committed emission and fuel records reach the carbon totals at most this much later
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    // Longest range, in periods, a single report may list
+    private int maxReportPeriods = 1000;
+
+    // Deltas not yet flushed when the process dies are lost; rebuilding once started brings the totals back in line
+    private boolean reconcileOnStartup = true;
+
+    // How long a rebuild holding the source tables waits for committed deltas before giving up and releasing them
+    private Duration rebuildWaitTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,18 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.fuel-analytics")
+public class FuelAnalyticsProperties {
+
+    // Fill-ups behind each rolling MPG point
+    private int rollingWindow = 5;
+
+    // Cached results (one per vehicle and date range); any fill-up change clears them all
+    private long cacheMaximumSize = 256;
+
+    // Vehicles analysed by one fork/join leaf task
+    private int vehiclesPerTask = 16;
+}
@@ -0,0 +1,71 @@
+package com.driveinsights.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The hot tier only sees writes committed by its own instance, but its answers carry the
+ * database-wide validators of DataVersions, so an instance with drive-insights.hot-tier.enabled=true
+ * must be the only one using the database. It takes a PostgreSQL session advisory lock exclusively
+ * at startup and every other instance takes it shared; whichever instance conflicts fails to start.
+ * The lock is held on a dedicated connection outside the pool until shutdown. Other databases (the
+ * H2 benchmarks) run in one process and are not checked.
+ */
+@Slf4j
+@Component
+public class HotTierInstanceLock {
+
+    // "hottier" in ASCII; the same key in every instance
+    static final long LOCK_KEY = 0x686f7474696572L;
+
+    private final Connection connection;
+
+    public HotTierInstanceLock(HotTierProperties hotTierProperties, DataSourceProperties dataSourceProperties)
+            throws SQLException {
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith("jdbc:postgresql:")) {
+            connection = null;
+            return;
+        }
+        boolean exclusive = hotTierProperties.isEnabled();
+        connection = DriverManager.getConnection(url, dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        boolean acquired;
+        try (PreparedStatement statement = connection.prepareStatement(exclusive
+                ? "SELECT pg_try_advisory_lock(?)"
+                : "SELECT pg_try_advisory_lock_shared(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                acquired = rs.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        if (!acquired) {
+            connection.close();
+            throw new IllegalStateException(exclusive
+                    ? "drive-insights.hot-tier.enabled=true requires a single instance, but another instance "
+                            + "is using the database"
+                    : "An instance with drive-insights.hot-tier.enabled=true is using the database; its hot tier "
+                            + "would not see this instance's writes");
+        }
+        log.info("Holding the {} hot tier instance lock", exclusive ? "exclusive" : "shared");
+    }
+
+    @PreDestroy
+    void release() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.hot-tier")
+public class HotTierProperties {
+
+    private boolean enabled = false;
+
+    // Recent readings loaded at startup and kept in memory; older readings are trimmed away
+    private Duration window = Duration.ofDays(7);
+
+    // Per vehicle and type; at the cap the oldest reading is evicted. Memory per vehicle is at most
+    // max-readings-per-vehicle * 72 bytes (32 for an engine reading, 40 for an emission reading)
+    private int maxReadingsPerVehicle = 10080;
+
+    private Duration trimInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,34 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.imports")
+public class ImportProperties {
+
+    // CSV files are imported from, and uploaded to, this directory
+    private String directory = "data/imports";
+
+    // Bytes of a file parsed, validated and loaded as one unit (one COPY and one transaction); a line
+    // must fit in one chunk. Memory use is about (parse-threads + 2 * load-threads) chunks.
+    private int chunkSize = 4 * 1024 * 1024;
+
+    // Threads parsing and validating chunks of a running import; 0 uses one per processor
+    private int parseThreads = 0;
+
+    // Chunks loaded concurrently, each on its own database connection
+    private int loadThreads = 4;
+
+    // Rejected lines listed in the job status; all of them are written to <file>.rejects.csv
+    private int maxReportedRejects = 100;
+
+    // Uploads larger than this are refused with 413 and their partial file deleted
+    private DataSize maxUploadSize = DataSize.ofGigabytes(2);
+
+    // Finished jobs are listed for this long; queued and running jobs are always kept
+    private Duration finishedJobRetention = Duration.ofHours(24);
+}
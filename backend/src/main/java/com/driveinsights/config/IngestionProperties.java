@@ -0,0 +1,19 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.ingestion")
+public class IngestionProperties {
+
+    // Upper bound on records accepted in a single batch request
+    private int maxBatchSize = 10000;
+
+    // Number of rows sent to the driver per JDBC batch
+    private int jdbcBatchSize = 1000;
+
+    // Natural keys of recent engine and emission readings remembered per type to skip retried
+    // uploads before the database (about 24 bytes each); 0 leaves deduplication to the unique index
+    private int recentKeys = 262144;
+}
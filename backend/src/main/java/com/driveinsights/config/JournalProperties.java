@@ -0,0 +1,36 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.journal")
+public class JournalProperties {
+
+    // When enabled, POST /api/telemetry/batch appends to the journal and answers 202 before the database write
+    private boolean enabled = false;
+
+    private String directory = "data/journal";
+
+    // Size of each memory-mapped segment file; a batch must fit in one segment
+    private int segmentSize = 64 * 1024 * 1024;
+
+    // Appends are rejected with 503 once this many segments are waiting to be drained
+    private int maxSegments = 16;
+
+    // Flush each appended batch to disk before acknowledging it; without it a crash of the
+    // process loses nothing, but a power failure can lose the most recent batches
+    private boolean syncOnAppend = true;
+
+    private Duration drainInterval = Duration.ofMillis(200);
+
+    // Journal entries (request batches) written to the database per transaction
+    private int drainBatchEntries = 50;
+
+    // Failed drains are retried with exponential backoff between these delays
+    private Duration retryInitialDelay = Duration.ofSeconds(1);
+
+    private Duration retryMaxDelay = Duration.ofMinutes(1);
+}
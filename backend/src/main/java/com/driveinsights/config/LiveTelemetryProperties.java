@@ -0,0 +1,31 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.live")
+public class LiveTelemetryProperties {
+
+    // Records kept for subscribers, rounded up to a power of two; slower subscribers lose the oldest
+    private int bufferSize = 8192;
+
+    // Records sent to one subscriber per drain pass
+    private int maxBatchSize = 256;
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    // Threads writing to subscribers; they are not shared with scheduled jobs or other requests
+    private int writerThreads = 4;
+
+    // Subscribers waiting for a writer thread; further ones are closed and have to reconnect
+    private int writerQueueCapacity = 1024;
+
+    // A subscriber whose write blocks longer than this is closed
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    // Clients (EventSource) reconnect with Last-Event-ID when the stream times out
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,24 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.pagination")
+public class PaginationProperties {
+
+    private int defaultPageSize = 100;
+
+    private int maxPageSize = 1000;
+
+    // Rows returned by the unpaginated list endpoints: the newest telemetry, or the first vehicles by id.
+    // The /page endpoints reach the rest.
+    private int maxListSize = 1000;
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
@@ -0,0 +1,26 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.partitions")
+public class PartitionProperties {
+
+    // Disable on databases without the partitioned schema (e.g. the H2 benchmarks)
+    private boolean enabled = true;
+
+    // Monthly partitions kept ready beyond the current month
+    private int premakeMonths = 3;
+
+    // Whole months of data kept before the current month; 0 keeps everything
+    private int retentionMonths = 0;
+
+    private RetentionAction retentionAction = RetentionAction.DETACH;
+
+    public enum RetentionAction {
+        // Leave the expired partition as a standalone table for archiving
+        DETACH,
+        DROP
+    }
+}
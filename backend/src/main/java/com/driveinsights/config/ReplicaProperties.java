@@ -0,0 +1,45 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.replicas")
+public class ReplicaProperties {
+
+    // When enabled, read-only transactions run on the replicas below and everything else on spring.datasource
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    // Replicas further behind than this are skipped until they catch up
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    // Replication lag in seconds; the default is for PostgreSQL streaming replicas (0 when fully replayed).
+    // H2 or other stand-ins can use SELECT 0
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private int maximumPoolSize = 10;
+
+    // Kept short so a read falls back to the primary quickly when a replica is down
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    @Data
+    public static class Node {
+
+        private String url;
+
+        // Default to spring.datasource.username and password
+        private String username;
+
+        private String password;
+    }
+}
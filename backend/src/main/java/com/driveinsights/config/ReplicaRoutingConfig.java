@@ -0,0 +1,73 @@
+package com.driveinsights.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * drive-insights.replicas.enabled=true: read-only transactions (the {@code readOnly = true}
+ * service methods, Spring Data reads outside a write transaction, and read-only
+ * TransactionTemplates) run on the configured replicas; writes and every read inside a write
+ * transaction stay on the spring.datasource primary. Flyway and the Hikari pool size lookup of
+ * the virtual thread limiter see the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "drive-insights.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // Replaces the auto-configured pool, so spring.datasource.hikari.* is bound here
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+            HikariDataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+            ReplicaProperties replicaProperties, TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        if (replicaProperties.getNodes().isEmpty()) {
+            throw new IllegalStateException("drive-insights.replicas.enabled=true requires at least one "
+                    + "drive-insights.replicas.nodes[n].url");
+        }
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        for (ReplicaProperties.Node node : replicaProperties.getNodes()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (replicaPools.size() + 1));
+            pool.setJdbcUrl(node.getUrl());
+            pool.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.getUsername());
+            pool.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.getPassword());
+            pool.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            pool.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            // Connections are opened on first use, so an unreachable replica does not block startup
+            pool.setInitializationFailTimeout(-1);
+            pool.setReadOnly(true);
+            pool.setMetricRegistry(meterRegistry);
+            replicaPools.add(pool);
+        }
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(primaryDataSource,
+                replicaPools, replicaProperties.getMaxLag(), replicaProperties.getLagQuery(),
+                replicaProperties.getLagCheckInterval(), meterRegistry);
+        taskScheduler.scheduleWithFixedDelay(routingDataSource::checkReplicas,
+                replicaProperties.getLagCheckInterval());
+        return routingDataSource;
+    }
+
+    // Defers fetching a connection until the first statement, when the transaction's read-only flag is set
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
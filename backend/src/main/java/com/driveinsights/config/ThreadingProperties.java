@@ -0,0 +1,26 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.threads")
+public class ThreadingProperties {
+
+    private Mode mode = Mode.PLATFORM;
+
+    // Concurrent /api requests allowed in virtual mode; 0 uses the Hikari maximum pool size
+    private int maxConcurrentRequests = 0;
+
+    // How long a request waits for a slot before it is rejected with 503
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+
+    public enum Mode {
+        // Tomcat's bounded worker pool (server.tomcat.threads.max)
+        PLATFORM,
+        // One virtual thread per request and async task; requires Java 21
+        VIRTUAL
+    }
+}
@@ -0,0 +1,16 @@
+package com.driveinsights.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "drive-insights.vehicle-cache")
+public class VehicleCacheProperties {
+
+    private long maximumSize = 10000;
+
+    // Also bounds how long another instance's vehicle changes can go unnoticed
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
@@ -0,0 +1,44 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.dto.CarbonTotalsDTO;
+import com.driveinsights.model.CarbonPeriod;
+import com.driveinsights.service.CarbonLedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/carbon")
+@RequiredArgsConstructor
+public class CarbonController {
+    
+    private final CarbonLedgerService carbonLedgerService;
+    
+    @GetMapping("/totals")
+    public ResponseEntity<CarbonTotalsDTO> getTotals(
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(carbonLedgerService.getTotals(vehicleId, startDate, endDate));
+    }
+    
+    @GetMapping("/report")
+    public ResponseEntity<List<CarbonTotalsDTO>> getReport(
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(defaultValue = "month") String period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(carbonLedgerService.getReport(
+                vehicleId, CarbonPeriod.fromParameter(period), startDate, endDate));
+    }
+    
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        carbonLedgerService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.config.ReadReplicaRoutingDataSource;
+import com.driveinsights.service.DataVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+final class ConditionalResponses {
+    
+    // Browsers may store the response but must revalidate it on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    
+    // The Jackson converters in the order Spring MVC consults them (see BinaryFormatConfig)
+    private static final List<MediaType> ENCODINGS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+    
+    private ConditionalResponses() {
+    }
+    
+    // Answers 304 without building the body when the client's validators are current.
+    // checkNotModified also writes the ETag and Last-Modified headers. JSON, CBOR and Smile
+    // bodies of the same data get different ETags, and Vary: Accept keeps shared caches apart.
+    // The body is read from the primary: a lagging replica would pair stale rows with the new
+    // ETag, and the client would then get 304 for them.
+    static <T> ResponseEntity<T> ifModified(WebRequest request, DataVersions.Validator validator, Supplier<T> body) {
+        String eTag = validator.getETag();
+        eTag = eTag.substring(0, eTag.length() - 1) + "-" + negotiatedEncoding(request).getSubtype() + "\"";
+        if (request.checkNotModified(eTag, validator.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                .body(ReadReplicaRoutingDataSource.onPrimary(body));
+    }
+    
+    // Same choice as Spring MVC's content negotiation: the most specific, highest quality accepted
+    // type, with ties going to the converter registered first
+    static MediaType negotiatedEncoding(WebRequest request) {
+        String[] accept = request.getHeaderValues(HttpHeaders.ACCEPT);
+        List<MediaType> accepted;
+        try {
+            accepted = accept != null ? MediaType.parseMediaTypes(Arrays.asList(accept)) : List.of(MediaType.ALL);
+        } catch (InvalidMediaTypeException e) {
+            // Spring MVC rejects the request later; the ETag does not matter then
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType encoding : ENCODINGS) {
+                if (acceptedType.isCompatibleWith(encoding)) {
+                    compatible.add(encoding.copyQualityValue(acceptedType));
+                }
+            }
+        }
+        if (compatible.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            MimeTypeUtils.sortBySpecificity(compatible);
+        } catch (InvalidMimeTypeException e) {
+            // Too many accepted types; Spring MVC rejects the request as well
+            return MediaType.APPLICATION_JSON;
+        }
+        return compatible.get(0).removeQualityValue();
+    }
+}
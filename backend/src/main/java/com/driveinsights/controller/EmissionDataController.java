@@ -1,13 +1,23 @@
 package com.driveinsights.controller;
 
+import com.driveinsights.dto.CursorPageDTO;
 import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.TimeSeriesDTO;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.service.DataVersions;
+import com.driveinsights.service.DownsampleMode;
+import com.driveinsights.service.ExportFormat;
 import com.driveinsights.service.EmissionDataService;
+import com.driveinsights.service.TelemetryExportService;
+import com.driveinsights.service.TelemetrySeriesService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,10 +28,36 @@ import java.util.List;
 public class EmissionDataController {
     
     private final EmissionDataService emissionDataService;
+    private final TelemetryExportService telemetryExportService;
+    private final TelemetrySeriesService telemetrySeriesService;
+    private final DataVersions dataVersions;
     
     @GetMapping
-    public ResponseEntity<List<EmissionDataDTO>> getAllEmissionData() {
-        return ResponseEntity.ok(emissionDataService.getAllEmissionData());
+    public ResponseEntity<List<EmissionDataDTO>> getAllEmissionData(WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.EMISSION_DATA),
+                emissionDataService::getAllEmissionData);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<EmissionDataDTO>> getEmissionDataPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(emissionDataService.getEmissionDataPage(cursor, size, vehicleId, startDate, endDate));
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmissionData(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return ExportResponses.attachment("emission_data", exportFormat, gzip,
+                telemetryExportService.exportEmissionData(exportFormat, gzip, vehicleId, startDate, endDate));
     }
     
     @GetMapping("/{id}")
@@ -30,16 +66,31 @@ public class EmissionDataController {
     }
     
     @GetMapping("/vehicle/{vehicleId}")
-    public ResponseEntity<List<EmissionDataDTO>> getEmissionDataByVehicleId(@PathVariable Long vehicleId) {
-        return ResponseEntity.ok(emissionDataService.getEmissionDataByVehicleId(vehicleId));
+    public ResponseEntity<List<EmissionDataDTO>> getEmissionDataByVehicleId(@PathVariable Long vehicleId, WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.EMISSION_DATA),
+                () -> emissionDataService.getEmissionDataByVehicleId(vehicleId));
     }
     
     @GetMapping("/vehicle/{vehicleId}/date-range")
     public ResponseEntity<List<EmissionDataDTO>> getEmissionDataByVehicleIdAndDateRange(
             @PathVariable Long vehicleId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(emissionDataService.getEmissionDataByVehicleIdAndDateRange(vehicleId, startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.EMISSION_DATA),
+                () -> emissionDataService.getEmissionDataByVehicleIdAndDateRange(vehicleId, startDate, endDate));
+    }
+    
+    @GetMapping("/vehicle/{vehicleId}/series")
+    public ResponseEntity<TimeSeriesDTO> getEmissionDataSeries(
+            @PathVariable Long vehicleId,
+            @RequestParam(defaultValue = "co2Emissions") String metric,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(defaultValue = "lttb") String mode) {
+        return ResponseEntity.ok(telemetrySeriesService.getEmissionDataSeries(vehicleId,
+                TelemetryMetric.fromParameter(metric), startDate, endDate, points, DownsampleMode.fromParameter(mode)));
     }
     
     @PostMapping
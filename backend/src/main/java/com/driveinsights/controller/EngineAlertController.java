@@ -0,0 +1,29 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.dto.EngineAlertDTO;
+import com.driveinsights.service.EngineAlertService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/engine-alerts")
+@RequiredArgsConstructor
+public class EngineAlertController {
+    
+    private final EngineAlertService engineAlertService;
+    
+    @GetMapping
+    public ResponseEntity<List<EngineAlertDTO>> getAlerts(
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) String rule,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(engineAlertService.getAlerts(vehicleId, rule, startDate, endDate, limit));
+    }
+}
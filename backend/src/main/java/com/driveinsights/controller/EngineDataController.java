@@ -1,13 +1,23 @@
 package com.driveinsights.controller;
 
+import com.driveinsights.dto.CursorPageDTO;
 import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.TimeSeriesDTO;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.service.DataVersions;
+import com.driveinsights.service.DownsampleMode;
+import com.driveinsights.service.ExportFormat;
 import com.driveinsights.service.EngineDataService;
+import com.driveinsights.service.TelemetryExportService;
+import com.driveinsights.service.TelemetrySeriesService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,10 +28,36 @@ import java.util.List;
 public class EngineDataController {
     
     private final EngineDataService engineDataService;
+    private final TelemetryExportService telemetryExportService;
+    private final TelemetrySeriesService telemetrySeriesService;
+    private final DataVersions dataVersions;
     
     @GetMapping
-    public ResponseEntity<List<EngineDataDTO>> getAllEngineData() {
-        return ResponseEntity.ok(engineDataService.getAllEngineData());
+    public ResponseEntity<List<EngineDataDTO>> getAllEngineData(WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.ENGINE_DATA),
+                engineDataService::getAllEngineData);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<EngineDataDTO>> getEngineDataPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(engineDataService.getEngineDataPage(cursor, size, vehicleId, startDate, endDate));
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEngineData(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return ExportResponses.attachment("engine_data", exportFormat, gzip,
+                telemetryExportService.exportEngineData(exportFormat, gzip, vehicleId, startDate, endDate));
     }
     
     @GetMapping("/{id}")
@@ -30,16 +66,31 @@ public class EngineDataController {
     }
     
     @GetMapping("/vehicle/{vehicleId}")
-    public ResponseEntity<List<EngineDataDTO>> getEngineDataByVehicleId(@PathVariable Long vehicleId) {
-        return ResponseEntity.ok(engineDataService.getEngineDataByVehicleId(vehicleId));
+    public ResponseEntity<List<EngineDataDTO>> getEngineDataByVehicleId(@PathVariable Long vehicleId, WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.ENGINE_DATA),
+                () -> engineDataService.getEngineDataByVehicleId(vehicleId));
     }
     
     @GetMapping("/vehicle/{vehicleId}/date-range")
     public ResponseEntity<List<EngineDataDTO>> getEngineDataByVehicleIdAndDateRange(
             @PathVariable Long vehicleId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(engineDataService.getEngineDataByVehicleIdAndDateRange(vehicleId, startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.ENGINE_DATA),
+                () -> engineDataService.getEngineDataByVehicleIdAndDateRange(vehicleId, startDate, endDate));
+    }
+    
+    @GetMapping("/vehicle/{vehicleId}/series")
+    public ResponseEntity<TimeSeriesDTO> getEngineDataSeries(
+            @PathVariable Long vehicleId,
+            @RequestParam(defaultValue = "engineTemperature") String metric,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(defaultValue = "lttb") String mode) {
+        return ResponseEntity.ok(telemetrySeriesService.getEngineDataSeries(vehicleId,
+                TelemetryMetric.fromParameter(metric), startDate, endDate, points, DownsampleMode.fromParameter(mode)));
     }
     
     @PostMapping
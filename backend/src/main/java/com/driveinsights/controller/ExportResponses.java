@@ -0,0 +1,25 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.service.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+final class ExportResponses {
+    
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    
+    private ExportResponses() {
+    }
+    
+    static ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format, boolean gzip,
+                                                            StreamingResponseBody body) {
+        String fileName = name + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
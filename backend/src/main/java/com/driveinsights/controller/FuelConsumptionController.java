@@ -1,13 +1,26 @@
 package com.driveinsights.controller;
 
+import com.driveinsights.dto.CursorPageDTO;
+import com.driveinsights.dto.FleetFuelAnalyticsDTO;
+import com.driveinsights.dto.FuelAnalyticsDTO;
 import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TimeSeriesDTO;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.service.DataVersions;
+import com.driveinsights.service.DownsampleMode;
+import com.driveinsights.service.ExportFormat;
+import com.driveinsights.service.FuelAnalyticsService;
 import com.driveinsights.service.FuelConsumptionService;
+import com.driveinsights.service.TelemetryExportService;
+import com.driveinsights.service.TelemetrySeriesService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,10 +31,44 @@ import java.util.List;
 public class FuelConsumptionController {
     
     private final FuelConsumptionService fuelConsumptionService;
+    private final TelemetryExportService telemetryExportService;
+    private final TelemetrySeriesService telemetrySeriesService;
+    private final DataVersions dataVersions;
+    private final FuelAnalyticsService fuelAnalyticsService;
     
     @GetMapping
-    public ResponseEntity<List<FuelConsumptionDTO>> getAllFuelConsumptionData() {
-        return ResponseEntity.ok(fuelConsumptionService.getAllFuelConsumptionData());
+    public ResponseEntity<List<FuelConsumptionDTO>> getAllFuelConsumptionData(WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.FUEL_CONSUMPTION),
+                fuelConsumptionService::getAllFuelConsumptionData);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<FuelConsumptionDTO>> getFuelConsumptionPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(fuelConsumptionService.getFuelConsumptionPage(cursor, size, vehicleId, startDate, endDate));
+    }
+    
+    @GetMapping("/analytics")
+    public ResponseEntity<FleetFuelAnalyticsDTO> getFleetFuelAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(fuelAnalyticsService.getFleetAnalytics(startDate, endDate));
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportFuelConsumption(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        return ExportResponses.attachment("fuel_consumption", exportFormat, gzip,
+                telemetryExportService.exportFuelConsumption(exportFormat, gzip, vehicleId, startDate, endDate));
     }
     
     @GetMapping("/{id}")
@@ -30,16 +77,39 @@ public class FuelConsumptionController {
     }
     
     @GetMapping("/vehicle/{vehicleId}")
-    public ResponseEntity<List<FuelConsumptionDTO>> getFuelConsumptionByVehicleId(@PathVariable Long vehicleId) {
-        return ResponseEntity.ok(fuelConsumptionService.getFuelConsumptionByVehicleId(vehicleId));
+    public ResponseEntity<List<FuelConsumptionDTO>> getFuelConsumptionByVehicleId(@PathVariable Long vehicleId, WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.FUEL_CONSUMPTION),
+                () -> fuelConsumptionService.getFuelConsumptionByVehicleId(vehicleId));
     }
     
     @GetMapping("/vehicle/{vehicleId}/date-range")
     public ResponseEntity<List<FuelConsumptionDTO>> getFuelConsumptionByVehicleIdAndDateRange(
             @PathVariable Long vehicleId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(fuelConsumptionService.getFuelConsumptionByVehicleIdAndDateRange(vehicleId, startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.FUEL_CONSUMPTION),
+                () -> fuelConsumptionService.getFuelConsumptionByVehicleIdAndDateRange(vehicleId, startDate, endDate));
+    }
+    
+    @GetMapping("/vehicle/{vehicleId}/series")
+    public ResponseEntity<TimeSeriesDTO> getFuelConsumptionSeries(
+            @PathVariable Long vehicleId,
+            @RequestParam(defaultValue = "milesPerGallon") String metric,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(defaultValue = "lttb") String mode) {
+        return ResponseEntity.ok(telemetrySeriesService.getFuelConsumptionSeries(vehicleId,
+                TelemetryMetric.fromParameter(metric), startDate, endDate, points, DownsampleMode.fromParameter(mode)));
+    }
+    
+    @GetMapping("/vehicle/{vehicleId}/analytics")
+    public ResponseEntity<FuelAnalyticsDTO> getVehicleFuelAnalytics(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(fuelAnalyticsService.getVehicleAnalytics(vehicleId, startDate, endDate));
     }
     
     @GetMapping("/vehicle/{vehicleId}/average-mpg")
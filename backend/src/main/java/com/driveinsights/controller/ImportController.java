@@ -0,0 +1,45 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.dto.ImportJobDTO;
+import com.driveinsights.service.TelemetryImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class ImportController {
+    
+    private final TelemetryImportService telemetryImportService;
+    
+    @PostMapping("/{type}")
+    public ResponseEntity<ImportJobDTO> importFile(@PathVariable String type, @RequestParam String file)
+            throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(telemetryImportService.importFile(type, file));
+    }
+    
+    // The request body is the CSV file, streamed to the import directory
+    @PostMapping("/{type}/upload")
+    public ResponseEntity<ImportJobDTO> importUpload(@PathVariable String type,
+                                                     @RequestParam(required = false) String file,
+                                                     HttpServletRequest request) throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(telemetryImportService.importUpload(type, file, request.getInputStream()));
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<ImportJobDTO>> getJobs() {
+        return ResponseEntity.ok(telemetryImportService.getJobs());
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(telemetryImportService.getJob(id));
+    }
+}
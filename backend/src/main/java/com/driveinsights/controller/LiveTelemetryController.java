@@ -0,0 +1,25 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.service.LiveTelemetryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/live")
+@RequiredArgsConstructor
+public class LiveTelemetryController {
+
+    private final LiveTelemetryService liveTelemetryService;
+
+    @GetMapping(value = "/telemetry", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTelemetry(
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(defaultValue = "engine,emission") Set<String> types,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return liveTelemetryService.subscribe(vehicleId, types, lastEventId);
+    }
+}
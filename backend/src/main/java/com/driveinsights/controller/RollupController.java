@@ -0,0 +1,62 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.dto.DistributionDTO;
+import com.driveinsights.dto.RollupSeriesDTO;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.service.TelemetryRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/rollups")
+@RequiredArgsConstructor
+public class RollupController {
+    
+    private final TelemetryRollupService telemetryRollupService;
+    
+    @GetMapping
+    public ResponseEntity<RollupSeriesDTO> getRollupSeries(
+            @RequestParam String metric,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String step,
+            @RequestParam(defaultValue = "500") int maxPoints) {
+        return ResponseEntity.ok(telemetryRollupService.getSeries(
+                vehicleId, TelemetryMetric.fromParameter(metric), startDate, endDate, parseStep(step), maxPoints));
+    }
+    
+    @GetMapping("/distribution")
+    public ResponseEntity<DistributionDTO> getDistribution(
+            @RequestParam String metric,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer binWidth) {
+        return ResponseEntity.ok(telemetryRollupService.getDistribution(
+                vehicleId, TelemetryMetric.fromParameter(metric), startDate, endDate, binWidth));
+    }
+    
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildRollups(@RequestParam(required = false) Long vehicleId) {
+        telemetryRollupService.rebuild(vehicleId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    private static Duration parseStep(String step) {
+        if (step == null) {
+            return null;
+        }
+        try {
+            return Duration.parse(step);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("step must be an ISO-8601 duration such as PT1H", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.driveinsights.controller;
+
+import com.driveinsights.config.IngestionProperties;
+import com.driveinsights.dto.BatchIngestResultDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.service.TelemetryIngestionService;
+import com.driveinsights.service.TelemetryJournalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/telemetry")
+@RequiredArgsConstructor
+public class TelemetryController {
+    
+    private final TelemetryIngestionService telemetryIngestionService;
+    private final TelemetryJournalService telemetryJournalService;
+    private final IngestionProperties ingestionProperties;
+    
+    @PostMapping("/batch")
+    public ResponseEntity<BatchIngestResultDTO> ingestBatch(@RequestBody TelemetryBatchDTO batch) {
+        if (size(batch) > ingestionProperties.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        if (telemetryJournalService.isEnabled()) {
+            // Journaled: written to the database in the background
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(telemetryJournalService.append(batch));
+        }
+        return ResponseEntity.ok(telemetryIngestionService.ingest(batch));
+    }
+    
+    private static int size(TelemetryBatchDTO batch) {
+        int size = 0;
+        if (batch.getEngineData() != null) {
+            size += batch.getEngineData().size();
+        }
+        if (batch.getEmissionData() != null) {
+            size += batch.getEmissionData().size();
+        }
+        if (batch.getFuelConsumption() != null) {
+            size += batch.getFuelConsumption().size();
+        }
+        return size;
+    }
+}
@@ -1,14 +1,27 @@
 package com.driveinsights.controller;
 
+import com.driveinsights.dto.CursorPageDTO;
+import com.driveinsights.dto.VehicleComparisonDTO;
 import com.driveinsights.dto.VehicleDTO;
+import com.driveinsights.dto.VehicleSummaryDTO;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.service.DataVersions;
+import com.driveinsights.service.FleetSummaryService;
+import com.driveinsights.service.VehicleComparisonService;
 import com.driveinsights.service.VehicleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.TreeSet;
 
 @RestController
 @RequestMapping("/api/vehicles")
@@ -16,10 +29,41 @@ import java.util.List;
 public class VehicleController {
     
     private final VehicleService vehicleService;
+    private final FleetSummaryService fleetSummaryService;
+    private final VehicleComparisonService vehicleComparisonService;
+    private final DataVersions dataVersions;
     
     @GetMapping
-    public ResponseEntity<List<VehicleDTO>> getAllVehicles() {
-        return ResponseEntity.ok(vehicleService.getAllVehicles());
+    public ResponseEntity<List<VehicleDTO>> getAllVehicles(WebRequest request) {
+        return ConditionalResponses.ifModified(request, dataVersions.validator(DataVersions.Table.VEHICLES),
+                vehicleService::getAllVehicles);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<VehicleDTO>> getVehiclePage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fuelType) {
+        return ResponseEntity.ok(vehicleService.getVehiclePage(cursor, size, fuelType));
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<List<VehicleSummaryDTO>> getFleetSummary(@RequestParam(required = false) List<Long> ids) {
+        return ResponseEntity.ok(fleetSummaryService.getFleetSummary(ids == null ? null : new TreeSet<>(ids)));
+    }
+    
+    @GetMapping("/compare")
+    public ResponseEntity<VehicleComparisonDTO> compareVehicles(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) List<String> metrics,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "PT1H") String bucket) {
+        List<TelemetryMetric> requested = metrics == null
+                ? List.of()
+                : metrics.stream().map(TelemetryMetric::fromParameter).toList();
+        return ResponseEntity.ok(vehicleComparisonService.compare(
+                ids, requested, startDate, endDate, parseBucket(bucket)));
     }
     
     @GetMapping("/{id}")
@@ -42,4 +86,12 @@ public class VehicleController {
         vehicleService.deleteVehicle(id);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+    
+    private static Duration parseBucket(String bucket) {
+        try {
+            return Duration.parse(bucket);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("bucket must be an ISO-8601 duration such as PT1H", e);
+        }
+    }
+}
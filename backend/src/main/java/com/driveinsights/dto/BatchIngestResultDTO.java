@@ -0,0 +1,18 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIngestResultDTO {
+    private int received;
+    private int accepted;
+    private int rejected;
+    private int duplicates;
+    private List<RecordResultDTO> results;
+}
@@ -0,0 +1,31 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonTotalsDTO {
+    // Null for the whole fleet
+    private Long vehicleId;
+    // DAY, MONTH or YEAR for a report row; null for the totals of a date range
+    private String period;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long emissionReadings;
+    // Average of the readings (g/km), or derived from fuel when there are no readings
+    private Double averageCo2Emissions;
+    // measured, fuel, or null when neither is available
+    private String co2Source;
+    private Double averageNoxEmissions;
+    private Double averageParticulateMatter;
+    private Long fillUps;
+    private Double fuelAmount;
+    private Double distanceTraveled;
+    // CO2 released by the fuel bought, by the vehicles' fuel types (kg)
+    private Double fuelCo2Kg;
+}
@@ -0,0 +1,17 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparisonSeriesDTO {
+    private Long vehicleId;
+    private String metric;
+    // Average per bucket, null where the vehicle has no reading in the bucket
+    private List<Double> values;
+}
@@ -0,0 +1,27 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributionDTO {
+    private Long vehicleId;
+    private String metric;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long count;
+    private Double min;
+    private Double max;
+    private Double average;
+    private Double p50;
+    private Double p90;
+    private Double p99;
+    private Integer binWidth;
+    private List<HistogramBinDTO> bins;
+}
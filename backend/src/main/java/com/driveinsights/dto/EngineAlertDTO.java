@@ -0,0 +1,22 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngineAlertDTO {
+    private Long id;
+    private Long vehicleId;
+    private Long engineDataId;
+    private String rule;
+    private Double observedValue;
+    private Double expectedValue;
+    private Double deviationScore;
+    private LocalDateTime recordingTime;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetFuelAnalyticsDTO {
+    private FuelAnalyticsDTO fleet;
+    private List<FuelAnalyticsDTO> vehicles;
+}
@@ -0,0 +1,26 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FuelAnalyticsDTO {
+    // Null for fleet-wide totals
+    private Long vehicleId;
+    private long fillUps;
+    private double totalFuelAmount;
+    private double totalDistanceTraveled;
+    private double totalFuelCost;
+    private Double averageMpg;
+    private Double costPerMile;
+    // Least-squares slope of MPG against fill date, in MPG per 30 days
+    private Double mpgTrendPerMonth;
+    private Double latestRollingMpg;
+    private List<MonthlyFuelDTO> monthly;
+    private List<FuelEfficiencyPointDTO> points;
+}
@@ -0,0 +1,17 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FuelEfficiencyPointDTO {
+    private LocalDateTime fillDate;
+    private Double milesPerGallon;
+    private Double rollingMpg;
+    private Double fuelCost;
+}
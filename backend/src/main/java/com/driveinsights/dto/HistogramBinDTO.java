@@ -0,0 +1,14 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBinDTO {
+    private Double lower;
+    private Double upper;
+    private Long count;
+}
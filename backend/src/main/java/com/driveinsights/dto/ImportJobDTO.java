@@ -0,0 +1,32 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+    private String id;
+    private String type;
+    private String file;
+    // QUEUED, RUNNING, COMPLETED or FAILED
+    private String state;
+    private long totalBytes;
+    private long bytesDone;
+    private long rowsRead;
+    private long rowsLoaded;
+    // Engine and emission rows whose vehicle and recording time were already stored
+    private long duplicates;
+    private long rejected;
+    private Double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private String rejectsFile;
+    private List<ImportRejectDTO> rejects;
+}
@@ -0,0 +1,14 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRejectDTO {
+    // 1-based, counting the header line
+    private long line;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyFuelDTO {
+    private YearMonth month;
+    private long fillUps;
+    private double fuelAmount;
+    private double distanceTraveled;
+    private double fuelCost;
+    private Double milesPerGallon;
+}
@@ -0,0 +1,17 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordResultDTO {
+    private String type;
+    private int index;
+    private boolean accepted;
+    // Accepted, but a record with the same vehicle and recording time was already stored
+    private boolean duplicate;
+    private String message;
+}
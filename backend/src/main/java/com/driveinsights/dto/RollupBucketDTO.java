@@ -0,0 +1,19 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupBucketDTO {
+    private LocalDateTime bucketStart;
+    private Long count;
+    private Double sum;
+    private Double min;
+    private Double max;
+    private Double average;
+}
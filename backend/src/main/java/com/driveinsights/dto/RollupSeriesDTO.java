@@ -0,0 +1,17 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupSeriesDTO {
+    private Long vehicleId;
+    private String metric;
+    private String resolution;
+    private List<RollupBucketDTO> buckets;
+}
@@ -0,0 +1,17 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryBatchDTO {
+    private List<EngineDataDTO> engineData = new ArrayList<>();
+    private List<EmissionDataDTO> emissionData = new ArrayList<>();
+    private List<FuelConsumptionDTO> fuelConsumption = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesDTO {
+    private Long vehicleId;
+    private String metric;
+    private String mode;
+    // Raw readings in the range, before downsampling
+    private long sourceCount;
+    private List<SeriesPointDTO> points;
+}
@@ -0,0 +1,20 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleComparisonDTO {
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String bucket;
+    // Start of each bucket; every series has one value per bucket
+    private List<LocalDateTime> buckets;
+    private List<ComparisonSeriesDTO> series;
+}
@@ -0,0 +1,28 @@
+package com.driveinsights.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleSummaryDTO {
+    private Long vehicleId;
+    private String make;
+    private String model;
+    private Integer year;
+    private String licensePlate;
+    private String fuelType;
+    private Double averageMpg;
+    private Double totalFuelAmount;
+    private Double totalDistanceTraveled;
+    private Double totalFuelCost;
+    private Double averageEngineTemperature;
+    private Double averageEngineRpm;
+    private Long totalIdlingTimeSeconds;
+    private Double averageCo2Emissions;
+    private Double totalCo2Emissions;
+    private Double averageNoxEmissions;
+    private Double averageParticulateMatter;
+}
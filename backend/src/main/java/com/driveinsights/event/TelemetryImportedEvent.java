@@ -0,0 +1,14 @@
+package com.driveinsights.event;
+
+import com.driveinsights.model.ImportType;
+import lombok.Value;
+
+import java.util.Set;
+
+// Raised after a bulk import has loaded rows of one type. Only rows inside the hot tier window are
+// also published as TelemetryRecordedEvents, so consumers of older rows refresh from the tables.
+@Value
+public class TelemetryImportedEvent {
+    ImportType type;
+    Set<Long> vehicleIds;
+}
@@ -0,0 +1,27 @@
+package com.driveinsights.event;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import lombok.Value;
+
+import java.util.List;
+
+// Raised after telemetry rows have been inserted, inside the writing transaction.
+@Value
+public class TelemetryRecordedEvent {
+    TelemetryBatchDTO records;
+
+    public static TelemetryRecordedEvent of(EngineDataDTO engineData) {
+        return new TelemetryRecordedEvent(new TelemetryBatchDTO(List.of(engineData), List.of(), List.of()));
+    }
+
+    public static TelemetryRecordedEvent of(EmissionDataDTO emissionData) {
+        return new TelemetryRecordedEvent(new TelemetryBatchDTO(List.of(), List.of(emissionData), List.of()));
+    }
+
+    public static TelemetryRecordedEvent of(FuelConsumptionDTO fuelConsumption) {
+        return new TelemetryRecordedEvent(new TelemetryBatchDTO(List.of(), List.of(), List.of(fuelConsumption)));
+    }
+}
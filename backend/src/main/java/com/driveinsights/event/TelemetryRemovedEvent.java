@@ -0,0 +1,27 @@
+package com.driveinsights.event;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import lombok.Value;
+
+import java.util.List;
+
+// Raised after telemetry rows have been deleted and flushed, inside the writing transaction.
+@Value
+public class TelemetryRemovedEvent {
+    TelemetryBatchDTO records;
+
+    public static TelemetryRemovedEvent of(EngineDataDTO engineData) {
+        return new TelemetryRemovedEvent(new TelemetryBatchDTO(List.of(engineData), List.of(), List.of()));
+    }
+
+    public static TelemetryRemovedEvent of(EmissionDataDTO emissionData) {
+        return new TelemetryRemovedEvent(new TelemetryBatchDTO(List.of(), List.of(emissionData), List.of()));
+    }
+
+    public static TelemetryRemovedEvent of(FuelConsumptionDTO fuelConsumption) {
+        return new TelemetryRemovedEvent(new TelemetryBatchDTO(List.of(), List.of(), List.of(fuelConsumption)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.driveinsights.event;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import lombok.Value;
+
+import java.util.List;
+
+// Raised after a telemetry row has been updated and flushed, carrying both versions of the row
+@Value
+public class TelemetryUpdatedEvent {
+    TelemetryBatchDTO previous;
+    TelemetryBatchDTO current;
+
+    public static TelemetryUpdatedEvent of(EngineDataDTO previous, EngineDataDTO current) {
+        return new TelemetryUpdatedEvent(
+                new TelemetryBatchDTO(List.of(previous), List.of(), List.of()),
+                new TelemetryBatchDTO(List.of(current), List.of(), List.of()));
+    }
+
+    public static TelemetryUpdatedEvent of(EmissionDataDTO previous, EmissionDataDTO current) {
+        return new TelemetryUpdatedEvent(
+                new TelemetryBatchDTO(List.of(), List.of(previous), List.of()),
+                new TelemetryBatchDTO(List.of(), List.of(current), List.of()));
+    }
+
+    public static TelemetryUpdatedEvent of(FuelConsumptionDTO previous, FuelConsumptionDTO current) {
+        return new TelemetryUpdatedEvent(
+                new TelemetryBatchDTO(List.of(), List.of(), List.of(previous)),
+                new TelemetryBatchDTO(List.of(), List.of(), List.of(current)));
+    }
+}
@@ -0,0 +1,9 @@
+package com.driveinsights.event;
+
+import lombok.Value;
+
+// Raised when a vehicle is deleted; its telemetry is removed with it by ON DELETE CASCADE
+@Value
+public class VehicleDeletedEvent {
+    Long vehicleId;
+}
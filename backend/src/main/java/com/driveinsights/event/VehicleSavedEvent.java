@@ -0,0 +1,9 @@
+package com.driveinsights.event;
+
+import lombok.Value;
+
+// Raised when a vehicle is created or updated
+@Value
+public class VehicleSavedEvent {
+    Long vehicleId;
+}
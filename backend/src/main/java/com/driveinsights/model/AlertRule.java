@@ -0,0 +1,18 @@
+package com.driveinsights.model;
+
+public enum AlertRule {
+    ENGINE_TEMPERATURE_LIMIT,
+    ENGINE_RPM_LIMIT,
+    IDLING_TIME_LIMIT,
+    ENGINE_TEMPERATURE_DEVIATION,
+    ENGINE_RPM_DEVIATION;
+
+    public static AlertRule fromParameter(String value) {
+        for (AlertRule rule : values()) {
+            if (rule.name().equalsIgnoreCase(value)) {
+                return rule;
+            }
+        }
+        throw new IllegalArgumentException("Unknown alert rule: " + value);
+    }
+}
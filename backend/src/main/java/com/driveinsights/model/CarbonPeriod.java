@@ -0,0 +1,41 @@
+package com.driveinsights.model;
+
+import java.time.LocalDate;
+
+// Ordered from finest to coarsest
+public enum CarbonPeriod {
+    DAY,
+    MONTH,
+    YEAR;
+
+    public LocalDate truncate(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date;
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date.withDayOfYear(1);
+        }
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        switch (this) {
+            case DAY:
+                return periodStart.plusDays(1);
+            case MONTH:
+                return periodStart.plusMonths(1);
+            default:
+                return periodStart.plusYears(1);
+        }
+    }
+
+    public static CarbonPeriod fromParameter(String value) {
+        for (CarbonPeriod period : values()) {
+            if (period.name().equalsIgnoreCase(value)) {
+                return period;
+            }
+        }
+        throw new IllegalArgumentException("Unknown period: " + value);
+    }
+}
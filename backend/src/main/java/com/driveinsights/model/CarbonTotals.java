@@ -0,0 +1,50 @@
+package com.driveinsights.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// A row of carbon_totals, or a delta to add to one; vehicleId 0 is the whole fleet
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonTotals {
+
+    public static final long FLEET = 0L;
+
+    private long vehicleId;
+    private CarbonPeriod period;
+    private LocalDate periodStart;
+    private long emissionReadings;
+    private double co2Sum;
+    private double noxSum;
+    private double pmSum;
+    private long fillUps;
+    private double fuelAmount;
+    private double distanceTraveled;
+    private double fuelCo2Kg;
+
+    public CarbonTotals(long vehicleId, CarbonPeriod period, LocalDate periodStart) {
+        this.vehicleId = vehicleId;
+        this.period = period;
+        this.periodStart = periodStart;
+    }
+
+    public void add(CarbonTotals other) {
+        emissionReadings += other.emissionReadings;
+        co2Sum += other.co2Sum;
+        noxSum += other.noxSum;
+        pmSum += other.pmSum;
+        fillUps += other.fillUps;
+        fuelAmount += other.fuelAmount;
+        distanceTraveled += other.distanceTraveled;
+        fuelCo2Kg += other.fuelCo2Kg;
+    }
+
+    public boolean isEmpty() {
+        return emissionReadings == 0 && co2Sum == 0 && noxSum == 0 && pmSum == 0 && fillUps == 0
+                && fuelAmount == 0 && distanceTraveled == 0 && fuelCo2Kg == 0;
+    }
+}
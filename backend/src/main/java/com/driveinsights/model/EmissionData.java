@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "emission_data")
+@Table(name = "emission_data", uniqueConstraints = @UniqueConstraint(columnNames = {"vehicle_id", "recording_time"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,47 @@
+package com.driveinsights.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "engine_alerts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngineAlert {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+    
+    @Column(name = "engine_data_id")
+    private Long engineDataId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AlertRule rule;
+    
+    @Column(name = "observed_value", nullable = false)
+    private Double observedValue;
+    
+    // The limit for limit rules, the moving mean for deviation rules
+    @Column(name = "expected_value", nullable = false)
+    private Double expectedValue;
+    
+    // Standard deviations from the moving mean; deviation rules only
+    @Column(name = "deviation_score")
+    private Double deviationScore;
+    
+    @Column(name = "recording_time", nullable = false)
+    private LocalDateTime recordingTime;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "engine_data")
+@Table(name = "engine_data", uniqueConstraints = @UniqueConstraint(columnNames = {"vehicle_id", "recording_time"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
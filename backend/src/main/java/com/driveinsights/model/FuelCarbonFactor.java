@@ -0,0 +1,42 @@
+package com.driveinsights.model;
+
+import java.util.List;
+
+// Tailpipe CO2 per US gallon burned (EPA emission factors), by Vehicle.fuelType
+public enum FuelCarbonFactor {
+    GASOLINE(8.887, "Gasoline", "Petrol", "Hybrid"),
+    DIESEL(10.180, "Diesel"),
+    // Per gallon of propane
+    LPG(5.680, "LPG"),
+    // Per gasoline gallon equivalent (126.67 scf)
+    CNG(6.896, "CNG"),
+    ELECTRIC(0.0, "Electric");
+
+    private final double kgCo2PerGallon;
+    private final List<String> fuelTypes;
+
+    FuelCarbonFactor(double kgCo2PerGallon, String... fuelTypes) {
+        this.kgCo2PerGallon = kgCo2PerGallon;
+        this.fuelTypes = List.of(fuelTypes);
+    }
+
+    public double getKgCo2PerGallon() {
+        return kgCo2PerGallon;
+    }
+
+    public List<String> getFuelTypes() {
+        return fuelTypes;
+    }
+
+    // 0 for electric vehicles and for fuel types without a factor
+    public static double kgCo2PerGallon(String fuelType) {
+        for (FuelCarbonFactor factor : values()) {
+            for (String name : factor.fuelTypes) {
+                if (name.equalsIgnoreCase(fuelType)) {
+                    return factor.kgCo2PerGallon;
+                }
+            }
+        }
+        return 0.0;
+    }
+}
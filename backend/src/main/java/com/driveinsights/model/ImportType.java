@@ -0,0 +1,46 @@
+package com.driveinsights.model;
+
+// Telemetry tables that can be bulk imported, with the parameter and event type of each
+public enum ImportType {
+    ENGINE("engine", "engine_data", "recordingTime", true),
+    EMISSION("emission", "emission_data", "recordingTime", true),
+    FUEL("fuel", "fuel_consumption", "fillDate", false);
+
+    private final String parameterName;
+    private final String table;
+    private final String timeField;
+    // Monthly partitions on the time column (see db/migration/V2__partition_telemetry_by_month.sql)
+    private final boolean partitioned;
+
+    ImportType(String parameterName, String table, String timeField, boolean partitioned) {
+        this.parameterName = parameterName;
+        this.table = table;
+        this.timeField = timeField;
+        this.partitioned = partitioned;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getTimeField() {
+        return timeField;
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    public static ImportType fromParameter(String value) {
+        for (ImportType type : values()) {
+            if (type.parameterName.equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown import type: " + value);
+    }
+}
@@ -0,0 +1,66 @@
+package com.driveinsights.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Ordered from finest to coarsest
+public enum RollupResolution {
+    MINUTE(Duration.ofMinutes(1)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    MONTH(Duration.ofDays(28));
+
+    // Shortest possible bucket width, used when matching a requested step
+    private final Duration width;
+
+    RollupResolution(Duration width) {
+        this.width = width;
+    }
+
+    public Duration getWidth() {
+        return width;
+    }
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        switch (this) {
+            case MINUTE:
+                return time.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+        }
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        switch (this) {
+            case MINUTE:
+                return bucketStart.plusMinutes(1);
+            case HOUR:
+                return bucketStart.plusHours(1);
+            case DAY:
+                return bucketStart.plusDays(1);
+            default:
+                return bucketStart.plusMonths(1);
+        }
+    }
+
+    // Minute buckets are too many to carry histograms; distributions are answered from hours up
+    public boolean keepsHistograms() {
+        return this != MINUTE;
+    }
+
+    // Coarsest resolution whose buckets are no wider than the requested step
+    public static RollupResolution forStep(Duration step) {
+        RollupResolution chosen = MINUTE;
+        for (RollupResolution resolution : values()) {
+            if (resolution.width.compareTo(step) <= 0) {
+                chosen = resolution;
+            }
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,84 @@
+package com.driveinsights.model;
+
+public enum TelemetryMetric {
+    ENGINE_TEMPERATURE("engineTemperature", "engine_data", "engine_temperature", "recording_time", -40, 1, 200),
+    ENGINE_RPM("engineRpm", "engine_data", "engine_rpm", "recording_time", 0, 50, 200),
+    IDLING_TIME_SECONDS("idlingTimeSeconds", "engine_data", "idling_time_seconds", "recording_time"),
+    CO2_EMISSIONS("co2Emissions", "emission_data", "co2_emissions", "recording_time"),
+    NOX_EMISSIONS("noxEmissions", "emission_data", "nox_emissions", "recording_time"),
+    PARTICULATE_MATTER("particulateMatter", "emission_data", "particulate_matter", "recording_time"),
+    MILES_PER_GALLON("milesPerGallon", "fuel_consumption", "miles_per_gallon", "fill_date"),
+    FUEL_AMOUNT("fuelAmount", "fuel_consumption", "fuel_amount", "fill_date"),
+    DISTANCE_TRAVELED("distanceTraveled", "fuel_consumption", "distance_traveled", "fill_date"),
+    FUEL_COST("fuelCost", "fuel_consumption", "fuel_cost", "fill_date");
+
+    private final String parameterName;
+    private final String table;
+    private final String column;
+    private final String timeColumn;
+    // Fixed-width histogram bins kept in the rollups; values outside fall into the first or last bin
+    private final int histogramOrigin;
+    private final int histogramBinWidth;
+    private final int histogramBins;
+
+    TelemetryMetric(String parameterName, String table, String column, String timeColumn) {
+        this(parameterName, table, column, timeColumn, 0, 0, 0);
+    }
+
+    TelemetryMetric(String parameterName, String table, String column, String timeColumn,
+                    int histogramOrigin, int histogramBinWidth, int histogramBins) {
+        this.parameterName = parameterName;
+        this.table = table;
+        this.column = column;
+        this.timeColumn = timeColumn;
+        this.histogramOrigin = histogramOrigin;
+        this.histogramBinWidth = histogramBinWidth;
+        this.histogramBins = histogramBins;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getTimeColumn() {
+        return timeColumn;
+    }
+
+    public boolean hasHistogram() {
+        return histogramBins > 0;
+    }
+
+    public int getHistogramOrigin() {
+        return histogramOrigin;
+    }
+
+    public int getHistogramBinWidth() {
+        return histogramBinWidth;
+    }
+
+    public int getHistogramBins() {
+        return histogramBins;
+    }
+
+    public int histogramBin(double value) {
+        double bin = Math.floor((value - histogramOrigin) / histogramBinWidth);
+        return (int) Math.max(0, Math.min(histogramBins - 1, bin));
+    }
+
+    public static TelemetryMetric fromParameter(String value) {
+        for (TelemetryMetric metric : values()) {
+            if (metric.parameterName.equalsIgnoreCase(value) || metric.name().equalsIgnoreCase(value)) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("Unknown metric: " + value);
+    }
+}
@@ -0,0 +1,51 @@
+package com.driveinsights.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "telemetry_rollups")
+@IdClass(TelemetryRollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryRollup {
+    
+    @Id
+    @Column(name = "vehicle_id")
+    private Long vehicleId;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private TelemetryMetric metric;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private RollupResolution resolution;
+    
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+    
+    @Column(name = "value_sum", nullable = false)
+    private Double valueSum;
+    
+    @Column(name = "value_min", nullable = false)
+    private Double valueMin;
+    
+    @Column(name = "value_max", nullable = false)
+    private Double valueMax;
+    
+    // Sample counts per TelemetryMetric histogram bin; null for metrics or resolutions without one
+    @Column(name = "histogram")
+    private int[] histogram;
+}
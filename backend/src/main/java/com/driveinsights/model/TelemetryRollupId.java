@@ -0,0 +1,18 @@
+package com.driveinsights.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryRollupId implements Serializable {
+    private Long vehicleId;
+    private TelemetryMetric metric;
+    private RollupResolution resolution;
+    private LocalDateTime bucketStart;
+}
@@ -0,0 +1,211 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.model.CarbonPeriod;
+import com.driveinsights.model.CarbonTotals;
+import com.driveinsights.model.FuelCarbonFactor;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class CarbonTotalsRepository {
+
+    private static final String COLUMNS = "vehicle_id, period, period_start, emission_readings, co2_sum, nox_sum, "
+            + "pm_sum, fill_ups, fuel_amount, distance_traveled, fuel_co2_kg";
+
+    private static final String SUMS = "SUM(emission_readings), SUM(co2_sum), SUM(nox_sum), SUM(pm_sum), "
+            + "SUM(fill_ups), SUM(fuel_amount), SUM(distance_traveled), SUM(fuel_co2_kg)";
+
+    private static final String ADD_ON_CONFLICT = "ON CONFLICT (vehicle_id, period, period_start) DO UPDATE SET "
+                    + "emission_readings = carbon_totals.emission_readings + EXCLUDED.emission_readings, "
+                    + "co2_sum = carbon_totals.co2_sum + EXCLUDED.co2_sum, "
+                    + "nox_sum = carbon_totals.nox_sum + EXCLUDED.nox_sum, "
+                    + "pm_sum = carbon_totals.pm_sum + EXCLUDED.pm_sum, "
+                    + "fill_ups = carbon_totals.fill_ups + EXCLUDED.fill_ups, "
+                    + "fuel_amount = carbon_totals.fuel_amount + EXCLUDED.fuel_amount, "
+                    + "distance_traveled = carbon_totals.distance_traveled + EXCLUDED.distance_traveled, "
+                    + "fuel_co2_kg = carbon_totals.fuel_co2_kg + EXCLUDED.fuel_co2_kg";
+
+    private static final String ADD_TOTALS =
+            "INSERT INTO carbon_totals (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " + ADD_ON_CONFLICT;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Adds deltas to the rows; they must be sorted so concurrent writers lock rows in the same order
+    public void add(List<CarbonTotals> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_TOTALS, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getVehicleId());
+            ps.setString(2, delta.getPeriod().name());
+            ps.setDate(3, Date.valueOf(delta.getPeriodStart()));
+            ps.setLong(4, delta.getEmissionReadings());
+            ps.setDouble(5, delta.getCo2Sum());
+            ps.setDouble(6, delta.getNoxSum());
+            ps.setDouble(7, delta.getPmSum());
+            ps.setLong(8, delta.getFillUps());
+            ps.setDouble(9, delta.getFuelAmount());
+            ps.setDouble(10, delta.getDistanceTraveled());
+            ps.setDouble(11, delta.getFuelCo2Kg());
+        });
+    }
+
+    // Rows of one period type whose start lies in [from, to), in order
+    public List<CarbonTotals> findPeriods(long vehicleId, CarbonPeriod period, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM carbon_totals WHERE vehicle_id = ? AND period = ? "
+                        + "AND period_start >= ? AND period_start < ? ORDER BY period_start",
+                (rs, rowNum) -> new CarbonTotals(rs.getLong(1), CarbonPeriod.valueOf(rs.getString(2)),
+                        rs.getDate(3).toLocalDate(), rs.getLong(4), rs.getDouble(5), rs.getDouble(6),
+                        rs.getDouble(7), rs.getLong(8), rs.getDouble(9), rs.getDouble(10), rs.getDouble(11)),
+                vehicleId, period.name(), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // Sums the days of [from, to), reading each sub-range at the coarsest period that covers it:
+    // leading and trailing days and months around whole years, so any range reads a bounded number of rows
+    public CarbonTotals sumRange(long vehicleId, LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder("SELECT " + SUMS + " FROM carbon_totals WHERE vehicle_id = ? AND (");
+        List<Object> args = new ArrayList<>(List.of(vehicleId));
+        List<String> ranges = new ArrayList<>();
+        CarbonPeriod[] levels = CarbonPeriod.values();
+        LocalDate lower = from;
+        LocalDate upper = to;
+        int level = 0;
+        while (level + 1 < levels.length) {
+            CarbonPeriod coarser = levels[level + 1];
+            LocalDate alignedLower = coarser.truncate(lower).equals(lower)
+                    ? lower
+                    : coarser.next(coarser.truncate(lower));
+            LocalDate alignedUpper = coarser.truncate(upper);
+            if (!alignedLower.isBefore(alignedUpper)) {
+                break;
+            }
+            addRange(ranges, args, levels[level], lower, alignedLower);
+            addRange(ranges, args, levels[level], alignedUpper, upper);
+            lower = alignedLower;
+            upper = alignedUpper;
+            level++;
+        }
+        addRange(ranges, args, levels[level], lower, upper);
+        if (ranges.isEmpty()) {
+            return new CarbonTotals(vehicleId, null, from);
+        }
+        sql.append(String.join(" OR ", ranges)).append(")");
+        return jdbcTemplate.queryForObject(sql.toString(), sums(vehicleId, from), args.toArray());
+    }
+
+    // Sums every year, i.e. all time
+    public CarbonTotals sumAll(long vehicleId) {
+        return jdbcTemplate.queryForObject("SELECT " + SUMS + " FROM carbon_totals WHERE vehicle_id = ? AND period = ?",
+                sums(vehicleId, null), vehicleId, CarbonPeriod.YEAR.name());
+    }
+
+    // Takes a deleted vehicle's totals out of the fleet totals and drops its rows
+    public void removeVehicle(long vehicleId) {
+        jdbcTemplate.update("UPDATE carbon_totals f SET "
+                + "emission_readings = f.emission_readings - v.emission_readings, co2_sum = f.co2_sum - v.co2_sum, "
+                + "nox_sum = f.nox_sum - v.nox_sum, pm_sum = f.pm_sum - v.pm_sum, fill_ups = f.fill_ups - v.fill_ups, "
+                + "fuel_amount = f.fuel_amount - v.fuel_amount, "
+                + "distance_traveled = f.distance_traveled - v.distance_traveled, "
+                + "fuel_co2_kg = f.fuel_co2_kg - v.fuel_co2_kg "
+                + "FROM carbon_totals v WHERE f.vehicle_id = ? AND v.vehicle_id = ? "
+                + "AND f.period = v.period AND f.period_start = v.period_start", CarbonTotals.FLEET, vehicleId);
+        jdbcTemplate.update("DELETE FROM carbon_totals WHERE vehicle_id = ?", vehicleId);
+    }
+
+    // Blocks emission and fuel writes until the transaction ends and waits for those in progress
+    public void lockSources() {
+        jdbcTemplate.execute("LOCK TABLE emission_data, fuel_consumption IN SHARE MODE");
+    }
+
+    // Recomputes every row from the raw emission and fuel tables
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM carbon_totals");
+        insertVehicleRows(null);
+        jdbcTemplate.update("INSERT INTO carbon_totals (" + COLUMNS + ") "
+                + "SELECT ?, period, period_start, " + SUMS + " FROM carbon_totals GROUP BY period, period_start",
+                CarbonTotals.FLEET);
+    }
+
+    // Recomputes one vehicle's rows from the raw tables and moves the fleet rows by the difference
+    public void rebuildVehicle(long vehicleId) {
+        removeVehicle(vehicleId);
+        insertVehicleRows(vehicleId);
+        jdbcTemplate.update("INSERT INTO carbon_totals (" + COLUMNS + ") "
+                + "SELECT ?, period, period_start, " + SUMS + " FROM carbon_totals WHERE vehicle_id = ? "
+                + "GROUP BY period, period_start ORDER BY period, period_start " + ADD_ON_CONFLICT,
+                CarbonTotals.FLEET, vehicleId);
+    }
+
+    // Day, month and year rows of one vehicle, or of all vehicles if vehicleId is null
+    private void insertVehicleRows(Long vehicleId) {
+        String emissionFilter = vehicleId != null ? "WHERE vehicle_id = ? " : "";
+        String fuelFilter = vehicleId != null ? "WHERE f.vehicle_id = ? " : "";
+        List<Object> args = new ArrayList<>();
+        args.add(CarbonPeriod.DAY.name());
+        if (vehicleId != null) {
+            args.add(vehicleId);
+            args.add(vehicleId);
+        }
+        jdbcTemplate.update("INSERT INTO carbon_totals (" + COLUMNS + ") "
+                + "SELECT vehicle_id, ?, record_day, " + SUMS + " FROM ("
+                + "SELECT vehicle_id, CAST(recording_time AS DATE) AS record_day, COUNT(*) AS emission_readings, "
+                + "SUM(co2_emissions) AS co2_sum, COALESCE(SUM(nox_emissions), 0) AS nox_sum, "
+                + "COALESCE(SUM(particulate_matter), 0) AS pm_sum, 0 AS fill_ups, 0.0 AS fuel_amount, "
+                + "0.0 AS distance_traveled, 0.0 AS fuel_co2_kg "
+                + "FROM emission_data " + emissionFilter + "GROUP BY vehicle_id, CAST(recording_time AS DATE) "
+                + "UNION ALL "
+                + "SELECT f.vehicle_id, CAST(f.fill_date AS DATE), 0, 0.0, 0.0, 0.0, COUNT(*), SUM(f.fuel_amount), "
+                + "SUM(f.distance_traveled), SUM(f.fuel_amount * " + kgCo2PerGallon("v.fuel_type") + ") "
+                + "FROM fuel_consumption f JOIN vehicles v ON v.id = f.vehicle_id " + fuelFilter
+                + "GROUP BY f.vehicle_id, CAST(f.fill_date AS DATE)"
+                + ") t GROUP BY vehicle_id, record_day", args.toArray());
+        String dayFilter = vehicleId != null ? "AND vehicle_id = ? " : "";
+        for (CarbonPeriod period : new CarbonPeriod[] {CarbonPeriod.MONTH, CarbonPeriod.YEAR}) {
+            String start = "CAST(DATE_TRUNC('" + period.name().toLowerCase() + "', period_start) AS DATE)";
+            List<Object> periodArgs = new ArrayList<>(List.of(period.name(), CarbonPeriod.DAY.name()));
+            if (vehicleId != null) {
+                periodArgs.add(vehicleId);
+            }
+            jdbcTemplate.update("INSERT INTO carbon_totals (" + COLUMNS + ") "
+                    + "SELECT vehicle_id, ?, " + start + ", " + SUMS + " FROM carbon_totals WHERE period = ? "
+                    + dayFilter + "GROUP BY vehicle_id, " + start, periodArgs.toArray());
+        }
+    }
+
+    private static void addRange(List<String> ranges, List<Object> args, CarbonPeriod period,
+                                 LocalDate from, LocalDate to) {
+        if (from.isBefore(to)) {
+            ranges.add("(period = ? AND period_start >= ? AND period_start < ?)");
+            args.add(period.name());
+            args.add(Date.valueOf(from));
+            args.add(Date.valueOf(to));
+        }
+    }
+
+    private static RowMapper<CarbonTotals> sums(long vehicleId, LocalDate from) {
+        return (rs, rowNum) -> new CarbonTotals(vehicleId, null, from, rs.getLong(1), rs.getDouble(2),
+                rs.getDouble(3), rs.getDouble(4), rs.getLong(5), rs.getDouble(6), rs.getDouble(7), rs.getDouble(8));
+    }
+
+    // SQL form of FuelCarbonFactor.kgCo2PerGallon
+    private static String kgCo2PerGallon(String fuelTypeColumn) {
+        StringBuilder sql = new StringBuilder("CASE UPPER(").append(fuelTypeColumn).append(")");
+        for (FuelCarbonFactor factor : FuelCarbonFactor.values()) {
+            for (String fuelType : factor.getFuelTypes()) {
+                sql.append(" WHEN '").append(fuelType.toUpperCase()).append("' THEN ")
+                        .append(factor.getKgCo2PerGallon());
+            }
+        }
+        return sql.append(" ELSE 0.0 END").toString();
+    }
+}
@@ -1,24 +1,93 @@
 package com.driveinsights.repository;
 
+import com.driveinsights.dto.EmissionDataDTO;
 import com.driveinsights.model.EmissionData;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmissionDataRepository extends JpaRepository<EmissionData, Long> {
-    List<EmissionData> findByVehicleId(Long vehicleId);
+    // Read paths select straight into DTOs, so rows never enter the persistence context
+    String SELECT_DTO = "SELECT new com.driveinsights.dto.EmissionDataDTO(ed.id, ed.vehicle.id, ed.co2Emissions, "
+            + "ed.noxEmissions, ed.particulateMatter, ed.recordingTime) FROM EmissionData ed";
     
-    List<EmissionData> findByVehicleIdAndRecordingTimeBetween(
-            Long vehicleId, LocalDateTime startDate, LocalDateTime endDate);
+    // Newest first; the unpaginated list endpoint returns one page of these
+    @Query(SELECT_DTO + " ORDER BY ed.recordingTime DESC, ed.id DESC")
+    List<EmissionDataDTO> findLatestDtos(Pageable pageable);
+    
+    @Query(SELECT_DTO + " WHERE ed.id = :id")
+    Optional<EmissionDataDTO> findDtoById(@Param("id") Long id);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId")
+    List<EmissionDataDTO> findDtosByVehicleId(@Param("vehicleId") Long vehicleId);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId AND ed.recordingTime = :recordingTime")
+    Optional<EmissionDataDTO> findDtoByVehicleIdAndRecordingTime(@Param("vehicleId") Long vehicleId,
+            @Param("recordingTime") LocalDateTime recordingTime);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId AND ed.recordingTime BETWEEN :startDate AND :endDate")
+    List<EmissionDataDTO> findDtosByVehicleIdAndRecordingTimeBetween(@Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT AVG(ed.co2Emissions) FROM EmissionData ed WHERE ed.vehicle.id = :vehicleId")
     Double findAverageCo2EmissionsByVehicleId(@Param("vehicleId") Long vehicleId);
     
     @Query("SELECT SUM(ed.co2Emissions) FROM EmissionData ed WHERE ed.vehicle.id = :vehicleId")
     Double findTotalCo2EmissionsByVehicleId(@Param("vehicleId") Long vehicleId);
-} 
\ No newline at end of file
+    
+    // The plain range bound is redundant with the seek predicate but gives the index and partition pruning a start
+    @Query(SELECT_DTO + " WHERE ed.recordingTime BETWEEN :afterTime AND :endDate "
+            + "AND (ed.recordingTime > :afterTime OR (ed.recordingTime = :afterTime AND ed.id > :afterId)) "
+            + "ORDER BY ed.recordingTime, ed.id")
+    List<EmissionDataDTO> findPage(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+            @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId AND ed.recordingTime BETWEEN :afterTime AND :endDate "
+            + "AND (ed.recordingTime > :afterTime OR (ed.recordingTime = :afterTime AND ed.id > :afterId)) "
+            + "ORDER BY ed.recordingTime, ed.id")
+    List<EmissionDataDTO> findPageByVehicleId(@Param("vehicleId") Long vehicleId, @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + " WHERE ed.recordingTime BETWEEN :startDate AND :endDate "
+            + "ORDER BY ed.recordingTime, ed.id")
+    Stream<EmissionDataDTO> streamByRecordingTimeBetween(
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId "
+            + "AND ed.recordingTime BETWEEN :startDate AND :endDate ORDER BY ed.recordingTime, ed.id")
+    Stream<EmissionDataDTO> streamByVehicleIdAndRecordingTimeBetween(@Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT ed.vehicle.id AS vehicleId, AVG(ed.co2Emissions) AS averageCo2Emissions, "
+            + "SUM(ed.co2Emissions) AS totalCo2Emissions, AVG(ed.noxEmissions) AS averageNoxEmissions, "
+            + "AVG(ed.particulateMatter) AS averageParticulateMatter FROM EmissionData ed GROUP BY ed.vehicle.id")
+    List<VehicleEmissionSummary> summarizeByVehicle();
+    
+    @Query("SELECT ed.vehicle.id AS vehicleId, AVG(ed.co2Emissions) AS averageCo2Emissions, "
+            + "SUM(ed.co2Emissions) AS totalCo2Emissions, AVG(ed.noxEmissions) AS averageNoxEmissions, "
+            + "AVG(ed.particulateMatter) AS averageParticulateMatter FROM EmissionData ed "
+            + "WHERE ed.vehicle.id IN :vehicleIds GROUP BY ed.vehicle.id")
+    List<VehicleEmissionSummary> summarizeByVehicle(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
+    interface VehicleEmissionSummary {
+        Long getVehicleId();
+        Double getAverageCo2Emissions();
+        Double getTotalCo2Emissions();
+        Double getAverageNoxEmissions();
+        Double getAverageParticulateMatter();
+    }
+}
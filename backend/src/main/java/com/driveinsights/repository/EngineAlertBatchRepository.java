@@ -0,0 +1,47 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.model.EngineAlert;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class EngineAlertBatchRepository {
+
+    private static final String INSERT_ALERT =
+            "INSERT INTO engine_alerts (vehicle_id, engine_data_id, rule, observed_value, expected_value, "
+                    + "deviation_score, recording_time, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(List<EngineAlert> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ALERT, alerts, alerts.size(), (ps, alert) -> {
+            ps.setLong(1, alert.getVehicleId());
+            if (alert.getEngineDataId() == null) {
+                ps.setNull(2, Types.BIGINT);
+            } else {
+                ps.setLong(2, alert.getEngineDataId());
+            }
+            ps.setString(3, alert.getRule().name());
+            ps.setDouble(4, alert.getObservedValue());
+            ps.setDouble(5, alert.getExpectedValue());
+            if (alert.getDeviationScore() == null) {
+                ps.setNull(6, Types.DOUBLE);
+            } else {
+                ps.setDouble(6, alert.getDeviationScore());
+            }
+            ps.setTimestamp(7, Timestamp.valueOf(alert.getRecordingTime()));
+            ps.setTimestamp(8, Timestamp.valueOf(alert.getCreatedAt()));
+        });
+    }
+}
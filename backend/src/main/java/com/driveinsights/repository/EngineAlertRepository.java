@@ -0,0 +1,24 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.model.AlertRule;
+import com.driveinsights.model.EngineAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EngineAlertRepository extends JpaRepository<EngineAlert, Long> {
+    
+    // Newest first; a null vehicleId or rule matches every vehicle or rule
+    @Query("SELECT a FROM EngineAlert a WHERE (:vehicleId IS NULL OR a.vehicleId = :vehicleId) "
+            + "AND (:rule IS NULL OR a.rule = :rule) "
+            + "AND a.recordingTime >= :startDate AND a.recordingTime < :endDate "
+            + "ORDER BY a.recordingTime DESC, a.id DESC")
+    List<EngineAlert> findAlerts(@Param("vehicleId") Long vehicleId, @Param("rule") AlertRule rule,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable limit);
+}
@@ -1,20 +1,45 @@
 package com.driveinsights.repository;
 
+import com.driveinsights.dto.EngineDataDTO;
 import com.driveinsights.model.EngineData;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EngineDataRepository extends JpaRepository<EngineData, Long> {
-    List<EngineData> findByVehicleId(Long vehicleId);
+    // Read paths select straight into DTOs, so rows never enter the persistence context
+    String SELECT_DTO = "SELECT new com.driveinsights.dto.EngineDataDTO(ed.id, ed.vehicle.id, ed.engineTemperature, "
+            + "ed.engineRpm, ed.idlingTimeSeconds, ed.recordingTime) FROM EngineData ed";
     
-    List<EngineData> findByVehicleIdAndRecordingTimeBetween(
-            Long vehicleId, LocalDateTime startDate, LocalDateTime endDate);
+    // Newest first; the unpaginated list endpoint returns one page of these
+    @Query(SELECT_DTO + " ORDER BY ed.recordingTime DESC, ed.id DESC")
+    List<EngineDataDTO> findLatestDtos(Pageable pageable);
+    
+    @Query(SELECT_DTO + " WHERE ed.id = :id")
+    Optional<EngineDataDTO> findDtoById(@Param("id") Long id);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId")
+    List<EngineDataDTO> findDtosByVehicleId(@Param("vehicleId") Long vehicleId);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId AND ed.recordingTime = :recordingTime")
+    Optional<EngineDataDTO> findDtoByVehicleIdAndRecordingTime(@Param("vehicleId") Long vehicleId,
+            @Param("recordingTime") LocalDateTime recordingTime);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId AND ed.recordingTime BETWEEN :startDate AND :endDate")
+    List<EngineDataDTO> findDtosByVehicleIdAndRecordingTimeBetween(@Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT AVG(ed.engineTemperature) FROM EngineData ed WHERE ed.vehicle.id = :vehicleId")
     Double findAverageEngineTemperatureByVehicleId(@Param("vehicleId") Long vehicleId);
@@ -24,4 +49,46 @@ public interface EngineDataRepository extends JpaRepository<EngineData, Long> {
     
     @Query("SELECT SUM(ed.idlingTimeSeconds) FROM EngineData ed WHERE ed.vehicle.id = :vehicleId")
     Integer findTotalIdlingTimeByVehicleId(@Param("vehicleId") Long vehicleId);
-} 
\ No newline at end of file
+    
+    // The plain range bound is redundant with the seek predicate but gives the index and partition pruning a start
+    @Query(SELECT_DTO + " WHERE ed.recordingTime BETWEEN :afterTime AND :endDate "
+            + "AND (ed.recordingTime > :afterTime OR (ed.recordingTime = :afterTime AND ed.id > :afterId)) "
+            + "ORDER BY ed.recordingTime, ed.id")
+    List<EngineDataDTO> findPage(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+            @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId AND ed.recordingTime BETWEEN :afterTime AND :endDate "
+            + "AND (ed.recordingTime > :afterTime OR (ed.recordingTime = :afterTime AND ed.id > :afterId)) "
+            + "ORDER BY ed.recordingTime, ed.id")
+    List<EngineDataDTO> findPageByVehicleId(@Param("vehicleId") Long vehicleId, @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + " WHERE ed.recordingTime BETWEEN :startDate AND :endDate "
+            + "ORDER BY ed.recordingTime, ed.id")
+    Stream<EngineDataDTO> streamByRecordingTimeBetween(
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + " WHERE ed.vehicle.id = :vehicleId "
+            + "AND ed.recordingTime BETWEEN :startDate AND :endDate ORDER BY ed.recordingTime, ed.id")
+    Stream<EngineDataDTO> streamByVehicleIdAndRecordingTimeBetween(@Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT ed.vehicle.id AS vehicleId, AVG(ed.engineTemperature) AS averageEngineTemperature, "
+            + "AVG(ed.engineRpm) AS averageEngineRpm, SUM(ed.idlingTimeSeconds) AS totalIdlingTimeSeconds "
+            + "FROM EngineData ed GROUP BY ed.vehicle.id")
+    List<VehicleEngineSummary> summarizeByVehicle();
+    
+    @Query("SELECT ed.vehicle.id AS vehicleId, AVG(ed.engineTemperature) AS averageEngineTemperature, "
+            + "AVG(ed.engineRpm) AS averageEngineRpm, SUM(ed.idlingTimeSeconds) AS totalIdlingTimeSeconds "
+            + "FROM EngineData ed WHERE ed.vehicle.id IN :vehicleIds GROUP BY ed.vehicle.id")
+    List<VehicleEngineSummary> summarizeByVehicle(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
+    interface VehicleEngineSummary {
+        Long getVehicleId();
+        Double getAverageEngineTemperature();
+        Double getAverageEngineRpm();
+        Long getTotalIdlingTimeSeconds();
+    }
+}
@@ -1,21 +1,86 @@
 package com.driveinsights.repository;
 
+import com.driveinsights.dto.FuelConsumptionDTO;
 import com.driveinsights.model.FuelConsumption;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FuelConsumptionRepository extends JpaRepository<FuelConsumption, Long> {
-    List<FuelConsumption> findByVehicleId(Long vehicleId);
+    // Read paths select straight into DTOs, so rows never enter the persistence context
+    String SELECT_DTO = "SELECT new com.driveinsights.dto.FuelConsumptionDTO(fc.id, fc.vehicle.id, fc.fuelAmount, "
+            + "fc.distanceTraveled, fc.milesPerGallon, fc.fuelCost, fc.fillDate) FROM FuelConsumption fc";
     
-    List<FuelConsumption> findByVehicleIdAndFillDateBetween(
-            Long vehicleId, LocalDateTime startDate, LocalDateTime endDate);
+    // Newest first; the unpaginated list endpoint returns one page of these
+    @Query(SELECT_DTO + " ORDER BY fc.fillDate DESC, fc.id DESC")
+    List<FuelConsumptionDTO> findLatestDtos(Pageable pageable);
+    
+    @Query(SELECT_DTO + " WHERE fc.id = :id")
+    Optional<FuelConsumptionDTO> findDtoById(@Param("id") Long id);
+    
+    @Query(SELECT_DTO + " WHERE fc.vehicle.id = :vehicleId")
+    List<FuelConsumptionDTO> findDtosByVehicleId(@Param("vehicleId") Long vehicleId);
+    
+    @Query(SELECT_DTO + " WHERE fc.vehicle.id = :vehicleId AND fc.fillDate BETWEEN :startDate AND :endDate")
+    List<FuelConsumptionDTO> findDtosByVehicleIdAndFillDateBetween(@Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT AVG(fc.milesPerGallon) FROM FuelConsumption fc WHERE fc.vehicle.id = :vehicleId")
     Double findAverageMpgByVehicleId(@Param("vehicleId") Long vehicleId);
-} 
\ No newline at end of file
+    
+    // The plain range bound is redundant with the seek predicate but gives the index and partition pruning a start
+    @Query(SELECT_DTO + " WHERE fc.fillDate BETWEEN :afterTime AND :endDate "
+            + "AND (fc.fillDate > :afterTime OR (fc.fillDate = :afterTime AND fc.id > :afterId)) "
+            + "ORDER BY fc.fillDate, fc.id")
+    List<FuelConsumptionDTO> findPage(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+            @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    @Query(SELECT_DTO + " WHERE fc.vehicle.id = :vehicleId AND fc.fillDate BETWEEN :afterTime AND :endDate "
+            + "AND (fc.fillDate > :afterTime OR (fc.fillDate = :afterTime AND fc.id > :afterId)) "
+            + "ORDER BY fc.fillDate, fc.id")
+    List<FuelConsumptionDTO> findPageByVehicleId(@Param("vehicleId") Long vehicleId, @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + " WHERE fc.fillDate BETWEEN :startDate AND :endDate "
+            + "ORDER BY fc.fillDate, fc.id")
+    Stream<FuelConsumptionDTO> streamByFillDateBetween(
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + " WHERE fc.vehicle.id = :vehicleId "
+            + "AND fc.fillDate BETWEEN :startDate AND :endDate ORDER BY fc.fillDate, fc.id")
+    Stream<FuelConsumptionDTO> streamByVehicleIdAndFillDateBetween(@Param("vehicleId") Long vehicleId,
+            @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT fc.vehicle.id AS vehicleId, AVG(fc.milesPerGallon) AS averageMpg, "
+            + "SUM(fc.fuelAmount) AS totalFuelAmount, SUM(fc.distanceTraveled) AS totalDistanceTraveled, "
+            + "SUM(fc.fuelCost) AS totalFuelCost FROM FuelConsumption fc GROUP BY fc.vehicle.id")
+    List<VehicleFuelSummary> summarizeByVehicle();
+    
+    @Query("SELECT fc.vehicle.id AS vehicleId, AVG(fc.milesPerGallon) AS averageMpg, "
+            + "SUM(fc.fuelAmount) AS totalFuelAmount, SUM(fc.distanceTraveled) AS totalDistanceTraveled, "
+            + "SUM(fc.fuelCost) AS totalFuelCost FROM FuelConsumption fc "
+            + "WHERE fc.vehicle.id IN :vehicleIds GROUP BY fc.vehicle.id")
+    List<VehicleFuelSummary> summarizeByVehicle(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
+    interface VehicleFuelSummary {
+        Long getVehicleId();
+        Double getAverageMpg();
+        Double getTotalFuelAmount();
+        Double getTotalDistanceTraveled();
+        Double getTotalFuelCost();
+    }
+}
@@ -0,0 +1,43 @@
+package com.driveinsights.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Monthly range partitions of the telemetry tables, named &lt;table&gt;_pYYYY_MM
+ * (see db/migration/V2__partition_telemetry_by_month.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class PartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public String ensureMonthlyPartition(String table, LocalDate month) {
+        return jdbcTemplate.queryForObject("SELECT ensure_monthly_partition(?, ?)", String.class,
+                table, Date.valueOf(month.withDayOfMonth(1)));
+    }
+
+    public List<String> findMonthlyPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = ?::regclass AND c.relname LIKE ? ORDER BY c.relname",
+                String.class, table, table + "\\_p%");
+    }
+
+    // Identifiers come from findMonthlyPartitions and the fixed table list, never from user input
+    public void detachPartition(String table, String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+    }
+
+    public void dropPartition(String partition) {
+        jdbcTemplate.execute("DROP TABLE " + partition);
+    }
+}
@@ -0,0 +1,37 @@
+package com.driveinsights.repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Per-table change counters (see db/migration/V7__table_versions.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class TableVersionRepository {
+
+    public record TableVersion(long version, long changedAtMillis) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableVersion find(String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT version, changed_at FROM table_versions WHERE table_name = ?",
+                (rs, rowNum) -> new TableVersion(rs.getLong("version"), rs.getTimestamp("changed_at").getTime()),
+                table);
+    }
+
+    // Callers pass the tables in a fixed order, so concurrent writers lock the rows in the same order
+    public void bump(Collection<String> tables) {
+        for (String table : tables) {
+            jdbcTemplate.update("UPDATE table_versions SET version = version + 1, changed_at = clock_timestamp() "
+                    + "WHERE table_name = ?", table);
+        }
+    }
+}
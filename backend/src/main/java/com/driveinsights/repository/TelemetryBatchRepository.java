@@ -0,0 +1,271 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.config.IngestionProperties;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Plain JDBC batch writer for telemetry rows. The JPA entities use IDENTITY keys,
+ * which forces Hibernate to insert one row per round trip, so bulk writes bypass it.
+ * Generated ids are read back from each batch and set on the records. Engine and emission
+ * rows are unique per (vehicle_id, recording_time): duplicates are skipped by ON CONFLICT DO
+ * NOTHING and keep a null id. The scans read rows straight into DTOs for in-memory consumers.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class TelemetryBatchRepository {
+
+    private static final String INSERT_ENGINE_DATA =
+            "INSERT INTO engine_data (vehicle_id, engine_temperature, engine_rpm, idling_time_seconds, "
+                    + "recording_time, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_EMISSION_DATA =
+            "INSERT INTO emission_data (vehicle_id, co2_emissions, nox_emissions, particulate_matter, "
+                    + "recording_time, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_FUEL_CONSUMPTION =
+            "INSERT INTO fuel_consumption (vehicle_id, fuel_amount, distance_traveled, miles_per_gallon, "
+                    + "fuel_cost, fill_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SCAN_ENGINE_DATA =
+            "SELECT id, vehicle_id, engine_temperature, engine_rpm, idling_time_seconds, recording_time "
+                    + "FROM engine_data WHERE recording_time >= ? ORDER BY recording_time, id";
+
+    private static final String SCAN_EMISSION_DATA =
+            "SELECT id, vehicle_id, co2_emissions, nox_emissions, particulate_matter, recording_time "
+                    + "FROM emission_data WHERE recording_time >= ? ORDER BY recording_time, id";
+
+    private static final String SCAN_FUEL_CONSUMPTION =
+            "SELECT id, vehicle_id, fuel_amount, distance_traveled, miles_per_gallon, fuel_cost, fill_date "
+                    + "FROM fuel_consumption WHERE fill_date BETWEEN ? AND ?";
+
+    // Read back from inserts that may skip rows, to tell which records were written
+    private static final String[] NATURAL_KEY_COLUMNS = {"id", "vehicle_id", "recording_time"};
+
+    // Rows fetched per round trip by the scans; PostgreSQL only streams inside a transaction
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IngestionProperties ingestionProperties;
+
+    // Returns the number of rows written; records whose natural key already exists keep a null id
+    public int insertEngineData(List<EngineDataDTO> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return insertSkippingDuplicates(INSERT_ENGINE_DATA, records, EngineDataDTO::getVehicleId,
+                EngineDataDTO::getRecordingTime, EngineDataDTO::setRecordingTime, EngineDataDTO::setId,
+                (ps, record) -> {
+                    ps.setLong(1, record.getVehicleId());
+                    setDouble(ps, 2, record.getEngineTemperature());
+                    setInteger(ps, 3, record.getEngineRpm());
+                    setInteger(ps, 4, record.getIdlingTimeSeconds());
+                    ps.setTimestamp(5, Timestamp.valueOf(record.getRecordingTime()));
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+    }
+
+    // Returns the number of rows written; records whose natural key already exists keep a null id
+    public int insertEmissionData(List<EmissionDataDTO> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return insertSkippingDuplicates(INSERT_EMISSION_DATA, records, EmissionDataDTO::getVehicleId,
+                EmissionDataDTO::getRecordingTime, EmissionDataDTO::setRecordingTime, EmissionDataDTO::setId,
+                (ps, record) -> {
+                    ps.setLong(1, record.getVehicleId());
+                    setDouble(ps, 2, record.getCo2Emissions());
+                    setDouble(ps, 3, record.getNoxEmissions());
+                    setDouble(ps, 4, record.getParticulateMatter());
+                    ps.setTimestamp(5, Timestamp.valueOf(record.getRecordingTime()));
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+    }
+
+    public void insertFuelConsumption(List<FuelConsumptionDTO> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insertReturningIds(INSERT_FUEL_CONSUMPTION, records, FuelConsumptionDTO::setId,
+                (ps, record) -> {
+                    ps.setLong(1, record.getVehicleId());
+                    setDouble(ps, 2, record.getFuelAmount());
+                    setDouble(ps, 3, record.getDistanceTraveled());
+                    setDouble(ps, 4, record.getMilesPerGallon());
+                    setDouble(ps, 5, record.getFuelCost());
+                    ps.setTimestamp(6, Timestamp.valueOf(record.getFillDate()));
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                });
+    }
+
+    public void scanEngineDataSince(LocalDateTime since, Consumer<EngineDataDTO> action) {
+        jdbcTemplate.query(scan(SCAN_ENGINE_DATA, since), (RowCallbackHandler) rs -> action.accept(
+                new EngineDataDTO(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getDouble(3),
+                        rs.getInt(4),
+                        rs.getObject(5, Integer.class),
+                        rs.getTimestamp(6).toLocalDateTime())));
+    }
+
+    public void scanEmissionDataSince(LocalDateTime since, Consumer<EmissionDataDTO> action) {
+        jdbcTemplate.query(scan(SCAN_EMISSION_DATA, since), (RowCallbackHandler) rs -> action.accept(
+                new EmissionDataDTO(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getDouble(3),
+                        rs.getObject(4, Double.class),
+                        rs.getObject(5, Double.class),
+                        rs.getTimestamp(6).toLocalDateTime())));
+    }
+
+    // Fill-ups in the range ordered by vehicle and fill date, optionally for one vehicle only
+    public void scanFuelConsumption(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate,
+                                    Consumer<FuelConsumptionDTO> action) {
+        String sql = SCAN_FUEL_CONSUMPTION + (vehicleId != null ? " AND vehicle_id = ?" : "")
+                + " ORDER BY vehicle_id, fill_date, id";
+        PreparedStatementCreator creator = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(startDate));
+            ps.setTimestamp(2, Timestamp.valueOf(endDate));
+            if (vehicleId != null) {
+                ps.setLong(3, vehicleId);
+            }
+            return ps;
+        };
+        jdbcTemplate.query(creator, (RowCallbackHandler) rs -> action.accept(
+                new FuelConsumptionDTO(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getDouble(3),
+                        rs.getDouble(4),
+                        rs.getObject(5, Double.class),
+                        rs.getObject(6, Double.class),
+                        rs.getTimestamp(7).toLocalDateTime())));
+    }
+
+    private static PreparedStatementCreator scan(String sql, LocalDateTime since) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(since));
+            return ps;
+        };
+    }
+
+    // Inserts with ON CONFLICT DO NOTHING; ids come back only for written rows, so they are matched
+    // to records by natural key. Times are truncated to the column's microsecond precision first.
+    private <T> int insertSkippingDuplicates(String sql, List<T> records, Function<T, Long> vehicleIdOf,
+                                             Function<T, LocalDateTime> timeOf,
+                                             BiConsumer<T, LocalDateTime> timeSetter, BiConsumer<T, Long> idSetter,
+                                             ParameterizedPreparedStatementSetter<T> setter) {
+        int batchSize = ingestionProperties.getJdbcBatchSize();
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            int inserted = 0;
+            try (PreparedStatement ps = connection.prepareStatement(sql, NATURAL_KEY_COLUMNS)) {
+                for (int start = 0; start < records.size(); start += batchSize) {
+                    List<T> chunk = records.subList(start, Math.min(records.size(), start + batchSize));
+                    Map<NaturalKey, T> byKey = new HashMap<>(chunk.size() * 2);
+                    for (T record : chunk) {
+                        LocalDateTime time = timeOf.apply(record).truncatedTo(ChronoUnit.MICROS);
+                        timeSetter.accept(record, time);
+                        idSetter.accept(record, null);
+                        byKey.putIfAbsent(new NaturalKey(vehicleIdOf.apply(record), time), record);
+                        setter.setValues(ps, record);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            NaturalKey key = new NaturalKey(keys.getLong(2), keys.getTimestamp(3).toLocalDateTime());
+                            T record = byKey.get(key);
+                            if (record == null) {
+                                throw new IllegalStateException("Generated id returned for a row that was not sent");
+                            }
+                            idSetter.accept(record, keys.getLong(1));
+                            inserted++;
+                        }
+                    }
+                }
+            }
+            return inserted;
+        });
+    }
+
+    private <T> void insertReturningIds(String sql, List<T> records, BiConsumer<T, Long> idSetter,
+                                        ParameterizedPreparedStatementSetter<T> setter) {
+        int batchSize = ingestionProperties.getJdbcBatchSize();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, new String[] {"id"})) {
+                for (int start = 0; start < records.size(); start += batchSize) {
+                    List<T> chunk = records.subList(start, Math.min(records.size(), start + batchSize));
+                    for (T record : chunk) {
+                        setter.setValues(ps, record);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (T record : chunk) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Fewer generated ids returned than rows inserted");
+                            }
+                            idSetter.accept(record, keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    private record NaturalKey(long vehicleId, LocalDateTime recordingTime) {
+    }
+}
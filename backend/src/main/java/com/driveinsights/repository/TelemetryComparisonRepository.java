@@ -0,0 +1,62 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.model.TelemetryMetric;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class TelemetryComparisonRepository {
+
+    // Averages of the requested metrics for one vehicle and bucket; null where the bucket has no reading
+    public record BucketAverages(long vehicleId, int bucket, Double[] values) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // One grouped scan of the metrics' table; the metrics must share a table. Bucket i covers
+    // [startDate + i * bucketSeconds, startDate + (i + 1) * bucketSeconds).
+    public List<BucketAverages> averageByBucket(List<TelemetryMetric> metrics, Collection<Long> vehicleIds,
+                                                LocalDateTime startDate, LocalDateTime endDate, long bucketSeconds) {
+        TelemetryMetric first = metrics.get(0);
+        String timeColumn = first.getTimeColumn();
+        // Seconds as DOUBLE PRECISION: EXTRACT(EPOCH) is NUMERIC, which is slower to divide
+        String bucket = "CAST(FLOOR((CAST(EXTRACT(EPOCH FROM " + timeColumn + ") AS DOUBLE PRECISION) - ?) / ?)"
+                + " AS INTEGER)";
+        StringBuilder sql = new StringBuilder("SELECT vehicle_id, ").append(bucket);
+        for (TelemetryMetric metric : metrics) {
+            sql.append(", AVG(").append(metric.getColumn()).append(")");
+        }
+        sql.append(" FROM ").append(first.getTable())
+                .append(" WHERE vehicle_id IN (").append(String.join(", ", Collections.nCopies(vehicleIds.size(), "?")))
+                .append(") AND ").append(timeColumn).append(" >= ? AND ").append(timeColumn).append(" < ?")
+                // By position: a second copy of the bucket expression would get its own parameters,
+                // and PostgreSQL would not recognize it as the selected expression
+                .append(" GROUP BY 1, 2");
+
+        long startEpochSecond = startDate.toEpochSecond(ZoneOffset.UTC);
+        List<Object> args = new ArrayList<>(List.of(startEpochSecond, bucketSeconds));
+        args.addAll(vehicleIds);
+        args.add(Timestamp.valueOf(startDate));
+        args.add(Timestamp.valueOf(endDate));
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Double[] values = new Double[metrics.size()];
+            for (int i = 0; i < values.length; i++) {
+                double value = rs.getDouble(i + 3);
+                values[i] = rs.wasNull() ? null : value;
+            }
+            return new BucketAverages(rs.getLong(1), rs.getInt(2), values);
+        }, args.toArray());
+    }
+}
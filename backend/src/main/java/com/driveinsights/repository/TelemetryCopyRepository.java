@@ -0,0 +1,173 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.model.ImportType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loader for imports. Rows are encoded in the text format of PostgreSQL COPY, copied into a
+ * session-local staging table and moved to the telemetry table with one INSERT ... SELECT, so engine
+ * and emission rows whose natural key already exists are skipped instead of failing the whole COPY.
+ * Inserted rows from recentSince on are read back for the in-memory consumers. Must run inside a
+ * transaction: the staging table is emptied on commit.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class TelemetryCopyRepository {
+
+    public record CopyResult(int inserted, TelemetryBatchDTO recent) {
+    }
+
+    private record Target(String stagingTable, String stagingColumns, String columns, String timeColumn,
+                          String onConflict) {
+    }
+
+    private static final Map<ImportType, Target> TARGETS = new EnumMap<>(Map.of(
+            ImportType.ENGINE, new Target("import_engine_data",
+                    "vehicle_id BIGINT, engine_temperature DOUBLE PRECISION, engine_rpm INTEGER, "
+                            + "idling_time_seconds INTEGER, recording_time TIMESTAMP",
+                    "vehicle_id, engine_temperature, engine_rpm, idling_time_seconds, recording_time",
+                    "recording_time", " ON CONFLICT DO NOTHING"),
+            ImportType.EMISSION, new Target("import_emission_data",
+                    "vehicle_id BIGINT, co2_emissions DOUBLE PRECISION, nox_emissions DOUBLE PRECISION, "
+                            + "particulate_matter DOUBLE PRECISION, recording_time TIMESTAMP",
+                    "vehicle_id, co2_emissions, nox_emissions, particulate_matter, recording_time",
+                    "recording_time", " ON CONFLICT DO NOTHING"),
+            ImportType.FUEL, new Target("import_fuel_consumption",
+                    "vehicle_id BIGINT, fuel_amount DOUBLE PRECISION, distance_traveled DOUBLE PRECISION, "
+                            + "miles_per_gallon DOUBLE PRECISION, fuel_cost DOUBLE PRECISION, fill_date TIMESTAMP",
+                    "vehicle_id, fuel_amount, distance_traveled, miles_per_gallon, fuel_cost, fill_date",
+                    "fill_date", "")));
+
+    private static final String NULL = "\\N";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // One COPY text line per record; values are numbers and times, which need no escaping
+    public byte[] encodeEngineData(List<EngineDataDTO> records) {
+        StringBuilder rows = new StringBuilder(records.size() * 64);
+        for (EngineDataDTO record : records) {
+            append(rows, record.getVehicleId(), record.getEngineTemperature(), record.getEngineRpm(),
+                    record.getIdlingTimeSeconds(), record.getRecordingTime());
+        }
+        return rows.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public byte[] encodeEmissionData(List<EmissionDataDTO> records) {
+        StringBuilder rows = new StringBuilder(records.size() * 64);
+        for (EmissionDataDTO record : records) {
+            append(rows, record.getVehicleId(), record.getCo2Emissions(), record.getNoxEmissions(),
+                    record.getParticulateMatter(), record.getRecordingTime());
+        }
+        return rows.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public byte[] encodeFuelConsumption(List<FuelConsumptionDTO> records) {
+        StringBuilder rows = new StringBuilder(records.size() * 72);
+        for (FuelConsumptionDTO record : records) {
+            append(rows, record.getVehicleId(), record.getFuelAmount(), record.getDistanceTraveled(),
+                    record.getMilesPerGallon(), record.getFuelCost(), record.getFillDate());
+        }
+        return rows.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public CopyResult copy(ImportType type, byte[] rows, LocalDateTime recentSince) {
+        Target target = TARGETS.get(type);
+        String insert = "WITH inserted AS (INSERT INTO " + type.getTable() + " (" + target.columns()
+                + ", created_at, updated_at) SELECT " + target.columns() + ", ?, ? FROM " + target.stagingTable()
+                + target.onConflict() + " RETURNING id, " + target.columns() + ") "
+                + "SELECT c.inserted_rows, i.* FROM (SELECT COUNT(*) AS inserted_rows FROM inserted) c "
+                + "LEFT JOIN inserted i ON i." + target.timeColumn() + " >= ?";
+        return jdbcTemplate.execute((ConnectionCallback<CopyResult>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE IF NOT EXISTS " + target.stagingTable() + " ("
+                        + target.stagingColumns() + ") ON COMMIT DELETE ROWS");
+            }
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY " + target.stagingTable() + " FROM STDIN", new ByteArrayInputStream(rows));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            TelemetryBatchDTO recent = new TelemetryBatchDTO(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+            int inserted = 0;
+            try (PreparedStatement ps = connection.prepareStatement(insert)) {
+                ps.setTimestamp(1, now);
+                ps.setTimestamp(2, now);
+                ps.setTimestamp(3, Timestamp.valueOf(recentSince));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        inserted = rs.getInt(1);
+                        if (rs.getObject(2) != null) {
+                            addRecent(type, rs, recent);
+                        }
+                    }
+                }
+            }
+            return new CopyResult(inserted, recent);
+        });
+    }
+
+    // Columns from 2: id, then the target columns in order
+    private static void addRecent(ImportType type, ResultSet rs, TelemetryBatchDTO recent) throws SQLException {
+        switch (type) {
+            case ENGINE -> recent.getEngineData().add(new EngineDataDTO(
+                    rs.getLong(2),
+                    rs.getLong(3),
+                    rs.getDouble(4),
+                    rs.getInt(5),
+                    rs.getObject(6, Integer.class),
+                    rs.getTimestamp(7).toLocalDateTime()));
+            case EMISSION -> recent.getEmissionData().add(new EmissionDataDTO(
+                    rs.getLong(2),
+                    rs.getLong(3),
+                    rs.getDouble(4),
+                    rs.getObject(5, Double.class),
+                    rs.getObject(6, Double.class),
+                    rs.getTimestamp(7).toLocalDateTime()));
+            case FUEL -> recent.getFuelConsumption().add(new FuelConsumptionDTO(
+                    rs.getLong(2),
+                    rs.getLong(3),
+                    rs.getDouble(4),
+                    rs.getDouble(5),
+                    rs.getObject(6, Double.class),
+                    rs.getObject(7, Double.class),
+                    rs.getTimestamp(8).toLocalDateTime()));
+        }
+    }
+
+    private static void append(StringBuilder rows, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                rows.append('\t');
+            }
+            rows.append(values[i] != null ? values[i] : NULL);
+        }
+        rows.append('\n');
+    }
+}
@@ -0,0 +1,197 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.model.RollupResolution;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.model.TelemetryRollup;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "jdbc.repository.invocations", histogram = true)
+public class TelemetryRollupBatchRepository {
+
+    private static final String UPSERT_ROLLUP =
+            "INSERT INTO telemetry_rollups (vehicle_id, metric, resolution, bucket_start, "
+                    + "sample_count, value_sum, value_min, value_max, histogram) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (vehicle_id, metric, resolution, bucket_start) DO UPDATE SET "
+                    + "sample_count = telemetry_rollups.sample_count + EXCLUDED.sample_count, "
+                    + "value_sum = telemetry_rollups.value_sum + EXCLUDED.value_sum, "
+                    + "value_min = LEAST(telemetry_rollups.value_min, EXCLUDED.value_min), "
+                    + "value_max = GREATEST(telemetry_rollups.value_max, EXCLUDED.value_max), "
+                    + "histogram = histogram_add(telemetry_rollups.histogram, EXCLUDED.histogram)";
+
+    private static final String REPLACE_ROLLUP =
+            "ON CONFLICT (vehicle_id, metric, resolution, bucket_start) DO UPDATE SET "
+                    + "sample_count = EXCLUDED.sample_count, value_sum = EXCLUDED.value_sum, "
+                    + "value_min = EXCLUDED.value_min, value_max = EXCLUDED.value_max, histogram = EXCLUDED.histogram";
+
+    private static final String DELETE_ROLLUP =
+            "DELETE FROM telemetry_rollups WHERE vehicle_id = ? AND metric = ? AND resolution = ? AND bucket_start = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Rows must be sorted so concurrent writers lock buckets in the same order
+    public void merge(List<TelemetryRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP, rollups, rollups.size(), (ps, rollup) -> {
+            ps.setLong(1, rollup.getVehicleId());
+            ps.setString(2, rollup.getMetric().name());
+            ps.setString(3, rollup.getResolution().name());
+            ps.setTimestamp(4, Timestamp.valueOf(rollup.getBucketStart()));
+            ps.setLong(5, rollup.getSampleCount());
+            ps.setDouble(6, rollup.getValueSum());
+            ps.setDouble(7, rollup.getValueMin());
+            ps.setDouble(8, rollup.getValueMax());
+            if (rollup.getHistogram() != null) {
+                Integer[] counts = Arrays.stream(rollup.getHistogram()).boxed().toArray(Integer[]::new);
+                ps.setArray(9, ps.getConnection().createArrayOf("integer", counts));
+            } else {
+                ps.setNull(9, Types.ARRAY);
+            }
+        });
+    }
+
+    // Rebuilds the given buckets from the raw rows; the rollup fields other than the key are ignored
+    public void recompute(List<TelemetryRollup> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_ROLLUP, buckets, buckets.size(), (ps, bucket) -> {
+            ps.setLong(1, bucket.getVehicleId());
+            ps.setString(2, bucket.getMetric().name());
+            ps.setString(3, bucket.getResolution().name());
+            ps.setTimestamp(4, Timestamp.valueOf(bucket.getBucketStart()));
+        });
+        for (TelemetryRollup bucket : buckets) {
+            TelemetryMetric metric = bucket.getMetric();
+            String sql = "INSERT INTO telemetry_rollups (vehicle_id, metric, resolution, bucket_start, "
+                    + "sample_count, value_sum, value_min, value_max, histogram) "
+                    + "SELECT vehicle_id, ?, ?, ?, COUNT(" + metric.getColumn() + "), SUM(" + metric.getColumn() + "), "
+                    + "MIN(" + metric.getColumn() + "), MAX(" + metric.getColumn() + "), "
+                    + histogramAggregate(metric, bucket.getResolution()) + " FROM " + metric.getTable()
+                    + " WHERE vehicle_id = ? AND " + metric.getTimeColumn() + " >= ? AND " + metric.getTimeColumn()
+                    + " < ? AND " + metric.getColumn() + " IS NOT NULL GROUP BY vehicle_id";
+            jdbcTemplate.update(sql,
+                    metric.name(),
+                    bucket.getResolution().name(),
+                    Timestamp.valueOf(bucket.getBucketStart()),
+                    bucket.getVehicleId(),
+                    Timestamp.valueOf(bucket.getBucketStart()),
+                    Timestamp.valueOf(bucket.getResolution().next(bucket.getBucketStart())));
+        }
+    }
+
+    // Recomputes every bucket of every metric, for one vehicle or for the whole fleet. A vehicle's
+    // rebuild first locks its row against the key share lock that every telemetry insert takes for
+    // the foreign key, so merges for the vehicle wait for the rebuild instead of racing it; a bucket
+    // written anyway, e.g. by a recompute, is overwritten with the rebuilt values.
+    public void rebuild(Long vehicleId) {
+        if (vehicleId == null) {
+            jdbcTemplate.update("DELETE FROM telemetry_rollups");
+        } else {
+            jdbcTemplate.queryForList("SELECT id FROM vehicles WHERE id = ? FOR UPDATE", vehicleId);
+            jdbcTemplate.update("DELETE FROM telemetry_rollups WHERE vehicle_id = ?", vehicleId);
+        }
+        for (TelemetryMetric metric : TelemetryMetric.values()) {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                String bucket = "date_trunc('" + resolution.name().toLowerCase() + "', " + metric.getTimeColumn() + ")";
+                String sql = "INSERT INTO telemetry_rollups (vehicle_id, metric, resolution, bucket_start, "
+                        + "sample_count, value_sum, value_min, value_max, histogram) "
+                        + "SELECT vehicle_id, ?, ?, " + bucket + ", COUNT(" + metric.getColumn() + "), "
+                        + "SUM(" + metric.getColumn() + "), MIN(" + metric.getColumn() + "), MAX(" + metric.getColumn()
+                        + "), " + histogramAggregate(metric, resolution) + " FROM " + metric.getTable()
+                        + " WHERE " + metric.getColumn() + " IS NOT NULL"
+                        + (vehicleId != null ? " AND vehicle_id = ?" : "")
+                        + " GROUP BY vehicle_id, " + bucket + " " + REPLACE_ROLLUP;
+                List<Object> args = new ArrayList<>(List.of(metric.name(), resolution.name()));
+                if (vehicleId != null) {
+                    args.add(vehicleId);
+                }
+                jdbcTemplate.update(sql, args.toArray());
+            }
+        }
+    }
+
+    // Merges the histogram-carrying buckets of [from, to), which must be aligned to whole hours,
+    // reading each sub-range at the coarsest resolution that covers it: leading and trailing hours
+    // and days around whole months. Returns null when no samples fall in the range.
+    public TelemetryRollup findHistogram(Long vehicleId, TelemetryMetric metric, LocalDateTime from,
+                                         LocalDateTime to) {
+        StringBuilder sql = new StringBuilder("SELECT SUM(sample_count), SUM(value_sum), MIN(value_min), "
+                + "MAX(value_max), histogram_sum(histogram) FROM telemetry_rollups WHERE metric = ?");
+        List<Object> args = new ArrayList<>(List.of(metric.name()));
+        if (vehicleId != null) {
+            sql.append(" AND vehicle_id = ?");
+            args.add(vehicleId);
+        }
+        sql.append(" AND (");
+        List<String> ranges = new ArrayList<>();
+        RollupResolution[] levels = {RollupResolution.HOUR, RollupResolution.DAY, RollupResolution.MONTH};
+        LocalDateTime lower = from;
+        LocalDateTime upper = to;
+        int level = 0;
+        while (level + 1 < levels.length) {
+            RollupResolution coarser = levels[level + 1];
+            LocalDateTime alignedLower = coarser.truncate(lower).equals(lower)
+                    ? lower
+                    : coarser.next(coarser.truncate(lower));
+            LocalDateTime alignedUpper = coarser.truncate(upper);
+            if (!alignedLower.isBefore(alignedUpper)) {
+                break;
+            }
+            addRange(ranges, args, levels[level], lower, alignedLower);
+            addRange(ranges, args, levels[level], alignedUpper, upper);
+            lower = alignedLower;
+            upper = alignedUpper;
+            level++;
+        }
+        addRange(ranges, args, levels[level], lower, upper);
+        sql.append(String.join(" OR ", ranges)).append(")");
+
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> {
+            long count = rs.getLong(1);
+            if (count == 0) {
+                return null;
+            }
+            Array histogram = rs.getArray(5);
+            int[] counts = histogram != null
+                    ? Arrays.stream((Object[]) histogram.getArray()).mapToInt(n -> ((Number) n).intValue()).toArray()
+                    : null;
+            return new TelemetryRollup(vehicleId, metric, null, from, count, rs.getDouble(2), rs.getDouble(3),
+                    rs.getDouble(4), counts);
+        }, args.toArray());
+    }
+
+    private static void addRange(List<String> ranges, List<Object> args, RollupResolution resolution,
+                                 LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            ranges.add("(resolution = ? AND bucket_start >= ? AND bucket_start < ?)");
+            args.add(resolution.name());
+            args.add(Timestamp.valueOf(from));
+            args.add(Timestamp.valueOf(to));
+        }
+    }
+
+    // Aggregate building a bucket's histogram from raw rows; see V5__rollup_histograms.sql
+    private static String histogramAggregate(TelemetryMetric metric, RollupResolution resolution) {
+        if (!metric.hasHistogram() || !resolution.keepsHistograms()) {
+            return "NULL::INTEGER[]";
+        }
+        return "histogram_agg(LEAST(GREATEST(FLOOR((" + metric.getColumn() + " - " + metric.getHistogramOrigin()
+                + ")::NUMERIC / " + metric.getHistogramBinWidth() + "), 0), " + (metric.getHistogramBins() - 1)
+                + ")::INTEGER, " + metric.getHistogramBins() + ")";
+    }
+}
@@ -0,0 +1,35 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.dto.RollupBucketDTO;
+import com.driveinsights.model.RollupResolution;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.model.TelemetryRollup;
+import com.driveinsights.model.TelemetryRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TelemetryRollupRepository extends JpaRepository<TelemetryRollup, TelemetryRollupId> {
+    
+    @Query("SELECT new com.driveinsights.dto.RollupBucketDTO(r.bucketStart, r.sampleCount, r.valueSum, "
+            + "r.valueMin, r.valueMax, r.valueSum / r.sampleCount) FROM TelemetryRollup r "
+            + "WHERE r.vehicleId = :vehicleId AND r.metric = :metric AND r.resolution = :resolution "
+            + "AND r.bucketStart >= :startDate AND r.bucketStart < :endDate ORDER BY r.bucketStart")
+    List<RollupBucketDTO> findBuckets(@Param("vehicleId") Long vehicleId, @Param("metric") TelemetryMetric metric,
+            @Param("resolution") RollupResolution resolution, @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new com.driveinsights.dto.RollupBucketDTO(r.bucketStart, SUM(r.sampleCount), SUM(r.valueSum), "
+            + "MIN(r.valueMin), MAX(r.valueMax), SUM(r.valueSum) / SUM(r.sampleCount)) FROM TelemetryRollup r "
+            + "WHERE r.metric = :metric AND r.resolution = :resolution "
+            + "AND r.bucketStart >= :startDate AND r.bucketStart < :endDate "
+            + "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<RollupBucketDTO> findFleetBuckets(@Param("metric") TelemetryMetric metric,
+            @Param("resolution") RollupResolution resolution, @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+}
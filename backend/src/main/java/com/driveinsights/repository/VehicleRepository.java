@@ -1,12 +1,18 @@
 package com.driveinsights.repository;
 
 import com.driveinsights.model.Vehicle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     Optional<Vehicle> findByLicensePlate(String licensePlate);
+    
+    List<Vehicle> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    List<Vehicle> findByFuelTypeAndIdGreaterThanOrderByIdAsc(String fuelType, Long afterId, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.driveinsights.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size multi-producer broadcast buffer. Publishing never blocks or waits for readers;
+ * each reader keeps its own sequence and, when lapped, skips ahead to the oldest retained entry.
+ */
+final class BroadcastRing<T> {
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    BroadcastRing(int minimumCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    long publish(T value) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence & mask), new Entry<>(sequence, value));
+        return sequence;
+    }
+
+    // Sequence the next published entry will get
+    long headSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Appends up to max entries starting at sequence from to out. Stops early at an entry that
+     * is claimed but not yet written; the caller retries once that publish completes.
+     */
+    ReadResult read(long from, int max, List<Entry<T>> out) {
+        long cursor = from;
+        long dropped = 0;
+        int read = 0;
+        while (read < max) {
+            long head = nextSequence.get();
+            long oldest = head - slots.length();
+            if (cursor < oldest) {
+                dropped += oldest - cursor;
+                cursor = oldest;
+            }
+            if (cursor >= head) {
+                break;
+            }
+            Entry<T> entry = slots.get((int) (cursor & mask));
+            if (entry == null || entry.sequence() < cursor) {
+                break;
+            }
+            if (entry.sequence() > cursor) {
+                // Overwritten since head was read; recompute the oldest retained sequence
+                continue;
+            }
+            out.add(entry);
+            cursor++;
+            read++;
+        }
+        return new ReadResult(cursor, dropped);
+    }
+
+    record Entry<T>(long sequence, T value) {
+    }
+
+    record ReadResult(long nextSequence, long dropped) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.driveinsights.service;
+
+import com.driveinsights.model.CarbonPeriod;
+import com.driveinsights.model.CarbonTotals;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Unflushed totals of one vehicle and day. Writers add without locking; the flush drains each
+ * adder with sumThenReset, which takes every cell with an atomic swap, so an addition racing a
+ * drain lands in this drain or the next one and is never lost. Deltas may be negative.
+ */
+final class CarbonAccumulator {
+
+    private final long vehicleId;
+    private final LocalDate day;
+    private final LongAdder emissionReadings = new LongAdder();
+    private final DoubleAdder co2Sum = new DoubleAdder();
+    private final DoubleAdder noxSum = new DoubleAdder();
+    private final DoubleAdder pmSum = new DoubleAdder();
+    private final LongAdder fillUps = new LongAdder();
+    private final DoubleAdder fuelAmount = new DoubleAdder();
+    private final DoubleAdder distanceTraveled = new DoubleAdder();
+    private final DoubleAdder fuelCo2Kg = new DoubleAdder();
+    // Set before an idle accumulator's last drain, when it is removed from the ledger
+    private volatile boolean retired;
+
+    CarbonAccumulator(long vehicleId, LocalDate day) {
+        this.vehicleId = vehicleId;
+        this.day = day;
+    }
+
+    void addEmission(int sign, double co2, double nox, double pm) {
+        emissionReadings.add(sign);
+        co2Sum.add(sign * co2);
+        noxSum.add(sign * nox);
+        pmSum.add(sign * pm);
+    }
+
+    void addFuel(int sign, double amount, double distance, double co2Kg) {
+        fillUps.add(sign);
+        fuelAmount.add(sign * amount);
+        distanceTraveled.add(sign * distance);
+        fuelCo2Kg.add(sign * co2Kg);
+    }
+
+    void add(CarbonTotals totals) {
+        emissionReadings.add(totals.getEmissionReadings());
+        co2Sum.add(totals.getCo2Sum());
+        noxSum.add(totals.getNoxSum());
+        pmSum.add(totals.getPmSum());
+        fillUps.add(totals.getFillUps());
+        fuelAmount.add(totals.getFuelAmount());
+        distanceTraveled.add(totals.getDistanceTraveled());
+        fuelCo2Kg.add(totals.getFuelCo2Kg());
+    }
+
+    CarbonTotals drain() {
+        return new CarbonTotals(vehicleId, CarbonPeriod.DAY, day, emissionReadings.sumThenReset(),
+                co2Sum.sumThenReset(), noxSum.sumThenReset(), pmSum.sumThenReset(), fillUps.sumThenReset(),
+                fuelAmount.sumThenReset(), distanceTraveled.sumThenReset(), fuelCo2Kg.sumThenReset());
+    }
+
+    long vehicleId() {
+        return vehicleId;
+    }
+
+    LocalDate day() {
+        return day;
+    }
+
+    void retire() {
+        retired = true;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+}
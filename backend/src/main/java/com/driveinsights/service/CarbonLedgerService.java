@@ -0,0 +1,400 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.CarbonProperties;
+import com.driveinsights.dto.CarbonTotalsDTO;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.event.TelemetryImportedEvent;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
+import com.driveinsights.event.VehicleDeletedEvent;
+import com.driveinsights.model.CarbonPeriod;
+import com.driveinsights.model.CarbonTotals;
+import com.driveinsights.model.FuelCarbonFactor;
+import com.driveinsights.model.ImportType;
+import com.driveinsights.repository.CarbonTotalsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Running emission and fuel totals per vehicle and for the fleet by day, month and year. Committed
+ * records are added to per vehicle and day {@link CarbonAccumulator}s on the writing thread; a
+ * scheduled flush adds the accumulated deltas to the vehicle and fleet rows of carbon_totals in one
+ * batch, so a report reads a handful of rows whatever the number of readings behind it. Fuel is
+ * converted to CO2 with the {@link FuelCarbonFactor} of the vehicle's fuel type at the time it is
+ * recorded; after changing a vehicle's fuel type, rebuild.
+ * <p>
+ * Deltas live only in memory until flushed, so if the process dies without shutting down, up to one
+ * flush interval of committed records is missing from the totals. With
+ * drive-insights.carbon.reconcile-on-startup the totals are rebuilt once the application is ready, and
+ * drive-insights.carbon.reconcile-cron rebuilds them on a schedule as well.
+ */
+@Slf4j
+@Service
+public class CarbonLedgerService {
+
+    private static final double KILOMETERS_PER_MILE = 1.609344;
+
+    private final CarbonProperties properties;
+    private final CarbonTotalsRepository carbonTotalsRepository;
+    private final VehicleService vehicleService;
+    private final TransactionTemplate transaction;
+    private final TaskScheduler taskScheduler;
+    private final Map<DayKey, CarbonAccumulator> pending = new ConcurrentHashMap<>();
+    // Transactions with deltas that are committing or committed but not yet applied
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter flushFailures;
+
+    private record DayKey(long vehicleId, LocalDate day) {
+    }
+
+    public CarbonLedgerService(CarbonProperties properties, CarbonTotalsRepository carbonTotalsRepository,
+                               VehicleService vehicleService, PlatformTransactionManager transactionManager,
+                               TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.carbonTotalsRepository = carbonTotalsRepository;
+        this.vehicleService = vehicleService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.taskScheduler = taskScheduler;
+        this.flushFailures = Counter.builder("carbon.totals.flush.failures")
+                .description("Carbon total flushes that failed; their deltas are retried with the next flush")
+                .register(meterRegistry);
+        Gauge.builder("carbon.totals.pending", pending, Map::size)
+                .description("Vehicle days with deltas not yet flushed to carbon_totals")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void scheduleFlush() {
+        taskScheduler.scheduleWithFixedDelay(this::flush, properties.getFlushInterval());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isReconcileOnStartup()) {
+            taskScheduler.schedule(this::reconcile, Instant.now());
+        }
+    }
+
+    // Disabled unless drive-insights.carbon.reconcile-cron is set
+    @Scheduled(cron = "${drive-insights.carbon.reconcile-cron:-}")
+    public void reconcile() {
+        try {
+            rebuild();
+            log.info("Reconciled carbon totals with the emission and fuel tables");
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile carbon totals: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        if (hasCarbonRecords(event.getRecords())) {
+            afterCommit(() -> apply(event.getRecords(), 1));
+        }
+    }
+
+    @EventListener
+    public void onTelemetryUpdated(TelemetryUpdatedEvent event) {
+        if (hasCarbonRecords(event.getPrevious()) || hasCarbonRecords(event.getCurrent())) {
+            afterCommit(() -> {
+                apply(event.getPrevious(), -1);
+                apply(event.getCurrent(), 1);
+            });
+        }
+    }
+
+    @EventListener
+    public void onTelemetryRemoved(TelemetryRemovedEvent event) {
+        if (hasCarbonRecords(event.getRecords())) {
+            afterCommit(() -> apply(event.getRecords(), -1));
+        }
+    }
+
+    // The recent imported rows were applied as recorded telemetry; the rebuild counts them once
+    @EventListener
+    public void onTelemetryImported(TelemetryImportedEvent event) {
+        if (event.getType() != ImportType.ENGINE) {
+            for (Long vehicleId : event.getVehicleIds()) {
+                rebuild(vehicleId);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onVehicleDeleted(VehicleDeletedEvent event) {
+        pending.values().removeIf(accumulator -> accumulator.vehicleId() == event.getVehicleId());
+        transaction.executeWithoutResult(status -> carbonTotalsRepository.removeVehicle(event.getVehicleId()));
+    }
+
+    // Totals of the days from startDate to endDate inclusive, or of all time without dates
+    public CarbonTotalsDTO getTotals(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        long scope = resolveScope(vehicleId);
+        if (startDate == null && endDate == null) {
+            return convertToDTO(vehicleId, null, null, null, carbonTotalsRepository.sumAll(scope));
+        }
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("startDate and endDate must be given together");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        return convertToDTO(vehicleId, null, startDate, endDate,
+                carbonTotalsRepository.sumRange(scope, startDate, endDate.plusDays(1)));
+    }
+
+    // One row per period overlapping startDate to endDate inclusive, including periods without data
+    public List<CarbonTotalsDTO> getReport(Long vehicleId, CarbonPeriod period, LocalDate startDate,
+                                           LocalDate endDate) {
+        long scope = resolveScope(vehicleId);
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        LocalDate first = period.truncate(startDate);
+        LocalDate end = period.next(period.truncate(endDate));
+        long periods = switch (period) {
+            case DAY -> ChronoUnit.DAYS.between(first, end);
+            case MONTH -> ChronoUnit.MONTHS.between(first, end);
+            case YEAR -> ChronoUnit.YEARS.between(first, end);
+        };
+        if (periods > properties.getMaxReportPeriods()) {
+            throw new IllegalArgumentException("The range holds " + periods + " periods; at most "
+                    + properties.getMaxReportPeriods() + " are allowed");
+        }
+        Map<LocalDate, CarbonTotals> rows = new HashMap<>();
+        for (CarbonTotals row : carbonTotalsRepository.findPeriods(scope, period, first, end)) {
+            rows.put(row.getPeriodStart(), row);
+        }
+        List<CarbonTotalsDTO> report = new ArrayList<>();
+        for (LocalDate start = first; start.isBefore(end); start = period.next(start)) {
+            CarbonTotals row = rows.getOrDefault(start, new CarbonTotals(scope, period, start));
+            report.add(convertToDTO(vehicleId, period, start, period.next(start).minusDays(1), row));
+        }
+        return report;
+    }
+
+    // Recomputes the totals from the raw tables, e.g. after loading historical data or changing a fuel type.
+    // Emission and fuel writes wait until it is done.
+    public synchronized void rebuild() {
+        transaction.executeWithoutResult(status -> {
+            // No commit can land between discarding the pending deltas and reading the raw tables
+            carbonTotalsRepository.lockSources();
+            awaitInFlight();
+            pending.values().forEach(CarbonAccumulator::drain);
+            carbonTotalsRepository.rebuild();
+        });
+    }
+
+    // Recomputes one vehicle's totals; emission and fuel writes wait only while its rows are recomputed
+    public synchronized void rebuild(long vehicleId) {
+        transaction.executeWithoutResult(status -> {
+            carbonTotalsRepository.lockSources();
+            awaitInFlight();
+            pending.values().stream()
+                    .filter(accumulator -> accumulator.vehicleId() == vehicleId)
+                    .forEach(CarbonAccumulator::drain);
+            carbonTotalsRepository.rebuildVehicle(vehicleId);
+        });
+    }
+
+    @PreDestroy
+    public synchronized void flush() {
+        List<CarbonTotals> days = new ArrayList<>();
+        for (Map.Entry<DayKey, CarbonAccumulator> entry : pending.entrySet()) {
+            CarbonAccumulator accumulator = entry.getValue();
+            CarbonTotals delta = accumulator.drain();
+            if (delta.isEmpty()) {
+                // Idle since the last flush; anything added from here on is re-added by the writer
+                accumulator.retire();
+                pending.remove(entry.getKey(), accumulator);
+                delta = accumulator.drain();
+            }
+            if (!delta.isEmpty()) {
+                days.add(delta);
+            }
+        }
+        if (days.isEmpty()) {
+            return;
+        }
+        try {
+            carbonTotalsRepository.add(expand(days));
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.warn("Could not flush carbon totals for {} vehicle days, retrying: {}", days.size(), e.getMessage());
+            for (CarbonTotals day : days) {
+                addTo(new DayKey(day.getVehicleId(), day.getPeriodStart()), accumulator -> accumulator.add(day));
+            }
+        }
+    }
+
+    // Runs the application once the writing transaction commits, like a TransactionalEventListener. The
+    // transaction counts as in flight from before its commit, while it still holds its row locks, until
+    // the deltas are added, so a rebuild holding the source tables can wait for every delta of its snapshot.
+    private void afterCommit(Runnable application) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean counted;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inFlight.incrementAndGet();
+                counted = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        application.run();
+                    }
+                } finally {
+                    if (counted) {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            }
+        });
+    }
+
+    // With the source tables locked no transaction can start committing, so this only waits for the
+    // after-commit applications of transactions that committed before the lock. Past the deadline the
+    // rebuild fails, and rolling back releases the locks.
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + properties.getRebuildWaitTimeout().toNanos();
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Carbon deltas of " + inFlight.get()
+                        + " committed transactions were not applied within " + properties.getRebuildWaitTimeout());
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for carbon deltas", e);
+            }
+        }
+    }
+
+    // Engine writes do not take the locks a rebuild waits on, so they must not count as in flight
+    private static boolean hasCarbonRecords(TelemetryBatchDTO records) {
+        return !records.getEmissionData().isEmpty() || !records.getFuelConsumption().isEmpty();
+    }
+
+    private void apply(TelemetryBatchDTO records, int sign) {
+        for (EmissionDataDTO record : records.getEmissionData()) {
+            addTo(new DayKey(record.getVehicleId(), record.getRecordingTime().toLocalDate()),
+                    accumulator -> accumulator.addEmission(sign, record.getCo2Emissions(),
+                            record.getNoxEmissions() != null ? record.getNoxEmissions() : 0,
+                            record.getParticulateMatter() != null ? record.getParticulateMatter() : 0));
+        }
+        Map<Long, Double> factors = new HashMap<>();
+        for (FuelConsumptionDTO record : records.getFuelConsumption()) {
+            double kgCo2PerGallon = factors.computeIfAbsent(record.getVehicleId(),
+                    id -> FuelCarbonFactor.kgCo2PerGallon(vehicleService.getVehicleById(id).getFuelType()));
+            addTo(new DayKey(record.getVehicleId(), record.getFillDate().toLocalDate()),
+                    accumulator -> accumulator.addFuel(sign, record.getFuelAmount(), record.getDistanceTraveled(),
+                            record.getFuelAmount() * kgCo2PerGallon));
+        }
+    }
+
+    private void addTo(DayKey key, Consumer<CarbonAccumulator> update) {
+        CarbonAccumulator accumulator = pending.computeIfAbsent(key,
+                k -> new CarbonAccumulator(k.vehicleId(), k.day()));
+        update.accept(accumulator);
+        // The flush may have taken its last drain before this update; move what it missed to a live accumulator
+        while (accumulator.isRetired()) {
+            CarbonTotals missed = accumulator.drain();
+            if (missed.isEmpty()) {
+                return;
+            }
+            accumulator = pending.computeIfAbsent(key, k -> new CarbonAccumulator(k.vehicleId(), k.day()));
+            accumulator.add(missed);
+        }
+    }
+
+    // Day deltas to the vehicle and fleet rows of every period, sorted by key
+    private static List<CarbonTotals> expand(List<CarbonTotals> days) {
+        Map<String, CarbonTotals> rows = new HashMap<>();
+        for (CarbonTotals day : days) {
+            for (CarbonPeriod period : CarbonPeriod.values()) {
+                LocalDate start = period.truncate(day.getPeriodStart());
+                for (long scope : new long[] {day.getVehicleId(), CarbonTotals.FLEET}) {
+                    rows.computeIfAbsent(scope + "/" + period + "/" + start,
+                            key -> new CarbonTotals(scope, period, start)).add(day);
+                }
+            }
+        }
+        List<CarbonTotals> sorted = new ArrayList<>(rows.values());
+        sorted.sort(Comparator.comparingLong(CarbonTotals::getVehicleId)
+                .thenComparing(CarbonTotals::getPeriod)
+                .thenComparing(CarbonTotals::getPeriodStart));
+        return sorted;
+    }
+
+    private long resolveScope(Long vehicleId) {
+        if (vehicleId == null) {
+            return CarbonTotals.FLEET;
+        }
+        vehicleService.getVehicleById(vehicleId);
+        return vehicleId;
+    }
+
+    private static CarbonTotalsDTO convertToDTO(Long vehicleId, CarbonPeriod period, LocalDate startDate,
+                                                LocalDate endDate, CarbonTotals totals) {
+        long readings = totals.getEmissionReadings();
+        Double co2 = null;
+        String co2Source = null;
+        if (readings > 0) {
+            co2 = totals.getCo2Sum() / readings;
+            co2Source = "measured";
+        } else if (totals.getDistanceTraveled() > 0) {
+            co2 = totals.getFuelCo2Kg() * 1000 / (totals.getDistanceTraveled() * KILOMETERS_PER_MILE);
+            co2Source = "fuel";
+        }
+        return new CarbonTotalsDTO(
+                vehicleId,
+                period != null ? period.name() : null,
+                startDate,
+                endDate,
+                readings,
+                co2,
+                co2Source,
+                readings > 0 ? totals.getNoxSum() / readings : null,
+                readings > 0 ? totals.getPmSum() / readings : null,
+                totals.getFillUps(),
+                totals.getFuelAmount(),
+                totals.getDistanceTraveled(),
+                totals.getFuelCo2Kg()
+        );
+    }
+}
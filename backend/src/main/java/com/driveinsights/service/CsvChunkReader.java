@@ -0,0 +1,101 @@
+package com.driveinsights.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Splits a CSV file into memory-mapped chunks of at most chunkSize bytes that end on a line
+ * break, so chunks can be parsed independently and in any order. The header line is read
+ * first. Fields must not contain line breaks. Chunks are handed out by one thread.
+ */
+final class CsvChunkReader implements Closeable {
+
+    // sequence counts from 0; firstLine is the 1-based line number of the chunk's first line
+    record Chunk(int sequence, long firstLine, ByteBuffer data) {
+
+        int size() {
+            return data.limit();
+        }
+    }
+
+    private final FileChannel channel;
+    private final long size;
+    private final int chunkSize;
+    private long position;
+    private long line = 1;
+    private int sequence;
+
+    private CsvChunkReader(FileChannel channel, int chunkSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.chunkSize = chunkSize;
+    }
+
+    static CsvChunkReader open(Path file, int chunkSize) throws IOException {
+        return new CsvChunkReader(FileChannel.open(file, StandardOpenOption.READ), chunkSize);
+    }
+
+    long size() {
+        return size;
+    }
+
+    // The first line without its line break and a byte order mark; must be called before next
+    String readHeader() throws IOException {
+        Chunk chunk = next();
+        if (chunk == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        ByteBuffer data = chunk.data();
+        int end = 0;
+        while (end < data.limit() && data.get(end) != '\n') {
+            end++;
+        }
+        // Everything after the header is read again as the first chunk
+        position = Math.min(size, end + 1L);
+        line = 2;
+        sequence = 0;
+        String header = StandardCharsets.UTF_8.decode(data.slice(0, end)).toString();
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        return header.endsWith("\r") ? header.substring(0, header.length() - 1) : header;
+    }
+
+    // Null at the end of the file
+    Chunk next() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+        long length = Math.min(chunkSize, size - position);
+        ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        int end = (int) length;
+        if (position + length < size) {
+            // Cut after the last line break; the rest of the line starts the next chunk
+            while (end > 0 && data.get(end - 1) != '\n') {
+                end--;
+            }
+            if (end == 0) {
+                throw new IllegalArgumentException("Line " + line + " is longer than the chunk size of "
+                        + chunkSize + " bytes");
+            }
+        }
+        Chunk chunk = new Chunk(sequence++, line, data.slice(0, end));
+        for (int i = 0; i < end; i++) {
+            if (data.get(i) == '\n') {
+                line++;
+            }
+        }
+        position += end;
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,141 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.event.TelemetryImportedEvent;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
+import com.driveinsights.event.VehicleDeletedEvent;
+import com.driveinsights.event.VehicleSavedEvent;
+import com.driveinsights.repository.TableVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Per-table change counters used as HTTP validators (ETag and Last-Modified). Every write bumps
+ * its table's version and change time in the database, so an unchanged collection can be answered
+ * with 304 Not Modified before it is loaded, whichever instance made the change. The bump runs in
+ * the writing transaction just before it commits: a validator never runs ahead of the rows it
+ * covers, and the version row stays locked only for the commit itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersions {
+
+    public enum Table {
+        VEHICLES("vehicles"),
+        ENGINE_DATA("engine_data"),
+        EMISSION_DATA("emission_data"),
+        FUEL_CONSUMPTION("fuel_consumption");
+
+        private final String tableName;
+
+        Table(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public static Table fromTableName(String tableName) {
+            for (Table table : values()) {
+                if (table.tableName.equals(tableName)) {
+                    return table;
+                }
+            }
+            throw new IllegalArgumentException("Unknown table: " + tableName);
+        }
+    }
+
+    @Value
+    public static class Validator {
+        String eTag;
+        long lastModified;
+    }
+
+    private static final Table[] TABLES = Table.values();
+
+    private final TableVersionRepository tableVersionRepository;
+
+    public Validator validator(Table table) {
+        TableVersionRepository.TableVersion version = tableVersionRepository.find(table.tableName);
+        return new Validator("W/\"" + Long.toString(version.version(), 36) + "\"", version.changedAtMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void changed(Table table) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            tableVersionRepository.bump(List.of(table.tableName));
+            return;
+        }
+        // One bump per table and transaction, however many events it publishes
+        EnumSet<Table> pending = (EnumSet<Table>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            EnumSet<Table> tables = EnumSet.noneOf(Table.class);
+            TransactionSynchronizationManager.bindResource(this, tables);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    tableVersionRepository.bump(tables.stream().map(pendingTable -> pendingTable.tableName).toList());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DataVersions.this);
+                }
+            });
+            pending = tables;
+        }
+        pending.add(table);
+    }
+
+    @EventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        changed(event.getRecords());
+    }
+
+    @EventListener
+    public void onTelemetryUpdated(TelemetryUpdatedEvent event) {
+        changed(event.getPrevious());
+        changed(event.getCurrent());
+    }
+
+    @EventListener
+    public void onTelemetryRemoved(TelemetryRemovedEvent event) {
+        changed(event.getRecords());
+    }
+
+    @EventListener
+    public void onTelemetryImported(TelemetryImportedEvent event) {
+        changed(Table.fromTableName(event.getType().getTable()));
+    }
+
+    @EventListener
+    public void onVehicleSaved(VehicleSavedEvent event) {
+        changed(Table.VEHICLES);
+    }
+
+    @EventListener
+    public void onVehicleDeleted(VehicleDeletedEvent event) {
+        // Telemetry rows are deleted with the vehicle
+        for (Table table : TABLES) {
+            changed(table);
+        }
+    }
+
+    private void changed(TelemetryBatchDTO records) {
+        if (!records.getEngineData().isEmpty()) {
+            changed(Table.ENGINE_DATA);
+        }
+        if (!records.getEmissionData().isEmpty()) {
+            changed(Table.EMISSION_DATA);
+        }
+        if (!records.getFuelConsumption().isEmpty()) {
+            changed(Table.FUEL_CONSUMPTION);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.driveinsights.service;
+
+public enum DownsampleMode {
+    // Largest-Triangle-Three-Buckets: one representative reading per bucket, preserving shape
+    LTTB("lttb"),
+    // Lowest and highest reading per bucket, preserving spikes
+    MINMAX("minmax");
+
+    private final String parameterName;
+
+    DownsampleMode(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public static DownsampleMode fromParameter(String value) {
+        for (DownsampleMode mode : values()) {
+            if (mode.parameterName.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported downsampling mode: " + value);
+    }
+}
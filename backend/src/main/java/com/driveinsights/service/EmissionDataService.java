@@ -1,86 +1,186 @@
 package com.driveinsights.service;
 
+import com.driveinsights.config.PaginationProperties;
+import com.driveinsights.dto.CursorPageDTO;
 import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
 import com.driveinsights.model.EmissionData;
 import com.driveinsights.model.Vehicle;
 import com.driveinsights.repository.EmissionDataRepository;
-import com.driveinsights.repository.VehicleRepository;
+import com.driveinsights.repository.TelemetryBatchRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class EmissionDataService {
     
     private final EmissionDataRepository emissionDataRepository;
-    private final VehicleRepository vehicleRepository;
+    private final TelemetryBatchRepository telemetryBatchRepository;
+    private final VehicleService vehicleService;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TelemetryMeters telemetryMeters;
+    private final TelemetryHotTier telemetryHotTier;
+    private final RecentTelemetryKeys recentTelemetryKeys;
     
+    @Transactional(readOnly = true)
     public List<EmissionDataDTO> getAllEmissionData() {
-        return emissionDataRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordReturned(emissionDataRepository.findLatestDtos(PageRequest.of(0, paginationProperties.getMaxListSize())));
     }
     
+    @Transactional(readOnly = true)
     public EmissionDataDTO getEmissionDataById(Long id) {
-        return emissionDataRepository.findById(id)
-                .map(this::convertToDTO)
+        return emissionDataRepository.findDtoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Emission data not found with id: " + id));
     }
     
+    @Transactional(readOnly = true)
     public List<EmissionDataDTO> getEmissionDataByVehicleId(Long vehicleId) {
-        return emissionDataRepository.findByVehicleId(vehicleId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordReturned(emissionDataRepository.findDtosByVehicleId(vehicleId));
     }
     
+    // Not transactional, so a hot tier hit never checks out a connection; the repository query is read-only
     public List<EmissionDataDTO> getEmissionDataByVehicleIdAndDateRange(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
-        return emissionDataRepository.findByVehicleIdAndRecordingTimeBetween(vehicleId, startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<EmissionDataDTO> recent = telemetryHotTier.findEmissionData(vehicleId, startDate, endDate);
+        if (recent != null) {
+            telemetryMeters.recordReturned(TelemetryMeters.EMISSION, recent.size());
+            return recent;
+        }
+        return recordReturned(
+                emissionDataRepository.findDtosByVehicleIdAndRecordingTimeBetween(vehicleId, startDate, endDate));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<EmissionDataDTO> getEmissionDataPage(
+            String cursor, Integer size, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : PageCursor.startingAt(startDate);
+        LocalDateTime end = endDate != null ? endDate : PageCursor.MAX_TIME;
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<EmissionDataDTO> rows = vehicleId == null
+                ? emissionDataRepository.findPage(after.getTime(), after.getId(), end, limit)
+                : emissionDataRepository.findPageByVehicleId(vehicleId, after.getTime(), after.getId(), end, limit);
+        telemetryMeters.recordReturned(TelemetryMeters.EMISSION, Math.min(rows.size(), pageSize));
+        return PageCursor.toPage(rows, pageSize, Function.identity(),
+                row -> new PageCursor(row.getRecordingTime(), row.getId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public void forEachEmissionData(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate, Consumer<EmissionDataDTO> action) {
+        List<EmissionDataDTO> recent = vehicleId != null
+                ? telemetryHotTier.findEmissionData(vehicleId, startDate, endDate)
+                : null;
+        if (recent != null) {
+            recent.forEach(action);
+            telemetryMeters.recordReturned(TelemetryMeters.EMISSION, recent.size());
+            return;
+        }
+        try (Stream<EmissionDataDTO> rows = vehicleId == null
+                ? emissionDataRepository.streamByRecordingTimeBetween(startDate, endDate)
+                : emissionDataRepository.streamByVehicleIdAndRecordingTimeBetween(vehicleId, startDate, endDate)) {
+            Iterator<EmissionDataDTO> iterator = rows.iterator();
+            int streamed = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                streamed++;
+            }
+            telemetryMeters.recordReturned(TelemetryMeters.EMISSION, streamed);
+        }
     }
     
+    // A retried upload of the same vehicle and recording time returns the reading stored first
+    @Transactional
     public EmissionDataDTO createEmissionData(EmissionDataDTO emissionDataDTO) {
-        Vehicle vehicle = vehicleRepository.findById(emissionDataDTO.getVehicleId())
-                .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + emissionDataDTO.getVehicleId()));
+        vehicleService.getVehicleById(emissionDataDTO.getVehicleId());
+        if (emissionDataDTO.getRecordingTime() == null) {
+            throw new IllegalArgumentException("recordingTime is required");
+        }
+        LocalDateTime recordingTime = emissionDataDTO.getRecordingTime().truncatedTo(ChronoUnit.MICROS);
         
-        EmissionData emissionData = new EmissionData();
-        emissionData.setVehicle(vehicle);
-        emissionData.setCo2Emissions(emissionDataDTO.getCo2Emissions());
-        emissionData.setNoxEmissions(emissionDataDTO.getNoxEmissions());
-        emissionData.setParticulateMatter(emissionDataDTO.getParticulateMatter());
-        emissionData.setRecordingTime(emissionDataDTO.getRecordingTime());
+        if (recentTelemetryKeys.containsEmissionData(emissionDataDTO.getVehicleId(), recordingTime)) {
+            Optional<EmissionDataDTO> existing = findByNaturalKey(emissionDataDTO.getVehicleId(), recordingTime);
+            if (existing.isPresent()) {
+                telemetryMeters.recordDuplicates(TelemetryMeters.EMISSION, 1);
+                return existing.get();
+            }
+        }
         
-        return convertToDTO(emissionDataRepository.save(emissionData));
+        EmissionDataDTO created = new EmissionDataDTO(null, emissionDataDTO.getVehicleId(),
+                emissionDataDTO.getCo2Emissions(), emissionDataDTO.getNoxEmissions(),
+                emissionDataDTO.getParticulateMatter(), recordingTime);
+        if (telemetryBatchRepository.insertEmissionData(List.of(created)) == 0) {
+            telemetryMeters.recordDuplicates(TelemetryMeters.EMISSION, 1);
+            return findByNaturalKey(emissionDataDTO.getVehicleId(), recordingTime)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Emission data conflicted with a row that no longer exists"));
+        }
+        telemetryMeters.recordIngested(TelemetryMeters.EMISSION, 1);
+        eventPublisher.publishEvent(TelemetryRecordedEvent.of(created));
+        return created;
     }
     
+    @Transactional
     public EmissionDataDTO updateEmissionData(Long id, EmissionDataDTO emissionDataDTO) {
         EmissionData emissionData = emissionDataRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Emission data not found with id: " + id));
+        EmissionDataDTO previous = convertToDTO(emissionData);
+        LocalDateTime recordingTime = emissionDataDTO.getRecordingTime() != null
+                ? emissionDataDTO.getRecordingTime().truncatedTo(ChronoUnit.MICROS) : null;
+        findByNaturalKey(emissionDataDTO.getVehicleId(), recordingTime)
+                .filter(existing -> !existing.getId().equals(id))
+                .ifPresent(existing -> {
+                    throw new IllegalArgumentException("Emission data already exists for vehicle "
+                            + emissionDataDTO.getVehicleId() + " at " + recordingTime);
+                });
         
         if (!emissionData.getVehicle().getId().equals(emissionDataDTO.getVehicleId())) {
-            Vehicle newVehicle = vehicleRepository.findById(emissionDataDTO.getVehicleId())
-                    .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + emissionDataDTO.getVehicleId()));
+            Vehicle newVehicle = vehicleService.getVehicleReference(emissionDataDTO.getVehicleId());
             emissionData.setVehicle(newVehicle);
         }
         
         emissionData.setCo2Emissions(emissionDataDTO.getCo2Emissions());
         emissionData.setNoxEmissions(emissionDataDTO.getNoxEmissions());
         emissionData.setParticulateMatter(emissionDataDTO.getParticulateMatter());
-        emissionData.setRecordingTime(emissionDataDTO.getRecordingTime());
+        emissionData.setRecordingTime(recordingTime);
         
-        return convertToDTO(emissionDataRepository.save(emissionData));
+        EmissionDataDTO updated = convertToDTO(emissionDataRepository.saveAndFlush(emissionData));
+        eventPublisher.publishEvent(TelemetryUpdatedEvent.of(previous, updated));
+        return updated;
     }
     
+    @Transactional
     public void deleteEmissionData(Long id) {
-        if (!emissionDataRepository.existsById(id)) {
-            throw new EntityNotFoundException("Emission data not found with id: " + id);
-        }
-        emissionDataRepository.deleteById(id);
+        EmissionData emissionData = emissionDataRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Emission data not found with id: " + id));
+        emissionDataRepository.delete(emissionData);
+        emissionDataRepository.flush();
+        eventPublisher.publishEvent(TelemetryRemovedEvent.of(convertToDTO(emissionData)));
+    }
+    
+    private List<EmissionDataDTO> recordReturned(List<EmissionDataDTO> rows) {
+        telemetryMeters.recordReturned(TelemetryMeters.EMISSION, rows.size());
+        return rows;
+    }
+    
+    private Optional<EmissionDataDTO> findByNaturalKey(Long vehicleId, LocalDateTime recordingTime) {
+        return emissionDataRepository.findDtoByVehicleIdAndRecordingTime(vehicleId, recordingTime);
     }
     
     private EmissionDataDTO convertToDTO(EmissionData emissionData) {
@@ -0,0 +1,70 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.model.TelemetryMetric;
+
+// 40 bytes per reading: time, id, CO2, NOx and particulate matter (NaN for null)
+final class EmissionHotSeries extends HotSeries<EmissionDataDTO> {
+
+    static final int BYTES_PER_READING = 40;
+
+    private double[] co2Emissions;
+    private double[] noxEmissions;
+    private double[] particulateMatter;
+
+    EmissionHotSeries(int maxCapacity, long floor) {
+        super(maxCapacity, floor);
+    }
+
+    @Override
+    void allocate(int capacity) {
+        co2Emissions = new double[capacity];
+        noxEmissions = new double[capacity];
+        particulateMatter = new double[capacity];
+    }
+
+    @Override
+    void relayout(int head, int size, int capacity) {
+        co2Emissions = relayout(co2Emissions, head, size, capacity);
+        noxEmissions = relayout(noxEmissions, head, size, capacity);
+        particulateMatter = relayout(particulateMatter, head, size, capacity);
+    }
+
+    @Override
+    void move(int from, int to) {
+        co2Emissions[to] = co2Emissions[from];
+        noxEmissions[to] = noxEmissions[from];
+        particulateMatter[to] = particulateMatter[from];
+    }
+
+    @Override
+    void store(int index, EmissionDataDTO record) {
+        co2Emissions[index] = record.getCo2Emissions();
+        noxEmissions[index] = record.getNoxEmissions() != null ? record.getNoxEmissions() : Double.NaN;
+        particulateMatter[index] = record.getParticulateMatter() != null ? record.getParticulateMatter() : Double.NaN;
+    }
+
+    @Override
+    EmissionDataDTO load(int index, long vehicleId) {
+        return new EmissionDataDTO(id(index), vehicleId, co2Emissions[index], boxed(noxEmissions[index]),
+                boxed(particulateMatter[index]), fromMicros(timeAt(index)));
+    }
+
+    @Override
+    double value(int index, TelemetryMetric metric) {
+        switch (metric) {
+            case CO2_EMISSIONS:
+                return co2Emissions[index];
+            case NOX_EMISSIONS:
+                return noxEmissions[index];
+            case PARTICULATE_MATTER:
+                return particulateMatter[index];
+            default:
+                throw new IllegalArgumentException("Not an emission metric: " + metric);
+        }
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
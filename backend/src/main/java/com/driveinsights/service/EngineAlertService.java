@@ -0,0 +1,151 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.AnomalyDetectionProperties;
+import com.driveinsights.dto.EngineAlertDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.model.AlertRule;
+import com.driveinsights.model.EngineAlert;
+import com.driveinsights.repository.EngineAlertBatchRepository;
+import com.driveinsights.repository.EngineAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Runs committed engine readings through the {@link EngineAnomalyDetector} on the writing
+ * thread and queues any alerts; a scheduled flush writes them in batches, so inserts never
+ * wait on alert persistence. Alerts that do not fit in the queue are dropped and counted.
+ */
+@Slf4j
+@Service
+public class EngineAlertService {
+
+    public static final int MAX_RESULTS = 1000;
+
+    private final AnomalyDetectionProperties properties;
+    private final EngineAlertRepository engineAlertRepository;
+    private final EngineAlertBatchRepository engineAlertBatchRepository;
+    private final TaskScheduler taskScheduler;
+    private final EngineAnomalyDetector detector;
+    private final BlockingQueue<EngineAlert> pending;
+    private final EngineAnomalyDetector.AlertSink<EngineDataDTO> sink = this::enqueue;
+    private final Map<AlertRule, Counter> raised = new EnumMap<>(AlertRule.class);
+    private final Counter dropped;
+
+    public EngineAlertService(AnomalyDetectionProperties properties, EngineAlertRepository engineAlertRepository,
+                              EngineAlertBatchRepository engineAlertBatchRepository, TaskScheduler taskScheduler,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.engineAlertRepository = engineAlertRepository;
+        this.engineAlertBatchRepository = engineAlertBatchRepository;
+        this.taskScheduler = taskScheduler;
+        this.detector = new EngineAnomalyDetector(properties);
+        this.pending = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        for (AlertRule rule : AlertRule.values()) {
+            raised.put(rule, Counter.builder("engine.alerts")
+                    .description("Engine alerts raised by the anomaly detector")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry));
+        }
+        this.dropped = Counter.builder("engine.alerts.dropped")
+                .description("Engine alerts discarded because the write queue was full or the write failed")
+                .register(meterRegistry);
+        Gauge.builder("engine.alerts.pending", pending, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("engine.alerts.tracked.vehicles", detector, EngineAnomalyDetector::trackedVehicles)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void scheduleFlush() {
+        if (properties.isEnabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::flush, properties.getFlushInterval());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (EngineDataDTO record : event.getRecords().getEngineData()) {
+            if (record.getEngineTemperature() == null || record.getEngineRpm() == null) {
+                continue;
+            }
+            detector.evaluate(record, record.getVehicleId(), record.getRecordingTime().toEpochSecond(ZoneOffset.UTC),
+                    record.getEngineTemperature(), record.getEngineRpm(),
+                    record.getIdlingTimeSeconds() != null ? record.getIdlingTimeSeconds() : -1, sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<EngineAlertDTO> getAlerts(Long vehicleId, String rule, LocalDateTime startDate,
+                                          LocalDateTime endDate, int limit) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS);
+        }
+        AlertRule alertRule = rule != null ? AlertRule.fromParameter(rule) : null;
+        LocalDateTime from = startDate != null ? startDate : PageCursor.MIN_TIME;
+        LocalDateTime to = endDate != null ? endDate : PageCursor.MAX_TIME;
+        return engineAlertRepository.findAlerts(vehicleId, alertRule, from, to, PageRequest.of(0, limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void flush() {
+        List<EngineAlert> batch = new ArrayList<>(properties.getFlushBatchSize());
+        while (pending.drainTo(batch, properties.getFlushBatchSize()) > 0) {
+            try {
+                engineAlertBatchRepository.insert(batch);
+            } catch (RuntimeException e) {
+                // Not retried: a batch that failed once (e.g. its vehicle was deleted) would block the queue
+                dropped.increment(batch.size());
+                log.warn("Could not write {} engine alerts: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    private void enqueue(EngineDataDTO record, AlertRule rule, double observed, double expected,
+                         double deviationScore) {
+        raised.get(rule).increment();
+        EngineAlert alert = new EngineAlert(null, record.getVehicleId(), record.getId(), rule, observed, expected,
+                Double.isNaN(deviationScore) ? null : deviationScore, record.getRecordingTime(), LocalDateTime.now());
+        if (!pending.offer(alert)) {
+            dropped.increment();
+        }
+    }
+
+    private EngineAlertDTO convertToDTO(EngineAlert alert) {
+        return new EngineAlertDTO(
+                alert.getId(),
+                alert.getVehicleId(),
+                alert.getEngineDataId(),
+                alert.getRule().name(),
+                alert.getObservedValue(),
+                alert.getExpectedValue(),
+                alert.getDeviationScore(),
+                alert.getRecordingTime(),
+                alert.getCreatedAt()
+        );
+    }
+}
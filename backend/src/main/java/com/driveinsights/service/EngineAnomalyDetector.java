@@ -0,0 +1,211 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.AnomalyDetectionProperties;
+import com.driveinsights.model.AlertRule;
+
+import java.util.Arrays;
+
+/**
+ * Per-vehicle streaming evaluation of engine readings: fixed limits on temperature, RPM and
+ * idling time, plus a z-score of temperature and RPM against an exponentially weighted moving
+ * mean and variance. State lives in primitive arrays inside lock stripes keyed by vehicle id,
+ * so a reading costs one hash probe and a few arithmetic operations, with no allocation unless
+ * an alert fires. State is in memory only; after a restart each vehicle warms up again.
+ */
+public final class EngineAnomalyDetector {
+
+    private static final AlertRule[] RULES = AlertRule.values();
+    private static final int STRIPES = 64;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final AnomalyDetectionProperties properties;
+    private final long cooldownSeconds;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public EngineAnomalyDetector(AnomalyDetectionProperties properties) {
+        this.properties = properties;
+        this.cooldownSeconds = properties.getCooldown().toSeconds();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @FunctionalInterface
+    public interface AlertSink<T> {
+        // Called while the vehicle's stripe is locked, so it must not block
+        void onAlert(T record, AlertRule rule, double observed, double expected, double deviationScore);
+    }
+
+    /**
+     * Evaluates one reading and updates the vehicle's moving statistics. Readings are taken in
+     * arrival order; idlingTimeSeconds is negative when the reading has none. deviationScore is
+     * NaN for limit rules.
+     */
+    public <T> void evaluate(T record, long vehicleId, long recordingEpochSecond, double engineTemperature,
+                             int engineRpm, int idlingTimeSeconds, AlertSink<T> sink) {
+        Stripe stripe = stripes[(int) (mix(vehicleId) >>> 58)];
+        synchronized (stripe) {
+            int slot = stripe.slotOf(vehicleId);
+            int samples = stripe.samples[slot];
+
+            if (engineTemperature > properties.getMaxEngineTemperature()) {
+                raise(stripe, slot, AlertRule.ENGINE_TEMPERATURE_LIMIT, recordingEpochSecond, record, sink,
+                        engineTemperature, properties.getMaxEngineTemperature(), Double.NaN);
+            }
+            if (engineRpm > properties.getMaxEngineRpm()) {
+                raise(stripe, slot, AlertRule.ENGINE_RPM_LIMIT, recordingEpochSecond, record, sink,
+                        engineRpm, properties.getMaxEngineRpm(), Double.NaN);
+            }
+            if (idlingTimeSeconds > properties.getMaxIdlingTimeSeconds()) {
+                raise(stripe, slot, AlertRule.IDLING_TIME_LIMIT, recordingEpochSecond, record, sink,
+                        idlingTimeSeconds, properties.getMaxIdlingTimeSeconds(), Double.NaN);
+            }
+
+            double alpha = properties.getEwmaAlpha();
+            boolean warm = samples >= properties.getWarmupSamples();
+
+            double temperatureMean = stripe.temperatureMean[slot];
+            double temperatureVariance = stripe.temperatureVariance[slot];
+            double temperatureDiff = engineTemperature - temperatureMean;
+            if (warm && temperatureVariance > 0) {
+                double score = temperatureDiff / Math.sqrt(temperatureVariance);
+                if (Math.abs(score) > properties.getZScoreThreshold()) {
+                    raise(stripe, slot, AlertRule.ENGINE_TEMPERATURE_DEVIATION, recordingEpochSecond, record, sink,
+                            engineTemperature, temperatureMean, score);
+                }
+            }
+
+            double rpmMean = stripe.rpmMean[slot];
+            double rpmVariance = stripe.rpmVariance[slot];
+            double rpmDiff = engineRpm - rpmMean;
+            if (warm && rpmVariance > 0) {
+                double score = rpmDiff / Math.sqrt(rpmVariance);
+                if (Math.abs(score) > properties.getZScoreThreshold()) {
+                    raise(stripe, slot, AlertRule.ENGINE_RPM_DEVIATION, recordingEpochSecond, record, sink,
+                            engineRpm, rpmMean, score);
+                }
+            }
+
+            if (samples == 0) {
+                stripe.temperatureMean[slot] = engineTemperature;
+                stripe.rpmMean[slot] = engineRpm;
+            } else {
+                // Incremental EWMA mean and variance; anomalous readings are folded in so a lasting shift re-baselines
+                double temperatureStep = alpha * temperatureDiff;
+                stripe.temperatureMean[slot] = temperatureMean + temperatureStep;
+                stripe.temperatureVariance[slot] = (1 - alpha) * (temperatureVariance + temperatureDiff * temperatureStep);
+                double rpmStep = alpha * rpmDiff;
+                stripe.rpmMean[slot] = rpmMean + rpmStep;
+                stripe.rpmVariance[slot] = (1 - alpha) * (rpmVariance + rpmDiff * rpmStep);
+            }
+            if (samples < Integer.MAX_VALUE) {
+                stripe.samples[slot] = samples + 1;
+            }
+        }
+    }
+
+    public int trackedVehicles() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size;
+            }
+        }
+        return total;
+    }
+
+    private <T> void raise(Stripe stripe, int slot, AlertRule rule, long recordingEpochSecond, T record,
+                           AlertSink<T> sink, double observed, double expected, double deviationScore) {
+        int index = slot * RULES.length + rule.ordinal();
+        long last = stripe.lastAlertAt[index];
+        if (last != EMPTY && Math.abs(recordingEpochSecond - last) < cooldownSeconds) {
+            return;
+        }
+        stripe.lastAlertAt[index] = recordingEpochSecond;
+        sink.onAlert(record, rule, observed, expected, deviationScore);
+    }
+
+    private static long mix(long key) {
+        // Murmur3 finalizer; vehicle ids are sequential, so the raw value would cluster
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    // Open-addressing table from vehicle id to a slot in the parallel state arrays
+    private static final class Stripe {
+        private long[] keys;
+        private int[] index;
+        private int size;
+        private int[] samples;
+        private double[] temperatureMean;
+        private double[] temperatureVariance;
+        private double[] rpmMean;
+        private double[] rpmVariance;
+        private long[] lastAlertAt;
+
+        Stripe() {
+            keys = new long[16];
+            Arrays.fill(keys, EMPTY);
+            index = new int[16];
+            allocateState(8);
+        }
+
+        int slotOf(long vehicleId) {
+            int mask = keys.length - 1;
+            int position = (int) mix(vehicleId) & mask;
+            while (keys[position] != EMPTY) {
+                if (keys[position] == vehicleId) {
+                    return index[position];
+                }
+                position = (position + 1) & mask;
+            }
+            if (size == samples.length) {
+                allocateState(size * 2);
+            }
+            int slot = size++;
+            keys[position] = vehicleId;
+            index[position] = slot;
+            // Keep the table at most half full
+            if (size * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            return slot;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldIndex = index;
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            index = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int position = (int) mix(oldKeys[i]) & mask;
+                    while (keys[position] != EMPTY) {
+                        position = (position + 1) & mask;
+                    }
+                    keys[position] = oldKeys[i];
+                    index[position] = oldIndex[i];
+                }
+            }
+        }
+
+        private void allocateState(int capacity) {
+            int previous = samples == null ? 0 : samples.length;
+            samples = samples == null ? new int[capacity] : Arrays.copyOf(samples, capacity);
+            temperatureMean = temperatureMean == null ? new double[capacity] : Arrays.copyOf(temperatureMean, capacity);
+            temperatureVariance = temperatureVariance == null
+                    ? new double[capacity] : Arrays.copyOf(temperatureVariance, capacity);
+            rpmMean = rpmMean == null ? new double[capacity] : Arrays.copyOf(rpmMean, capacity);
+            rpmVariance = rpmVariance == null ? new double[capacity] : Arrays.copyOf(rpmVariance, capacity);
+            lastAlertAt = lastAlertAt == null
+                    ? new long[capacity * RULES.length] : Arrays.copyOf(lastAlertAt, capacity * RULES.length);
+            Arrays.fill(lastAlertAt, previous * RULES.length, lastAlertAt.length, EMPTY);
+        }
+    }
+}
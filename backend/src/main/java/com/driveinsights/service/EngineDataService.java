@@ -1,86 +1,186 @@
 package com.driveinsights.service;
 
+import com.driveinsights.config.PaginationProperties;
+import com.driveinsights.dto.CursorPageDTO;
 import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
 import com.driveinsights.model.EngineData;
 import com.driveinsights.model.Vehicle;
 import com.driveinsights.repository.EngineDataRepository;
-import com.driveinsights.repository.VehicleRepository;
+import com.driveinsights.repository.TelemetryBatchRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class EngineDataService {
     
     private final EngineDataRepository engineDataRepository;
-    private final VehicleRepository vehicleRepository;
+    private final TelemetryBatchRepository telemetryBatchRepository;
+    private final VehicleService vehicleService;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TelemetryMeters telemetryMeters;
+    private final TelemetryHotTier telemetryHotTier;
+    private final RecentTelemetryKeys recentTelemetryKeys;
     
+    @Transactional(readOnly = true)
     public List<EngineDataDTO> getAllEngineData() {
-        return engineDataRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordReturned(engineDataRepository.findLatestDtos(PageRequest.of(0, paginationProperties.getMaxListSize())));
     }
     
+    @Transactional(readOnly = true)
     public EngineDataDTO getEngineDataById(Long id) {
-        return engineDataRepository.findById(id)
-                .map(this::convertToDTO)
+        return engineDataRepository.findDtoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Engine data not found with id: " + id));
     }
     
+    @Transactional(readOnly = true)
     public List<EngineDataDTO> getEngineDataByVehicleId(Long vehicleId) {
-        return engineDataRepository.findByVehicleId(vehicleId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordReturned(engineDataRepository.findDtosByVehicleId(vehicleId));
     }
     
+    // Not transactional, so a hot tier hit never checks out a connection; the repository query is read-only
     public List<EngineDataDTO> getEngineDataByVehicleIdAndDateRange(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
-        return engineDataRepository.findByVehicleIdAndRecordingTimeBetween(vehicleId, startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<EngineDataDTO> recent = telemetryHotTier.findEngineData(vehicleId, startDate, endDate);
+        if (recent != null) {
+            telemetryMeters.recordReturned(TelemetryMeters.ENGINE, recent.size());
+            return recent;
+        }
+        return recordReturned(
+                engineDataRepository.findDtosByVehicleIdAndRecordingTimeBetween(vehicleId, startDate, endDate));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<EngineDataDTO> getEngineDataPage(
+            String cursor, Integer size, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : PageCursor.startingAt(startDate);
+        LocalDateTime end = endDate != null ? endDate : PageCursor.MAX_TIME;
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<EngineDataDTO> rows = vehicleId == null
+                ? engineDataRepository.findPage(after.getTime(), after.getId(), end, limit)
+                : engineDataRepository.findPageByVehicleId(vehicleId, after.getTime(), after.getId(), end, limit);
+        telemetryMeters.recordReturned(TelemetryMeters.ENGINE, Math.min(rows.size(), pageSize));
+        return PageCursor.toPage(rows, pageSize, Function.identity(),
+                row -> new PageCursor(row.getRecordingTime(), row.getId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public void forEachEngineData(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate, Consumer<EngineDataDTO> action) {
+        List<EngineDataDTO> recent = vehicleId != null
+                ? telemetryHotTier.findEngineData(vehicleId, startDate, endDate)
+                : null;
+        if (recent != null) {
+            recent.forEach(action);
+            telemetryMeters.recordReturned(TelemetryMeters.ENGINE, recent.size());
+            return;
+        }
+        try (Stream<EngineDataDTO> rows = vehicleId == null
+                ? engineDataRepository.streamByRecordingTimeBetween(startDate, endDate)
+                : engineDataRepository.streamByVehicleIdAndRecordingTimeBetween(vehicleId, startDate, endDate)) {
+            Iterator<EngineDataDTO> iterator = rows.iterator();
+            int streamed = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                streamed++;
+            }
+            telemetryMeters.recordReturned(TelemetryMeters.ENGINE, streamed);
+        }
     }
     
+    // A retried upload of the same vehicle and recording time returns the reading stored first
+    @Transactional
     public EngineDataDTO createEngineData(EngineDataDTO engineDataDTO) {
-        Vehicle vehicle = vehicleRepository.findById(engineDataDTO.getVehicleId())
-                .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + engineDataDTO.getVehicleId()));
+        vehicleService.getVehicleById(engineDataDTO.getVehicleId());
+        if (engineDataDTO.getRecordingTime() == null) {
+            throw new IllegalArgumentException("recordingTime is required");
+        }
+        LocalDateTime recordingTime = engineDataDTO.getRecordingTime().truncatedTo(ChronoUnit.MICROS);
         
-        EngineData engineData = new EngineData();
-        engineData.setVehicle(vehicle);
-        engineData.setEngineTemperature(engineDataDTO.getEngineTemperature());
-        engineData.setEngineRpm(engineDataDTO.getEngineRpm());
-        engineData.setIdlingTimeSeconds(engineDataDTO.getIdlingTimeSeconds());
-        engineData.setRecordingTime(engineDataDTO.getRecordingTime());
+        if (recentTelemetryKeys.containsEngineData(engineDataDTO.getVehicleId(), recordingTime)) {
+            Optional<EngineDataDTO> existing = findByNaturalKey(engineDataDTO.getVehicleId(), recordingTime);
+            if (existing.isPresent()) {
+                telemetryMeters.recordDuplicates(TelemetryMeters.ENGINE, 1);
+                return existing.get();
+            }
+        }
         
-        return convertToDTO(engineDataRepository.save(engineData));
+        EngineDataDTO created = new EngineDataDTO(null, engineDataDTO.getVehicleId(),
+                engineDataDTO.getEngineTemperature(), engineDataDTO.getEngineRpm(),
+                engineDataDTO.getIdlingTimeSeconds(), recordingTime);
+        if (telemetryBatchRepository.insertEngineData(List.of(created)) == 0) {
+            telemetryMeters.recordDuplicates(TelemetryMeters.ENGINE, 1);
+            return findByNaturalKey(engineDataDTO.getVehicleId(), recordingTime)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Engine data conflicted with a row that no longer exists"));
+        }
+        telemetryMeters.recordIngested(TelemetryMeters.ENGINE, 1);
+        eventPublisher.publishEvent(TelemetryRecordedEvent.of(created));
+        return created;
     }
     
+    @Transactional
     public EngineDataDTO updateEngineData(Long id, EngineDataDTO engineDataDTO) {
         EngineData engineData = engineDataRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Engine data not found with id: " + id));
+        EngineDataDTO previous = convertToDTO(engineData);
+        LocalDateTime recordingTime = engineDataDTO.getRecordingTime() != null
+                ? engineDataDTO.getRecordingTime().truncatedTo(ChronoUnit.MICROS) : null;
+        findByNaturalKey(engineDataDTO.getVehicleId(), recordingTime)
+                .filter(existing -> !existing.getId().equals(id))
+                .ifPresent(existing -> {
+                    throw new IllegalArgumentException("Engine data already exists for vehicle "
+                            + engineDataDTO.getVehicleId() + " at " + recordingTime);
+                });
         
         if (!engineData.getVehicle().getId().equals(engineDataDTO.getVehicleId())) {
-            Vehicle newVehicle = vehicleRepository.findById(engineDataDTO.getVehicleId())
-                    .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + engineDataDTO.getVehicleId()));
+            Vehicle newVehicle = vehicleService.getVehicleReference(engineDataDTO.getVehicleId());
             engineData.setVehicle(newVehicle);
         }
         
         engineData.setEngineTemperature(engineDataDTO.getEngineTemperature());
         engineData.setEngineRpm(engineDataDTO.getEngineRpm());
         engineData.setIdlingTimeSeconds(engineDataDTO.getIdlingTimeSeconds());
-        engineData.setRecordingTime(engineDataDTO.getRecordingTime());
+        engineData.setRecordingTime(recordingTime);
         
-        return convertToDTO(engineDataRepository.save(engineData));
+        EngineDataDTO updated = convertToDTO(engineDataRepository.saveAndFlush(engineData));
+        eventPublisher.publishEvent(TelemetryUpdatedEvent.of(previous, updated));
+        return updated;
     }
     
+    @Transactional
     public void deleteEngineData(Long id) {
-        if (!engineDataRepository.existsById(id)) {
-            throw new EntityNotFoundException("Engine data not found with id: " + id);
-        }
-        engineDataRepository.deleteById(id);
+        EngineData engineData = engineDataRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Engine data not found with id: " + id));
+        engineDataRepository.delete(engineData);
+        engineDataRepository.flush();
+        eventPublisher.publishEvent(TelemetryRemovedEvent.of(convertToDTO(engineData)));
+    }
+    
+    private List<EngineDataDTO> recordReturned(List<EngineDataDTO> rows) {
+        telemetryMeters.recordReturned(TelemetryMeters.ENGINE, rows.size());
+        return rows;
+    }
+    
+    private Optional<EngineDataDTO> findByNaturalKey(Long vehicleId, LocalDateTime recordingTime) {
+        return engineDataRepository.findDtoByVehicleIdAndRecordingTime(vehicleId, recordingTime);
     }
     
     private EngineDataDTO convertToDTO(EngineData engineData) {
@@ -0,0 +1,70 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.model.TelemetryMetric;
+
+// 32 bytes per reading: time, id, temperature, RPM and idling time
+final class EngineHotSeries extends HotSeries<EngineDataDTO> {
+
+    static final int BYTES_PER_READING = 32;
+
+    // Stands in for a null idling time
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private double[] engineTemperature;
+    private int[] engineRpm;
+    private int[] idlingTimeSeconds;
+
+    EngineHotSeries(int maxCapacity, long floor) {
+        super(maxCapacity, floor);
+    }
+
+    @Override
+    void allocate(int capacity) {
+        engineTemperature = new double[capacity];
+        engineRpm = new int[capacity];
+        idlingTimeSeconds = new int[capacity];
+    }
+
+    @Override
+    void relayout(int head, int size, int capacity) {
+        engineTemperature = relayout(engineTemperature, head, size, capacity);
+        engineRpm = relayout(engineRpm, head, size, capacity);
+        idlingTimeSeconds = relayout(idlingTimeSeconds, head, size, capacity);
+    }
+
+    @Override
+    void move(int from, int to) {
+        engineTemperature[to] = engineTemperature[from];
+        engineRpm[to] = engineRpm[from];
+        idlingTimeSeconds[to] = idlingTimeSeconds[from];
+    }
+
+    @Override
+    void store(int index, EngineDataDTO record) {
+        engineTemperature[index] = record.getEngineTemperature();
+        engineRpm[index] = record.getEngineRpm();
+        idlingTimeSeconds[index] = record.getIdlingTimeSeconds() != null ? record.getIdlingTimeSeconds() : NO_VALUE;
+    }
+
+    @Override
+    EngineDataDTO load(int index, long vehicleId) {
+        int idling = idlingTimeSeconds[index];
+        return new EngineDataDTO(id(index), vehicleId, engineTemperature[index], engineRpm[index],
+                idling != NO_VALUE ? idling : null, fromMicros(timeAt(index)));
+    }
+
+    @Override
+    double value(int index, TelemetryMetric metric) {
+        switch (metric) {
+            case ENGINE_TEMPERATURE:
+                return engineTemperature[index];
+            case ENGINE_RPM:
+                return engineRpm[index];
+            case IDLING_TIME_SECONDS:
+                return idlingTimeSeconds[index] != NO_VALUE ? idlingTimeSeconds[index] : Double.NaN;
+            default:
+                throw new IllegalArgumentException("Not an engine metric: " + metric);
+        }
+    }
+}
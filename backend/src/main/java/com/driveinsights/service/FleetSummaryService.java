@@ -0,0 +1,97 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.VehicleSummaryDTO;
+import com.driveinsights.model.Vehicle;
+import com.driveinsights.repository.EmissionDataRepository;
+import com.driveinsights.repository.EmissionDataRepository.VehicleEmissionSummary;
+import com.driveinsights.repository.EngineDataRepository;
+import com.driveinsights.repository.EngineDataRepository.VehicleEngineSummary;
+import com.driveinsights.repository.FuelConsumptionRepository;
+import com.driveinsights.repository.FuelConsumptionRepository.VehicleFuelSummary;
+import com.driveinsights.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds per-vehicle KPIs for the whole fleet (or a subset) with one grouped query per
+ * telemetry table. Results are cached for the TTL configured in spring.cache.caffeine.spec
+ * and evicted whenever a vehicle is created, updated or deleted.
+ */
+@Service
+@RequiredArgsConstructor
+public class FleetSummaryService {
+
+    public static final String CACHE_NAME = "fleetSummary";
+
+    private final VehicleRepository vehicleRepository;
+    private final EngineDataRepository engineDataRepository;
+    private final EmissionDataRepository emissionDataRepository;
+    private final FuelConsumptionRepository fuelConsumptionRepository;
+
+    @Cacheable(cacheNames = CACHE_NAME, key = "#vehicleIds == null ? 'all' : #vehicleIds")
+    @Transactional(readOnly = true)
+    public List<VehicleSummaryDTO> getFleetSummary(SortedSet<Long> vehicleIds) {
+        if (vehicleIds != null && vehicleIds.isEmpty()) {
+            return List.of();
+        }
+        List<Vehicle> vehicles = vehicleIds == null
+                ? vehicleRepository.findAll(Sort.by("id"))
+                : vehicleRepository.findAllById(vehicleIds);
+        Map<Long, VehicleEngineSummary> engine = byVehicle(vehicleIds == null
+                ? engineDataRepository.summarizeByVehicle()
+                : engineDataRepository.summarizeByVehicle(vehicleIds), VehicleEngineSummary::getVehicleId);
+        Map<Long, VehicleEmissionSummary> emissions = byVehicle(vehicleIds == null
+                ? emissionDataRepository.summarizeByVehicle()
+                : emissionDataRepository.summarizeByVehicle(vehicleIds), VehicleEmissionSummary::getVehicleId);
+        Map<Long, VehicleFuelSummary> fuel = byVehicle(vehicleIds == null
+                ? fuelConsumptionRepository.summarizeByVehicle()
+                : fuelConsumptionRepository.summarizeByVehicle(vehicleIds), VehicleFuelSummary::getVehicleId);
+
+        return vehicles.stream()
+                .map(vehicle -> toDTO(vehicle, engine.get(vehicle.getId()), emissions.get(vehicle.getId()),
+                        fuel.get(vehicle.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private VehicleSummaryDTO toDTO(Vehicle vehicle, VehicleEngineSummary engine,
+                                    VehicleEmissionSummary emissions, VehicleFuelSummary fuel) {
+        VehicleSummaryDTO summary = new VehicleSummaryDTO();
+        summary.setVehicleId(vehicle.getId());
+        summary.setMake(vehicle.getMake());
+        summary.setModel(vehicle.getModel());
+        summary.setYear(vehicle.getYear());
+        summary.setLicensePlate(vehicle.getLicensePlate());
+        summary.setFuelType(vehicle.getFuelType());
+        if (fuel != null) {
+            summary.setAverageMpg(fuel.getAverageMpg());
+            summary.setTotalFuelAmount(fuel.getTotalFuelAmount());
+            summary.setTotalDistanceTraveled(fuel.getTotalDistanceTraveled());
+            summary.setTotalFuelCost(fuel.getTotalFuelCost());
+        }
+        if (engine != null) {
+            summary.setAverageEngineTemperature(engine.getAverageEngineTemperature());
+            summary.setAverageEngineRpm(engine.getAverageEngineRpm());
+            summary.setTotalIdlingTimeSeconds(engine.getTotalIdlingTimeSeconds());
+        }
+        if (emissions != null) {
+            summary.setAverageCo2Emissions(emissions.getAverageCo2Emissions());
+            summary.setTotalCo2Emissions(emissions.getTotalCo2Emissions());
+            summary.setAverageNoxEmissions(emissions.getAverageNoxEmissions());
+            summary.setAverageParticulateMatter(emissions.getAverageParticulateMatter());
+        }
+        return summary;
+    }
+
+    private static <T> Map<Long, T> byVehicle(List<T> rows, Function<T, Long> vehicleId) {
+        return rows.stream().collect(Collectors.toMap(vehicleId, Function.identity()));
+    }
+}
@@ -0,0 +1,167 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.FuelAnalyticsProperties;
+import com.driveinsights.dto.FleetFuelAnalyticsDTO;
+import com.driveinsights.dto.FuelAnalyticsDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.event.TelemetryImportedEvent;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
+import com.driveinsights.event.VehicleDeletedEvent;
+import com.driveinsights.model.ImportType;
+import com.driveinsights.repository.TelemetryBatchRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fuel efficiency analytics (totals, cost per mile, monthly spend, rolling MPG and MPG trend)
+ * computed on the server in one fork/join pass over the fill-ups in range. Results are cached
+ * per vehicle and date range until a fill-up is recorded, changed or deleted.
+ */
+@Service
+public class FuelAnalyticsService {
+
+    private final TelemetryBatchRepository telemetryBatchRepository;
+    private final VehicleService vehicleService;
+    private final FuelAnalyticsProperties properties;
+    private final Cache<AnalyticsKey, Object> results;
+    // Bumped after every committed fill-up change; a result computed before the bump is never read again
+    private final AtomicLong generation = new AtomicLong();
+
+    public FuelAnalyticsService(TelemetryBatchRepository telemetryBatchRepository, VehicleService vehicleService,
+                                FuelAnalyticsProperties properties, MeterRegistry meterRegistry) {
+        this.telemetryBatchRepository = telemetryBatchRepository;
+        this.vehicleService = vehicleService;
+        this.properties = properties;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "fuelAnalytics");
+    }
+
+    public FleetFuelAnalyticsDTO getFleetAnalytics(LocalDateTime startDate, LocalDateTime endDate) {
+        AnalyticsKey key = new AnalyticsKey(generation.get(), null, from(startDate), to(endDate));
+        return (FleetFuelAnalyticsDTO) results.get(key, this::computeFleet);
+    }
+
+    public FuelAnalyticsDTO getVehicleAnalytics(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        vehicleService.getVehicleById(vehicleId);
+        AnalyticsKey key = new AnalyticsKey(generation.get(), vehicleId, from(startDate), to(endDate));
+        return (FuelAnalyticsDTO) results.get(key, this::computeVehicle);
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        if (!event.getRecords().getFuelConsumption().isEmpty()) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryUpdated(TelemetryUpdatedEvent event) {
+        if (!event.getCurrent().getFuelConsumption().isEmpty()) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRemoved(TelemetryRemovedEvent event) {
+        if (!event.getRecords().getFuelConsumption().isEmpty()) {
+            invalidate();
+        }
+    }
+
+    @EventListener
+    public void onTelemetryImported(TelemetryImportedEvent event) {
+        if (event.getType() == ImportType.FUEL) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleDeleted(VehicleDeletedEvent event) {
+        invalidate();
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    private FleetFuelAnalyticsDTO computeFleet(AnalyticsKey key) {
+        List<FuelConsumptionDTO> rows = new ArrayList<>();
+        telemetryBatchRepository.scanFuelConsumption(null, key.getStartDate(), key.getEndDate(), rows::add);
+        int[] vehicleStarts = vehicleStarts(rows);
+        FuelAnalyticsDTO[] vehicles = new FuelAnalyticsDTO[vehicleStarts.length - 1];
+        FuelTotals fleet = analyze(rows, vehicleStarts, false, vehicles);
+        return new FleetFuelAnalyticsDTO(fleet.toDTO(null, null, true, null), Arrays.asList(vehicles));
+    }
+
+    private FuelAnalyticsDTO computeVehicle(AnalyticsKey key) {
+        List<FuelConsumptionDTO> rows = new ArrayList<>();
+        telemetryBatchRepository.scanFuelConsumption(key.getVehicleId(), key.getStartDate(), key.getEndDate(),
+                rows::add);
+        if (rows.isEmpty()) {
+            return new FuelTotals().toDTO(key.getVehicleId(), null, true, List.of());
+        }
+        FuelAnalyticsDTO[] vehicle = new FuelAnalyticsDTO[1];
+        analyze(rows, new int[] {0, rows.size()}, true, vehicle);
+        return vehicle[0];
+    }
+
+    private FuelTotals analyze(List<FuelConsumptionDTO> rows, int[] vehicleStarts, boolean includeDetail,
+                               FuelAnalyticsDTO[] results) {
+        int vehicles = vehicleStarts.length - 1;
+        if (vehicles == 0) {
+            return new FuelTotals();
+        }
+        return ForkJoinPool.commonPool().invoke(new FuelAnalyticsTask(rows, vehicleStarts, 0, vehicles,
+                properties.getRollingWindow(), properties.getVehiclesPerTask(), includeDetail, results));
+    }
+
+    // Rows are ordered by vehicle, so each vehicle's fill-ups are contiguous
+    private static int[] vehicleStarts(List<FuelConsumptionDTO> rows) {
+        int[] starts = new int[rows.size() + 1];
+        int vehicles = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i == 0 || !Objects.equals(rows.get(i).getVehicleId(), rows.get(i - 1).getVehicleId())) {
+                starts[vehicles++] = i;
+            }
+        }
+        starts[vehicles] = rows.size();
+        return Arrays.copyOf(starts, vehicles + 1);
+    }
+
+    private static LocalDateTime from(LocalDateTime startDate) {
+        return startDate != null ? startDate : PageCursor.MIN_TIME;
+    }
+
+    private static LocalDateTime to(LocalDateTime endDate) {
+        return endDate != null ? endDate : PageCursor.MAX_TIME;
+    }
+
+    @Value
+    private static class AnalyticsKey {
+        long generation;
+        // Null for the fleet
+        Long vehicleId;
+        LocalDateTime startDate;
+        LocalDateTime endDate;
+    }
+}
@@ -0,0 +1,114 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.FuelAnalyticsDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.FuelEfficiencyPointDTO;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Analyses the vehicles in [fromVehicle, toVehicle) of fill-ups laid out by vehicle and fill
+ * date. Ranges are split until they hold at most vehiclesPerTask vehicles; each leaf makes a
+ * single pass over every vehicle's fill-ups, stores the vehicle's result and returns the
+ * merged totals, which are combined on the way back up.
+ */
+final class FuelAnalyticsTask extends RecursiveTask<FuelTotals> {
+
+    private static final double SECONDS_PER_DAY = 86_400;
+
+    private final List<FuelConsumptionDTO> rows;
+    // Index of each vehicle's first row, plus rows.size() at the end
+    private final int[] vehicleStarts;
+    private final int fromVehicle;
+    private final int toVehicle;
+    private final int rollingWindow;
+    private final int vehiclesPerTask;
+    private final boolean includeDetail;
+    private final FuelAnalyticsDTO[] results;
+
+    FuelAnalyticsTask(List<FuelConsumptionDTO> rows, int[] vehicleStarts, int fromVehicle, int toVehicle,
+                      int rollingWindow, int vehiclesPerTask, boolean includeDetail, FuelAnalyticsDTO[] results) {
+        this.rows = rows;
+        this.vehicleStarts = vehicleStarts;
+        this.fromVehicle = fromVehicle;
+        this.toVehicle = toVehicle;
+        this.rollingWindow = rollingWindow;
+        this.vehiclesPerTask = vehiclesPerTask;
+        this.includeDetail = includeDetail;
+        this.results = results;
+    }
+
+    @Override
+    protected FuelTotals compute() {
+        if (toVehicle - fromVehicle <= vehiclesPerTask) {
+            FuelTotals totals = new FuelTotals();
+            for (int vehicle = fromVehicle; vehicle < toVehicle; vehicle++) {
+                totals.merge(analyze(vehicle));
+            }
+            return totals;
+        }
+        int middle = (fromVehicle + toVehicle) >>> 1;
+        FuelAnalyticsTask left = split(fromVehicle, middle);
+        left.fork();
+        FuelTotals totals = split(middle, toVehicle).compute();
+        totals.merge(left.join());
+        return totals;
+    }
+
+    private FuelAnalyticsTask split(int from, int to) {
+        return new FuelAnalyticsTask(rows, vehicleStarts, from, to, rollingWindow, vehiclesPerTask, includeDetail,
+                results);
+    }
+
+    private FuelTotals analyze(int vehicle) {
+        int start = vehicleStarts[vehicle];
+        int end = vehicleStarts[vehicle + 1];
+        FuelTotals totals = new FuelTotals();
+        List<FuelEfficiencyPointDTO> points = includeDetail ? new ArrayList<>(end - start) : null;
+        double windowFuel = 0;
+        double windowDistance = 0;
+        Double rollingMpg = null;
+        // Running means and co-moments of (fill day, MPG)
+        int samples = 0;
+        double meanDay = 0;
+        double meanMpg = 0;
+        double sxx = 0;
+        double sxy = 0;
+
+        for (int i = start; i < end; i++) {
+            FuelConsumptionDTO row = rows.get(i);
+            totals.add(row);
+
+            windowFuel += row.getFuelAmount();
+            windowDistance += row.getDistanceTraveled();
+            if (i - start >= rollingWindow) {
+                FuelConsumptionDTO dropped = rows.get(i - rollingWindow);
+                windowFuel -= dropped.getFuelAmount();
+                windowDistance -= dropped.getDistanceTraveled();
+            }
+            rollingMpg = FuelTotals.ratio(windowDistance, windowFuel);
+
+            Double mpg = row.getMilesPerGallon() != null
+                    ? row.getMilesPerGallon()
+                    : FuelTotals.ratio(row.getDistanceTraveled(), row.getFuelAmount());
+            if (mpg != null) {
+                double day = row.getFillDate().toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_DAY;
+                samples++;
+                double dayDiff = day - meanDay;
+                meanDay += dayDiff / samples;
+                meanMpg += (mpg - meanMpg) / samples;
+                sxx += dayDiff * (day - meanDay);
+                sxy += dayDiff * (mpg - meanMpg);
+            }
+            if (points != null) {
+                points.add(new FuelEfficiencyPointDTO(row.getFillDate(), mpg, rollingMpg, row.getFuelCost()));
+            }
+        }
+        totals.addTrend(sxx, sxy);
+        results[vehicle] = totals.toDTO(rows.get(start).getVehicleId(), rollingMpg, includeDetail, points);
+        return totals;
+    }
+}
@@ -1,66 +1,113 @@
 package com.driveinsights.service;
 
+import com.driveinsights.config.PaginationProperties;
+import com.driveinsights.dto.CursorPageDTO;
 import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
 import com.driveinsights.model.FuelConsumption;
 import com.driveinsights.model.Vehicle;
 import com.driveinsights.repository.FuelConsumptionRepository;
-import com.driveinsights.repository.VehicleRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class FuelConsumptionService {
     
     private final FuelConsumptionRepository fuelConsumptionRepository;
-    private final VehicleRepository vehicleRepository;
+    private final VehicleService vehicleService;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TelemetryMeters telemetryMeters;
     
+    @Transactional(readOnly = true)
     public List<FuelConsumptionDTO> getAllFuelConsumptionData() {
-        return fuelConsumptionRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordReturned(fuelConsumptionRepository.findLatestDtos(PageRequest.of(0, paginationProperties.getMaxListSize())));
     }
     
+    @Transactional(readOnly = true)
     public List<FuelConsumptionDTO> getFuelConsumptionByVehicleId(Long vehicleId) {
-        return fuelConsumptionRepository.findByVehicleId(vehicleId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordReturned(fuelConsumptionRepository.findDtosByVehicleId(vehicleId));
     }
     
+    @Transactional(readOnly = true)
     public List<FuelConsumptionDTO> getFuelConsumptionByVehicleIdAndDateRange(
             Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
-        return fuelConsumptionRepository.findByVehicleIdAndFillDateBetween(vehicleId, startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return recordReturned(fuelConsumptionRepository.findDtosByVehicleIdAndFillDateBetween(vehicleId, startDate, endDate));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<FuelConsumptionDTO> getFuelConsumptionPage(
+            String cursor, Integer size, Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        PageCursor after = cursor != null ? PageCursor.decode(cursor) : PageCursor.startingAt(startDate);
+        LocalDateTime end = endDate != null ? endDate : PageCursor.MAX_TIME;
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<FuelConsumptionDTO> rows = vehicleId == null
+                ? fuelConsumptionRepository.findPage(after.getTime(), after.getId(), end, limit)
+                : fuelConsumptionRepository.findPageByVehicleId(vehicleId, after.getTime(), after.getId(), end, limit);
+        telemetryMeters.recordReturned(TelemetryMeters.FUEL, Math.min(rows.size(), pageSize));
+        return PageCursor.toPage(rows, pageSize, Function.identity(),
+                row -> new PageCursor(row.getFillDate(), row.getId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public void forEachFuelConsumption(
+            Long vehicleId, LocalDateTime startDate, LocalDateTime endDate, Consumer<FuelConsumptionDTO> action) {
+        try (Stream<FuelConsumptionDTO> rows = vehicleId == null
+                ? fuelConsumptionRepository.streamByFillDateBetween(startDate, endDate)
+                : fuelConsumptionRepository.streamByVehicleIdAndFillDateBetween(vehicleId, startDate, endDate)) {
+            Iterator<FuelConsumptionDTO> iterator = rows.iterator();
+            int streamed = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                streamed++;
+            }
+            telemetryMeters.recordReturned(TelemetryMeters.FUEL, streamed);
+        }
     }
     
     public Double getAverageMpgByVehicleId(Long vehicleId) {
         return fuelConsumptionRepository.findAverageMpgByVehicleId(vehicleId);
     }
     
+    @Transactional(readOnly = true)
     public FuelConsumptionDTO getFuelConsumptionById(Long id) {
-        FuelConsumption fuelConsumption = fuelConsumptionRepository.findById(id)
+        return fuelConsumptionRepository.findDtoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Fuel consumption data not found with id: " + id));
-        return convertToDTO(fuelConsumption);
     }
     
+    @Transactional
     public FuelConsumptionDTO createFuelConsumption(FuelConsumptionDTO fuelConsumptionDTO) {
         FuelConsumption fuelConsumption = convertToEntity(fuelConsumptionDTO);
         FuelConsumption savedFuelConsumption = fuelConsumptionRepository.save(fuelConsumption);
-        return convertToDTO(savedFuelConsumption);
+        FuelConsumptionDTO created = convertToDTO(savedFuelConsumption);
+        telemetryMeters.recordIngested(TelemetryMeters.FUEL, 1);
+        eventPublisher.publishEvent(TelemetryRecordedEvent.of(created));
+        return created;
     }
     
+    @Transactional
     public FuelConsumptionDTO updateFuelConsumption(Long id, FuelConsumptionDTO fuelConsumptionDTO) {
         FuelConsumption existingFuelConsumption = fuelConsumptionRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Fuel consumption data not found with id: " + id));
+        FuelConsumptionDTO previous = convertToDTO(existingFuelConsumption);
         
-        Vehicle vehicle = vehicleRepository.findById(fuelConsumptionDTO.getVehicleId())
-                .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + fuelConsumptionDTO.getVehicleId()));
+        Vehicle vehicle = vehicleService.getVehicleReference(fuelConsumptionDTO.getVehicleId());
         
         existingFuelConsumption.setVehicle(vehicle);
         existingFuelConsumption.setFuelAmount(fuelConsumptionDTO.getFuelAmount());
@@ -69,15 +116,24 @@ public class FuelConsumptionService {
         existingFuelConsumption.setFuelCost(fuelConsumptionDTO.getFuelCost());
         existingFuelConsumption.setFillDate(fuelConsumptionDTO.getFillDate());
         
-        FuelConsumption updatedFuelConsumption = fuelConsumptionRepository.save(existingFuelConsumption);
-        return convertToDTO(updatedFuelConsumption);
+        FuelConsumption updatedFuelConsumption = fuelConsumptionRepository.saveAndFlush(existingFuelConsumption);
+        FuelConsumptionDTO updated = convertToDTO(updatedFuelConsumption);
+        eventPublisher.publishEvent(TelemetryUpdatedEvent.of(previous, updated));
+        return updated;
     }
     
+    @Transactional
     public void deleteFuelConsumption(Long id) {
-        if (!fuelConsumptionRepository.existsById(id)) {
-            throw new EntityNotFoundException("Fuel consumption data not found with id: " + id);
-        }
-        fuelConsumptionRepository.deleteById(id);
+        FuelConsumption fuelConsumption = fuelConsumptionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Fuel consumption data not found with id: " + id));
+        fuelConsumptionRepository.delete(fuelConsumption);
+        fuelConsumptionRepository.flush();
+        eventPublisher.publishEvent(TelemetryRemovedEvent.of(convertToDTO(fuelConsumption)));
+    }
+    
+    private List<FuelConsumptionDTO> recordReturned(List<FuelConsumptionDTO> rows) {
+        telemetryMeters.recordReturned(TelemetryMeters.FUEL, rows.size());
+        return rows;
     }
     
     private FuelConsumptionDTO convertToDTO(FuelConsumption fuelConsumption) {
@@ -96,8 +152,7 @@ public class FuelConsumptionService {
         FuelConsumption fuelConsumption = new FuelConsumption();
         fuelConsumption.setId(fuelConsumptionDTO.getId());
         
-        Vehicle vehicle = vehicleRepository.findById(fuelConsumptionDTO.getVehicleId())
-                .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + fuelConsumptionDTO.getVehicleId()));
+        Vehicle vehicle = vehicleService.getVehicleReference(fuelConsumptionDTO.getVehicleId());
         
         fuelConsumption.setVehicle(vehicle);
         fuelConsumption.setFuelAmount(fuelConsumptionDTO.getFuelAmount());
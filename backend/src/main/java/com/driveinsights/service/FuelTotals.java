@@ -0,0 +1,101 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.FuelAnalyticsDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.FuelEfficiencyPointDTO;
+import com.driveinsights.dto.MonthlyFuelDTO;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Additive fill-up totals for one vehicle or a group of vehicles. The MPG trend is kept as
+ * within-vehicle co-moments, so merging vehicles with different baseline efficiency does not
+ * skew the fleet slope.
+ */
+final class FuelTotals {
+
+    private long fillUps;
+    private double fuelAmount;
+    private double distanceTraveled;
+    private double fuelCost;
+    // Distance of the fill-ups that have a cost, so missing costs do not dilute cost per mile
+    private double costedDistance;
+    private double trendSxx;
+    private double trendSxy;
+    private final Map<YearMonth, Month> months = new TreeMap<>();
+
+    void add(FuelConsumptionDTO row) {
+        fillUps++;
+        fuelAmount += row.getFuelAmount();
+        distanceTraveled += row.getDistanceTraveled();
+        if (row.getFuelCost() != null) {
+            fuelCost += row.getFuelCost();
+            costedDistance += row.getDistanceTraveled();
+        }
+        Month month = months.computeIfAbsent(YearMonth.from(row.getFillDate()), key -> new Month());
+        month.fillUps++;
+        month.fuelAmount += row.getFuelAmount();
+        month.distanceTraveled += row.getDistanceTraveled();
+        if (row.getFuelCost() != null) {
+            month.fuelCost += row.getFuelCost();
+        }
+    }
+
+    void addTrend(double sxx, double sxy) {
+        trendSxx += sxx;
+        trendSxy += sxy;
+    }
+
+    void merge(FuelTotals other) {
+        fillUps += other.fillUps;
+        fuelAmount += other.fuelAmount;
+        distanceTraveled += other.distanceTraveled;
+        fuelCost += other.fuelCost;
+        costedDistance += other.costedDistance;
+        trendSxx += other.trendSxx;
+        trendSxy += other.trendSxy;
+        other.months.forEach((key, month) -> months.merge(key, month, Month::plus));
+    }
+
+    FuelAnalyticsDTO toDTO(Long vehicleId, Double latestRollingMpg, boolean includeMonthly,
+                           List<FuelEfficiencyPointDTO> points) {
+        List<MonthlyFuelDTO> monthly = null;
+        if (includeMonthly) {
+            monthly = new ArrayList<>(months.size());
+            for (Map.Entry<YearMonth, Month> entry : months.entrySet()) {
+                Month month = entry.getValue();
+                monthly.add(new MonthlyFuelDTO(entry.getKey(), month.fillUps, month.fuelAmount,
+                        month.distanceTraveled, month.fuelCost, ratio(month.distanceTraveled, month.fuelAmount)));
+            }
+        }
+        // Slope is MPG per day of fill date
+        Double trend = trendSxx > 0 ? trendSxy / trendSxx * 30 : null;
+        return new FuelAnalyticsDTO(vehicleId, fillUps, fuelAmount, distanceTraveled, fuelCost,
+                ratio(distanceTraveled, fuelAmount), ratio(fuelCost, costedDistance), trend, latestRollingMpg,
+                monthly, points);
+    }
+
+    static Double ratio(double numerator, double denominator) {
+        return denominator > 0 ? numerator / denominator : null;
+    }
+
+    private static final class Month {
+        private long fillUps;
+        private double fuelAmount;
+        private double distanceTraveled;
+        private double fuelCost;
+
+        Month plus(Month other) {
+            Month sum = new Month();
+            sum.fillUps = fillUps + other.fillUps;
+            sum.fuelAmount = fuelAmount + other.fuelAmount;
+            sum.distanceTraveled = distanceTraveled + other.distanceTraveled;
+            sum.fuelCost = fuelCost + other.fuelCost;
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.driveinsights.service;
+
+import com.driveinsights.model.TelemetryMetric;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One vehicle's recent readings of one telemetry type in column arrays, kept in a ring ordered by
+ * (recording time, id). Times are epoch microseconds (UTC, like the naive recording_time column).
+ * Every committed reading at or after {@link #floor} is present once the series is covered;
+ * evicting or trimming the oldest readings raises the floor. Callers hold {@link #lock}.
+ */
+abstract class HotSeries<T> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int maxCapacity;
+    private long[] times;
+    private long[] ids;
+    private int head;
+    private int size;
+    private long floor;
+    private boolean covered;
+    // Ids updated or deleted while the series is being warmed; the warm-up scan skips them
+    private Set<Long> touchedIds = new HashSet<>();
+
+    HotSeries(int maxCapacity, long floor) {
+        this.maxCapacity = maxCapacity;
+        this.floor = floor;
+        int capacity = Math.min(INITIAL_CAPACITY, maxCapacity);
+        times = new long[capacity];
+        ids = new long[capacity];
+        allocate(capacity);
+    }
+
+    // Column storage, addressed by physical index
+    abstract void allocate(int capacity);
+
+    abstract void relayout(int head, int size, int capacity);
+
+    abstract void move(int from, int to);
+
+    abstract void store(int index, T record);
+
+    abstract T load(int index, long vehicleId);
+
+    // The metric at a physical index, or NaN when the reading has none
+    abstract double value(int index, TelemetryMetric metric);
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    static long[] relayout(long[] column, int head, int size, int capacity) {
+        long[] copy = new long[capacity];
+        int firstPart = Math.min(size, column.length - head);
+        System.arraycopy(column, head, copy, 0, firstPart);
+        System.arraycopy(column, 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    static int[] relayout(int[] column, int head, int size, int capacity) {
+        int[] copy = new int[capacity];
+        int firstPart = Math.min(size, column.length - head);
+        System.arraycopy(column, head, copy, 0, firstPart);
+        System.arraycopy(column, 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    static double[] relayout(double[] column, int head, int size, int capacity) {
+        double[] copy = new double[capacity];
+        int firstPart = Math.min(size, column.length - head);
+        System.arraycopy(column, head, copy, 0, firstPart);
+        System.arraycopy(column, 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    boolean covers(long from) {
+        return covered && from >= floor;
+    }
+
+    void markCovered() {
+        covered = true;
+        touchedIds = null;
+    }
+
+    boolean isTouched(long id) {
+        return touchedIds != null && touchedIds.contains(id);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return times.length;
+    }
+
+    long time(int logical) {
+        return times[physical(logical)];
+    }
+
+    long timeAt(int index) {
+        return times[index];
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    int physical(int logical) {
+        int index = head + logical;
+        return index >= times.length ? index - times.length : index;
+    }
+
+    // Adds a reading unless it is below the floor or already present
+    void add(long time, long id, T record) {
+        if (time < floor) {
+            return;
+        }
+        int position = upperBound(time, id);
+        if (position > 0 && time(position - 1) == time && ids[physical(position - 1)] == id) {
+            return;
+        }
+        if (size == times.length) {
+            if (times.length < maxCapacity) {
+                grow(Math.min(maxCapacity, times.length * 2));
+            } else if (position == 0) {
+                // Older than everything retained: it would be evicted straight away
+                floor = time + 1;
+                return;
+            } else {
+                floor = Math.max(floor, times[head] + 1);
+                removeFirst();
+                position--;
+            }
+        }
+        for (int i = size; i > position; i--) {
+            int from = physical(i - 1);
+            int to = physical(i);
+            times[to] = times[from];
+            ids[to] = ids[from];
+            move(from, to);
+        }
+        int index = physical(position);
+        times[index] = time;
+        ids[index] = id;
+        store(index, record);
+        size++;
+    }
+
+    void remove(long time, long id) {
+        if (touchedIds != null) {
+            touchedIds.add(id);
+        }
+        for (int i = lowerBound(time); i < size && time(i) == time; i++) {
+            if (ids[physical(i)] == id) {
+                for (int j = i; j < size - 1; j++) {
+                    int from = physical(j + 1);
+                    int to = physical(j);
+                    times[to] = times[from];
+                    ids[to] = ids[from];
+                    move(from, to);
+                }
+                size--;
+                return;
+            }
+        }
+    }
+
+    // Drops readings older than the given time
+    void trim(long before) {
+        while (size > 0 && times[head] < before) {
+            removeFirst();
+        }
+        floor = Math.max(floor, before);
+    }
+
+    // First logical index with a time at or after the given one
+    int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (time(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(long time, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int index = physical(mid);
+            if (times[index] < time || (times[index] == time && ids[index] <= id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void removeFirst() {
+        head = head + 1 == times.length ? 0 : head + 1;
+        size--;
+    }
+
+    private void grow(int capacity) {
+        times = relayout(times, head, size, capacity);
+        ids = relayout(ids, head, size, capacity);
+        relayout(head, size, capacity);
+        head = 0;
+    }
+}
@@ -0,0 +1,189 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.ImportJobDTO;
+import com.driveinsights.dto.ImportRejectDTO;
+import com.driveinsights.model.ImportType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Progress and state of one CSV import, updated by its parsing and loading threads. Rejected
+ * lines are appended to the rejects file as they were read, with an error column added; the
+ * importer ignores unknown columns, so the file can be corrected and imported again.
+ */
+final class ImportJob {
+
+    enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final long sequence;
+    private final ImportType type;
+    private final Path file;
+    private final Path rejectsFile;
+    private final String header;
+    private final long totalBytes;
+    private final TelemetryCsvParser parser;
+    private final int maxReportedRejects;
+
+    final AtomicLong bytesDone = new AtomicLong();
+    final AtomicLong rowsRead = new AtomicLong();
+    final AtomicLong rowsLoaded = new AtomicLong();
+    final AtomicLong duplicates = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    // Vehicles with loaded rows, and the lookups shared by the parsing threads
+    final Set<Long> vehicleIds = ConcurrentHashMap.newKeySet();
+    final Set<Long> knownVehicleIds = ConcurrentHashMap.newKeySet();
+    final Map<String, Optional<Long>> vehicleIdsByLicensePlate = new ConcurrentHashMap<>();
+    // Months whose partition was created (or tried); guarded by itself
+    final Set<YearMonth> partitionedMonths = ConcurrentHashMap.newKeySet();
+
+    private volatile State state = State.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long elapsedNanos = -1;
+    private final AtomicReference<String> error = new AtomicReference<>();
+
+    // Guarded by this
+    private final List<ImportRejectDTO> reportedRejects = new ArrayList<>();
+    private BufferedWriter rejectsWriter;
+
+    ImportJob(String id, long sequence, ImportType type, Path file, String header, long totalBytes,
+              TelemetryCsvParser parser, int maxReportedRejects) {
+        this.id = id;
+        this.sequence = sequence;
+        this.type = type;
+        this.file = file;
+        this.rejectsFile = file.resolveSibling(file.getFileName() + ".rejects.csv");
+        this.header = header;
+        this.totalBytes = totalBytes;
+        this.parser = parser;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    String id() {
+        return id;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    ImportType type() {
+        return type;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    TelemetryCsvParser parser() {
+        return parser;
+    }
+
+    void start() {
+        try {
+            // A rejects file from an earlier import of the same file
+            Files.deleteIfExists(rejectsFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + rejectsFile, e);
+        }
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        state = State.RUNNING;
+    }
+
+    // Keeps the first failure; chunks in flight finish, but no more are read
+    void fail(Throwable cause) {
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        error.compareAndSet(null, message);
+    }
+
+    boolean isFailed() {
+        return error.get() != null;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - startedNanos;
+        finishedAt = LocalDateTime.now();
+        state = isFailed() ? State.FAILED : State.COMPLETED;
+    }
+
+    synchronized void reject(List<TelemetryCsvParser.RejectedLine> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        rejected.addAndGet(lines.size());
+        try {
+            if (rejectsWriter == null) {
+                rejectsWriter = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8);
+                rejectsWriter.write(header + ",error\n");
+            }
+            for (TelemetryCsvParser.RejectedLine line : lines) {
+                rejectsWriter.write(line.content() + ",\"" + line.message().replace("\"", "\"\"") + "\"\n");
+                if (reportedRejects.size() < maxReportedRejects) {
+                    reportedRejects.add(new ImportRejectDTO(line.number(), line.message()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + rejectsFile, e);
+        }
+    }
+
+    synchronized void closeRejects() {
+        if (rejectsWriter != null) {
+            try {
+                rejectsWriter.close();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    synchronized ImportJobDTO toDTO() {
+        long nanos = elapsedNanos >= 0 ? elapsedNanos : state == State.RUNNING ? System.nanoTime() - startedNanos : 0;
+        Double rowsPerSecond = nanos > 0 ? rowsRead.get() * 1e9 / nanos : null;
+        return new ImportJobDTO(
+                id,
+                type.getParameterName(),
+                file.getFileName().toString(),
+                state.name(),
+                totalBytes,
+                bytesDone.get(),
+                rowsRead.get(),
+                rowsLoaded.get(),
+                duplicates.get(),
+                rejected.get(),
+                rowsPerSecond,
+                startedAt,
+                finishedAt,
+                error.get(),
+                rejectsWriter != null ? rejectsFile.getFileName().toString() : null,
+                new ArrayList<>(reportedRejects)
+        );
+    }
+}
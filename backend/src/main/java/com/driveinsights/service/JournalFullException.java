@@ -0,0 +1,9 @@
+package com.driveinsights.service;
+
+// Raised when the telemetry journal has no room left because draining has fallen behind
+public class JournalFullException extends RuntimeException {
+
+    public JournalFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,245 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.LiveTelemetryProperties;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans newly committed engine and emission records out to Server-Sent Events subscribers.
+ * Writers only append to a {@link BroadcastRing}; each subscriber is drained on a small pool of
+ * its own at its own pace, so a slow client loses its oldest records instead of holding up
+ * ingestion or other clients. The scheduler only flags heartbeats and stalled writes; it never
+ * writes to a client itself.
+ */
+@Service
+public class LiveTelemetryService {
+
+    public static final Set<String> TYPES = Set.of(TelemetryMeters.ENGINE, TelemetryMeters.EMISSION);
+
+    private final LiveTelemetryProperties properties;
+    private final TaskScheduler taskScheduler;
+    private final ThreadPoolExecutor writers;
+    private final BroadcastRing<LiveRecord> ring;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter droppedRecords;
+    private final Counter stalledSubscribers;
+
+    public LiveTelemetryService(LiveTelemetryProperties properties, TaskScheduler taskScheduler,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("live-telemetry-");
+        threadFactory.setDaemon(true);
+        // At most one drain per subscriber is queued, so the queue bounds the number of subscribers served
+        this.writers = new ThreadPoolExecutor(properties.getWriterThreads(), properties.getWriterThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getWriterQueueCapacity()),
+                threadFactory);
+        this.ring = new BroadcastRing<>(properties.getBufferSize());
+        this.droppedRecords = Counter.builder("live.records.dropped")
+                .description("Records skipped for subscribers that fell behind the broadcast buffer")
+                .register(meterRegistry);
+        this.stalledSubscribers = Counter.builder("live.subscribers.stalled")
+                .description("Subscribers closed because a write took longer than the write timeout")
+                .register(meterRegistry);
+        Gauge.builder("live.subscribers", subscriptions, Set::size).register(meterRegistry);
+        Gauge.builder("live.writers.queued", writers, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void scheduleHeartbeat() {
+        taskScheduler.scheduleAtFixedRate(this::requestHeartbeats, properties.getHeartbeatInterval());
+        taskScheduler.scheduleAtFixedRate(this::abortStalledWrites, properties.getWriteTimeout().dividedBy(2));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    // lastEventId resumes a reconnecting client while its records are still buffered
+    public SseEmitter subscribe(Long vehicleId, Set<String> types, Long lastEventId) {
+        for (String type : types) {
+            if (!TYPES.contains(type)) {
+                throw new IllegalArgumentException("Unsupported live telemetry type: " + type);
+            }
+        }
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        long head = ring.headSequence();
+        long from = lastEventId != null && lastEventId < head ? lastEventId + 1 : head;
+        Subscription subscription = new Subscription(emitter, vehicleId, Set.copyOf(types), from);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        schedule(subscription);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        boolean published = false;
+        for (EngineDataDTO record : event.getRecords().getEngineData()) {
+            ring.publish(new LiveRecord(TelemetryMeters.ENGINE, record.getVehicleId(), record));
+            published = true;
+        }
+        for (EmissionDataDTO record : event.getRecords().getEmissionData()) {
+            ring.publish(new LiveRecord(TelemetryMeters.EMISSION, record.getVehicleId(), record));
+            published = true;
+        }
+        if (published) {
+            subscriptions.forEach(this::schedule);
+        }
+    }
+
+    private void schedule(Subscription subscription) {
+        // At most one drain per subscriber is queued or running; later signals are folded into it
+        if (subscription.pendingSignals.getAndIncrement() == 0) {
+            try {
+                writers.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                // Too many subscribers waiting for a writer; this one can reconnect with Last-Event-ID
+                subscriptions.remove(subscription);
+                subscription.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        int signals = subscription.pendingSignals.get();
+        List<BroadcastRing.Entry<LiveRecord>> batch = new ArrayList<>(properties.getMaxBatchSize());
+        try {
+            while (true) {
+                if (subscription.heartbeatDue.getAndSet(false)) {
+                    send(subscription, SseEmitter.event().comment("heartbeat"));
+                }
+                batch.clear();
+                BroadcastRing.ReadResult result =
+                        ring.read(subscription.nextSequence, properties.getMaxBatchSize(), batch);
+                subscription.nextSequence = result.nextSequence();
+                if (result.dropped() > 0) {
+                    droppedRecords.increment(result.dropped());
+                    send(subscription, SseEmitter.event().name("dropped").data(result.dropped()));
+                }
+                for (BroadcastRing.Entry<LiveRecord> entry : batch) {
+                    LiveRecord record = entry.value();
+                    if (subscription.accepts(record)) {
+                        send(subscription, SseEmitter.event()
+                                .id(Long.toString(entry.sequence()))
+                                .name(record.type())
+                                .data(record.payload(), MediaType.APPLICATION_JSON));
+                    }
+                }
+                if (batch.isEmpty()) {
+                    signals = subscription.pendingSignals.addAndGet(-signals);
+                    if (signals == 0) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or stalled; the emitter callbacks may not fire for a broken connection
+            subscriptions.remove(subscription);
+            subscription.emitter.completeWithError(e);
+        }
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (subscription) {
+            if (subscription.stalled) {
+                throw new IllegalStateException("Write timed out");
+            }
+            subscription.writer = Thread.currentThread();
+            subscription.writeStartedNanos = System.nanoTime();
+        }
+        try {
+            subscription.emitter.send(event);
+        } finally {
+            synchronized (subscription) {
+                subscription.writer = null;
+                // An interrupt from abortStalledWrites must not outlive this write
+                Thread.interrupted();
+            }
+        }
+        if (subscription.stalled) {
+            throw new IllegalStateException("Write timed out");
+        }
+    }
+
+    // Runs on the scheduler, so it only flags the subscriber and lets its writer send the comment
+    private void requestHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatDue.set(true);
+            schedule(subscription);
+        }
+    }
+
+    // Completing the emitter here would wait on the blocked send, so the writer is interrupted and
+    // completes it once the write returns; Tomcat's own socket timeout ends writes that ignore that
+    private void abortStalledWrites() {
+        long timeoutNanos = properties.getWriteTimeout().toNanos();
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            synchronized (subscription) {
+                if (subscription.writer != null && now - subscription.writeStartedNanos > timeoutNanos) {
+                    subscription.stalled = true;
+                    subscription.writer.interrupt();
+                    subscriptions.remove(subscription);
+                    stalledSubscribers.increment();
+                }
+            }
+        }
+    }
+
+    private record LiveRecord(String type, Long vehicleId, Object payload) {
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final Long vehicleId;
+        private final Set<String> types;
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        // Only touched by the single active drain
+        private long nextSequence;
+        // Guarded by the subscription's monitor
+        private Thread writer;
+        private long writeStartedNanos;
+        private volatile boolean stalled;
+
+        Subscription(SseEmitter emitter, Long vehicleId, Set<String> types, long nextSequence) {
+            this.emitter = emitter;
+            this.vehicleId = vehicleId;
+            this.types = types;
+            this.nextSequence = nextSequence;
+        }
+
+        boolean accepts(LiveRecord record) {
+            return types.contains(record.type()) && (vehicleId == null || vehicleId.equals(record.vehicleId()));
+        }
+    }
+}
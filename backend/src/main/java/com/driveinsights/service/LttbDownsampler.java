@@ -0,0 +1,158 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.SeriesPointDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets over time buckets. Keeps the first and last reading and picks,
+ * per bucket, the reading forming the largest triangle with the previously picked reading and
+ * the average of the next non-empty bucket. Only two buckets are buffered at a time.
+ */
+final class LttbDownsampler extends TimeSeriesDownsampler {
+
+    private final List<SeriesPointDTO> points;
+    private final Bucket current = new Bucket();
+    private final Bucket next = new Bucket();
+
+    private boolean started;
+    private long selectedTime;
+    private double selectedValue;
+
+    // The latest reading is held back so it can be emitted as the last point
+    private boolean holding;
+    private long heldTime;
+    private double heldValue;
+
+    LttbDownsampler(LocalDateTime startDate, LocalDateTime endDate, int points) {
+        super(startDate, endDate, Math.max(1, points - 2));
+        this.points = new ArrayList<>(points);
+    }
+
+    @Override
+    protected void accept(long time, double value) {
+        if (!started) {
+            started = true;
+            selectedTime = time;
+            selectedValue = value;
+            points.add(point(time, value));
+            return;
+        }
+        if (holding) {
+            bucket(heldTime, heldValue);
+        }
+        holding = true;
+        heldTime = time;
+        heldValue = value;
+    }
+
+    @Override
+    public List<SeriesPointDTO> finish() {
+        if (holding) {
+            if (!next.isEmpty()) {
+                select(current, next.averageTime(), next.averageValue());
+                select(next, heldTime, heldValue);
+            } else if (!current.isEmpty()) {
+                select(current, heldTime, heldValue);
+            }
+            points.add(point(heldTime, heldValue));
+            holding = false;
+        }
+        return points;
+    }
+
+    private void bucket(long time, double value) {
+        int index = bucketOf(time);
+        if (current.isEmpty() || index == current.index) {
+            current.add(index, time, value);
+        } else if (next.isEmpty() || index == next.index) {
+            next.add(index, time, value);
+        } else {
+            select(current, next.averageTime(), next.averageValue());
+            current.takeFrom(next);
+            next.add(index, time, value);
+        }
+    }
+
+    private void select(Bucket bucket, double nextTime, double nextValue) {
+        int best = 0;
+        double bestArea = -1;
+        for (int i = 0; i < bucket.size; i++) {
+            // Twice the triangle area; times are relative to the selected point to keep precision
+            double area = Math.abs((double) (selectedTime - bucket.times[i]) * (nextValue - selectedValue)
+                    - (selectedTime - nextTime) * (bucket.values[i] - selectedValue));
+            if (area > bestArea) {
+                bestArea = area;
+                best = i;
+            }
+        }
+        selectedTime = bucket.times[best];
+        selectedValue = bucket.values[best];
+        points.add(point(selectedTime, selectedValue));
+        bucket.clear();
+    }
+
+    private static final class Bucket {
+        private int index;
+        private int size;
+        private long[] times = new long[16];
+        private double[] values = new double[16];
+        // Offsets from the first reading, so the sum stays exact for dense buckets
+        private long baseTime;
+        private double timeSum;
+        private double valueSum;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(int bucketIndex, long time, double value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (size == 0) {
+                baseTime = time;
+            }
+            index = bucketIndex;
+            times[size] = time;
+            values[size] = value;
+            size++;
+            timeSum += time - baseTime;
+            valueSum += value;
+        }
+
+        double averageTime() {
+            return baseTime + timeSum / size;
+        }
+
+        double averageValue() {
+            return valueSum / size;
+        }
+
+        void clear() {
+            size = 0;
+            timeSum = 0;
+            valueSum = 0;
+        }
+
+        // Swaps storage with the other bucket, leaving it empty
+        void takeFrom(Bucket other) {
+            long[] swapTimes = times;
+            double[] swapValues = values;
+            times = other.times;
+            values = other.values;
+            index = other.index;
+            size = other.size;
+            baseTime = other.baseTime;
+            timeSum = other.timeSum;
+            valueSum = other.valueSum;
+            other.times = swapTimes;
+            other.values = swapValues;
+            other.clear();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.SeriesPointDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emits the lowest and highest reading of each time bucket, in time order, so short spikes
+ * survive downsampling. Two points per bucket, so the bucket count is half the point count.
+ */
+final class MinMaxDownsampler extends TimeSeriesDownsampler {
+
+    private final List<SeriesPointDTO> points;
+
+    private int bucket = -1;
+    private long minTime;
+    private double minValue;
+    private long maxTime;
+    private double maxValue;
+
+    MinMaxDownsampler(LocalDateTime startDate, LocalDateTime endDate, int points) {
+        super(startDate, endDate, Math.max(1, points / 2));
+        this.points = new ArrayList<>(points);
+    }
+
+    @Override
+    protected void accept(long time, double value) {
+        int index = bucketOf(time);
+        if (index != bucket) {
+            flush();
+            bucket = index;
+            minTime = time;
+            minValue = value;
+            maxTime = time;
+            maxValue = value;
+            return;
+        }
+        if (value < minValue) {
+            minTime = time;
+            minValue = value;
+        }
+        if (value > maxValue) {
+            maxTime = time;
+            maxValue = value;
+        }
+    }
+
+    @Override
+    public List<SeriesPointDTO> finish() {
+        flush();
+        bucket = -1;
+        return points;
+    }
+
+    private void flush() {
+        if (bucket < 0) {
+            return;
+        }
+        if (minTime == maxTime && minValue == maxValue) {
+            points.add(point(minTime, minValue));
+        } else if (minTime <= maxTime) {
+            points.add(point(minTime, minValue));
+            points.add(point(maxTime, maxValue));
+        } else {
+            points.add(point(maxTime, maxValue));
+            points.add(point(minTime, minValue));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.PartitionProperties;
+import com.driveinsights.repository.PartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps monthly partitions of the time-partitioned telemetry tables created ahead of time,
+ * and detaches or drops the ones that fall out of the retention window. Rollups are kept,
+ * so aggregate history survives the raw rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionMaintenanceService {
+
+    static final List<String> PARTITIONED_TABLES = List.of("engine_data", "emission_data");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'uuuu_MM");
+
+    private final PartitionRepository partitionRepository;
+    private final PartitionProperties partitionProperties;
+    private final DataVersions dataVersions;
+    private final RecentTelemetryKeys recentTelemetryKeys;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${drive-insights.partitions.maintenance-cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        if (!partitionProperties.isEnabled()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (String table : PARTITIONED_TABLES) {
+            for (int i = 0; i <= partitionProperties.getPremakeMonths(); i++) {
+                createPartition(table, current.plusMonths(i).atDay(1));
+            }
+            if (partitionProperties.getRetentionMonths() > 0) {
+                removeExpiredPartitions(table, current.minusMonths(partitionProperties.getRetentionMonths()));
+            }
+        }
+    }
+
+    private void createPartition(String table, LocalDate month) {
+        try {
+            partitionRepository.ensureMonthlyPartition(table, month);
+        } catch (RuntimeException e) {
+            // Fails when the default partition already holds rows for that month
+            log.warn("Could not create {} partition for {}: {}", table, month, e.getMessage());
+        }
+    }
+
+    private void removeExpiredPartitions(String table, YearMonth oldestRetained) {
+        for (String partition : partitionRepository.findMonthlyPartitions(table)) {
+            YearMonth month = parseMonth(table, partition);
+            if (month == null || !month.isBefore(oldestRetained)) {
+                continue;
+            }
+            if (partitionProperties.getRetentionAction() == PartitionProperties.RetentionAction.DROP) {
+                partitionRepository.dropPartition(partition);
+                log.info("Dropped expired partition {}", partition);
+            } else {
+                partitionRepository.detachPartition(table, partition);
+                log.info("Detached expired partition {}", partition);
+            }
+            dataVersions.changed(DataVersions.Table.fromTableName(table));
+            recentTelemetryKeys.clear();
+        }
+    }
+
+    private static YearMonth parseMonth(String table, String partition) {
+        try {
+            return YearMonth.parse(partition.substring(table.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.driveinsights.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * The most recent {@code capacity} telemetry keys, stored as 64-bit fingerprints of
+ * (vehicle id, recording time): an open-addressing table answers lookups and a ring remembers
+ * insertion order, so the oldest key is forgotten once the window is full. Two keys only
+ * collide if their fingerprints are equal, so false positives are negligible. Not thread-safe.
+ */
+final class RecentKeyWindow {
+
+    private static final long EMPTY = 0L;
+
+    private final long[] table;
+    private final long[] ring;
+    private final int mask;
+    private int next;
+    private int size;
+
+    RecentKeyWindow(int capacity) {
+        ring = new long[capacity];
+        // Keep the table at most half full
+        table = new long[Integer.highestOneBit(Math.max(1, capacity) * 4 - 1)];
+        mask = table.length - 1;
+    }
+
+    static long fingerprint(long vehicleId, LocalDateTime recordingTime) {
+        long fingerprint = mix(mix(vehicleId) ^ HotSeries.toMicros(recordingTime));
+        return fingerprint == EMPTY ? 1L : fingerprint;
+    }
+
+    boolean contains(long fingerprint) {
+        return slotOf(fingerprint) >= 0;
+    }
+
+    // Adds a key, forgetting the oldest one when the window is full
+    void add(long fingerprint) {
+        if (ring.length == 0 || contains(fingerprint)) {
+            return;
+        }
+        if (ring[next] != EMPTY) {
+            remove(ring[next]);
+        }
+        ring[next] = fingerprint;
+        next = next + 1 == ring.length ? 0 : next + 1;
+        int position = (int) fingerprint & mask;
+        while (table[position] != EMPTY) {
+            position = (position + 1) & mask;
+        }
+        table[position] = fingerprint;
+        size++;
+    }
+
+    // The ring keeps its entry; evicting it later finds nothing to remove
+    void remove(long fingerprint) {
+        int hole = slotOf(fingerprint);
+        if (hole < 0) {
+            return;
+        }
+        // Backward-shift deletion keeps every probe chain unbroken without tombstones
+        int position = hole;
+        while (true) {
+            position = (position + 1) & mask;
+            long candidate = table[position];
+            if (candidate == EMPTY) {
+                break;
+            }
+            int home = (int) candidate & mask;
+            boolean reachable = hole <= position ? hole < home && home <= position : hole < home || home <= position;
+            if (!reachable) {
+                table[hole] = candidate;
+                hole = position;
+            }
+        }
+        table[hole] = EMPTY;
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(table, EMPTY);
+        Arrays.fill(ring, EMPTY);
+        next = 0;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slotOf(long fingerprint) {
+        int position = (int) fingerprint & mask;
+        while (table[position] != EMPTY) {
+            if (table[position] == fingerprint) {
+                return position;
+            }
+            position = (position + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static long mix(long key) {
+        // Murmur3 finalizer
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,120 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.IngestionProperties;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
+import com.driveinsights.event.VehicleDeletedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Natural keys (vehicle id, recording time) of recently committed engine and emission readings,
+ * so retried uploads are recognised without a database round trip. Keys are added after commit
+ * and removed when a reading is updated or deleted, so a hit means the row exists; a miss only
+ * means the unique index and ON CONFLICT DO NOTHING have to decide.
+ */
+@Component
+public class RecentTelemetryKeys {
+
+    private final RecentKeyWindow engineData;
+    private final RecentKeyWindow emissionData;
+
+    public RecentTelemetryKeys(IngestionProperties properties, MeterRegistry meterRegistry) {
+        this.engineData = new RecentKeyWindow(properties.getRecentKeys());
+        this.emissionData = new RecentKeyWindow(properties.getRecentKeys());
+        registerSize(meterRegistry, TelemetryMeters.ENGINE, engineData);
+        registerSize(meterRegistry, TelemetryMeters.EMISSION, emissionData);
+    }
+
+    public boolean containsEngineData(Long vehicleId, LocalDateTime recordingTime) {
+        return contains(engineData, vehicleId, recordingTime);
+    }
+
+    public boolean containsEmissionData(Long vehicleId, LocalDateTime recordingTime) {
+        return contains(emissionData, vehicleId, recordingTime);
+    }
+
+    // Forgets every key, e.g. after rows were removed without a TelemetryRemovedEvent
+    public void clear() {
+        synchronized (engineData) {
+            engineData.clear();
+        }
+        synchronized (emissionData) {
+            emissionData.clear();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        add(event.getRecords());
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryUpdated(TelemetryUpdatedEvent event) {
+        remove(event.getPrevious());
+        add(event.getCurrent());
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRemoved(TelemetryRemovedEvent event) {
+        remove(event.getRecords());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleDeleted(VehicleDeletedEvent event) {
+        // Fingerprints cannot be matched to a vehicle; deletes are rare enough to start over
+        clear();
+    }
+
+    private void add(TelemetryBatchDTO records) {
+        synchronized (engineData) {
+            for (EngineDataDTO record : records.getEngineData()) {
+                engineData.add(RecentKeyWindow.fingerprint(record.getVehicleId(), record.getRecordingTime()));
+            }
+        }
+        synchronized (emissionData) {
+            for (EmissionDataDTO record : records.getEmissionData()) {
+                emissionData.add(RecentKeyWindow.fingerprint(record.getVehicleId(), record.getRecordingTime()));
+            }
+        }
+    }
+
+    private void remove(TelemetryBatchDTO records) {
+        synchronized (engineData) {
+            for (EngineDataDTO record : records.getEngineData()) {
+                engineData.remove(RecentKeyWindow.fingerprint(record.getVehicleId(), record.getRecordingTime()));
+            }
+        }
+        synchronized (emissionData) {
+            for (EmissionDataDTO record : records.getEmissionData()) {
+                emissionData.remove(RecentKeyWindow.fingerprint(record.getVehicleId(), record.getRecordingTime()));
+            }
+        }
+    }
+
+    private static boolean contains(RecentKeyWindow window, Long vehicleId, LocalDateTime recordingTime) {
+        long fingerprint = RecentKeyWindow.fingerprint(vehicleId, recordingTime);
+        synchronized (window) {
+            return window.contains(fingerprint);
+        }
+    }
+
+    private static void registerSize(MeterRegistry meterRegistry, String type, RecentKeyWindow window) {
+        Gauge.builder("telemetry.recent.keys", window, w -> {
+                    synchronized (w) {
+                        return w.size();
+                    }
+                })
+                .description("Natural keys held in the recent-key window")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
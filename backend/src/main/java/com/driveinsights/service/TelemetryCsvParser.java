@@ -0,0 +1,263 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.model.ImportType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Parses the lines of a {@link CsvChunkReader.Chunk} into DTOs of one {@link ImportType}. Columns
+ * are matched to DTO fields by header name, ignoring case and underscores, so files written by the
+ * CSV export import unchanged; other columns (such as id) are ignored. The vehicle is given by a
+ * vehicleId or a licensePlate column. Quoted fields may hold commas and doubled quotes. Lines that
+ * cannot be parsed are returned as rejects; field and vehicle checks are left to the caller.
+ * Instances are immutable and shared by the parsing threads.
+ */
+final class TelemetryCsvParser {
+
+    // A parsed record's line: its 1-based number and its bounds in the chunk text
+    record Line(long number, int start, int end) {
+    }
+
+    record RejectedLine(long number, String content, String message) {
+    }
+
+    // Only the list of the parser's type is filled, parallel to lines
+    record ParsedChunk(String text, TelemetryBatchDTO records, List<Line> lines, List<RejectedLine> rejects) {
+    }
+
+    private static final Map<ImportType, List<String>> FIELDS = Map.of(
+            ImportType.ENGINE, List.of("engineTemperature", "engineRpm", "idlingTimeSeconds", "recordingTime"),
+            ImportType.EMISSION, List.of("co2Emissions", "noxEmissions", "particulateMatter", "recordingTime"),
+            ImportType.FUEL, List.of("fuelAmount", "distanceTraveled", "milesPerGallon", "fuelCost", "fillDate"));
+
+    private static final Set<String> OPTIONAL_FIELDS = Set.of("idlingTimeSeconds", "noxEmissions",
+            "particulateMatter", "milesPerGallon", "fuelCost");
+
+    private final ImportType type;
+    private final List<String> fields;
+    // Column of each field, -1 when the file has none
+    private final int[] fieldColumns;
+    private final int vehicleIdColumn;
+    private final int licensePlateColumn;
+    private final int columnCount;
+
+    TelemetryCsvParser(ImportType type, String header) {
+        this.type = type;
+        this.fields = FIELDS.get(type);
+        List<String> columns = new ArrayList<>();
+        for (String column : split(header)) {
+            columns.add(normalize(column));
+        }
+        this.columnCount = columns.size();
+        this.vehicleIdColumn = columns.indexOf(normalize("vehicleId"));
+        this.licensePlateColumn = columns.indexOf(normalize("licensePlate"));
+        if (vehicleIdColumn < 0 && licensePlateColumn < 0) {
+            throw new IllegalArgumentException("Missing column: vehicleId or licensePlate");
+        }
+        this.fieldColumns = new int[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            fieldColumns[i] = columns.indexOf(normalize(fields.get(i)));
+            if (fieldColumns[i] < 0 && !OPTIONAL_FIELDS.contains(fields.get(i))) {
+                throw new IllegalArgumentException("Missing column: " + fields.get(i));
+            }
+        }
+    }
+
+    ParsedChunk parse(CsvChunkReader.Chunk chunk, Function<String, Long> vehicleIdByLicensePlate) {
+        String text = StandardCharsets.UTF_8.decode(chunk.data().duplicate()).toString();
+        TelemetryBatchDTO records = new TelemetryBatchDTO(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        List<Line> lines = new ArrayList<>();
+        List<RejectedLine> rejects = new ArrayList<>();
+        String[] values = new String[columnCount];
+        long number = chunk.firstLine();
+        int position = 0;
+        while (position < text.length()) {
+            int newline = text.indexOf('\n', position);
+            int next = newline < 0 ? text.length() : newline + 1;
+            int end = newline < 0 ? text.length() : newline;
+            if (end > position && text.charAt(end - 1) == '\r') {
+                end--;
+            }
+            if (end > position) {
+                try {
+                    Arrays.fill(values, null);
+                    split(text, position, end, values);
+                    add(records, values, vehicleIdByLicensePlate);
+                    lines.add(new Line(number, position, end));
+                } catch (IllegalArgumentException e) {
+                    rejects.add(new RejectedLine(number, text.substring(position, end), e.getMessage()));
+                }
+            }
+            number++;
+            position = next;
+        }
+        return new ParsedChunk(text, records, lines, rejects);
+    }
+
+    private void add(TelemetryBatchDTO records, String[] values, Function<String, Long> vehicleIdByLicensePlate) {
+        Long vehicleId;
+        if (vehicleIdColumn >= 0 && values[vehicleIdColumn] != null) {
+            vehicleId = parseLong("vehicleId", values[vehicleIdColumn]);
+        } else if (licensePlateColumn >= 0 && values[licensePlateColumn] != null) {
+            String licensePlate = values[licensePlateColumn];
+            vehicleId = vehicleIdByLicensePlate.apply(licensePlate);
+            if (vehicleId == null) {
+                throw new IllegalArgumentException("Vehicle not found with license plate: " + licensePlate);
+            }
+        } else {
+            // Reported by the field checks
+            vehicleId = null;
+        }
+        switch (type) {
+            case ENGINE -> records.getEngineData().add(new EngineDataDTO(null, vehicleId, doubleValue(values, 0),
+                    intValue(values, 1), intValue(values, 2), timeValue(values, 3)));
+            case EMISSION -> records.getEmissionData().add(new EmissionDataDTO(null, vehicleId,
+                    doubleValue(values, 0), doubleValue(values, 1), doubleValue(values, 2), timeValue(values, 3)));
+            case FUEL -> records.getFuelConsumption().add(new FuelConsumptionDTO(null, vehicleId,
+                    doubleValue(values, 0), doubleValue(values, 1), doubleValue(values, 2), doubleValue(values, 3),
+                    timeValue(values, 4)));
+        }
+    }
+
+    private String value(String[] values, int field) {
+        int column = fieldColumns[field];
+        return column >= 0 ? values[column] : null;
+    }
+
+    private Double doubleValue(String[] values, int field) {
+        String value = value(values, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            if (Double.isFinite(parsed)) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid " + fields.get(field) + ": " + value);
+    }
+
+    private Integer intValue(String[] values, int field) {
+        String value = value(values, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + fields.get(field) + ": " + value);
+        }
+    }
+
+    // ISO local date-time, with a T or a space between date and time
+    private LocalDateTime timeValue(String[] values, int field) {
+        String value = value(values, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value.length() > 10 && value.charAt(10) == ' ') {
+                value = value.substring(0, 10) + 'T' + value.substring(11);
+            }
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + fields.get(field) + ": " + values[fieldColumns[field]]);
+        }
+    }
+
+    private static Long parseLong(String name, String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        String[] buffer = new String[1];
+        int position = 0;
+        // One field at a time, so the header can have any number of columns
+        while (true) {
+            buffer[0] = null;
+            int next = splitField(line, position, line.length(), buffer);
+            values.add(buffer[0] != null ? buffer[0] : "");
+            if (next >= line.length()) {
+                return values;
+            }
+            position = next + 1;
+        }
+    }
+
+    // Fills values from the line's fields; blank fields and fields past the last column stay null
+    private static void split(String text, int start, int end, String[] values) {
+        String[] field = new String[1];
+        int position = start;
+        for (int column = 0; ; column++) {
+            field[0] = null;
+            int next = splitField(text, position, end, field);
+            if (column < values.length) {
+                values[column] = field[0];
+            }
+            if (next >= end) {
+                return;
+            }
+            position = next + 1;
+        }
+    }
+
+    // Reads the field starting at start into field[0] (null when blank); returns the position of the
+    // comma after it, or end
+    private static int splitField(String text, int start, int end, String[] field) {
+        if (start < end && text.charAt(start) == '"') {
+            StringBuilder value = new StringBuilder();
+            int position = start + 1;
+            while (true) {
+                if (position >= end) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                char c = text.charAt(position++);
+                if (c != '"') {
+                    value.append(c);
+                } else if (position < end && text.charAt(position) == '"') {
+                    value.append('"');
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            if (position < end && text.charAt(position) != ',') {
+                throw new IllegalArgumentException("Unexpected text after a quoted field");
+            }
+            field[0] = value.length() > 0 ? value.toString() : null;
+            return position;
+        }
+        int comma = text.indexOf(',', start);
+        if (comma < 0 || comma > end) {
+            comma = end;
+        }
+        String value = text.substring(start, comma).trim();
+        field[0] = value.isEmpty() ? null : value;
+        return comma;
+    }
+}
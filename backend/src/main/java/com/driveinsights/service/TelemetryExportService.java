@@ -0,0 +1,128 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@RequiredArgsConstructor
+public class TelemetryExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String ENGINE_CSV_HEADER =
+            "id,vehicleId,engineTemperature,engineRpm,idlingTimeSeconds,recordingTime";
+    private static final String EMISSION_CSV_HEADER =
+            "id,vehicleId,co2Emissions,noxEmissions,particulateMatter,recordingTime";
+    private static final String FUEL_CSV_HEADER =
+            "id,vehicleId,fuelAmount,distanceTraveled,milesPerGallon,fuelCost,fillDate";
+
+    private final EngineDataService engineDataService;
+    private final EmissionDataService emissionDataService;
+    private final FuelConsumptionService fuelConsumptionService;
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseBody exportEngineData(ExportFormat format, boolean gzip, Long vehicleId,
+                                                  LocalDateTime startDate, LocalDateTime endDate) {
+        return out -> export(out, format, gzip, EngineDataDTO.class, ENGINE_CSV_HEADER,
+                record -> csvRow(record.getId(), record.getVehicleId(), record.getEngineTemperature(),
+                        record.getEngineRpm(), record.getIdlingTimeSeconds(), record.getRecordingTime()),
+                sink -> engineDataService.forEachEngineData(vehicleId, from(startDate), to(endDate), sink));
+    }
+
+    public StreamingResponseBody exportEmissionData(ExportFormat format, boolean gzip, Long vehicleId,
+                                                    LocalDateTime startDate, LocalDateTime endDate) {
+        return out -> export(out, format, gzip, EmissionDataDTO.class, EMISSION_CSV_HEADER,
+                record -> csvRow(record.getId(), record.getVehicleId(), record.getCo2Emissions(),
+                        record.getNoxEmissions(), record.getParticulateMatter(), record.getRecordingTime()),
+                sink -> emissionDataService.forEachEmissionData(vehicleId, from(startDate), to(endDate), sink));
+    }
+
+    public StreamingResponseBody exportFuelConsumption(ExportFormat format, boolean gzip, Long vehicleId,
+                                                       LocalDateTime startDate, LocalDateTime endDate) {
+        return out -> export(out, format, gzip, FuelConsumptionDTO.class, FUEL_CSV_HEADER,
+                record -> csvRow(record.getId(), record.getVehicleId(), record.getFuelAmount(),
+                        record.getDistanceTraveled(), record.getMilesPerGallon(), record.getFuelCost(),
+                        record.getFillDate()),
+                sink -> fuelConsumptionService.forEachFuelConsumption(vehicleId, from(startDate), to(endDate), sink));
+    }
+
+    private <T> void export(OutputStream out, ExportFormat format, boolean gzip, Class<T> type, String csvHeader,
+                            Function<T, String> csvRow, Consumer<Consumer<T>> source) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        ObjectWriter jsonWriter = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        if (format == ExportFormat.CSV) {
+            writer.write(csvHeader);
+            writer.write('\n');
+        }
+        // Commit the response headers before the first database round trip
+        writer.flush();
+
+        try {
+            source.accept(record -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writer.write(csvRow.apply(record));
+                    } else {
+                        jsonWriter.writeValue(writer, record);
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+    }
+
+    private static String csvRow(Object... values) {
+        StringBuilder row = new StringBuilder(96);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            if (values[i] != null) {
+                row.append(values[i]);
+            }
+        }
+        return row.toString();
+    }
+
+    private static LocalDateTime from(LocalDateTime startDate) {
+        return startDate != null ? startDate : PageCursor.MIN_TIME;
+    }
+
+    private static LocalDateTime to(LocalDateTime endDate) {
+        return endDate != null ? endDate : PageCursor.MAX_TIME;
+    }
+}
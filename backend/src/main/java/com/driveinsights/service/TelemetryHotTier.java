@@ -0,0 +1,422 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.HotTierProperties;
+import com.driveinsights.config.ReadReplicaRoutingDataSource;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.RollupBucketDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
+import com.driveinsights.event.VehicleDeletedEvent;
+import com.driveinsights.model.RollupResolution;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.repository.TelemetryBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional in-memory copy of the last {@code drive-insights.hot-tier.window} of engine and
+ * emission readings, one {@link HotSeries} per vehicle and type. It is filled from committed
+ * writes and warmed from the database in the background at startup. Per-vehicle reads whose
+ * start lies inside the covered range are answered from it; the find methods return null
+ * (and callers go to the database) otherwise.
+ */
+@Slf4j
+@Service
+public class TelemetryHotTier {
+
+    private final HotTierProperties properties;
+    private final TelemetryBatchRepository telemetryBatchRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final TaskScheduler taskScheduler;
+    private final Map<Long, EngineHotSeries> engineSeries = new ConcurrentHashMap<>();
+    private final Map<Long, EmissionHotSeries> emissionSeries = new ConcurrentHashMap<>();
+    // Vehicles deleted while warming, whose rows the warm-up scan may still return
+    private final Set<Long> deletedWhileWarming = ConcurrentHashMap.newKeySet();
+    private final Counter engineHits;
+    private final Counter engineMisses;
+    private final Counter emissionHits;
+    private final Counter emissionMisses;
+    // Epoch micros; every reading since then was loaded at warm-up or has been added since
+    private final long windowStart;
+    private volatile boolean warmed;
+    private volatile boolean failed;
+
+    public TelemetryHotTier(HotTierProperties properties, TelemetryBatchRepository telemetryBatchRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                            TaskExecutor taskExecutor,
+                            TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.telemetryBatchRepository = telemetryBatchRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.taskScheduler = taskScheduler;
+        this.windowStart = HotSeries.toMicros(LocalDateTime.now().minus(properties.getWindow()));
+        this.engineHits = lookups(meterRegistry, TelemetryMeters.ENGINE, "hit");
+        this.engineMisses = lookups(meterRegistry, TelemetryMeters.ENGINE, "miss");
+        this.emissionHits = lookups(meterRegistry, TelemetryMeters.EMISSION, "hit");
+        this.emissionMisses = lookups(meterRegistry, TelemetryMeters.EMISSION, "miss");
+        Gauge.builder("telemetry.hot.tier.readings", this, TelemetryHotTier::readings)
+                .description("Readings held in the in-memory hot tier")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.hot.tier.memory", this, TelemetryHotTier::allocatedBytes)
+                .description("Bytes allocated to hot tier column arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isEnabled()) {
+            taskExecutor.execute(this::warm);
+            taskScheduler.scheduleWithFixedDelay(this::trim, properties.getTrimInterval());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        if (!isActive()) {
+            return;
+        }
+        for (EngineDataDTO record : event.getRecords().getEngineData()) {
+            addEngineData(record);
+        }
+        for (EmissionDataDTO record : event.getRecords().getEmissionData()) {
+            addEmissionData(record);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryUpdated(TelemetryUpdatedEvent event) {
+        if (!isActive()) {
+            return;
+        }
+        event.getPrevious().getEngineData().forEach(this::removeEngineData);
+        event.getPrevious().getEmissionData().forEach(this::removeEmissionData);
+        event.getCurrent().getEngineData().forEach(this::addEngineData);
+        event.getCurrent().getEmissionData().forEach(this::addEmissionData);
+    }
+
+    @TransactionalEventListener
+    public void onTelemetryRemoved(TelemetryRemovedEvent event) {
+        if (!isActive()) {
+            return;
+        }
+        event.getRecords().getEngineData().forEach(this::removeEngineData);
+        event.getRecords().getEmissionData().forEach(this::removeEmissionData);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleDeleted(VehicleDeletedEvent event) {
+        if (!warmed) {
+            deletedWhileWarming.add(event.getVehicleId());
+        }
+        engineSeries.remove(event.getVehicleId());
+        emissionSeries.remove(event.getVehicleId());
+    }
+
+    // Null when the range is not held in memory; ordered by recording time and id
+    public List<EngineDataDTO> findEngineData(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        List<EngineDataDTO> found = find(engineSeries, vehicleId, startDate, endDate);
+        if (properties.isEnabled()) {
+            (found != null ? engineHits : engineMisses).increment();
+        }
+        return found;
+    }
+
+    public List<EmissionDataDTO> findEmissionData(Long vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        List<EmissionDataDTO> found = find(emissionSeries, vehicleId, startDate, endDate);
+        if (properties.isEnabled()) {
+            (found != null ? emissionHits : emissionMisses).increment();
+        }
+        return found;
+    }
+
+    /**
+     * Rollup buckets computed from memory, matching TelemetryRollupRepository.findBuckets: buckets
+     * starting in [from, endDate), each covering every reading in it. Null when not held in memory.
+     */
+    public List<RollupBucketDTO> findBuckets(Long vehicleId, TelemetryMetric metric, RollupResolution resolution,
+                                             LocalDateTime from, LocalDateTime endDate) {
+        Map<Long, ? extends HotSeries<?>> seriesByVehicle;
+        if (metric.getTable().equals("engine_data")) {
+            seriesByVehicle = engineSeries;
+        } else if (metric.getTable().equals("emission_data")) {
+            seriesByVehicle = emissionSeries;
+        } else {
+            return null;
+        }
+        if (!isActive() || !warmed || vehicleId == null) {
+            return null;
+        }
+        long fromMicros = HotSeries.toMicros(from);
+        long endMicros = HotSeries.toMicros(endDate);
+        HotSeries<?> series = seriesByVehicle.get(vehicleId);
+        if (series == null) {
+            return fromMicros >= windowStart ? new ArrayList<>() : null;
+        }
+        List<RollupBucketDTO> buckets = new ArrayList<>();
+        series.lock.readLock().lock();
+        try {
+            if (!series.covers(fromMicros)) {
+                return null;
+            }
+            long bucketStart = Long.MIN_VALUE;
+            long bucketEnd = Long.MIN_VALUE;
+            long count = 0;
+            double sum = 0;
+            double min = 0;
+            double max = 0;
+            for (int i = series.lowerBound(fromMicros); i < series.size(); i++) {
+                long time = series.time(i);
+                if (time >= bucketEnd) {
+                    if (count > 0) {
+                        buckets.add(bucket(bucketStart, count, sum, min, max));
+                    }
+                    // Readings are in time order, so bucket boundaries are only computed once per bucket
+                    LocalDateTime start = resolution.truncate(HotSeries.fromMicros(time));
+                    bucketStart = HotSeries.toMicros(start);
+                    if (bucketStart >= endMicros) {
+                        count = 0;
+                        break;
+                    }
+                    bucketEnd = HotSeries.toMicros(resolution.next(start));
+                    count = 0;
+                    sum = 0;
+                }
+                double value = series.value(series.physical(i), metric);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                min = count == 0 ? value : Math.min(min, value);
+                max = count == 0 ? value : Math.max(max, value);
+                sum += value;
+                count++;
+            }
+            if (count > 0) {
+                buckets.add(bucket(bucketStart, count, sum, min, max));
+            }
+        } finally {
+            series.lock.readLock().unlock();
+        }
+        return buckets;
+    }
+
+    private <T> List<T> find(Map<Long, ? extends HotSeries<T>> seriesByVehicle, Long vehicleId,
+                             LocalDateTime startDate, LocalDateTime endDate) {
+        if (!isActive() || !warmed || vehicleId == null) {
+            return null;
+        }
+        long from = HotSeries.toMicros(startDate);
+        long to = HotSeries.toMicros(endDate);
+        HotSeries<T> series = seriesByVehicle.get(vehicleId);
+        if (series == null) {
+            // No readings for this vehicle since the window started
+            return from >= windowStart ? new ArrayList<>() : null;
+        }
+        series.lock.readLock().lock();
+        try {
+            if (!series.covers(from)) {
+                return null;
+            }
+            int first = series.lowerBound(from);
+            List<T> found = new ArrayList<>();
+            for (int i = first; i < series.size() && series.time(i) <= to; i++) {
+                found.add(series.load(series.physical(i), vehicleId));
+            }
+            return found;
+        } finally {
+            series.lock.readLock().unlock();
+        }
+    }
+
+    private void warm() {
+        long started = System.nanoTime();
+        LocalDateTime since = HotSeries.fromMicros(windowStart);
+        try {
+            // On the primary: readings committed just before warm-up may not have reached a replica
+            ReadReplicaRoutingDataSource.onPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                telemetryBatchRepository.scanEngineDataSince(since, record -> {
+                    if (!deletedWhileWarming.contains(record.getVehicleId())) {
+                        warmRecord(engineSeries(record.getVehicleId()), record.getId(),
+                                record.getRecordingTime(), record);
+                    }
+                });
+                telemetryBatchRepository.scanEmissionDataSince(since, record -> {
+                    if (!deletedWhileWarming.contains(record.getVehicleId())) {
+                        warmRecord(emissionSeries(record.getVehicleId()), record.getId(),
+                                record.getRecordingTime(), record);
+                    }
+                });
+            }));
+        } catch (RuntimeException e) {
+            failed = true;
+            engineSeries.clear();
+            emissionSeries.clear();
+            log.warn("Hot tier warm-up failed, reads stay on the database: {}", e.getMessage());
+            return;
+        }
+        // Set before marking, so series created from here on are covered as they are created
+        warmed = true;
+        deletedWhileWarming.clear();
+        engineSeries.values().forEach(TelemetryHotTier::markCovered);
+        emissionSeries.values().forEach(TelemetryHotTier::markCovered);
+        log.info("Hot tier warmed with {} readings for {} vehicles in {} ms", readings(),
+                Math.max(engineSeries.size(), emissionSeries.size()), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private <T> void warmRecord(HotSeries<T> series, long id, LocalDateTime time, T record) {
+        series.lock.writeLock().lock();
+        try {
+            // Rows changed since the scan started were already applied by the event listeners
+            if (!series.isTouched(id)) {
+                series.add(HotSeries.toMicros(time), id, record);
+            }
+        } finally {
+            series.lock.writeLock().unlock();
+        }
+    }
+
+    private void trim() {
+        long cutoff = HotSeries.toMicros(LocalDateTime.now().minus(properties.getWindow()));
+        for (HotSeries<?> series : engineSeries.values()) {
+            trim(series, cutoff);
+        }
+        for (HotSeries<?> series : emissionSeries.values()) {
+            trim(series, cutoff);
+        }
+    }
+
+    private static void trim(HotSeries<?> series, long cutoff) {
+        series.lock.writeLock().lock();
+        try {
+            series.trim(cutoff);
+        } finally {
+            series.lock.writeLock().unlock();
+        }
+    }
+
+    private static void markCovered(HotSeries<?> series) {
+        series.lock.writeLock().lock();
+        try {
+            series.markCovered();
+        } finally {
+            series.lock.writeLock().unlock();
+        }
+    }
+
+    private void addEngineData(EngineDataDTO record) {
+        if (record.getId() != null) {
+            add(engineSeries(record.getVehicleId()), record.getId(), record.getRecordingTime(), record);
+        }
+    }
+
+    private void addEmissionData(EmissionDataDTO record) {
+        if (record.getId() != null) {
+            add(emissionSeries(record.getVehicleId()), record.getId(), record.getRecordingTime(), record);
+        }
+    }
+
+    private void removeEngineData(EngineDataDTO record) {
+        remove(engineSeries(record.getVehicleId()), record.getId(), record.getRecordingTime());
+    }
+
+    private void removeEmissionData(EmissionDataDTO record) {
+        remove(emissionSeries(record.getVehicleId()), record.getId(), record.getRecordingTime());
+    }
+
+    private <T> void add(HotSeries<T> series, long id, LocalDateTime time, T record) {
+        series.lock.writeLock().lock();
+        try {
+            if (warmed) {
+                series.markCovered();
+            }
+            series.add(HotSeries.toMicros(time), id, record);
+        } finally {
+            series.lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(HotSeries<?> series, long id, LocalDateTime time) {
+        series.lock.writeLock().lock();
+        try {
+            if (warmed) {
+                series.markCovered();
+            }
+            series.remove(HotSeries.toMicros(time), id);
+        } finally {
+            series.lock.writeLock().unlock();
+        }
+    }
+
+    private EngineHotSeries engineSeries(Long vehicleId) {
+        return engineSeries.computeIfAbsent(vehicleId,
+                id -> new EngineHotSeries(properties.getMaxReadingsPerVehicle(), windowStart));
+    }
+
+    private EmissionHotSeries emissionSeries(Long vehicleId) {
+        return emissionSeries.computeIfAbsent(vehicleId,
+                id -> new EmissionHotSeries(properties.getMaxReadingsPerVehicle(), windowStart));
+    }
+
+    private boolean isActive() {
+        return properties.isEnabled() && !failed;
+    }
+
+    private long readings() {
+        long total = 0;
+        for (HotSeries<?> series : engineSeries.values()) {
+            total += series.size();
+        }
+        for (HotSeries<?> series : emissionSeries.values()) {
+            total += series.size();
+        }
+        return total;
+    }
+
+    private long allocatedBytes() {
+        long total = 0;
+        for (HotSeries<?> series : engineSeries.values()) {
+            total += (long) series.capacity() * EngineHotSeries.BYTES_PER_READING;
+        }
+        for (HotSeries<?> series : emissionSeries.values()) {
+            total += (long) series.capacity() * EmissionHotSeries.BYTES_PER_READING;
+        }
+        return total;
+    }
+
+    private static RollupBucketDTO bucket(long start, long count, double sum, double min, double max) {
+        return new RollupBucketDTO(HotSeries.fromMicros(start), count, sum, min, max, sum / count);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String type, String result) {
+        return Counter.builder("telemetry.hot.tier.lookups")
+                .description("Per-vehicle reads answered from the hot tier (hit) or sent to the database (miss)")
+                .tag("type", type)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
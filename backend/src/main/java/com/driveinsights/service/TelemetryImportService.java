@@ -0,0 +1,412 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.HotTierProperties;
+import com.driveinsights.config.ImportProperties;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.ImportJobDTO;
+import com.driveinsights.dto.RecordResultDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.event.TelemetryImportedEvent;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.model.ImportType;
+import com.driveinsights.repository.PartitionRepository;
+import com.driveinsights.repository.TelemetryCopyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bulk import of historical telemetry from CSV files, one job at a time. The file is read in
+ * memory-mapped chunks ({@link CsvChunkReader}); chunks are parsed and validated by a pool of
+ * threads with the same field checks as batch ingestion, vehicles resolved by id or through the
+ * license plate cache, and loaded concurrently with COPY, one transaction per chunk. At most
+ * parse-threads + 2 * load-threads chunks are in flight, so a slow database holds back the reading.
+ * Rows inside the hot tier window are published as recorded telemetry; after the last chunk a
+ * {@link TelemetryImportedEvent} lets rollups, carbon totals and caches catch up with the rest.
+ * A failed chunk fails the job but keeps the committed chunks; importing the file again skips
+ * existing engine and emission readings, but not fill-ups.
+ */
+@Slf4j
+@Service
+public class TelemetryImportService {
+
+    private final ImportProperties properties;
+    private final HotTierProperties hotTierProperties;
+    private final TelemetryCopyRepository telemetryCopyRepository;
+    private final PartitionRepository partitionRepository;
+    private final TelemetryIngestionService telemetryIngestionService;
+    private final VehicleService vehicleService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, ImportJob> jobs;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService runner;
+
+    // A chunk after parsing and validation, ready to load
+    private record PreparedChunk(int bytes, byte[] rows, int count, Set<YearMonth> months, Set<Long> vehicleIds) {
+    }
+
+    public TelemetryImportService(ImportProperties properties, HotTierProperties hotTierProperties,
+                                  TelemetryCopyRepository telemetryCopyRepository,
+                                  PartitionRepository partitionRepository,
+                                  TelemetryIngestionService telemetryIngestionService, VehicleService vehicleService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hotTierProperties = hotTierProperties;
+        this.telemetryCopyRepository = telemetryCopyRepository;
+        this.partitionRepository = partitionRepository;
+        this.telemetryIngestionService = telemetryIngestionService;
+        this.vehicleService = vehicleService;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.runner = Executors.newSingleThreadExecutor(threadFactory("telemetry-import-"));
+        long retention = properties.getFinishedJobRetention().toNanos();
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, ImportJob>() {
+                    @Override
+                    public long expireAfterCreate(String id, ImportJob job, long currentTime) {
+                        return job.isFinished() ? retention : Long.MAX_VALUE;
+                    }
+
+                    // A job is put again when it finishes
+                    @Override
+                    public long expireAfterUpdate(String id, ImportJob job, long currentTime, long currentDuration) {
+                        return job.isFinished() ? retention : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, ImportJob job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Imports a file from the import directory
+    public ImportJobDTO importFile(String type, String fileName) throws IOException {
+        Path file = resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            throw new EntityNotFoundException("Import file not found: " + fileName);
+        }
+        return start(ImportType.fromParameter(type), file);
+    }
+
+    // Saves the upload in the import directory, then imports it
+    public ImportJobDTO importUpload(String type, String fileName, InputStream content) throws IOException {
+        ImportType importType = ImportType.fromParameter(type);
+        Path file = resolve(fileName != null ? fileName
+                : "upload-" + LocalDateTime.now().toString().replace(':', '-') + ".csv");
+        if (Files.exists(file)) {
+            throw new IllegalArgumentException("Import file already exists: " + file.getFileName());
+        }
+        Files.createDirectories(file.getParent());
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        copyAtMost(content, partial, properties.getMaxUploadSize().toBytes());
+        try {
+            Files.move(partial, file);
+        } catch (FileAlreadyExistsException e) {
+            Files.delete(partial);
+            throw new IllegalArgumentException("Import file already exists: " + file.getFileName());
+        }
+        return start(importType, file);
+    }
+
+    public ImportJobDTO getJob(String id) {
+        ImportJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new EntityNotFoundException("Import not found with id: " + id);
+        }
+        return job.toDTO();
+    }
+
+    // Most recent first
+    public List<ImportJobDTO> getJobs() {
+        return jobs.asMap().values().stream()
+                .sorted(Comparator.comparingLong(ImportJob::sequence).reversed())
+                .map(ImportJob::toDTO)
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    // Deletes the partial file when the upload is too large or breaks off
+    private static void copyAtMost(InputStream content, Path partial, long maxBytes) throws IOException {
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            byte[] buffer = new byte[64 * 1024];
+            long copied = 0;
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                copied += read;
+                if (copied > maxBytes) {
+                    throw new UploadTooLargeException("The upload exceeds the maximum of " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+    }
+
+    private Path resolve(String fileName) {
+        Path directory = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException("The file must be in the import directory: " + fileName);
+        }
+        return file;
+    }
+
+    // Reads the header first, so a file with missing columns is refused before the job is queued
+    private ImportJobDTO start(ImportType type, Path file) throws IOException {
+        String header;
+        long size;
+        try (CsvChunkReader reader = CsvChunkReader.open(file, properties.getChunkSize())) {
+            header = reader.readHeader();
+            size = reader.size();
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), sequence.incrementAndGet(), type, file, header,
+                size, new TelemetryCsvParser(type, header), properties.getMaxReportedRejects());
+        jobs.put(job.id(), job);
+        runner.execute(() -> run(job));
+        return job.toDTO();
+    }
+
+    private void run(ImportJob job) {
+        int parseThreads = properties.getParseThreads() > 0
+                ? properties.getParseThreads()
+                : Runtime.getRuntime().availableProcessors();
+        int loadThreads = Math.max(1, properties.getLoadThreads());
+        ExecutorService parsers = Executors.newFixedThreadPool(parseThreads, threadFactory("telemetry-import-parse-"));
+        ExecutorService loaders = Executors.newFixedThreadPool(loadThreads, threadFactory("telemetry-import-load-"));
+        Semaphore inFlight = new Semaphore(parseThreads + 2 * loadThreads);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        log.info("Importing {} telemetry from {}", job.type().getParameterName(), job.file());
+        try (CsvChunkReader reader = CsvChunkReader.open(job.file(), properties.getChunkSize())) {
+            job.start();
+            reader.readHeader();
+            while (!job.isFailed()) {
+                inFlight.acquire();
+                CsvChunkReader.Chunk chunk = reader.next();
+                if (chunk == null) {
+                    break;
+                }
+                chunks.add(CompletableFuture.supplyAsync(() -> prepare(job, chunk), parsers)
+                        .thenAcceptAsync(prepared -> load(job, prepared), loaders)
+                        .whenComplete((result, e) -> {
+                            inFlight.release();
+                            if (e != null) {
+                                job.fail(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                            }
+                        }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        } catch (IOException | RuntimeException e) {
+            job.fail(e);
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        parsers.shutdown();
+        loaders.shutdown();
+        job.closeRejects();
+        if (!job.vehicleIds.isEmpty()) {
+            try {
+                eventPublisher.publishEvent(new TelemetryImportedEvent(job.type(), Set.copyOf(job.vehicleIds)));
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh data derived from imported {} telemetry", job.type().getParameterName(), e);
+                job.fail(new IllegalStateException("Rows were loaded, but refreshing rollups and totals failed: "
+                        + e.getMessage(), e));
+            }
+        }
+        job.finish();
+        jobs.put(job.id(), job);
+        ImportJobDTO result = job.toDTO();
+        log.info("Import {} of {} {}: {} rows read, {} loaded, {} duplicates, {} rejected{}", job.id(), job.file(),
+                result.getState(), result.getRowsRead(), result.getRowsLoaded(), result.getDuplicates(),
+                result.getRejected(), result.getError() != null ? ": " + result.getError() : "");
+    }
+
+    // Parses and validates a chunk and encodes its accepted rows for COPY
+    private PreparedChunk prepare(ImportJob job, CsvChunkReader.Chunk chunk) {
+        TelemetryCsvParser.ParsedChunk parsed = job.parser().parse(chunk, plate -> findVehicleId(job, plate));
+        List<TelemetryCsvParser.RejectedLine> rejects = new ArrayList<>(parsed.rejects());
+        List<RecordResultDTO> results = new ArrayList<>();
+        telemetryIngestionService.screen(parsed.records(), results);
+        Set<YearMonth> months = new HashSet<>();
+        Set<Long> vehicleIds = new HashSet<>();
+        byte[] rows;
+        int count;
+        switch (job.type()) {
+            case ENGINE -> {
+                List<EngineDataDTO> accepted = accept(job, parsed, parsed.records().getEngineData(), results,
+                        EngineDataDTO::getVehicleId, EngineDataDTO::getRecordingTime, rejects, months, vehicleIds);
+                rows = telemetryCopyRepository.encodeEngineData(accepted);
+                count = accepted.size();
+            }
+            case EMISSION -> {
+                List<EmissionDataDTO> accepted = accept(job, parsed, parsed.records().getEmissionData(), results,
+                        EmissionDataDTO::getVehicleId, EmissionDataDTO::getRecordingTime, rejects, months, vehicleIds);
+                rows = telemetryCopyRepository.encodeEmissionData(accepted);
+                count = accepted.size();
+            }
+            default -> {
+                List<FuelConsumptionDTO> accepted = accept(job, parsed, parsed.records().getFuelConsumption(),
+                        results, FuelConsumptionDTO::getVehicleId, FuelConsumptionDTO::getFillDate, rejects, months,
+                        vehicleIds);
+                for (FuelConsumptionDTO record : accepted) {
+                    // Mirror FuelConsumption.onCreate, which is skipped on the COPY path
+                    if (record.getMilesPerGallon() == null && record.getFuelAmount() > 0) {
+                        record.setMilesPerGallon(record.getDistanceTraveled() / record.getFuelAmount());
+                    }
+                }
+                rows = telemetryCopyRepository.encodeFuelConsumption(accepted);
+                count = accepted.size();
+            }
+        }
+        job.rowsRead.addAndGet(parsed.lines().size() + parsed.rejects().size());
+        job.reject(rejects);
+        record(job.type(), "rejected", rejects.size());
+        return new PreparedChunk(chunk.size(), rows, count, months, vehicleIds);
+    }
+
+    // Keeps the records that passed the field checks and belong to a known vehicle
+    private <T> List<T> accept(ImportJob job, TelemetryCsvParser.ParsedChunk parsed, List<T> records,
+                               List<RecordResultDTO> results, Function<T, Long> vehicleIdOf,
+                               Function<T, LocalDateTime> timeOf, List<TelemetryCsvParser.RejectedLine> rejects,
+                               Set<YearMonth> months, Set<Long> vehicleIds) {
+        Set<Long> requested = new HashSet<>();
+        for (int i = 0; i < records.size(); i++) {
+            if (results.get(i).isAccepted() && !job.knownVehicleIds.contains(vehicleIdOf.apply(records.get(i)))) {
+                requested.add(vehicleIdOf.apply(records.get(i)));
+            }
+        }
+        if (!requested.isEmpty()) {
+            job.knownVehicleIds.addAll(vehicleService.findExistingVehicleIds(requested));
+        }
+        List<T> accepted = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            T record = records.get(i);
+            String message = results.get(i).getMessage();
+            if (results.get(i).isAccepted() && !job.knownVehicleIds.contains(vehicleIdOf.apply(record))) {
+                message = "Vehicle not found with id: " + vehicleIdOf.apply(record);
+            } else if (results.get(i).isAccepted()) {
+                accepted.add(record);
+                months.add(YearMonth.from(timeOf.apply(record)));
+                vehicleIds.add(vehicleIdOf.apply(record));
+                continue;
+            }
+            TelemetryCsvParser.Line line = parsed.lines().get(i);
+            rejects.add(new TelemetryCsvParser.RejectedLine(line.number(),
+                    parsed.text().substring(line.start(), line.end()), message));
+        }
+        return accepted;
+    }
+
+    private void load(ImportJob job, PreparedChunk chunk) {
+        if (chunk.count() > 0) {
+            if (job.type().isPartitioned()) {
+                ensurePartitions(job, chunk.months());
+            }
+            LocalDateTime recentSince = LocalDateTime.now().minus(hotTierProperties.getWindow());
+            TelemetryCopyRepository.CopyResult result = transaction.execute(status -> {
+                TelemetryCopyRepository.CopyResult copied =
+                        telemetryCopyRepository.copy(job.type(), chunk.rows(), recentSince);
+                TelemetryBatchDTO recent = copied.recent();
+                if (!recent.getEngineData().isEmpty() || !recent.getEmissionData().isEmpty()
+                        || !recent.getFuelConsumption().isEmpty()) {
+                    eventPublisher.publishEvent(new TelemetryRecordedEvent(recent));
+                }
+                return copied;
+            });
+            job.rowsLoaded.addAndGet(result.inserted());
+            job.duplicates.addAndGet(chunk.count() - result.inserted());
+            job.vehicleIds.addAll(chunk.vehicleIds());
+            record(job.type(), "loaded", result.inserted());
+            record(job.type(), "duplicate", chunk.count() - result.inserted());
+        }
+        job.bytesDone.addAndGet(chunk.bytes());
+    }
+
+    // Creates the monthly partitions before their rows arrive, so they do not land in the default partition
+    private void ensurePartitions(ImportJob job, Set<YearMonth> months) {
+        synchronized (job.partitionedMonths) {
+            for (YearMonth month : months) {
+                if (job.partitionedMonths.add(month)) {
+                    try {
+                        partitionRepository.ensureMonthlyPartition(job.type().getTable(), month.atDay(1));
+                    } catch (DataAccessException e) {
+                        // E.g. the default partition already holds rows of that month
+                        log.warn("Could not create the {} partition of {}, its rows go to the default partition: {}",
+                                month, job.type().getTable(), e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private Long findVehicleId(ImportJob job, String licensePlate) {
+        return job.vehicleIdsByLicensePlate
+                .computeIfAbsent(licensePlate, vehicleService::findVehicleIdByLicensePlate)
+                .orElse(null);
+    }
+
+    private void record(ImportType type, String result, long rows) {
+        if (rows > 0) {
+            Counter.builder("telemetry.import.rows")
+                    .description("Rows of imported CSV files by outcome")
+                    .baseUnit("rows")
+                    .tag("type", type.getParameterName())
+                    .tag("result", result)
+                    .register(meterRegistry)
+                    .increment(rows);
+        }
+    }
+
+    private static CustomizableThreadFactory threadFactory(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
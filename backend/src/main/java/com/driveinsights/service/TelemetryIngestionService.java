@@ -0,0 +1,271 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.BatchIngestResultDTO;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.RecordResultDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.repository.TelemetryBatchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TelemetryIngestionService {
+
+    public static final String ENGINE = TelemetryMeters.ENGINE;
+    public static final String EMISSION = TelemetryMeters.EMISSION;
+    public static final String FUEL = TelemetryMeters.FUEL;
+
+    private final TelemetryBatchRepository telemetryBatchRepository;
+    private final VehicleService vehicleService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TelemetryMeters telemetryMeters;
+    private final RecentTelemetryKeys recentTelemetryKeys;
+
+    @Transactional
+    public BatchIngestResultDTO ingest(TelemetryBatchDTO batch) {
+        List<EngineDataDTO> engineData = nullToEmpty(batch.getEngineData());
+        List<EmissionDataDTO> emissionData = nullToEmpty(batch.getEmissionData());
+        List<FuelConsumptionDTO> fuelConsumption = nullToEmpty(batch.getFuelConsumption());
+
+        Set<Long> knownVehicleIds = resolveVehicleIds(engineData, emissionData, fuelConsumption);
+        List<RecordResultDTO> results = new ArrayList<>(engineData.size() + emissionData.size() + fuelConsumption.size());
+
+        List<EngineDataDTO> acceptedEngineData = new ArrayList<>(engineData.size());
+        List<RecordResultDTO> engineResults = new ArrayList<>(engineData.size());
+        for (int i = 0; i < engineData.size(); i++) {
+            EngineDataDTO record = engineData.get(i);
+            String error = validateEngineData(record, knownVehicleIds);
+            RecordResultDTO result = new RecordResultDTO(ENGINE, i, error == null, false, error);
+            if (error == null) {
+                acceptedEngineData.add(record);
+                engineResults.add(result);
+            }
+            results.add(result);
+        }
+
+        List<EmissionDataDTO> acceptedEmissionData = new ArrayList<>(emissionData.size());
+        List<RecordResultDTO> emissionResults = new ArrayList<>(emissionData.size());
+        for (int i = 0; i < emissionData.size(); i++) {
+            EmissionDataDTO record = emissionData.get(i);
+            String error = validateEmissionData(record, knownVehicleIds);
+            RecordResultDTO result = new RecordResultDTO(EMISSION, i, error == null, false, error);
+            if (error == null) {
+                acceptedEmissionData.add(record);
+                emissionResults.add(result);
+            }
+            results.add(result);
+        }
+
+        List<FuelConsumptionDTO> acceptedFuelConsumption = new ArrayList<>(fuelConsumption.size());
+        for (int i = 0; i < fuelConsumption.size(); i++) {
+            FuelConsumptionDTO record = fuelConsumption.get(i);
+            String error = validateFuelConsumption(record, knownVehicleIds);
+            if (error == null) {
+                // Mirror FuelConsumption.onCreate, which is skipped on the JDBC path
+                if (record.getMilesPerGallon() == null && record.getFuelAmount() > 0) {
+                    record.setMilesPerGallon(record.getDistanceTraveled() / record.getFuelAmount());
+                }
+                acceptedFuelConsumption.add(record);
+            }
+            results.add(new RecordResultDTO(FUEL, i, error == null, false, error));
+        }
+
+        int accepted = acceptedEngineData.size() + acceptedEmissionData.size() + acceptedFuelConsumption.size();
+
+        // Retries of recently committed readings and repeats within the batch never reach the database
+        List<EngineDataDTO> newEngineData = skipKnownDuplicates(acceptedEngineData, engineResults,
+                EngineDataDTO::getVehicleId, EngineDataDTO::getRecordingTime, recentTelemetryKeys::containsEngineData);
+        List<EmissionDataDTO> newEmissionData = skipKnownDuplicates(acceptedEmissionData, emissionResults,
+                EmissionDataDTO::getVehicleId, EmissionDataDTO::getRecordingTime,
+                recentTelemetryKeys::containsEmissionData);
+
+        telemetryBatchRepository.insertEngineData(newEngineData);
+        telemetryBatchRepository.insertEmissionData(newEmissionData);
+        telemetryBatchRepository.insertFuelConsumption(acceptedFuelConsumption);
+        List<EngineDataDTO> insertedEngineData = keepInserted(newEngineData, engineResults, EngineDataDTO::getId);
+        List<EmissionDataDTO> insertedEmissionData = keepInserted(newEmissionData, emissionResults,
+                EmissionDataDTO::getId);
+
+        telemetryMeters.recordIngested(TelemetryMeters.ENGINE, insertedEngineData.size());
+        telemetryMeters.recordIngested(TelemetryMeters.EMISSION, insertedEmissionData.size());
+        telemetryMeters.recordIngested(TelemetryMeters.FUEL, acceptedFuelConsumption.size());
+        int engineDuplicates = acceptedEngineData.size() - insertedEngineData.size();
+        int emissionDuplicates = acceptedEmissionData.size() - insertedEmissionData.size();
+        telemetryMeters.recordDuplicates(TelemetryMeters.ENGINE, engineDuplicates);
+        telemetryMeters.recordDuplicates(TelemetryMeters.EMISSION, emissionDuplicates);
+        eventPublisher.publishEvent(new TelemetryRecordedEvent(
+                new TelemetryBatchDTO(insertedEngineData, insertedEmissionData, acceptedFuelConsumption)));
+
+        return new BatchIngestResultDTO(results.size(), accepted, results.size() - accepted,
+                engineDuplicates + emissionDuplicates, results);
+    }
+
+    // Field checks only, for batches queued in the journal: vehicles are resolved when it is drained
+    public TelemetryBatchDTO screen(TelemetryBatchDTO batch, List<RecordResultDTO> results) {
+        return new TelemetryBatchDTO(
+                screen(nullToEmpty(batch.getEngineData()), ENGINE,
+                        record -> validateEngineData(record, null), results),
+                screen(nullToEmpty(batch.getEmissionData()), EMISSION,
+                        record -> validateEmissionData(record, null), results),
+                screen(nullToEmpty(batch.getFuelConsumption()), FUEL,
+                        record -> validateFuelConsumption(record, null), results));
+    }
+
+    private static <T> List<T> screen(List<T> records, String type, Function<T, String> validator,
+                                      List<RecordResultDTO> results) {
+        List<T> accepted = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            T record = records.get(i);
+            String error = validator.apply(record);
+            if (error == null) {
+                accepted.add(record);
+            }
+            results.add(new RecordResultDTO(type, i, error == null, false, error));
+        }
+        return accepted;
+    }
+
+    // Drops records whose natural key was committed recently or appears earlier in the batch
+    private <T> List<T> skipKnownDuplicates(List<T> records, List<RecordResultDTO> results,
+                                            Function<T, Long> vehicleIdOf, Function<T, LocalDateTime> timeOf,
+                                            BiPredicate<Long, LocalDateTime> recent) {
+        List<T> remaining = new ArrayList<>(records.size());
+        Set<Long> batchKeys = new HashSet<>(records.size() * 2);
+        for (int i = 0; i < records.size(); i++) {
+            T record = records.get(i);
+            Long vehicleId = vehicleIdOf.apply(record);
+            LocalDateTime time = timeOf.apply(record);
+            if (!batchKeys.add(RecentKeyWindow.fingerprint(vehicleId, time)) || recent.test(vehicleId, time)) {
+                markDuplicate(results.get(i));
+            } else {
+                remaining.add(record);
+            }
+        }
+        return remaining;
+    }
+
+    // Records the database skipped on conflict come back without an id
+    private <T> List<T> keepInserted(List<T> records, List<RecordResultDTO> results, Function<T, Long> idOf) {
+        List<T> inserted = new ArrayList<>(records.size());
+        int result = 0;
+        for (T record : records) {
+            while (results.get(result).isDuplicate()) {
+                result++;
+            }
+            if (idOf.apply(record) != null) {
+                inserted.add(record);
+            } else {
+                markDuplicate(results.get(result));
+            }
+            result++;
+        }
+        return inserted;
+    }
+
+    private static void markDuplicate(RecordResultDTO result) {
+        result.setDuplicate(true);
+        result.setMessage("Duplicate of an existing record");
+    }
+
+    private Set<Long> resolveVehicleIds(List<EngineDataDTO> engineData,
+                                        List<EmissionDataDTO> emissionData,
+                                        List<FuelConsumptionDTO> fuelConsumption) {
+        Set<Long> requested = new HashSet<>();
+        Stream.of(
+                engineData.stream().filter(Objects::nonNull).map(EngineDataDTO::getVehicleId),
+                emissionData.stream().filter(Objects::nonNull).map(EmissionDataDTO::getVehicleId),
+                fuelConsumption.stream().filter(Objects::nonNull).map(FuelConsumptionDTO::getVehicleId)
+        ).flatMap(ids -> ids).filter(Objects::nonNull).forEach(requested::add);
+        if (requested.isEmpty()) {
+            return requested;
+        }
+        return vehicleService.findExistingVehicleIds(requested);
+    }
+
+    private String validateEngineData(EngineDataDTO record, Set<Long> knownVehicleIds) {
+        if (record == null) {
+            return "Record is empty";
+        }
+        String vehicleError = validateVehicle(record.getVehicleId(), knownVehicleIds);
+        if (vehicleError != null) {
+            return vehicleError;
+        }
+        if (record.getEngineTemperature() == null) {
+            return "engineTemperature is required";
+        }
+        if (record.getEngineRpm() == null) {
+            return "engineRpm is required";
+        }
+        if (record.getRecordingTime() == null) {
+            return "recordingTime is required";
+        }
+        return null;
+    }
+
+    private String validateEmissionData(EmissionDataDTO record, Set<Long> knownVehicleIds) {
+        if (record == null) {
+            return "Record is empty";
+        }
+        String vehicleError = validateVehicle(record.getVehicleId(), knownVehicleIds);
+        if (vehicleError != null) {
+            return vehicleError;
+        }
+        if (record.getCo2Emissions() == null) {
+            return "co2Emissions is required";
+        }
+        if (record.getRecordingTime() == null) {
+            return "recordingTime is required";
+        }
+        return null;
+    }
+
+    private String validateFuelConsumption(FuelConsumptionDTO record, Set<Long> knownVehicleIds) {
+        if (record == null) {
+            return "Record is empty";
+        }
+        String vehicleError = validateVehicle(record.getVehicleId(), knownVehicleIds);
+        if (vehicleError != null) {
+            return vehicleError;
+        }
+        if (record.getFuelAmount() == null) {
+            return "fuelAmount is required";
+        }
+        if (record.getDistanceTraveled() == null) {
+            return "distanceTraveled is required";
+        }
+        if (record.getFillDate() == null) {
+            return "fillDate is required";
+        }
+        return null;
+    }
+
+    private String validateVehicle(Long vehicleId, Set<Long> knownVehicleIds) {
+        if (vehicleId == null) {
+            return "vehicleId is required";
+        }
+        if (knownVehicleIds != null && !knownVehicleIds.contains(vehicleId)) {
+            return "Vehicle not found with id: " + vehicleId;
+        }
+        return null;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
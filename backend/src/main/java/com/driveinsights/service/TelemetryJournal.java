@@ -0,0 +1,364 @@
+package com.driveinsights.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of serialized telemetry batches in fixed-size memory-mapped segment
+ * files. An entry is its payload length (int), a CRC32 of the rest (int), a sequence number
+ * (long), the append time in epoch millis (long) and the payload. The length is written last,
+ * so an interrupted append reads as the end of the journal; a length of -1 closes a segment.
+ * The checkpoint file holds the position of the first entry not yet drained, and segments
+ * before it are deleted. Appends are serialized; a single drainer reads and commits.
+ * Flushes only move forward: {@link #force(long)} writes out everything appended before the
+ * entry, so an entry that has been forced never follows one a crash can tear.
+ */
+final class TelemetryJournal implements Closeable {
+
+    static final int HEADER_SIZE = 24;
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT = "checkpoint";
+
+    record Position(long segment, int offset) {
+
+        boolean isBefore(Position other) {
+            return segment < other.segment || (segment == other.segment && offset < other.offset);
+        }
+    }
+
+    record Entry(long sequence, long appendedAt, byte[] payload, Position next) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    // Writer state, guarded by this
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private int writeOffset;
+    private long nextSequence;
+
+    // Everything before flushedSequence (at flushedPosition) is on disk; guarded by flushLock
+    private final Object flushLock = new Object();
+    private Position flushedPosition;
+    private volatile long flushedSequence;
+
+    // Published to the drainer and to metrics
+    private volatile Position end;
+    private volatile long appendedSequence;
+    private volatile Position checkpoint;
+    private volatile long checkpointSequence;
+
+    // Drainer-side mapping of the segment being read
+    private long readSegment = -1;
+    private ByteBuffer readBuffer;
+
+    private TelemetryJournal(Path directory, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    static TelemetryJournal open(Path directory, int segmentSize, int maxSegments) throws IOException {
+        Files.createDirectories(directory);
+        TelemetryJournal journal = new TelemetryJournal(directory, segmentSize, maxSegments);
+        journal.recover();
+        return journal;
+    }
+
+    // Returns the entry's sequence number; the entry is durable once force has been called with it
+    synchronized long append(byte[] payload) throws IOException {
+        int length = HEADER_SIZE + payload.length;
+        // Every segment keeps room for its end marker
+        if (length + 4 > segmentSize) {
+            throw new IllegalArgumentException(
+                    "Batch of " + payload.length + " bytes does not fit in a journal segment");
+        }
+        if (writeOffset + length + 4 > segmentSize) {
+            roll();
+        }
+        int offset = writeOffset;
+        long sequence = nextSequence;
+        writeBuffer.putLong(offset + 8, sequence);
+        writeBuffer.putLong(offset + 16, System.currentTimeMillis());
+        writeBuffer.put(offset + HEADER_SIZE, payload);
+        CRC32 crc = new CRC32();
+        crc.update(writeBuffer.slice(offset + 8, length - 8));
+        writeBuffer.putInt(offset + 4, (int) crc.getValue());
+        writeBuffer.putInt(offset, payload.length);
+
+        writeOffset += length;
+        nextSequence++;
+        appendedSequence = nextSequence;
+        end = new Position(writeSegment, writeOffset);
+        return sequence;
+    }
+
+    // Flushes every entry up to and including the given one, outside the append lock. Concurrent
+    // callers share a flush: whoever holds the lock writes out all entries appended so far.
+    void force(long sequence) {
+        synchronized (flushLock) {
+            if (sequence < flushedSequence) {
+                return;
+            }
+            Position target;
+            long targetSequence;
+            MappedByteBuffer buffer;
+            synchronized (this) {
+                target = end;
+                targetSequence = appendedSequence;
+                buffer = writeBuffer;
+            }
+            // Earlier segments were flushed in full when the journal rolled past them
+            int from = flushedPosition.segment() == target.segment() ? flushedPosition.offset() : 0;
+            if (target.offset() > from) {
+                buffer.force(from, target.offset() - from);
+            }
+            flushedPosition = target;
+            flushedSequence = targetSequence;
+        }
+    }
+
+    // Reads up to maxEntries entries starting at the given position; called by the drainer only
+    List<Entry> read(Position from, int maxEntries) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Position position = from;
+        Position limit = end;
+        while (entries.size() < maxEntries && position.isBefore(limit)) {
+            ByteBuffer buffer = readBuffer(position.segment());
+            int offset = position.offset();
+            int length = offset + 4 <= segmentSize ? buffer.getInt(offset) : END_OF_SEGMENT;
+            if (length == END_OF_SEGMENT) {
+                position = new Position(position.segment() + 1, 0);
+                continue;
+            }
+            if (!isValid(buffer, offset, length)) {
+                throw new IOException("Corrupt journal entry in segment " + position.segment() + " at " + offset);
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_SIZE, payload);
+            position = new Position(position.segment(), offset + HEADER_SIZE + length);
+            entries.add(new Entry(buffer.getLong(offset + 8), buffer.getLong(offset + 16), payload, position));
+        }
+        return entries;
+    }
+
+    // Records that every entry before the position has been written to the database
+    void commit(Position position, long sequence) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+        ByteBuffer content = ByteBuffer.allocate(20)
+                .putLong(position.segment())
+                .putInt(position.offset())
+                .putLong(sequence)
+                .flip();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(content);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        checkpoint = position;
+        checkpointSequence = sequence;
+        for (long segment : listSegments()) {
+            if (segment < position.segment()) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+        if (readSegment < position.segment()) {
+            readSegment = -1;
+            readBuffer = null;
+        }
+    }
+
+    Position checkpoint() {
+        return checkpoint;
+    }
+
+    long checkpointSequence() {
+        return checkpointSequence;
+    }
+
+    // Entries appended but not drained yet
+    long pendingEntries() {
+        return appendedSequence - checkpointSequence;
+    }
+
+    // Sequence number of the first entry not known to be on disk
+    long flushedSequence() {
+        return flushedSequence;
+    }
+
+    long bytesOnDisk() {
+        return (end.segment() - checkpoint.segment() + 1) * segmentSize;
+    }
+
+    @Override
+    public synchronized void close() {
+        writeBuffer.force();
+    }
+
+    private void roll() throws IOException {
+        if (writeSegment + 1 - checkpoint.segment() >= maxSegments) {
+            throw new JournalFullException("Journal is full: " + maxSegments + " segments are waiting to be drained");
+        }
+        writeBuffer.putInt(writeOffset, END_OF_SEGMENT);
+        writeBuffer.force();
+        writeSegment++;
+        Files.deleteIfExists(segmentPath(writeSegment));
+        writeBuffer = map(writeSegment, FileChannel.MapMode.READ_WRITE);
+        writeOffset = 0;
+        syncDirectory();
+    }
+
+    private void recover() throws IOException {
+        Path checkpointFile = directory.resolve(CHECKPOINT);
+        Position start = null;
+        long startSequence = 0;
+        if (Files.exists(checkpointFile)) {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(checkpointFile));
+            start = new Position(content.getLong(), content.getInt());
+            startSequence = content.getLong();
+        }
+
+        List<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            writeSegment = start != null ? start.segment() : 0;
+            writeBuffer = map(writeSegment, FileChannel.MapMode.READ_WRITE);
+            writeOffset = 0;
+            nextSequence = startSequence;
+            start = new Position(writeSegment, 0);
+        } else {
+            writeSegment = segments.get(segments.size() - 1);
+            writeBuffer = map(writeSegment, FileChannel.MapMode.READ_WRITE);
+            writeOffset = scanToEnd(writeBuffer);
+            // Zero whatever an interrupted append left behind, so it cannot pass for an entry later
+            for (int i = writeOffset; i < segmentSize; i++) {
+                writeBuffer.put(i, (byte) 0);
+            }
+            long lastSequence = -1;
+            for (int i = segments.size() - 1; i >= 0 && lastSequence < 0; i--) {
+                lastSequence = lastSequence(segments.get(i));
+            }
+            nextSequence = Math.max(lastSequence + 1, startSequence);
+            if (start == null) {
+                start = new Position(segments.get(0), 0);
+                startSequence = Math.max(0, firstSequence(segments.get(0), nextSequence));
+            }
+        }
+        end = new Position(writeSegment, writeOffset);
+        appendedSequence = nextSequence;
+        // What recovery found may only have reached the page cache before a process crash
+        writeBuffer.force();
+        flushedPosition = end;
+        flushedSequence = nextSequence;
+        checkpoint = start;
+        checkpointSequence = startSequence;
+    }
+
+    // Offset just past the last complete entry, or of the end marker
+    private int scanToEnd(ByteBuffer buffer) {
+        int offset = 0;
+        while (offset + 4 <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || !isValid(buffer, offset, length)) {
+                return offset;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private long lastSequence(long segment) throws IOException {
+        ByteBuffer buffer = segment == writeSegment ? writeBuffer : map(segment, FileChannel.MapMode.READ_ONLY);
+        long sequence = -1;
+        int offset = 0;
+        while (offset + 4 <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || !isValid(buffer, offset, length)) {
+                break;
+            }
+            sequence = buffer.getLong(offset + 8);
+            offset += HEADER_SIZE + length;
+        }
+        return sequence;
+    }
+
+    private long firstSequence(long segment, long fallback) throws IOException {
+        ByteBuffer buffer = segment == writeSegment ? writeBuffer : map(segment, FileChannel.MapMode.READ_ONLY);
+        int length = buffer.getInt(0);
+        return length > 0 && isValid(buffer, 0, length) ? buffer.getLong(8) : fallback;
+    }
+
+    private boolean isValid(ByteBuffer buffer, int offset, int length) {
+        if (offset + HEADER_SIZE + length > segmentSize) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + 8, HEADER_SIZE - 8 + length));
+        return buffer.getInt(offset + 4) == (int) crc.getValue();
+    }
+
+    private ByteBuffer readBuffer(long segment) throws IOException {
+        if (segment != readSegment) {
+            readBuffer = map(segment, FileChannel.MapMode.READ_ONLY);
+            readSegment = segment;
+        }
+        return readBuffer;
+    }
+
+    private MappedByteBuffer map(long segment, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_WRITE
+                ? new StandardOpenOption[] {
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, segmentSize);
+            if (mode == FileChannel.MapMode.READ_WRITE) {
+                // Mapping may have grown the file; its new size has to survive a crash as well
+                channel.force(true);
+            }
+            return buffer;
+        }
+    }
+
+    // Makes a new segment file's directory entry durable; not supported on every platform
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened as channels on Windows; the segment data is still flushed
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+}
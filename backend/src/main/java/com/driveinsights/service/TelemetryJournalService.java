@@ -0,0 +1,214 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.JournalProperties;
+import com.driveinsights.dto.BatchIngestResultDTO;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.RecordResultDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-behind ingestion: batches that pass the field checks are appended to the
+ * {@link TelemetryJournal} and acknowledged, and a scheduled drainer writes them to the database
+ * through {@link TelemetryIngestionService} in order, retrying with backoff while it fails.
+ * Undrained entries are replayed after a restart. An entry written to the database just before
+ * a crash is written again; engine and emission readings are deduplicated by their natural key,
+ * fuel fill-ups are not.
+ */
+@Slf4j
+@Service
+public class TelemetryJournalService {
+
+    // Longest a drain run keeps the shared scheduler thread; the next run continues
+    private static final long MAX_RUN_MILLIS = 1000;
+
+    private final JournalProperties properties;
+    private final TelemetryIngestionService telemetryIngestionService;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    // Smile keeps entries compact; unlike the HTTP mapper it writes times at full precision
+    private final ObjectMapper journalMapper;
+    private final Counter appended;
+    private final Counter drained;
+    private final Counter rejected;
+    private final Counter failures;
+    private final Counter deadLetters;
+
+    private TelemetryJournal journal;
+    private volatile long oldestPendingAppendedAt;
+    // Drainer state, guarded by this
+    private long retryDelayMillis;
+    private long nextAttemptAt;
+    private long oneEntryAtATimeUntil = -1;
+    private boolean closed;
+
+    public TelemetryJournalService(JournalProperties properties, TelemetryIngestionService telemetryIngestionService,
+                                   TaskScheduler taskScheduler, Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.telemetryIngestionService = telemetryIngestionService;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+        this.journalMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        this.appended = Counter.builder("telemetry.journal.appended")
+                .description("Batches appended to the ingestion journal")
+                .register(meterRegistry);
+        this.drained = Counter.builder("telemetry.journal.drained")
+                .description("Journal entries written to the database")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("telemetry.journal.rejected")
+                .description("Journaled records rejected when drained, e.g. for an unknown vehicle")
+                .baseUnit("rows")
+                .register(meterRegistry);
+        this.failures = Counter.builder("telemetry.journal.drain.failures")
+                .description("Drain attempts that failed and were retried")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("telemetry.journal.dead.letters")
+                .description("Journal entries the database refused, set aside in the journal directory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        journal = TelemetryJournal.open(Path.of(properties.getDirectory()), properties.getSegmentSize(),
+                properties.getMaxSegments());
+        if (journal.pendingEntries() > 0) {
+            log.info("Replaying {} journaled telemetry batches", journal.pendingEntries());
+        }
+        Gauge.builder("telemetry.journal.lag", journal, TelemetryJournal::pendingEntries)
+                .description("Journal entries not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.journal.lag.seconds", this, TelemetryJournalService::lagSeconds)
+                .description("Age of the oldest journal entry not yet written to the database")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.journal.size", journal, TelemetryJournal::bytesOnDisk)
+                .description("Disk space held by journal segments")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        taskScheduler.scheduleWithFixedDelay(this::drain, properties.getDrainInterval());
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    // Appends the records that pass the field checks; vehicles are checked when the entry is drained
+    public BatchIngestResultDTO append(TelemetryBatchDTO batch) {
+        List<RecordResultDTO> results = new ArrayList<>();
+        TelemetryBatchDTO accepted = telemetryIngestionService.screen(batch, results);
+        int acceptedCount = accepted.getEngineData().size() + accepted.getEmissionData().size()
+                + accepted.getFuelConsumption().size();
+        if (acceptedCount > 0) {
+            try {
+                long sequence = journal.append(journalMapper.writeValueAsBytes(accepted));
+                if (properties.isSyncOnAppend()) {
+                    journal.force(sequence);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to the telemetry journal", e);
+            }
+            appended.increment();
+        }
+        return new BatchIngestResultDTO(results.size(), acceptedCount, results.size() - acceptedCount, 0, results);
+    }
+
+    public synchronized void drain() {
+        if (closed || System.currentTimeMillis() < nextAttemptAt) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + MAX_RUN_MILLIS;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                boolean oneEntryAtATime = journal.checkpointSequence() <= oneEntryAtATimeUntil;
+                List<TelemetryJournal.Entry> entries = journal.read(journal.checkpoint(),
+                        oneEntryAtATime ? 1 : properties.getDrainBatchEntries());
+                if (entries.isEmpty()) {
+                    oldestPendingAppendedAt = 0;
+                    break;
+                }
+                oldestPendingAppendedAt = entries.get(0).appendedAt();
+                TelemetryJournal.Entry last = entries.get(entries.size() - 1);
+                try {
+                    BatchIngestResultDTO result = telemetryIngestionService.ingest(merge(entries));
+                    rejected.increment(result.getRejected());
+                } catch (DataIntegrityViolationException | IOException e) {
+                    if (entries.size() > 1) {
+                        // Retry the entries one by one to find the one the database refuses
+                        oneEntryAtATimeUntil = last.sequence();
+                        continue;
+                    }
+                    deadLetter(last, e);
+                }
+                journal.commit(last.next(), last.sequence() + 1);
+                drained.increment(entries.size());
+                retryDelayMillis = 0;
+            }
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            retryDelayMillis = retryDelayMillis == 0
+                    ? properties.getRetryInitialDelay().toMillis()
+                    : Math.min(retryDelayMillis * 2, properties.getRetryMaxDelay().toMillis());
+            nextAttemptAt = System.currentTimeMillis() + retryDelayMillis;
+            log.warn("Could not drain the telemetry journal, retrying in {} ms: {}", retryDelayMillis, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closed = true;
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private TelemetryBatchDTO merge(List<TelemetryJournal.Entry> entries) throws IOException {
+        List<EngineDataDTO> engineData = new ArrayList<>();
+        List<EmissionDataDTO> emissionData = new ArrayList<>();
+        List<FuelConsumptionDTO> fuelConsumption = new ArrayList<>();
+        for (TelemetryJournal.Entry entry : entries) {
+            TelemetryBatchDTO batch = journalMapper.readValue(entry.payload(), TelemetryBatchDTO.class);
+            engineData.addAll(batch.getEngineData());
+            emissionData.addAll(batch.getEmissionData());
+            fuelConsumption.addAll(batch.getFuelConsumption());
+        }
+        return new TelemetryBatchDTO(engineData, emissionData, fuelConsumption);
+    }
+
+    // Keeps the refused entry next to the journal so it can be inspected and resent
+    private void deadLetter(TelemetryJournal.Entry entry, Exception cause) throws IOException {
+        Path file = Path.of(properties.getDirectory()).resolve("dead-letter-" + entry.sequence() + ".smile");
+        Files.write(file, entry.payload());
+        deadLetters.increment();
+        log.error("Journal entry {} was refused by the database and moved to {}: {}", entry.sequence(), file,
+                cause.getMessage());
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestPendingAppendedAt;
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
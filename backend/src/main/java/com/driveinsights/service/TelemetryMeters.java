@@ -0,0 +1,64 @@
+package com.driveinsights.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row-level telemetry meters, tagged by data type: rows returned per read (a summary, so
+ * oversized responses show up in the percentiles), rows ingested and duplicate rows skipped.
+ */
+@Component
+public class TelemetryMeters {
+
+    public static final String ENGINE = "engine";
+    public static final String EMISSION = "emission";
+    public static final String FUEL = "fuel";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> rowsReturned = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowsIngested = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowsDuplicate = new ConcurrentHashMap<>();
+
+    public TelemetryMeters(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordReturned(String type, int rows) {
+        rowsReturned.computeIfAbsent(type, key -> DistributionSummary.builder("telemetry.rows.returned")
+                .description("Telemetry rows returned per read")
+                .baseUnit("rows")
+                .tag("type", key)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+                .record(rows);
+    }
+
+    public void recordIngested(String type, int rows) {
+        if (rows == 0) {
+            return;
+        }
+        rowsIngested.computeIfAbsent(type, key -> Counter.builder("telemetry.rows.ingested")
+                .description("Telemetry rows written")
+                .baseUnit("rows")
+                .tag("type", key)
+                .register(meterRegistry))
+                .increment(rows);
+    }
+
+    public void recordDuplicates(String type, int rows) {
+        if (rows == 0) {
+            return;
+        }
+        rowsDuplicate.computeIfAbsent(type, key -> Counter.builder("telemetry.rows.duplicate")
+                .description("Telemetry rows skipped because a row with the same natural key exists")
+                .baseUnit("rows")
+                .tag("type", key)
+                .register(meterRegistry))
+                .increment(rows);
+    }
+}
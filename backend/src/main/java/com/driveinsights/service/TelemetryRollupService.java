@@ -0,0 +1,264 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.DistributionDTO;
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.HistogramBinDTO;
+import com.driveinsights.dto.RollupBucketDTO;
+import com.driveinsights.dto.RollupSeriesDTO;
+import com.driveinsights.dto.TelemetryBatchDTO;
+import com.driveinsights.event.TelemetryImportedEvent;
+import com.driveinsights.event.TelemetryRecordedEvent;
+import com.driveinsights.event.TelemetryRemovedEvent;
+import com.driveinsights.event.TelemetryUpdatedEvent;
+import com.driveinsights.model.RollupResolution;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.model.TelemetryRollup;
+import com.driveinsights.model.TelemetryRollupId;
+import com.driveinsights.repository.TelemetryRollupBatchRepository;
+import com.driveinsights.repository.TelemetryRollupRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains per-vehicle count/sum/min/max buckets at every {@link RollupResolution}, plus a
+ * fixed-bin histogram for the metrics that declare one. Inserts are merged incrementally;
+ * updates and deletes rebuild the touched buckets from the raw rows because min and max
+ * cannot be decremented.
+ */
+@Service
+public class TelemetryRollupService {
+
+    private static final Comparator<TelemetryRollupId> KEY_ORDER = Comparator
+            .comparing(TelemetryRollupId::getVehicleId)
+            .thenComparing(TelemetryRollupId::getMetric)
+            .thenComparing(TelemetryRollupId::getResolution)
+            .thenComparing(TelemetryRollupId::getBucketStart);
+
+    private final TelemetryRollupRepository telemetryRollupRepository;
+    private final TelemetryRollupBatchRepository telemetryRollupBatchRepository;
+    private final TelemetryHotTier telemetryHotTier;
+    private final TransactionTemplate transaction;
+
+    public TelemetryRollupService(TelemetryRollupRepository telemetryRollupRepository,
+                                  TelemetryRollupBatchRepository telemetryRollupBatchRepository,
+                                  TelemetryHotTier telemetryHotTier, PlatformTransactionManager transactionManager) {
+        this.telemetryRollupRepository = telemetryRollupRepository;
+        this.telemetryRollupBatchRepository = telemetryRollupBatchRepository;
+        this.telemetryHotTier = telemetryHotTier;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onTelemetryRecorded(TelemetryRecordedEvent event) {
+        Map<TelemetryRollupId, TelemetryRollup> buckets = new TreeMap<>(KEY_ORDER);
+        forEachValue(event.getRecords(), (vehicleId, metric, time, value) -> {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                TelemetryRollupId key = new TelemetryRollupId(vehicleId, metric, resolution, resolution.truncate(time));
+                TelemetryRollup bucket = buckets.get(key);
+                if (bucket == null) {
+                    int[] histogram = metric.hasHistogram() && resolution.keepsHistograms()
+                            ? new int[metric.getHistogramBins()]
+                            : null;
+                    bucket = new TelemetryRollup(vehicleId, metric, resolution, key.getBucketStart(),
+                            0L, 0.0, value, value, histogram);
+                    buckets.put(key, bucket);
+                }
+                bucket.setSampleCount(bucket.getSampleCount() + 1);
+                bucket.setValueSum(bucket.getValueSum() + value);
+                bucket.setValueMin(Math.min(bucket.getValueMin(), value));
+                bucket.setValueMax(Math.max(bucket.getValueMax(), value));
+                if (bucket.getHistogram() != null) {
+                    bucket.getHistogram()[metric.histogramBin(value)]++;
+                }
+            }
+        });
+        telemetryRollupBatchRepository.merge(new ArrayList<>(buckets.values()));
+    }
+
+    @EventListener
+    public void onTelemetryRemoved(TelemetryRemovedEvent event) {
+        Map<TelemetryRollupId, TelemetryRollup> buckets = new TreeMap<>(KEY_ORDER);
+        collectBuckets(event.getRecords(), buckets);
+        telemetryRollupBatchRepository.recompute(new ArrayList<>(buckets.values()));
+    }
+
+    @EventListener
+    public void onTelemetryUpdated(TelemetryUpdatedEvent event) {
+        Map<TelemetryRollupId, TelemetryRollup> buckets = new TreeMap<>(KEY_ORDER);
+        collectBuckets(event.getPrevious(), buckets);
+        collectBuckets(event.getCurrent(), buckets);
+        telemetryRollupBatchRepository.recompute(new ArrayList<>(buckets.values()));
+    }
+
+    // Imported rows are mostly older than the hot tier window and were not published one by one.
+    // One transaction per vehicle, so live writes of a vehicle wait for its rebuild only.
+    @EventListener
+    public void onTelemetryImported(TelemetryImportedEvent event) {
+        for (Long vehicleId : event.getVehicleIds()) {
+            transaction.executeWithoutResult(status -> telemetryRollupBatchRepository.rebuild(vehicleId));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RollupSeriesDTO getSeries(Long vehicleId, TelemetryMetric metric, LocalDateTime startDate,
+                                     LocalDateTime endDate, Duration step, int maxPoints) {
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+        Duration requested = step != null
+                ? step
+                : Duration.between(startDate, endDate).dividedBy(Math.max(1, maxPoints));
+        RollupResolution resolution = RollupResolution.forStep(requested);
+        LocalDateTime from = resolution.truncate(startDate);
+        List<RollupBucketDTO> buckets = telemetryHotTier.findBuckets(vehicleId, metric, resolution, from, endDate);
+        if (buckets == null) {
+            buckets = vehicleId == null
+                    ? telemetryRollupRepository.findFleetBuckets(metric, resolution, from, endDate)
+                    : telemetryRollupRepository.findBuckets(vehicleId, metric, resolution, from, endDate);
+        }
+        return new RollupSeriesDTO(vehicleId, metric.getParameterName(), resolution.name(), buckets);
+    }
+
+    // Histogram and percentiles over [startDate, endDate) widened to whole hours, for one vehicle or the fleet
+    @Transactional(readOnly = true)
+    public DistributionDTO getDistribution(Long vehicleId, TelemetryMetric metric, LocalDateTime startDate,
+                                           LocalDateTime endDate, Integer binWidth) {
+        if (!metric.hasHistogram()) {
+            throw new IllegalArgumentException("No distribution is kept for " + metric.getParameterName());
+        }
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+        int width = binWidth != null ? binWidth : metric.getHistogramBinWidth();
+        if (width <= 0 || width % metric.getHistogramBinWidth() != 0) {
+            throw new IllegalArgumentException("binWidth must be a multiple of " + metric.getHistogramBinWidth());
+        }
+        LocalDateTime from = RollupResolution.HOUR.truncate(startDate);
+        LocalDateTime to = RollupResolution.HOUR.truncate(endDate);
+        if (to.isBefore(endDate)) {
+            to = RollupResolution.HOUR.next(to);
+        }
+        TelemetryRollup merged = telemetryRollupBatchRepository.findHistogram(vehicleId, metric, from, to);
+        if (merged == null || merged.getHistogram() == null) {
+            return new DistributionDTO(vehicleId, metric.getParameterName(), from, to, 0L, null, null, null,
+                    null, null, null, width, List.of());
+        }
+        int[] counts = merged.getHistogram();
+        long total = 0;
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                total += counts[i];
+                first = first < 0 ? i : first;
+                last = i;
+            }
+        }
+        double min = merged.getValueMin();
+        double max = merged.getValueMax();
+        int binsPerGroup = width / metric.getHistogramBinWidth();
+        List<HistogramBinDTO> bins = new ArrayList<>();
+        for (int group = first / binsPerGroup * binsPerGroup; group <= last; group += binsPerGroup) {
+            long count = 0;
+            for (int i = group; i < Math.min(group + binsPerGroup, counts.length); i++) {
+                count += counts[i];
+            }
+            double lower = metric.getHistogramOrigin() + (double) group * metric.getHistogramBinWidth();
+            bins.add(new HistogramBinDTO(lower, lower + width, count));
+        }
+        return new DistributionDTO(vehicleId, metric.getParameterName(), from, to, total, min, max,
+                merged.getValueSum() / merged.getSampleCount(),
+                percentile(metric, counts, total, min, max, 0.50),
+                percentile(metric, counts, total, min, max, 0.90),
+                percentile(metric, counts, total, min, max, 0.99),
+                width, bins);
+    }
+
+    @Transactional
+    public void rebuild(Long vehicleId) {
+        telemetryRollupBatchRepository.rebuild(vehicleId);
+    }
+
+    private void collectBuckets(TelemetryBatchDTO records, Map<TelemetryRollupId, TelemetryRollup> buckets) {
+        forEachValue(records, (vehicleId, metric, time, value) -> {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                TelemetryRollupId key = new TelemetryRollupId(vehicleId, metric, resolution, resolution.truncate(time));
+                buckets.putIfAbsent(key, new TelemetryRollup(vehicleId, metric, resolution, key.getBucketStart(),
+                        0L, 0.0, 0.0, 0.0, null));
+            }
+        });
+    }
+
+    // Interpolates linearly within the bin holding the rank; the observed min and max bound the edge bins
+    static double percentile(TelemetryMetric metric, int[] counts, long total, double min, double max,
+                             double fraction) {
+        double rank = fraction * total;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (seen + counts[i] >= rank) {
+                double binLower = metric.getHistogramOrigin() + (double) i * metric.getHistogramBinWidth();
+                double lower = i == 0 ? min : Math.max(min, binLower);
+                double upper = i == counts.length - 1 ? max : Math.min(max, binLower + metric.getHistogramBinWidth());
+                return lower + (upper - lower) * (rank - seen) / counts[i];
+            }
+            seen += counts[i];
+        }
+        return max;
+    }
+
+    static void forEachValue(TelemetryBatchDTO records, MetricValueConsumer consumer) {
+        for (EngineDataDTO record : records.getEngineData()) {
+            consumer.accept(record.getVehicleId(), TelemetryMetric.ENGINE_TEMPERATURE, record.getRecordingTime(),
+                    record.getEngineTemperature());
+            consumer.accept(record.getVehicleId(), TelemetryMetric.ENGINE_RPM, record.getRecordingTime(),
+                    record.getEngineRpm());
+            consumer.accept(record.getVehicleId(), TelemetryMetric.IDLING_TIME_SECONDS, record.getRecordingTime(),
+                    record.getIdlingTimeSeconds());
+        }
+        for (EmissionDataDTO record : records.getEmissionData()) {
+            consumer.accept(record.getVehicleId(), TelemetryMetric.CO2_EMISSIONS, record.getRecordingTime(),
+                    record.getCo2Emissions());
+            consumer.accept(record.getVehicleId(), TelemetryMetric.NOX_EMISSIONS, record.getRecordingTime(),
+                    record.getNoxEmissions());
+            consumer.accept(record.getVehicleId(), TelemetryMetric.PARTICULATE_MATTER, record.getRecordingTime(),
+                    record.getParticulateMatter());
+        }
+        for (FuelConsumptionDTO record : records.getFuelConsumption()) {
+            consumer.accept(record.getVehicleId(), TelemetryMetric.MILES_PER_GALLON, record.getFillDate(),
+                    record.getMilesPerGallon());
+            consumer.accept(record.getVehicleId(), TelemetryMetric.FUEL_AMOUNT, record.getFillDate(),
+                    record.getFuelAmount());
+            consumer.accept(record.getVehicleId(), TelemetryMetric.DISTANCE_TRAVELED, record.getFillDate(),
+                    record.getDistanceTraveled());
+            consumer.accept(record.getVehicleId(), TelemetryMetric.FUEL_COST, record.getFillDate(),
+                    record.getFuelCost());
+        }
+    }
+
+    @FunctionalInterface
+    interface MetricValueConsumer {
+        void accept(Long vehicleId, TelemetryMetric metric, LocalDateTime time, double value);
+
+        default void accept(Long vehicleId, TelemetryMetric metric, LocalDateTime time, Number value) {
+            if (value != null) {
+                accept(vehicleId, metric, time, value.doubleValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.EmissionDataDTO;
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.dto.TimeSeriesDTO;
+import com.driveinsights.model.TelemetryMetric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Chart series downsampled to a target point count in one pass over the streamed rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class TelemetrySeriesService {
+
+    public static final int DEFAULT_POINTS = 1000;
+    public static final int MAX_POINTS = 10000;
+
+    private static final int MIN_POINTS = 3;
+
+    private final EngineDataService engineDataService;
+    private final EmissionDataService emissionDataService;
+    private final FuelConsumptionService fuelConsumptionService;
+
+    public TimeSeriesDTO getEngineDataSeries(Long vehicleId, TelemetryMetric metric, LocalDateTime startDate,
+                                             LocalDateTime endDate, Integer points, DownsampleMode mode) {
+        Function<EngineDataDTO, Number> value = switch (metric) {
+            case ENGINE_TEMPERATURE -> EngineDataDTO::getEngineTemperature;
+            case ENGINE_RPM -> EngineDataDTO::getEngineRpm;
+            case IDLING_TIME_SECONDS -> EngineDataDTO::getIdlingTimeSeconds;
+            default -> throw unsupportedMetric(metric, "engine data");
+        };
+        TimeSeriesDownsampler downsampler = downsampler(startDate, endDate, points, mode);
+        engineDataService.forEachEngineData(vehicleId, startDate, endDate,
+                record -> downsampler.add(record.getRecordingTime(), value.apply(record)));
+        return toSeries(vehicleId, metric, mode, downsampler);
+    }
+
+    public TimeSeriesDTO getEmissionDataSeries(Long vehicleId, TelemetryMetric metric, LocalDateTime startDate,
+                                               LocalDateTime endDate, Integer points, DownsampleMode mode) {
+        Function<EmissionDataDTO, Number> value = switch (metric) {
+            case CO2_EMISSIONS -> EmissionDataDTO::getCo2Emissions;
+            case NOX_EMISSIONS -> EmissionDataDTO::getNoxEmissions;
+            case PARTICULATE_MATTER -> EmissionDataDTO::getParticulateMatter;
+            default -> throw unsupportedMetric(metric, "emission data");
+        };
+        TimeSeriesDownsampler downsampler = downsampler(startDate, endDate, points, mode);
+        emissionDataService.forEachEmissionData(vehicleId, startDate, endDate,
+                record -> downsampler.add(record.getRecordingTime(), value.apply(record)));
+        return toSeries(vehicleId, metric, mode, downsampler);
+    }
+
+    public TimeSeriesDTO getFuelConsumptionSeries(Long vehicleId, TelemetryMetric metric, LocalDateTime startDate,
+                                                  LocalDateTime endDate, Integer points, DownsampleMode mode) {
+        Function<FuelConsumptionDTO, Number> value = switch (metric) {
+            case MILES_PER_GALLON -> FuelConsumptionDTO::getMilesPerGallon;
+            case FUEL_AMOUNT -> FuelConsumptionDTO::getFuelAmount;
+            case DISTANCE_TRAVELED -> FuelConsumptionDTO::getDistanceTraveled;
+            case FUEL_COST -> FuelConsumptionDTO::getFuelCost;
+            default -> throw unsupportedMetric(metric, "fuel consumption");
+        };
+        TimeSeriesDownsampler downsampler = downsampler(startDate, endDate, points, mode);
+        fuelConsumptionService.forEachFuelConsumption(vehicleId, startDate, endDate,
+                record -> downsampler.add(record.getFillDate(), value.apply(record)));
+        return toSeries(vehicleId, metric, mode, downsampler);
+    }
+
+    private static TimeSeriesDownsampler downsampler(LocalDateTime startDate, LocalDateTime endDate,
+                                                     Integer points, DownsampleMode mode) {
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+        int target = points == null ? DEFAULT_POINTS : Math.max(MIN_POINTS, Math.min(points, MAX_POINTS));
+        return TimeSeriesDownsampler.create(mode, startDate, endDate, target);
+    }
+
+    private static TimeSeriesDTO toSeries(Long vehicleId, TelemetryMetric metric, DownsampleMode mode,
+                                          TimeSeriesDownsampler downsampler) {
+        return new TimeSeriesDTO(vehicleId, metric.getParameterName(), mode.getParameterName(),
+                downsampler.getSourceCount(), downsampler.finish());
+    }
+
+    private static IllegalArgumentException unsupportedMetric(TelemetryMetric metric, String source) {
+        return new IllegalArgumentException("Metric " + metric.getParameterName() + " is not part of " + source);
+    }
+}
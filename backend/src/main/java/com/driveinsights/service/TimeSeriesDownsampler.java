@@ -0,0 +1,64 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.SeriesPointDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Single-pass downsampler over readings arriving in time order. The range is split into
+ * equal-width time buckets, so the output size depends on the requested point count and
+ * not on how densely the range was recorded.
+ */
+abstract class TimeSeriesDownsampler {
+
+    private final long startMillis;
+    private final long bucketWidth;
+    private final int bucketCount;
+    private long sourceCount;
+
+    protected TimeSeriesDownsampler(LocalDateTime startDate, LocalDateTime endDate, int bucketCount) {
+        this.startMillis = toMillis(startDate);
+        this.bucketCount = bucketCount;
+        this.bucketWidth = Math.max(1, (toMillis(endDate) - startMillis + bucketCount - 1) / bucketCount);
+    }
+
+    static TimeSeriesDownsampler create(DownsampleMode mode, LocalDateTime startDate, LocalDateTime endDate,
+                                        int points) {
+        return mode == DownsampleMode.MINMAX
+                ? new MinMaxDownsampler(startDate, endDate, points)
+                : new LttbDownsampler(startDate, endDate, points);
+    }
+
+    public final void add(LocalDateTime time, Number value) {
+        if (time == null || value == null) {
+            return;
+        }
+        sourceCount++;
+        accept(toMillis(time), value.doubleValue());
+    }
+
+    public long getSourceCount() {
+        return sourceCount;
+    }
+
+    public abstract List<SeriesPointDTO> finish();
+
+    protected abstract void accept(long time, double value);
+
+    protected int bucketOf(long time) {
+        long bucket = (time - startMillis) / bucketWidth;
+        return (int) Math.max(0, Math.min(bucketCount - 1, bucket));
+    }
+
+    protected static SeriesPointDTO point(long time, double value) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(time, 1000L),
+                (int) Math.floorMod(time, 1000L) * 1_000_000, ZoneOffset.UTC);
+        return new SeriesPointDTO(dateTime, value);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
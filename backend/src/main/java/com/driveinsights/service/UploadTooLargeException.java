@@ -0,0 +1,9 @@
+package com.driveinsights.service;
+
+// Raised when an uploaded import file exceeds drive-insights.imports.max-upload-size
+public class UploadTooLargeException extends RuntimeException {
+
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
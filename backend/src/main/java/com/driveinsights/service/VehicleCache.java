@@ -0,0 +1,65 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.VehicleCacheProperties;
+import com.driveinsights.dto.VehicleDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of vehicle metadata, keyed by id and by license plate.
+ * Hit/miss/eviction counts are published as cache.* meters.
+ */
+@Component
+public class VehicleCache {
+
+    private final Cache<Long, VehicleDTO> vehiclesById;
+    private final Cache<String, Long> vehicleIdsByLicensePlate;
+
+    public VehicleCache(VehicleCacheProperties properties, MeterRegistry meterRegistry) {
+        this.vehiclesById = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.vehicleIdsByLicensePlate = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, vehiclesById, "vehiclesById");
+        CaffeineCacheMetrics.monitor(meterRegistry, vehicleIdsByLicensePlate, "vehicleIdsByLicensePlate");
+    }
+
+    // Returns null, without caching anything, when the loader finds no vehicle
+    public VehicleDTO getById(Long id, Function<Long, VehicleDTO> loader) {
+        return vehiclesById.get(id, loader);
+    }
+
+    public VehicleDTO getIfPresent(Long id) {
+        return vehiclesById.getIfPresent(id);
+    }
+
+    public Long getIdByLicensePlate(String licensePlate, Function<String, Long> loader) {
+        return vehicleIdsByLicensePlate.get(licensePlate, loader);
+    }
+
+    public void put(VehicleDTO vehicle) {
+        vehiclesById.put(vehicle.getId(), vehicle);
+        vehicleIdsByLicensePlate.put(vehicle.getLicensePlate(), vehicle.getId());
+    }
+
+    public void invalidate(Long id) {
+        VehicleDTO cached = vehiclesById.getIfPresent(id);
+        if (cached != null) {
+            vehicleIdsByLicensePlate.invalidate(cached.getLicensePlate());
+        }
+        vehiclesById.invalidate(id);
+        // The plate may have been cached without the vehicle itself
+        vehicleIdsByLicensePlate.asMap().values().removeIf(id::equals);
+    }
+}
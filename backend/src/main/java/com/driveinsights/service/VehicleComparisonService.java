@@ -0,0 +1,140 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.ComparisonSeriesDTO;
+import com.driveinsights.dto.VehicleComparisonDTO;
+import com.driveinsights.model.TelemetryMetric;
+import com.driveinsights.repository.TelemetryComparisonRepository;
+import com.driveinsights.repository.TelemetryComparisonRepository.BucketAverages;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Compares several vehicles over several metrics on one bucketed timeline. Each telemetry table
+ * is read with a single grouped query covering every requested vehicle and metric, the tables
+ * are queried in parallel, and the rows are merged into series aligned on the same buckets.
+ */
+@Service
+public class VehicleComparisonService {
+
+    public static final List<TelemetryMetric> DEFAULT_METRICS = List.of(
+            TelemetryMetric.MILES_PER_GALLON,
+            TelemetryMetric.ENGINE_TEMPERATURE,
+            TelemetryMetric.ENGINE_RPM,
+            TelemetryMetric.CO2_EMISSIONS,
+            TelemetryMetric.NOX_EMISSIONS,
+            TelemetryMetric.PARTICULATE_MATTER);
+
+    private static final int MAX_VEHICLES = 200;
+    private static final int MAX_BUCKETS = 5000;
+
+    private final TelemetryComparisonRepository telemetryComparisonRepository;
+    private final VehicleService vehicleService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+
+    public VehicleComparisonService(TelemetryComparisonRepository telemetryComparisonRepository,
+                                    VehicleService vehicleService, PlatformTransactionManager transactionManager,
+                                    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                    TaskExecutor taskExecutor) {
+        this.telemetryComparisonRepository = telemetryComparisonRepository;
+        this.vehicleService = vehicleService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+    }
+
+    public VehicleComparisonDTO compare(List<Long> vehicleIds, List<TelemetryMetric> metrics,
+                                        LocalDateTime startDate, LocalDateTime endDate, Duration bucket) {
+        Set<Long> vehicles = new LinkedHashSet<>(vehicleIds);
+        if (vehicles.isEmpty() || vehicles.size() > MAX_VEHICLES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_VEHICLES + " vehicles can be compared");
+        }
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+        if (bucket.getSeconds() < 1 || bucket.getNano() != 0) {
+            throw new IllegalArgumentException("bucket must be a whole number of seconds");
+        }
+        long bucketSeconds = bucket.getSeconds();
+        long bucketCount = (Duration.between(startDate, endDate).getSeconds() + bucketSeconds - 1) / bucketSeconds;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException("The range holds " + bucketCount + " buckets; at most " + MAX_BUCKETS
+                    + " are allowed");
+        }
+        Set<Long> missing = new LinkedHashSet<>(vehicles);
+        missing.removeAll(vehicleService.findExistingVehicleIds(vehicles));
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException("Vehicles not found with ids: " + missing);
+        }
+
+        List<TelemetryMetric> requested = new ArrayList<>(
+                new LinkedHashSet<>(metrics.isEmpty() ? DEFAULT_METRICS : metrics));
+        Map<String, List<TelemetryMetric>> metricsByTable = new LinkedHashMap<>();
+        for (TelemetryMetric metric : requested) {
+            metricsByTable.computeIfAbsent(metric.getTable(), table -> new ArrayList<>()).add(metric);
+        }
+        // One query per table, each on its own connection
+        Map<List<TelemetryMetric>, CompletableFuture<List<BucketAverages>>> queries = new LinkedHashMap<>();
+        for (List<TelemetryMetric> tableMetrics : metricsByTable.values()) {
+            queries.put(tableMetrics, CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status ->
+                    telemetryComparisonRepository.averageByBucket(
+                            tableMetrics, vehicles, startDate, endDate, bucketSeconds)), taskExecutor));
+        }
+
+        Map<Long, Map<TelemetryMetric, Double[]>> values = new HashMap<>();
+        for (Map.Entry<List<TelemetryMetric>, CompletableFuture<List<BucketAverages>>> query : queries.entrySet()) {
+            List<TelemetryMetric> tableMetrics = query.getKey();
+            for (BucketAverages row : join(query.getValue())) {
+                Map<TelemetryMetric, Double[]> vehicleValues =
+                        values.computeIfAbsent(row.vehicleId(), id -> new HashMap<>());
+                for (int i = 0; i < tableMetrics.size(); i++) {
+                    vehicleValues.computeIfAbsent(tableMetrics.get(i), metric -> new Double[(int) bucketCount])
+                            [row.bucket()] = row.values()[i];
+                }
+            }
+        }
+
+        List<ComparisonSeriesDTO> series = new ArrayList<>();
+        for (Long vehicleId : vehicles) {
+            Map<TelemetryMetric, Double[]> vehicleValues = values.getOrDefault(vehicleId, Map.of());
+            for (TelemetryMetric metric : requested) {
+                Double[] metricValues = vehicleValues.getOrDefault(metric, new Double[(int) bucketCount]);
+                series.add(new ComparisonSeriesDTO(vehicleId, metric.getParameterName(), Arrays.asList(metricValues)));
+            }
+        }
+        List<LocalDateTime> buckets = new ArrayList<>();
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(startDate.plusSeconds(i * bucketSeconds));
+        }
+        return new VehicleComparisonDTO(startDate, endDate, bucket.toString(), buckets, series);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
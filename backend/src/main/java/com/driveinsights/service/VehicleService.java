@@ -1,13 +1,25 @@
 package com.driveinsights.service;
 
+import com.driveinsights.config.PaginationProperties;
+import com.driveinsights.dto.CursorPageDTO;
 import com.driveinsights.dto.VehicleDTO;
+import com.driveinsights.event.VehicleDeletedEvent;
+import com.driveinsights.event.VehicleSavedEvent;
 import com.driveinsights.model.Vehicle;
 import com.driveinsights.repository.VehicleRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,25 +27,74 @@ import java.util.stream.Collectors;
 public class VehicleService {
     
     private final VehicleRepository vehicleRepository;
+    private final PaginationProperties paginationProperties;
+    private final VehicleCache vehicleCache;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<VehicleDTO> getAllVehicles() {
-        return vehicleRepository.findAll().stream()
+        return vehicleRepository.findByIdGreaterThanOrderByIdAsc(0L,
+                        PageRequest.of(0, paginationProperties.getMaxListSize())).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    public CursorPageDTO<VehicleDTO> getVehiclePage(String cursor, Integer size, String fuelType) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        long afterId = cursor != null ? PageCursor.decode(cursor).getId() : 0L;
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Vehicle> rows = fuelType == null
+                ? vehicleRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit)
+                : vehicleRepository.findByFuelTypeAndIdGreaterThanOrderByIdAsc(fuelType, afterId, limit);
+        return PageCursor.toPage(rows, pageSize, this::convertToDTO, row -> new PageCursor(null, row.getId()));
+    }
+    
     public VehicleDTO getVehicleById(Long id) {
-        Vehicle vehicle = vehicleRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + id));
-        return convertToDTO(vehicle);
+        VehicleDTO vehicle = vehicleCache.getById(id, this::loadVehicle);
+        if (vehicle == null) {
+            throw new EntityNotFoundException("Vehicle not found with id: " + id);
+        }
+        return vehicle;
+    }
+    
+    public Optional<Long> findVehicleIdByLicensePlate(String licensePlate) {
+        return Optional.ofNullable(vehicleCache.getIdByLicensePlate(licensePlate,
+                plate -> vehicleRepository.findByLicensePlate(plate).map(Vehicle::getId).orElse(null)));
     }
     
+    // Uninitialized proxy for attaching telemetry; skips the SELECT when the vehicle is cached
+    public Vehicle getVehicleReference(Long id) {
+        getVehicleById(id);
+        return vehicleRepository.getReferenceById(id);
+    }
+    
+    public Set<Long> findExistingVehicleIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        Set<Long> misses = new HashSet<>();
+        for (Long id : ids) {
+            if (vehicleCache.getIfPresent(id) != null) {
+                existing.add(id);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Vehicle vehicle : vehicleRepository.findAllById(misses)) {
+                vehicleCache.put(convertToDTO(vehicle));
+                existing.add(vehicle.getId());
+            }
+        }
+        return existing;
+    }
+    
+    @CacheEvict(cacheNames = FleetSummaryService.CACHE_NAME, allEntries = true)
     public VehicleDTO createVehicle(VehicleDTO vehicleDTO) {
         Vehicle vehicle = convertToEntity(vehicleDTO);
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        eventPublisher.publishEvent(new VehicleSavedEvent(savedVehicle.getId()));
         return convertToDTO(savedVehicle);
     }
     
+    @CacheEvict(cacheNames = FleetSummaryService.CACHE_NAME, allEntries = true)
     public VehicleDTO updateVehicle(Long id, VehicleDTO vehicleDTO) {
         Vehicle existingVehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + id));
@@ -46,14 +107,23 @@ public class VehicleService {
         existingVehicle.setEngineSize(vehicleDTO.getEngineSize());
         
         Vehicle updatedVehicle = vehicleRepository.save(existingVehicle);
+        vehicleCache.invalidate(id);
+        eventPublisher.publishEvent(new VehicleSavedEvent(id));
         return convertToDTO(updatedVehicle);
     }
     
+    @CacheEvict(cacheNames = FleetSummaryService.CACHE_NAME, allEntries = true)
     public void deleteVehicle(Long id) {
         if (!vehicleRepository.existsById(id)) {
             throw new EntityNotFoundException("Vehicle not found with id: " + id);
         }
         vehicleRepository.deleteById(id);
+        vehicleCache.invalidate(id);
+        eventPublisher.publishEvent(new VehicleDeletedEvent(id));
+    }
+    
+    private VehicleDTO loadVehicle(Long id) {
+        return vehicleRepository.findById(id).map(this::convertToDTO).orElse(null);
     }
     
     private VehicleDTO convertToDTO(Vehicle vehicle) {
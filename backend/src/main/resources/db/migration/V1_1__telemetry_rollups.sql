@@ -0,0 +1,12 @@
+-- Pre-aggregated per-vehicle time buckets, maintained by TelemetryRollupService
+CREATE TABLE IF NOT EXISTS telemetry_rollups (
+    vehicle_id INTEGER NOT NULL REFERENCES vehicles(id) ON DELETE CASCADE,
+    metric VARCHAR(32) NOT NULL,
+    resolution VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    sample_count BIGINT NOT NULL,
+    value_sum DOUBLE PRECISION NOT NULL,
+    value_min DOUBLE PRECISION NOT NULL,
+    value_max DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (vehicle_id, metric, resolution, bucket_start)
+);
@@ -0,0 +1,4 @@
+-- Composite indexes backing keyset pagination on (fill_date, id), optionally per vehicle.
+-- engine_data and emission_data get theirs when they are partitioned in V2.
+CREATE INDEX IF NOT EXISTS idx_fuel_consumption_fill_date_id ON fuel_consumption(fill_date, id);
+CREATE INDEX IF NOT EXISTS idx_fuel_consumption_vehicle_fill_date_id ON fuel_consumption(vehicle_id, fill_date, id);
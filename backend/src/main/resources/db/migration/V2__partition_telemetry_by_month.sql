@@ -0,0 +1,104 @@
+-- Range-partition engine_data and emission_data by month on recording_time.
+-- Partitions are named <table>_pYYYY_MM; PartitionMaintenanceService keeps upcoming months
+-- created and applies the retention policy. Rows outside every partition land in <table>_default.
+--
+-- Existing rows are not copied here. Each old table is attached as the partition <table>_legacy
+-- for every month up to the one of its newest row, so this migration only scans it to check that
+-- range and builds the (id, recording_time) key; the columns keep their V1 types so no rewrite is
+-- needed. database/backfill_legacy_partitions.sql moves those rows into monthly partitions out of
+-- band. An empty old table is dropped instead.
+
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent_table TEXT, month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := parent_table || '_p' || to_char(partition_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent_table, partition_start, (partition_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+EXCEPTION
+    -- The month is still covered by <table>_legacy until it is backfilled
+    WHEN invalid_object_definition THEN
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Attaches the renamed old table for every month before the one following its newest row
+CREATE OR REPLACE FUNCTION attach_legacy_partition(parent_table TEXT, legacy_table TEXT)
+RETURNS VOID AS $$
+DECLARE
+    newest TIMESTAMP;
+BEGIN
+    EXECUTE format('SELECT MAX(recording_time) FROM %I', legacy_table) INTO newest;
+    IF newest IS NULL THEN
+        EXECUTE format('DROP TABLE %I', legacy_table);
+        RETURN;
+    END IF;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)',
+                   parent_table, legacy_table,
+                   (date_trunc('month', GREATEST(newest, CURRENT_DATE)) + INTERVAL '1 month')::DATE);
+END;
+$$ LANGUAGE plpgsql;
+
+-- engine_data
+ALTER TABLE engine_data RENAME TO engine_data_legacy;
+ALTER TABLE engine_data_legacy RENAME CONSTRAINT engine_data_pkey TO engine_data_legacy_pkey;
+ALTER INDEX IF EXISTS idx_engine_data_recording_time RENAME TO idx_engine_data_legacy_recording_time;
+
+CREATE TABLE engine_data (
+    id INTEGER NOT NULL,
+    vehicle_id INTEGER NOT NULL REFERENCES vehicles(id) ON DELETE CASCADE,
+    engine_temperature DECIMAL(6, 2) NOT NULL,
+    engine_rpm INTEGER NOT NULL,
+    idling_time_seconds INTEGER,
+    recording_time TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (recording_time);
+
+-- The serial sequence moves to the new table before the old one can be dropped
+ALTER SEQUENCE engine_data_id_seq OWNED BY engine_data.id;
+ALTER TABLE engine_data ALTER COLUMN id SET DEFAULT nextval('engine_data_id_seq');
+
+CREATE TABLE engine_data_default PARTITION OF engine_data DEFAULT;
+SELECT attach_legacy_partition('engine_data', 'engine_data_legacy');
+
+-- The primary key has to include the partition key; ids stay unique through the sequence
+ALTER TABLE engine_data ADD PRIMARY KEY (id, recording_time);
+
+-- (vehicle_id, recording_time) serves per-vehicle range scans; id is appended for keyset pagination
+CREATE INDEX idx_engine_data_vehicle_recording_time ON engine_data(vehicle_id, recording_time, id);
+CREATE INDEX idx_engine_data_recording_time ON engine_data(recording_time, id);
+-- Single-column indexes of the old table, covered by the two above
+DROP INDEX IF EXISTS idx_engine_data_vehicle_id, idx_engine_data_legacy_recording_time;
+
+-- emission_data
+ALTER TABLE emission_data RENAME TO emission_data_legacy;
+ALTER TABLE emission_data_legacy RENAME CONSTRAINT emission_data_pkey TO emission_data_legacy_pkey;
+ALTER INDEX IF EXISTS idx_emission_data_recording_time RENAME TO idx_emission_data_legacy_recording_time;
+
+CREATE TABLE emission_data (
+    id INTEGER NOT NULL,
+    vehicle_id INTEGER NOT NULL REFERENCES vehicles(id) ON DELETE CASCADE,
+    co2_emissions DECIMAL(10, 2) NOT NULL,
+    nox_emissions DECIMAL(10, 2),
+    particulate_matter DECIMAL(10, 2),
+    recording_time TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (recording_time);
+
+ALTER SEQUENCE emission_data_id_seq OWNED BY emission_data.id;
+ALTER TABLE emission_data ALTER COLUMN id SET DEFAULT nextval('emission_data_id_seq');
+
+CREATE TABLE emission_data_default PARTITION OF emission_data DEFAULT;
+SELECT attach_legacy_partition('emission_data', 'emission_data_legacy');
+
+ALTER TABLE emission_data ADD PRIMARY KEY (id, recording_time);
+
+CREATE INDEX idx_emission_data_vehicle_recording_time ON emission_data(vehicle_id, recording_time, id);
+CREATE INDEX idx_emission_data_recording_time ON emission_data(recording_time, id);
+DROP INDEX IF EXISTS idx_emission_data_vehicle_id, idx_emission_data_legacy_recording_time;
+
+DROP FUNCTION attach_legacy_partition(TEXT, TEXT);
@@ -0,0 +1,17 @@
+-- Alerts raised by the streaming engine anomaly detector (EngineAlertService).
+-- engine_data_id is informational only: engine_data is partitioned and its key includes recording_time.
+
+CREATE TABLE engine_alerts (
+    id BIGSERIAL PRIMARY KEY,
+    vehicle_id BIGINT NOT NULL REFERENCES vehicles(id) ON DELETE CASCADE,
+    engine_data_id BIGINT,
+    rule VARCHAR(32) NOT NULL,
+    observed_value DOUBLE PRECISION NOT NULL,
+    expected_value DOUBLE PRECISION NOT NULL,
+    deviation_score DOUBLE PRECISION,
+    recording_time TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_engine_alerts_vehicle_recording_time ON engine_alerts(vehicle_id, recording_time);
+CREATE INDEX idx_engine_alerts_recording_time ON engine_alerts(recording_time);
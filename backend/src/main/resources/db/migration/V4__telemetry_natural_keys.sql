@@ -0,0 +1,55 @@
+-- Make (vehicle_id, recording_time) the natural key of engine_data and emission_data so retried
+-- uploads are absorbed by INSERT ... ON CONFLICT DO NOTHING instead of stored twice.
+-- The unique indexes include the partition key, as PostgreSQL requires on partitioned tables.
+--
+-- Existing rows may hold duplicates, and deleting them or indexing a large partition here would
+-- block startup and writes for as long as it runs. The indexes are therefore declared on the
+-- parents only (ON ONLY, which builds nothing) and built here just for partitions without rows;
+-- new partitions get theirs when they are created. database/build_telemetry_natural_keys.sql
+-- deletes the duplicates of the remaining partitions one month at a time, keeping the oldest row,
+-- and builds their indexes with CREATE INDEX CONCURRENTLY. Until it has run those partitions
+-- accept duplicates; afterwards rebuild the rollups (POST /api/rollups/rebuild) if any were deleted.
+
+CREATE UNIQUE INDEX uq_engine_data_vehicle_recording_time ON ONLY engine_data(vehicle_id, recording_time);
+CREATE UNIQUE INDEX uq_emission_data_vehicle_recording_time ON ONLY emission_data(vehicle_id, recording_time);
+
+-- Partitions of parent_table whose natural key index is not built and attached yet
+CREATE OR REPLACE FUNCTION partitions_without_natural_key(parent_table TEXT)
+RETURNS SETOF TEXT AS $$
+    SELECT c.relname::TEXT
+    FROM pg_inherits p
+    JOIN pg_class c ON c.oid = p.inhrelid
+    WHERE p.inhparent = parent_table::regclass
+      AND NOT EXISTS (
+          SELECT 1
+          FROM pg_inherits pi
+          JOIN pg_index x ON x.indexrelid = pi.inhrelid
+          WHERE pi.inhparent = ('uq_' || parent_table || '_vehicle_recording_time')::regclass
+            AND x.indrelid = c.oid)
+    ORDER BY 1
+$$ LANGUAGE sql STABLE;
+
+DO $$
+DECLARE
+    parent_table TEXT;
+    partition_table TEXT;
+    has_rows BOOLEAN;
+BEGIN
+    FOREACH parent_table IN ARRAY ARRAY['engine_data', 'emission_data'] LOOP
+        FOR partition_table IN SELECT partitions_without_natural_key(parent_table) LOOP
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', partition_table) INTO has_rows;
+            IF NOT has_rows THEN
+                EXECUTE format('CREATE UNIQUE INDEX %I ON %I (vehicle_id, recording_time)',
+                               partition_table || '_natural_key', partition_table);
+                EXECUTE format('ALTER INDEX %I ATTACH PARTITION %I',
+                               'uq_' || parent_table || '_vehicle_recording_time', partition_table || '_natural_key');
+            END IF;
+        END LOOP;
+        -- With unique times per vehicle the key index serves the same per-vehicle range scans, and
+        -- each insert maintains one index fewer; it replaces (vehicle_id, recording_time, id) once valid
+        IF NOT EXISTS (SELECT partitions_without_natural_key(parent_table)) THEN
+            EXECUTE format('DROP INDEX %I', 'idx_' || parent_table || '_vehicle_recording_time');
+        END IF;
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,51 @@
+-- Fixed-width histograms of engine temperature and RPM in the HOUR, DAY and MONTH rollups.
+-- Element i counts the samples in bin i of the layout declared on TelemetryMetric
+-- (origin + i * width, width wide; the first and last bins also take values outside the range).
+-- Histograms of the same metric merge by element-wise addition, so any range or set of vehicles
+-- is answered by summing buckets instead of rescanning raw rows.
+--
+-- Buckets that exist already are not backfilled here, which would scan the raw tables at startup:
+-- their histograms stay NULL, or count only the samples merged after this migration, until the
+-- rollups are rebuilt with POST /api/rollups/rebuild (per vehicle with ?vehicleId=).
+
+ALTER TABLE telemetry_rollups ADD COLUMN histogram INTEGER[];
+
+-- Element-wise sum; NULL is the empty histogram
+CREATE OR REPLACE FUNCTION histogram_add(a INTEGER[], b INTEGER[])
+RETURNS INTEGER[] AS $$
+    SELECT CASE
+        WHEN a IS NULL THEN b
+        WHEN b IS NULL THEN a
+        ELSE ARRAY(SELECT COALESCE(x, 0) + COALESCE(y, 0)
+                   FROM unnest(a, b) WITH ORDINALITY AS t(x, y, i) ORDER BY i)
+    END
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION histogram_increment(state INTEGER[], bin INTEGER, bins INTEGER)
+RETURNS INTEGER[] AS $$
+BEGIN
+    IF state IS NULL THEN
+        state := array_fill(0, ARRAY[bins]);
+    END IF;
+    IF bin IS NOT NULL THEN
+        state[bin + 1] := state[bin + 1] + 1;
+    END IF;
+    RETURN state;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- histogram_agg(bin, bins) counts zero-based bin numbers into a histogram of the given size
+CREATE AGGREGATE histogram_agg(INTEGER, INTEGER) (
+    SFUNC = histogram_increment,
+    STYPE = INTEGER[]
+);
+
+-- histogram_sum(histogram) merges histograms
+CREATE AGGREGATE histogram_sum(INTEGER[]) (
+    SFUNC = histogram_add,
+    STYPE = INTEGER[]
+);
+
+-- Fleet-wide series and distributions select by metric, resolution and time without a vehicle
+CREATE INDEX IF NOT EXISTS idx_telemetry_rollups_metric_resolution_bucket
+    ON telemetry_rollups(metric, resolution, bucket_start);
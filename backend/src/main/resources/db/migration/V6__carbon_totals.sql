@@ -0,0 +1,20 @@
+-- Running emission and fuel totals per vehicle and for the whole fleet (vehicle_id 0), by day, month
+-- and year, maintained by CarbonLedgerService. Every column is a sum or a count, so totals are updated
+-- by adding deltas. Existing data is loaded with POST /api/carbon/rebuild.
+
+CREATE TABLE carbon_totals (
+    vehicle_id BIGINT NOT NULL,
+    period VARCHAR(8) NOT NULL,
+    period_start DATE NOT NULL,
+    -- Emission readings and the sums of their rates (g/km)
+    emission_readings BIGINT NOT NULL DEFAULT 0,
+    co2_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    nox_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    pm_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    -- Fill-ups, and the CO2 their fuel releases by the vehicle's fuel type (kg)
+    fill_ups BIGINT NOT NULL DEFAULT 0,
+    fuel_amount DOUBLE PRECISION NOT NULL DEFAULT 0,
+    distance_traveled DOUBLE PRECISION NOT NULL DEFAULT 0,
+    fuel_co2_kg DOUBLE PRECISION NOT NULL DEFAULT 0,
+    PRIMARY KEY (vehicle_id, period, period_start)
+);
@@ -0,0 +1,15 @@
+-- Per-table change counters behind the HTTP validators (ETag and Last-Modified) of the collection
+-- endpoints. DataVersions bumps a row in the writing transaction, so every instance sees the change
+-- as soon as the rows it covers are committed.
+
+CREATE TABLE table_versions (
+    table_name VARCHAR(32) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO table_versions (table_name, version, changed_at)
+VALUES ('vehicles', 0, CURRENT_TIMESTAMP),
+       ('engine_data', 0, CURRENT_TIMESTAMP),
+       ('emission_data', 0, CURRENT_TIMESTAMP),
+       ('fuel_consumption', 0, CURRENT_TIMESTAMP);
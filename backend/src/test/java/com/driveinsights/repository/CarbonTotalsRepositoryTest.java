@@ -0,0 +1,89 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.model.CarbonTotals;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarbonTotalsRepositoryTest {
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final CarbonTotalsRepository repository = new CarbonTotalsRepository(jdbcTemplate);
+
+    @Test
+    void readsDaysWithinAMonth() {
+        repository.sumRange(3L, LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 20));
+
+        assertThat(jdbcTemplate.args.get(0)).isEqualTo(3L);
+        assertThat(ranges()).containsExactly("DAY 2024-01-10 2024-01-20");
+    }
+
+    @Test
+    void readsWholeMonthsBetweenTheLeadingAndTrailingDays() {
+        repository.sumRange(3L, LocalDate.of(2024, 1, 20), LocalDate.of(2024, 4, 5));
+
+        assertThat(ranges()).containsExactly(
+                "DAY 2024-01-20 2024-02-01",
+                "DAY 2024-04-01 2024-04-05",
+                "MONTH 2024-02-01 2024-04-01");
+    }
+
+    @Test
+    void readsWholeYearsBetweenTheLeadingAndTrailingMonths() {
+        repository.sumRange(CarbonTotals.FLEET, LocalDate.of(2022, 11, 15), LocalDate.of(2025, 2, 10));
+
+        assertThat(jdbcTemplate.args.get(0)).isEqualTo(CarbonTotals.FLEET);
+        assertThat(ranges()).containsExactly(
+                "DAY 2022-11-15 2022-12-01",
+                "DAY 2025-02-01 2025-02-10",
+                "MONTH 2022-12-01 2023-01-01",
+                "MONTH 2025-01-01 2025-02-01",
+                "YEAR 2023-01-01 2025-01-01");
+    }
+
+    @Test
+    void readsOnlyYearsForAYearAlignedRange() {
+        repository.sumRange(3L, LocalDate.of(2020, 1, 1), LocalDate.of(2024, 1, 1));
+
+        assertThat(ranges()).containsExactly("YEAR 2020-01-01 2024-01-01");
+    }
+
+    @Test
+    void returnsEmptyTotalsForAnEmptyRangeWithoutQuerying() {
+        CarbonTotals totals = repository.sumRange(3L, LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 10));
+
+        assertThat(totals.isEmpty()).isTrue();
+        assertThat(jdbcTemplate.sql).isNull();
+    }
+
+    // The (period, from, to) triples after the vehicle id
+    private List<String> ranges() {
+        List<Object> args = jdbcTemplate.args;
+        List<String> ranges = new ArrayList<>();
+        for (int i = 1; i < args.size(); i += 3) {
+            ranges.add(args.get(i) + " " + ((Date) args.get(i + 1)).toLocalDate()
+                    + " " + ((Date) args.get(i + 2)).toLocalDate());
+        }
+        return ranges;
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+        private String sql;
+        private List<Object> args;
+
+        @Override
+        public <T> T queryForObject(String sql, RowMapper<T> rowMapper, Object... args) {
+            this.sql = sql;
+            this.args = Arrays.asList(args);
+            return null;
+        }
+    }
+}
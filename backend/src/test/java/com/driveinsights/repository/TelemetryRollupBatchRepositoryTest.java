@@ -0,0 +1,87 @@
+package com.driveinsights.repository;
+
+import com.driveinsights.model.TelemetryMetric;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TelemetryRollupBatchRepositoryTest {
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final TelemetryRollupBatchRepository repository = new TelemetryRollupBatchRepository(jdbcTemplate);
+
+    @Test
+    void readsHoursWithinADay() {
+        repository.findHistogram(3L, TelemetryMetric.ENGINE_RPM, at(2024, 1, 10, 10), at(2024, 1, 10, 15));
+
+        assertThat(jdbcTemplate.args.subList(0, 2)).containsExactly("ENGINE_RPM", 3L);
+        assertThat(ranges()).containsExactly(
+                "HOUR " + at(2024, 1, 10, 10) + " " + at(2024, 1, 10, 15));
+    }
+
+    @Test
+    void readsWholeDaysBetweenTheLeadingAndTrailingHours() {
+        repository.findHistogram(null, TelemetryMetric.ENGINE_RPM, at(2024, 1, 10, 5), at(2024, 1, 12, 2));
+
+        assertThat(jdbcTemplate.sql).doesNotContain("vehicle_id");
+        assertThat(ranges()).containsExactly(
+                "HOUR " + at(2024, 1, 10, 5) + " " + at(2024, 1, 11, 0),
+                "HOUR " + at(2024, 1, 12, 0) + " " + at(2024, 1, 12, 2),
+                "DAY " + at(2024, 1, 11, 0) + " " + at(2024, 1, 12, 0));
+    }
+
+    @Test
+    void readsWholeMonthsBetweenTheLeadingAndTrailingDays() {
+        repository.findHistogram(null, TelemetryMetric.ENGINE_RPM, at(2024, 1, 30, 22), at(2024, 3, 2, 3));
+
+        assertThat(ranges()).containsExactly(
+                "HOUR " + at(2024, 1, 30, 22) + " " + at(2024, 1, 31, 0),
+                "HOUR " + at(2024, 3, 2, 0) + " " + at(2024, 3, 2, 3),
+                "DAY " + at(2024, 1, 31, 0) + " " + at(2024, 2, 1, 0),
+                "DAY " + at(2024, 3, 1, 0) + " " + at(2024, 3, 2, 0),
+                "MONTH " + at(2024, 2, 1, 0) + " " + at(2024, 3, 1, 0));
+    }
+
+    @Test
+    void readsOnlyMonthsForAMonthAlignedRange() {
+        repository.findHistogram(null, TelemetryMetric.ENGINE_RPM, at(2024, 1, 1, 0), at(2024, 3, 1, 0));
+
+        assertThat(ranges()).containsExactly("MONTH " + at(2024, 1, 1, 0) + " " + at(2024, 3, 1, 0));
+    }
+
+    // The (resolution, from, to) triples after the metric and optional vehicle id
+    private List<String> ranges() {
+        List<Object> args = jdbcTemplate.args;
+        int first = jdbcTemplate.sql.contains("vehicle_id = ?") ? 2 : 1;
+        List<String> ranges = new ArrayList<>();
+        for (int i = first; i < args.size(); i += 3) {
+            ranges.add(args.get(i) + " " + ((Timestamp) args.get(i + 1)).toLocalDateTime()
+                    + " " + ((Timestamp) args.get(i + 2)).toLocalDateTime());
+        }
+        return ranges;
+    }
+
+    private static LocalDateTime at(int year, int month, int day, int hour) {
+        return LocalDateTime.of(year, month, day, hour, 0);
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+        private String sql;
+        private List<Object> args;
+
+        @Override
+        public <T> T queryForObject(String sql, RowMapper<T> rowMapper, Object... args) {
+            this.sql = sql;
+            this.args = Arrays.asList(args);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.driveinsights.service;
+
+import com.driveinsights.config.PaginationProperties;
+import com.driveinsights.dto.CursorPageDTO;
+import com.driveinsights.repository.EngineDataRepository;
+import com.driveinsights.repository.TelemetryBatchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PageCursorTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 250_000_000);
+
+    @Test
+    void decodesWhatItEncodes() {
+        PageCursor cursor = new PageCursor(TIME, 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(PageCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsAnEmptyTimeForIdOrderedCollections() {
+        PageCursor cursor = new PageCursor(null, 7L);
+
+        assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> PageCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(token("2024-03-01T12:00"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(token("yesterday|1"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(token("2024-03-01T12:00|x"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void startsBeforeEveryRowAtTheStartTime() {
+        assertThat(PageCursor.startingAt(TIME)).isEqualTo(new PageCursor(TIME, -1L));
+        assertThat(PageCursor.startingAt(null)).isEqualTo(new PageCursor(PageCursor.MIN_TIME, -1L));
+    }
+
+    @Test
+    void pointsTheNextCursorAtTheLastRowOfAFullPage() {
+        CursorPageDTO<Long> page = PageCursor.toPage(List.of(1L, 2L, 3L), 2, Function.identity(),
+                id -> new PageCursor(TIME, id));
+
+        assertThat(page.getItems()).containsExactly(1L, 2L);
+        assertThat(page.getSize()).isEqualTo(2);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(PageCursor.decode(page.getNextCursor())).isEqualTo(new PageCursor(TIME, 2L));
+    }
+
+    @Test
+    void endsWithoutACursorWhenNoExtraRowWasFetched() {
+        CursorPageDTO<Long> page = PageCursor.toPage(List.of(1L, 2L), 2, Function.identity(),
+                id -> new PageCursor(TIME, id));
+
+        assertThat(page.getItems()).containsExactly(1L, 2L);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void boundsAFirstPageByTheStartDateAndTheLatestTime() {
+        EngineDataRepository repository = repository();
+
+        service(repository).getEngineDataPage(null, 10, null, TIME, null);
+
+        verify(repository).findPage(TIME, -1L, PageCursor.MAX_TIME, PageRequest.of(0, 11));
+    }
+
+    @Test
+    void seeksFromTheCursorUpToTheEndDate() {
+        EngineDataRepository repository = repository();
+        LocalDateTime end = TIME.plusDays(1);
+
+        service(repository).getEngineDataPage(new PageCursor(TIME, 42L).encode(), 10, 5L, TIME.minusDays(1), end);
+
+        verify(repository).findPageByVehicleId(5L, TIME, 42L, end, PageRequest.of(0, 11));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EngineDataRepository repository() {
+        EngineDataRepository repository = mock(EngineDataRepository.class);
+        when(repository.findPage(any(), anyLong(), any(), any())).thenReturn(List.of());
+        when(repository.findPageByVehicleId(eq(5L), any(), anyLong(), any(), any())).thenReturn(List.of());
+        return repository;
+    }
+
+    private static EngineDataService service(EngineDataRepository repository) {
+        return new EngineDataService(repository, mock(TelemetryBatchRepository.class), mock(VehicleService.class),
+                new PaginationProperties(), mock(ApplicationEventPublisher.class), mock(TelemetryMeters.class),
+                mock(TelemetryHotTier.class), mock(RecentTelemetryKeys.class));
+    }
+}
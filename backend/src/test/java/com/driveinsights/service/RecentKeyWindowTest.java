@@ -0,0 +1,104 @@
+package com.driveinsights.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentKeyWindowTest {
+
+    // A capacity of 4 gives a table of 8 slots, so a fingerprint's home slot is its low 3 bits
+
+    @Test
+    void forgetsTheOldestKeyOnceFull() {
+        RecentKeyWindow window = new RecentKeyWindow(2);
+        window.add(1);
+        window.add(2);
+        window.add(3);
+
+        assertThat(window.contains(1)).isFalse();
+        assertThat(window.contains(2)).isTrue();
+        assertThat(window.contains(3)).isTrue();
+        assertThat(window.size()).isEqualTo(2);
+    }
+
+    @Test
+    void addsAKeyOnlyOnce() {
+        RecentKeyWindow window = new RecentKeyWindow(2);
+        window.add(1);
+        window.add(1);
+        window.add(2);
+
+        assertThat(window.contains(1)).isTrue();
+        assertThat(window.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shiftsACollidingKeyBackAcrossTheEndOfTheTable() {
+        RecentKeyWindow window = new RecentKeyWindow(4);
+        // All three start at slot 6; the third wraps around to slot 0
+        window.add(6);
+        window.add(14);
+        window.add(22);
+
+        window.remove(6);
+
+        assertThat(window.contains(6)).isFalse();
+        assertThat(window.contains(14)).isTrue();
+        assertThat(window.contains(22)).isTrue();
+        assertThat(window.size()).isEqualTo(2);
+    }
+
+    @Test
+    void leavesKeysInTheirHomeSlotWhenShifting() {
+        RecentKeyWindow window = new RecentKeyWindow(4);
+        window.add(6);
+        // At home in slot 7, so it must stay when slot 6 is emptied
+        window.add(7);
+        // Home slot 6, pushed past 7 into slot 0
+        window.add(14);
+
+        window.remove(6);
+        // Slot 6 is free again; a lookup of 14 would stop there if it had not moved into it
+        assertThat(window.contains(14)).isTrue();
+        assertThat(window.contains(7)).isTrue();
+
+        window.remove(7);
+        window.remove(14);
+        assertThat(window.size()).isZero();
+    }
+
+    @Test
+    void evictsNothingForAKeyThatWasAlreadyRemoved() {
+        RecentKeyWindow window = new RecentKeyWindow(2);
+        window.add(1);
+        window.add(2);
+        window.remove(1);
+
+        window.add(3);
+
+        assertThat(window.contains(2)).isTrue();
+        assertThat(window.contains(3)).isTrue();
+        assertThat(window.size()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresKeysWithoutCapacity() {
+        RecentKeyWindow window = new RecentKeyWindow(0);
+        window.add(1);
+
+        assertThat(window.contains(1)).isFalse();
+        assertThat(window.size()).isZero();
+    }
+
+    @Test
+    void fingerprintsDistinguishVehiclesAndTimes() {
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        assertThat(RecentKeyWindow.fingerprint(1, time)).isEqualTo(RecentKeyWindow.fingerprint(1, time));
+        assertThat(RecentKeyWindow.fingerprint(1, time)).isNotEqualTo(RecentKeyWindow.fingerprint(2, time));
+        assertThat(RecentKeyWindow.fingerprint(1, time)).isNotEqualTo(RecentKeyWindow.fingerprint(1, time.plusNanos(1000)));
+        assertThat(RecentKeyWindow.fingerprint(0, HotSeries.fromMicros(0))).isNotZero();
+    }
+}
@@ -0,0 +1,117 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.EngineDataDTO;
+import com.driveinsights.dto.FuelConsumptionDTO;
+import com.driveinsights.model.ImportType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TelemetryCsvParserTest {
+
+    private static final Map<String, Long> VEHICLES = Map.of("AB-123", 1L, "CD,4\"5", 2L);
+
+    @Test
+    void matchesColumnsByNameIgnoringCaseAndUnderscores() {
+        TelemetryCsvParser parser = new TelemetryCsvParser(ImportType.ENGINE,
+                "id,Vehicle_Id,ENGINE_RPM,engine_temperature,recording_time");
+
+        TelemetryCsvParser.ParsedChunk parsed = parse(parser, "9,1,2500,90.5,2024-03-01T12:00:00\n");
+
+        assertThat(parsed.rejects()).isEmpty();
+        assertThat(parsed.records().getEngineData()).containsExactly(
+                new EngineDataDTO(null, 1L, 90.5, 2500, null, LocalDateTime.of(2024, 3, 1, 12, 0)));
+    }
+
+    @Test
+    void rejectsAHeaderWithoutARequiredColumn() {
+        assertThatThrownBy(() -> new TelemetryCsvParser(ImportType.ENGINE, "vehicleId,engineRpm,recordingTime"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Missing column: engineTemperature");
+        assertThatThrownBy(() -> new TelemetryCsvParser(ImportType.FUEL, "fuelAmount,distanceTraveled,fillDate"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Missing column: vehicleId or licensePlate");
+    }
+
+    @Test
+    void readsQuotedFieldsWithCommasAndDoubledQuotes() {
+        TelemetryCsvParser parser = new TelemetryCsvParser(ImportType.FUEL,
+                "licensePlate,fuelAmount,distanceTraveled,fillDate");
+
+        TelemetryCsvParser.ParsedChunk parsed = parse(parser,
+                "\"CD,4\"\"5\",\"12.5\",300,2024-03-01 08:30:00\n"
+                        + "AB-123,10,250,\"2024-03-02T09:00\"\n");
+
+        assertThat(parsed.rejects()).isEmpty();
+        assertThat(parsed.records().getFuelConsumption())
+                .extracting(FuelConsumptionDTO::getVehicleId, FuelConsumptionDTO::getFuelAmount,
+                        FuelConsumptionDTO::getFillDate)
+                .containsExactly(
+                        tuple(2L, 12.5, LocalDateTime.of(2024, 3, 1, 8, 30)),
+                        tuple(1L, 10.0, LocalDateTime.of(2024, 3, 2, 9, 0)));
+    }
+
+    @Test
+    void leavesBlankAndMissingOptionalFieldsEmpty() {
+        TelemetryCsvParser parser = new TelemetryCsvParser(ImportType.FUEL,
+                "vehicleId,fuelAmount,distanceTraveled,milesPerGallon,fillDate");
+
+        TelemetryCsvParser.ParsedChunk parsed = parse(parser, "1,10,250, ,2024-03-01T08:00\n");
+
+        FuelConsumptionDTO record = parsed.records().getFuelConsumption().get(0);
+        assertThat(record.getMilesPerGallon()).isNull();
+        assertThat(record.getFuelCost()).isNull();
+    }
+
+    @Test
+    void rejectsLinesThatCannotBeParsedAndKeepsTheRest() {
+        TelemetryCsvParser parser = new TelemetryCsvParser(ImportType.ENGINE,
+                "licensePlate,engineTemperature,engineRpm,recordingTime");
+
+        TelemetryCsvParser.ParsedChunk parsed = parse(parser,
+                "AB-123,90,2500,2024-03-01T12:00\r\n"
+                        + "\"AB-123,90,2500,2024-03-01T12:01\n"
+                        + "\"AB-123\"x,90,2500,2024-03-01T12:02\n"
+                        + "\n"
+                        + "AB-123,hot,2500,2024-03-01T12:03\n"
+                        + "AB-123,90,2500.5,2024-03-01T12:04\n"
+                        + "AB-123,90,2500,yesterday\n"
+                        + "ZZ-999,90,2500,2024-03-01T12:06\n"
+                        + "AB-123,NaN,2500,2024-03-01T12:07\n"
+                        + "AB-123,91,2600,2024-03-01T12:08");
+
+        assertThat(parsed.rejects()).extracting(TelemetryCsvParser.RejectedLine::number,
+                        TelemetryCsvParser.RejectedLine::message)
+                .containsExactly(
+                        tuple(11L, "Unterminated quoted field"),
+                        tuple(12L, "Unexpected text after a quoted field"),
+                        tuple(14L, "Invalid engineTemperature: hot"),
+                        tuple(15L, "Invalid engineRpm: 2500.5"),
+                        tuple(16L, "Invalid recordingTime: yesterday"),
+                        tuple(17L, "Vehicle not found with license plate: ZZ-999"),
+                        tuple(18L, "Invalid engineTemperature: NaN"));
+        assertThat(parsed.rejects().get(2).content()).isEqualTo("AB-123,hot,2500,2024-03-01T12:03");
+
+        List<TelemetryCsvParser.Line> lines = parsed.lines();
+        assertThat(lines).extracting(TelemetryCsvParser.Line::number).containsExactly(10L, 19L);
+        assertThat(parsed.text().substring(lines.get(0).start(), lines.get(0).end()))
+                .isEqualTo("AB-123,90,2500,2024-03-01T12:00");
+        assertThat(parsed.records().getEngineData()).extracting(EngineDataDTO::getEngineRpm)
+                .containsExactly(2500, 2600);
+    }
+
+    // The chunk starts at line 10 of its file
+    private static TelemetryCsvParser.ParsedChunk parse(TelemetryCsvParser parser, String text) {
+        CsvChunkReader.Chunk chunk = new CsvChunkReader.Chunk(0, 10,
+                ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        return parser.parse(chunk, VEHICLES::get);
+    }
+}
@@ -0,0 +1,159 @@
+package com.driveinsights.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TelemetryJournalTest {
+
+    private static final int SEGMENT_SIZE = 256;
+    private static final int MAX_SEGMENTS = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEntriesAfterTheCheckpoint() throws IOException {
+        try (TelemetryJournal journal = open()) {
+            journal.append(payload("a"));
+            journal.append(payload("b"));
+            journal.append(payload("c"));
+            List<TelemetryJournal.Entry> first = journal.read(journal.checkpoint(), 1);
+            journal.commit(first.get(0).next(), first.get(0).sequence() + 1);
+        }
+
+        try (TelemetryJournal journal = open()) {
+            assertThat(journal.pendingEntries()).isEqualTo(2);
+            List<TelemetryJournal.Entry> entries = journal.read(journal.checkpoint(), 10);
+            assertThat(entries).extracting(TelemetryJournal.Entry::sequence).containsExactly(1L, 2L);
+            assertThat(entries).extracting(entry -> text(entry.payload())).containsExactly("b", "c");
+        }
+    }
+
+    @Test
+    void discardsATornTailAndAppendsAfterTheLastCompleteEntry() throws IOException {
+        try (TelemetryJournal journal = open()) {
+            journal.append(payload("a"));
+            journal.append(payload("b"));
+        }
+        // A crash in the middle of the second append: its length is written but the payload is not
+        int secondEntry = TelemetryJournal.HEADER_SIZE + 1;
+        overwrite(onlySegment(), secondEntry + TelemetryJournal.HEADER_SIZE, (byte) 'x');
+
+        try (TelemetryJournal journal = open()) {
+            assertThat(journal.pendingEntries()).isEqualTo(1);
+            long sequence = journal.append(payload("c"));
+            journal.force(sequence);
+            assertThat(sequence).isEqualTo(1);
+            assertThat(journal.read(journal.checkpoint(), 10))
+                    .extracting(entry -> text(entry.payload()))
+                    .containsExactly("a", "c");
+        }
+    }
+
+    @Test
+    void forcingAnEntryAlsoFlushesEveryEarlierEntry() throws IOException {
+        try (TelemetryJournal journal = open()) {
+            long first = journal.append(payload("a"));
+            long second = journal.append(payload("b"));
+            journal.force(second);
+            assertThat(journal.flushedSequence()).isGreaterThan(second);
+
+            // Already covered by the flush above
+            journal.force(first);
+            assertThat(journal.flushedSequence()).isEqualTo(second + 1);
+        }
+    }
+
+    @Test
+    void readsAcrossSegmentsAndDeletesDrainedOnes() throws IOException {
+        byte[] payload = new byte[100];
+        try (TelemetryJournal journal = open()) {
+            for (int i = 0; i < 4; i++) {
+                journal.force(journal.append(payload));
+            }
+        }
+        assertThat(segments()).hasSize(2);
+
+        try (TelemetryJournal journal = open()) {
+            List<TelemetryJournal.Entry> entries = journal.read(journal.checkpoint(), 10);
+            assertThat(entries).extracting(TelemetryJournal.Entry::sequence).containsExactly(0L, 1L, 2L, 3L);
+            TelemetryJournal.Entry third = entries.get(2);
+            assertThat(third.next().segment()).isEqualTo(1);
+
+            journal.commit(third.next(), third.sequence() + 1);
+            assertThat(segments()).hasSize(1);
+            assertThat(journal.read(journal.checkpoint(), 10))
+                    .extracting(TelemetryJournal.Entry::sequence)
+                    .containsExactly(3L);
+        }
+    }
+
+    @Test
+    void rejectsAppendsWhileFullUntilSegmentsAreDrained() throws IOException {
+        byte[] payload = new byte[100];
+        try (TelemetryJournal journal = open()) {
+            // Two entries per segment
+            for (int i = 0; i < 2 * MAX_SEGMENTS; i++) {
+                journal.append(payload);
+            }
+            assertThatThrownBy(() -> journal.append(payload)).isInstanceOf(JournalFullException.class);
+
+            // Draining into the second segment frees the first one
+            List<TelemetryJournal.Entry> drained = journal.read(journal.checkpoint(), 3);
+            TelemetryJournal.Entry last = drained.get(2);
+            journal.commit(last.next(), last.sequence() + 1);
+            assertThat(journal.append(payload)).isEqualTo(2 * MAX_SEGMENTS);
+        }
+    }
+
+    @Test
+    void rejectsBatchesLargerThanASegment() throws IOException {
+        try (TelemetryJournal journal = open()) {
+            assertThatThrownBy(() -> journal.append(new byte[SEGMENT_SIZE]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private TelemetryJournal open() throws IOException {
+        return TelemetryJournal.open(directory, SEGMENT_SIZE, MAX_SEGMENTS);
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> segments = segments();
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static void overwrite(Path file, int offset, byte value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {value}), offset);
+        }
+    }
+
+    private static byte[] payload(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
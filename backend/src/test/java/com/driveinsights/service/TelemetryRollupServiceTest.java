@@ -0,0 +1,56 @@
+package com.driveinsights.service;
+
+import com.driveinsights.model.TelemetryMetric;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TelemetryRollupServiceTest {
+
+    // Engine temperature bins are 1 degree wide from -40, so bin i holds [i - 40, i - 39)
+    private static final TelemetryMetric METRIC = TelemetryMetric.ENGINE_TEMPERATURE;
+
+    @Test
+    void interpolatesBetweenTheObservedExtremesOfASingleBin() {
+        int[] counts = counts();
+        counts[60] = 10;
+
+        assertThat(percentile(counts, 10, 20.2, 20.8, 0.5)).isCloseTo(20.5, within(1e-9));
+    }
+
+    @Test
+    void interpolatesWithinTheBinHoldingTheRank() {
+        int[] counts = counts();
+        counts[60] = 5;
+        counts[70] = 5;
+
+        assertThat(percentile(counts, 10, 20.0, 31.0, 0.5)).isCloseTo(21.0, within(1e-9));
+        assertThat(percentile(counts, 10, 20.0, 31.0, 0.9)).isCloseTo(30.8, within(1e-9));
+        assertThat(percentile(counts, 10, 20.0, 31.0, 1.0)).isCloseTo(31.0, within(1e-9));
+    }
+
+    @Test
+    void boundsTheEdgeBinsByTheObservedMinAndMax() {
+        // Values below -40 and from 159 up are clamped into the first and last bin
+        int[] counts = counts();
+        counts[0] = 4;
+        counts[199] = 4;
+
+        assertThat(percentile(counts, 8, -50.0, 250.0, 0.25)).isCloseTo(-44.5, within(1e-9));
+        assertThat(percentile(counts, 8, -50.0, 250.0, 0.75)).isCloseTo(204.5, within(1e-9));
+    }
+
+    @Test
+    void returnsTheMaximumOfAnEmptyHistogram() {
+        assertThat(percentile(counts(), 0, 0.0, 0.0, 0.5)).isZero();
+    }
+
+    private static double percentile(int[] counts, long total, double min, double max, double fraction) {
+        return TelemetryRollupService.percentile(METRIC, counts, total, min, max, fraction);
+    }
+
+    private static int[] counts() {
+        return new int[METRIC.getHistogramBins()];
+    }
+}
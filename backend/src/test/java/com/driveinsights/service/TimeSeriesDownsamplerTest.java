@@ -0,0 +1,113 @@
+package com.driveinsights.service;
+
+import com.driveinsights.dto.SeriesPointDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TimeSeriesDownsamplerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void lttbReturnsNothingWithoutReadings() {
+        assertThat(lttb(10, 5).finish()).isEmpty();
+    }
+
+    @Test
+    void lttbKeepsASingleReadingOnce() {
+        TimeSeriesDownsampler downsampler = lttb(10, 5);
+        downsampler.add(at(1000), 3.0);
+
+        assertThat(downsampler.finish()).extracting(SeriesPointDTO::getValue).containsExactly(3.0);
+    }
+
+    @Test
+    void lttbKeepsEveryReadingWhenThereAreFewerThanBuckets() {
+        TimeSeriesDownsampler downsampler = lttb(10, 12);
+        downsampler.add(at(0), 1.0);
+        downsampler.add(at(3000), 2.0);
+        downsampler.add(at(6000), 3.0);
+        downsampler.add(at(9000), 4.0);
+
+        assertThat(downsampler.finish()).extracting(SeriesPointDTO::getValue).containsExactly(1.0, 2.0, 3.0, 4.0);
+    }
+
+    @Test
+    void lttbKeepsTheFirstAndLastReadingAndOnePerBucket() {
+        // Three buckets of three seconds between the first and last reading
+        TimeSeriesDownsampler downsampler = lttb(9, 5);
+        for (int millis = 0; millis < 9000; millis += 100) {
+            downsampler.add(at(millis), millis == 4000 ? 50.0 : 0.0);
+        }
+
+        List<SeriesPointDTO> points = downsampler.finish();
+
+        assertThat(downsampler.getSourceCount()).isEqualTo(90);
+        assertThat(points).hasSize(5);
+        assertThat(points.get(0).getTime()).isEqualTo(at(0));
+        assertThat(points.get(4).getTime()).isEqualTo(at(8900));
+        assertThat(points).extracting(SeriesPointDTO::getTime, SeriesPointDTO::getValue).contains(tuple(at(4000), 50.0));
+        assertThat(points).extracting(SeriesPointDTO::getTime).isSorted();
+    }
+
+    @Test
+    void minMaxEmitsBothExtremesOfABucketInTimeOrder() {
+        // Two buckets of five seconds
+        TimeSeriesDownsampler downsampler = minMax(10, 4);
+        downsampler.add(at(1000), 5.0);
+        downsampler.add(at(2000), 9.0);
+        downsampler.add(at(3000), 1.0);
+
+        assertThat(downsampler.finish()).extracting(SeriesPointDTO::getTime, SeriesPointDTO::getValue)
+                .containsExactly(tuple(at(2000), 9.0), tuple(at(3000), 1.0));
+    }
+
+    @Test
+    void minMaxStartsABucketAtItsBoundaryAndEmitsALoneReadingOnce() {
+        TimeSeriesDownsampler downsampler = minMax(10, 4);
+        downsampler.add(at(1000), 5.0);
+        downsampler.add(at(4999), 6.0);
+        downsampler.add(at(5000), 7.0);
+
+        assertThat(downsampler.finish()).extracting(SeriesPointDTO::getTime, SeriesPointDTO::getValue)
+                .containsExactly(tuple(at(1000), 5.0), tuple(at(4999), 6.0), tuple(at(5000), 7.0));
+    }
+
+    @Test
+    void minMaxPutsReadingsOutsideTheRangeIntoTheOuterBuckets() {
+        TimeSeriesDownsampler downsampler = minMax(10, 4);
+        downsampler.add(at(-1000), 2.0);
+        downsampler.add(at(0), 3.0);
+        downsampler.add(at(10000), 4.0);
+        downsampler.add(at(15000), 6.0);
+
+        assertThat(downsampler.finish()).extracting(SeriesPointDTO::getValue).containsExactly(2.0, 3.0, 4.0, 6.0);
+    }
+
+    @Test
+    void skipsReadingsWithoutATimeOrValue() {
+        TimeSeriesDownsampler downsampler = minMax(10, 4);
+        downsampler.add(null, 1.0);
+        downsampler.add(at(1000), null);
+
+        assertThat(downsampler.getSourceCount()).isZero();
+        assertThat(downsampler.finish()).isEmpty();
+    }
+
+    private static TimeSeriesDownsampler lttb(int seconds, int points) {
+        return TimeSeriesDownsampler.create(DownsampleMode.LTTB, START, START.plusSeconds(seconds), points);
+    }
+
+    private static TimeSeriesDownsampler minMax(int seconds, int points) {
+        return TimeSeriesDownsampler.create(DownsampleMode.MINMAX, START, START.plusSeconds(seconds), points);
+    }
+
+    private static LocalDateTime at(long millis) {
+        return START.plusNanos(millis * 1_000_000);
+    }
+}
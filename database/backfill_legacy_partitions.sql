@@ -0,0 +1,49 @@
+-- Moves the rows V2__partition_telemetry_by_month.sql left in <table>_legacy into monthly
+-- partitions. Run it out of band with psql, one table at a time, after the backend has migrated
+-- and build_telemetry_natural_keys.sql has indexed the legacy partition:
+--
+--   \i database/backfill_legacy_partitions.sql
+--   CALL backfill_legacy_partition('engine_data');
+--   CALL backfill_legacy_partition('emission_data');
+--
+-- Months are moved newest first, one transaction each: the legacy partition is detached, the
+-- month's partition is created, the month's rows are moved into it and the legacy partition is
+-- attached again for the months before. Queries on the table wait while a month is moved, so run
+-- it outside peak hours. The procedure can be interrupted and called again; once the legacy
+-- partition is empty it is dropped.
+
+CREATE OR REPLACE PROCEDURE backfill_legacy_partition(parent_table TEXT)
+LANGUAGE plpgsql AS $$
+DECLARE
+    legacy_table TEXT := parent_table || '_legacy';
+    newest TIMESTAMP;
+    month_start DATE;
+BEGIN
+    IF to_regclass(legacy_table) IS NULL THEN
+        RAISE NOTICE '% has no legacy partition', parent_table;
+        RETURN;
+    END IF;
+    -- Attaching it again would build the natural key index on the whole legacy table
+    IF legacy_table IN (SELECT partitions_without_natural_key(parent_table)) THEN
+        RAISE EXCEPTION 'Run database/build_telemetry_natural_keys.sql before backfilling %', parent_table;
+    END IF;
+    LOOP
+        EXECUTE format('SELECT MAX(recording_time) FROM %I', legacy_table) INTO newest;
+        EXIT WHEN newest IS NULL;
+        month_start := date_trunc('month', newest)::DATE;
+
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent_table, legacy_table);
+        PERFORM ensure_monthly_partition(parent_table, month_start);
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE recording_time >= %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved', legacy_table, month_start, parent_table);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)',
+                       parent_table, legacy_table, month_start);
+        COMMIT;
+        RAISE NOTICE 'Moved % rows of % into their monthly partition', parent_table, month_start;
+    END LOOP;
+
+    EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent_table, legacy_table);
+    EXECUTE format('DROP TABLE %I', legacy_table);
+    COMMIT;
+END;
+$$;
@@ -0,0 +1,80 @@
+-- Builds the (vehicle_id, recording_time) unique indexes that V4__telemetry_natural_keys.sql left
+-- unbuilt for partitions of engine_data and emission_data that already held rows. Run it out of
+-- band with psql after the backend has migrated, and before backfill_legacy_partitions.sql:
+-- re-attaching <table>_legacy would otherwise build its index in place, under lock.
+--
+--   psql -d drive_insights -f database/build_telemetry_natural_keys.sql
+--
+-- Duplicate readings are deleted one partition and month at a time, one transaction each, keeping
+-- the oldest row. Each index is then built with CREATE INDEX CONCURRENTLY, so writes continue, and
+-- attached to its parent; once every partition has one, the parent index is valid and the
+-- (vehicle_id, recording_time, id) index it replaces is dropped. If a duplicate is written while an
+-- index is being built, the build fails and the script stops; run it again. Rebuild the rollups
+-- (POST /api/rollups/rebuild) if duplicates were deleted.
+
+\set ON_ERROR_STOP on
+
+CREATE OR REPLACE PROCEDURE delete_duplicate_readings(parent_table TEXT)
+LANGUAGE plpgsql AS $$
+DECLARE
+    partition_table TEXT;
+    oldest TIMESTAMP;
+    newest TIMESTAMP;
+    month_start TIMESTAMP;
+    deleted BIGINT;
+BEGIN
+    FOR partition_table IN SELECT partitions_without_natural_key(parent_table) LOOP
+        EXECUTE format('SELECT date_trunc(''month'', MIN(recording_time)), MAX(recording_time) FROM %I',
+                       partition_table) INTO oldest, newest;
+        month_start := oldest;
+        WHILE month_start <= newest LOOP
+            EXECUTE format('DELETE FROM %I duplicate USING %I original '
+                           'WHERE duplicate.vehicle_id = original.vehicle_id '
+                           '  AND duplicate.recording_time = original.recording_time '
+                           '  AND duplicate.id > original.id '
+                           '  AND duplicate.recording_time >= %L AND duplicate.recording_time < %L '
+                           '  AND original.recording_time >= %L AND original.recording_time < %L',
+                           partition_table, partition_table,
+                           month_start, month_start + INTERVAL '1 month',
+                           month_start, month_start + INTERVAL '1 month');
+            GET DIAGNOSTICS deleted = ROW_COUNT;
+            COMMIT;
+            IF deleted > 0 THEN
+                RAISE NOTICE 'Deleted % duplicate rows of % from %', deleted, month_start, partition_table;
+            END IF;
+            month_start := month_start + INTERVAL '1 month';
+        END LOOP;
+    END LOOP;
+END;
+$$;
+
+CALL delete_duplicate_readings('engine_data');
+CALL delete_duplicate_readings('emission_data');
+
+-- Invalid indexes left by a failed or interrupted run
+SELECT format('DROP INDEX CONCURRENTLY %I', c.relname)
+FROM pg_index x
+JOIN pg_class c ON c.oid = x.indexrelid
+WHERE NOT x.indisvalid AND c.relname LIKE '%\_natural\_key'
+\gexec
+
+SELECT format('CREATE UNIQUE INDEX CONCURRENTLY %I ON %I (vehicle_id, recording_time)',
+              partition_table || '_natural_key', partition_table)
+FROM (SELECT partitions_without_natural_key('engine_data') AS partition_table
+      UNION ALL
+      SELECT partitions_without_natural_key('emission_data')) t
+\gexec
+
+SELECT format('ALTER INDEX %I ATTACH PARTITION %I',
+              'uq_' || parent_table || '_vehicle_recording_time', partition_table || '_natural_key')
+FROM (SELECT 'engine_data' AS parent_table, partitions_without_natural_key('engine_data') AS partition_table
+      UNION ALL
+      SELECT 'emission_data', partitions_without_natural_key('emission_data')) t
+\gexec
+
+SELECT format('DROP INDEX IF EXISTS %I', 'idx_' || parent_table || '_vehicle_recording_time')
+FROM (VALUES ('engine_data'), ('emission_data')) AS t(parent_table)
+WHERE NOT EXISTS (SELECT partitions_without_natural_key(t.parent_table))
+\gexec
+
+DROP PROCEDURE delete_duplicate_readings(TEXT);
@@ -6,6 +6,9 @@ import axios from 'axios';
 import { useTheme } from '../context/ThemeContext';
 import { exportData } from '../utils/exportData';
 
+// Records loaded into the table per request
+const RECORDS_PAGE_SIZE = 100;
+
 const EmissionsData = () => {
   const [searchParams] = useSearchParams();
   const location = useLocation();
@@ -16,9 +19,11 @@ const EmissionsData = () => {
   const [selectedVehicle, setSelectedVehicle] = useState(vehicleId ? parseInt(vehicleId) : null);
   const [dateRange, setDateRange] = useState('all');
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
   const [error, setError] = useState(null);
   const [refreshKey, setRefreshKey] = useState(0); // Used to force re-fetch data
   const [dataFetchTime, setDataFetchTime] = useState(new Date()); // Track when data was last fetched
+  const [carbonTotals, setCarbonTotals] = useState(null); // Server-side totals of the real vehicles
   const { theme } = useTheme();
   const isDark = theme === 'dark';
 
@@ -94,6 +99,18 @@ const EmissionsData = () => {
     });
   };
 
+  // Start of the selected date range as a LocalDateTime string, or undefined for all time
+  const rangeStart = (range) => {
+    const days = range === 'last7' ? 7 : range === 'last30' ? 30 : null;
+    if (!days) return undefined;
+    const start = new Date();
+    start.setDate(start.getDate() - days);
+    // Whole days keep the request identical within a day, so the server cache is reused
+    return `${start.toISOString().split('T')[0]}T00:00:00`;
+  };
+
+  const isDemoId = (id) => id != null && id.toString().startsWith('demo-');
+
   // Function to fetch data (can be called when refreshing data)
   const fetchData = useCallback(async () => {
     try {
@@ -105,6 +122,8 @@ const EmissionsData = () => {
       // Fetch real vehicle data
       let realVehicles = [];
       let realEmissionData = [];
+      let cursor = null;
+      const realSelection = selectedVehicle && !isDemoId(selectedVehicle) ? selectedVehicle : null;
       
       try {
         // Always try to fetch real vehicles and emission data regardless of environment
@@ -118,13 +137,17 @@ const EmissionsData = () => {
           isDemo: false
         }));
         
-        // Fetch real emission data
-        console.log("Fetching real emission data...");
-        const emissionResponse = await axios.get('/api/emissions');
-        console.log("Emission data API response:", emissionResponse.data);
-        
-        // Normalize the data to handle different API response formats
-        realEmissionData = normalizeApiData(emissionResponse.data);
+        // Only the first page of records is loaded; the rest is appended on demand
+        if (!isDemoId(selectedVehicle)) {
+          console.log("Fetching real emission data...");
+          const emissionResponse = await axios.get('/api/emissions/page', {
+            params: { size: RECORDS_PAGE_SIZE, vehicleId: realSelection || undefined, startDate: rangeStart(dateRange) },
+          });
+          
+          // Normalize the data to handle different API response formats
+          realEmissionData = normalizeApiData(emissionResponse.data.items);
+          cursor = emissionResponse.data.hasMore ? emissionResponse.data.nextCursor : null;
+        }
         
         console.log("Normalized real emission data:", realEmissionData);
       } catch (apiErr) {
@@ -134,6 +157,7 @@ const EmissionsData = () => {
       
       // Combine real and demo data
       setVehicles([...realVehicles, ...demoVehicles]);
+      setNextCursor(cursor);
       setEmissionData([...realEmissionData, ...demoEmissionData]);
       
       // If vehicleId is provided in URL but not set in state, set it
@@ -149,13 +173,44 @@ const EmissionsData = () => {
       setLoading(false);
       console.error(err);
     }
-  }, [vehicleId, selectedVehicle]);
+  }, [vehicleId, selectedVehicle, dateRange]);
 
   // Fetch data on component mount or when refreshKey changes
   useEffect(() => {
     fetchData();
   }, [fetchData, refreshKey]);
 
+  // Fetch the running totals of the real records for the current filters
+  useEffect(() => {
+    if (selectedVehicle && selectedVehicle.toString().startsWith('demo-')) {
+      setCarbonTotals(null);
+      return;
+    }
+    const params = {};
+    if (selectedVehicle) {
+      params.vehicleId = selectedVehicle;
+    }
+    if (dateRange === 'last7' || dateRange === 'last30') {
+      const formatDate = date => date.toISOString().split('T')[0];
+      const startDate = new Date();
+      startDate.setDate(startDate.getDate() - (dateRange === 'last7' ? 7 : 30));
+      params.startDate = formatDate(startDate);
+      params.endDate = formatDate(new Date());
+    }
+    let cancelled = false;
+    axios.get('/api/carbon/totals', { params })
+      .then(response => {
+        if (!cancelled) setCarbonTotals(response.data);
+      })
+      .catch(err => {
+        console.error('Error fetching carbon totals:', err);
+        if (!cancelled) setCarbonTotals(null);
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [selectedVehicle, dateRange, refreshKey]);
+
   // Refresh data when navigating back from adding a new emission record
   useEffect(() => {
     const fromAddPage = location.state?.from === 'add-emission-record';
@@ -189,6 +244,24 @@ const EmissionsData = () => {
     return () => clearInterval(autoRefreshInterval);
   }, [dataFetchTime]);
 
+  // Append the next page of records to the table
+  const loadMoreRecords = async () => {
+    try {
+      const response = await axios.get('/api/emissions/page', {
+        params: {
+          cursor: nextCursor,
+          size: RECORDS_PAGE_SIZE,
+          vehicleId: selectedVehicle && !isDemoId(selectedVehicle) ? selectedVehicle : undefined,
+        },
+      });
+      const more = normalizeApiData(response.data.items);
+      setEmissionData(prev => [...prev.filter(record => !record.isDemo), ...more, ...prev.filter(record => record.isDemo)]);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+    } catch (err) {
+      console.error('Error loading more emission records:', err);
+    }
+  };
+
   // Handle refresh button click
   const handleRefresh = () => {
     console.log("Manual refresh triggered");
@@ -232,27 +305,31 @@ const EmissionsData = () => {
     new Date(a.date) - new Date(b.date)
   );
 
-  // Calculate summary statistics
-  const avgCO2 = filteredEmissionData.length > 0 
-    ? filteredEmissionData.reduce((sum, data) => {
-        const co2 = parseFloat(data.co2 || 0);
-        return isNaN(co2) ? sum : sum + co2;
-      }, 0) / filteredEmissionData.length 
-    : 0;
-    
-  const avgNOx = filteredEmissionData.length > 0 
-    ? filteredEmissionData.reduce((sum, data) => {
-        const nox = parseFloat(data.nox || 0);
-        return isNaN(nox) ? sum : sum + nox;
-      }, 0) / filteredEmissionData.length 
-    : 0;
-    
-  const avgPM = filteredEmissionData.length > 0 
-    ? filteredEmissionData.reduce((sum, data) => {
-        const pm = parseFloat(data.pm || 0);
-        return isNaN(pm) ? sum : sum + pm;
-      }, 0) / filteredEmissionData.length 
-    : 0;
+  // Calculate summary statistics. With server totals, only the demo records are averaged here and
+  // weighted in; otherwise every filtered record is.
+  const localRecords = carbonTotals
+    ? filteredEmissionData.filter(data => data.isDemo)
+    : filteredEmissionData;
+  const serverReadings = carbonTotals ? carbonTotals.emissionReadings : 0;
+  const readingCount = localRecords.length + serverReadings;
+
+  const averageOf = (field, serverAverage) => {
+    const localSum = localRecords.reduce((sum, data) => {
+      const value = parseFloat(data[field] || 0);
+      return isNaN(value) ? sum : sum + value;
+    }, 0);
+    return readingCount > 0
+      ? (localSum + (serverAverage || 0) * serverReadings) / readingCount
+      : 0;
+  };
+
+  const avgCO2 = averageOf('co2', carbonTotals?.averageCo2Emissions);
+  const avgNOx = averageOf('nox', carbonTotals?.averageNoxEmissions);
+  const avgPM = averageOf('pm', carbonTotals?.averageParticulateMatter);
+
+  // Without readings for the selection, the server derives CO2 from the fuel burnt
+  const co2FromFuel = readingCount === 0 && carbonTotals?.co2Source === 'fuel';
+  const displayedCO2 = co2FromFuel ? carbonTotals.averageCo2Emissions : avgCO2;
 
   // Group data by vehicle for the CO2 emissions chart
   const co2ByVehicle = vehicles.map(vehicle => {
@@ -485,15 +562,17 @@ const EmissionsData = () => {
       </div>
 
       {/* Summary Cards */}
-      <div className="grid grid-cols-1 md:grid-cols-3 gap-6">
+      <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-4 gap-6">
         <div className="card bg-white dark:bg-gray-800 transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
           <div className="flex items-center space-x-3">
             <div className="bg-primary-100 dark:bg-primary-900 p-3 rounded-full transition-all duration-300 hover:bg-primary-200 dark:hover:bg-primary-800">
               <Wind size={24} className="text-primary dark:text-primary-300" />
             </div>
             <div>
-              <p className="text-sm text-gray-500 dark:text-gray-400">Avg. CO2 Emissions</p>
-              <h3 className="text-2xl font-bold dark:text-white">{avgCO2.toFixed(1)} g/km</h3>
+              <p className="text-sm text-gray-500 dark:text-gray-400">
+                Avg. CO2 Emissions{co2FromFuel ? ' (from fuel)' : ''}
+              </p>
+              <h3 className="text-2xl font-bold dark:text-white">{displayedCO2.toFixed(1)} g/km</h3>
             </div>
           </div>
         </div>
@@ -521,6 +600,20 @@ const EmissionsData = () => {
             </div>
           </div>
         </div>
+
+        <div className="card bg-white dark:bg-gray-800 transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
+          <div className="flex items-center space-x-3">
+            <div className="bg-green-100 dark:bg-green-900 p-3 rounded-full transition-all duration-300 hover:bg-green-200 dark:hover:bg-green-800">
+              <Wind size={24} className="text-green-600 dark:text-green-400" />
+            </div>
+            <div>
+              <p className="text-sm text-gray-500 dark:text-gray-400">CO2 from Fuel</p>
+              <h3 className="text-2xl font-bold dark:text-white">
+                {carbonTotals ? `${carbonTotals.fuelCo2Kg.toFixed(1)} kg` : 'N/A'}
+              </h3>
+            </div>
+          </div>
+        </div>
       </div>
 
       {/* Charts */}
@@ -648,6 +741,13 @@ const EmissionsData = () => {
             </tbody>
           </table>
         </div>
+        {nextCursor && (
+          <div className="flex justify-center mt-4">
+            <button className="btn btn-secondary" onClick={loadMoreRecords}>
+              Load more records
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
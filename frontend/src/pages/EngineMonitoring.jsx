@@ -6,6 +6,9 @@ import axios from 'axios';
 import { useTheme } from '../context/ThemeContext';
 import { exportData } from '../utils/exportData';
 
+// Records loaded into the table per request
+const RECORDS_PAGE_SIZE = 100;
+
 const EngineMonitoring = () => {
   const [searchParams] = useSearchParams();
   const location = useLocation();
@@ -16,9 +19,11 @@ const EngineMonitoring = () => {
   const [selectedVehicle, setSelectedVehicle] = useState(vehicleId ? parseInt(vehicleId) : null);
   const [dateRange, setDateRange] = useState('all');
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
   const [error, setError] = useState(null);
   const [refreshKey, setRefreshKey] = useState(0); // Used to force re-fetch data
   const [dataFetchTime, setDataFetchTime] = useState(new Date()); // Track when data was last fetched
+  const [rpmDistribution, setRpmDistribution] = useState(null);
   const { theme } = useTheme();
   const isDark = theme === 'dark';
 
@@ -94,6 +99,18 @@ const EngineMonitoring = () => {
     });
   };
 
+  // Start of the selected date range as a LocalDateTime string, or undefined for all time
+  const rangeStart = (range) => {
+    const days = range === 'last7' ? 7 : range === 'last30' ? 30 : null;
+    if (!days) return undefined;
+    const start = new Date();
+    start.setDate(start.getDate() - days);
+    // Whole days keep the request identical within a day, so the server cache is reused
+    return `${start.toISOString().split('T')[0]}T00:00:00`;
+  };
+
+  const isDemoId = (id) => id != null && id.toString().startsWith('demo-');
+
   // Function to fetch data (can be called when refreshing data)
   const fetchData = useCallback(async () => {
     try {
@@ -105,6 +122,8 @@ const EngineMonitoring = () => {
       // Fetch real vehicle data
       let realVehicles = [];
       let realEngineData = [];
+      let cursor = null;
+      const realSelection = selectedVehicle && !isDemoId(selectedVehicle) ? selectedVehicle : null;
       
       try {
         // Always try to fetch real vehicles and engine data regardless of environment
@@ -118,13 +137,17 @@ const EngineMonitoring = () => {
           isDemo: false
         }));
         
-        // Fetch real engine data
-        console.log("Fetching real engine data...");
-        const engineResponse = await axios.get('/api/engine-data');
-        console.log("Engine data API response:", engineResponse.data);
-        
-        // Normalize the data to handle different API response formats
-        realEngineData = normalizeApiData(engineResponse.data);
+        // Only the first page of records is loaded; the rest is appended on demand
+        if (!isDemoId(selectedVehicle)) {
+          console.log("Fetching real engine data...");
+          const engineResponse = await axios.get('/api/engine-data/page', {
+            params: { size: RECORDS_PAGE_SIZE, vehicleId: realSelection || undefined, startDate: rangeStart(dateRange) },
+          });
+          
+          // Normalize the data to handle different API response formats
+          realEngineData = normalizeApiData(engineResponse.data.items);
+          cursor = engineResponse.data.hasMore ? engineResponse.data.nextCursor : null;
+        }
         
         console.log("Normalized real engine data:", realEngineData);
       } catch (apiErr) {
@@ -134,6 +157,7 @@ const EngineMonitoring = () => {
       
       // Combine real and demo data
       setVehicles([...realVehicles, ...demoVehicles]);
+      setNextCursor(cursor);
       setEngineData([...realEngineData, ...demoEngineData]);
       
       // If vehicleId is provided in URL but not set in state, set it
@@ -149,7 +173,7 @@ const EngineMonitoring = () => {
       setLoading(false);
       console.error(err);
     }
-  }, [vehicleId, selectedVehicle]);
+  }, [vehicleId, selectedVehicle, dateRange]);
 
   // Fetch data on component mount or when refreshKey changes
   useEffect(() => {
@@ -189,6 +213,81 @@ const EngineMonitoring = () => {
     return () => clearInterval(autoRefreshInterval);
   }, [dataFetchTime]);
 
+  // Append engine readings pushed by the backend as they are recorded
+  useEffect(() => {
+    const source = new EventSource('/api/live/telemetry?types=engine');
+    source.addEventListener('engine', (event) => {
+      const record = JSON.parse(event.data);
+      setEngineData(prevData => {
+        if (record.id && prevData.some(data => !data.isDemo && data.id === record.id)) {
+          return prevData;
+        }
+        return [...prevData, {
+          ...record,
+          isDemo: false,
+          date: record.recordingTime,
+          temperature: record.engineTemperature,
+          rpm: record.engineRpm,
+          idlingTime: record.idlingTimeSeconds
+        }];
+      });
+    });
+    // Some readings were skipped because this tab fell behind; reload the full list
+    source.addEventListener('dropped', () => setRefreshKey(prevKey => prevKey + 1));
+
+    return () => source.close();
+  }, []);
+
+  // RPM histogram and percentiles, merged by the backend from its hourly/daily/monthly rollups
+  useEffect(() => {
+    if (selectedVehicle && selectedVehicle.toString().startsWith('demo-')) {
+      setRpmDistribution(null);
+      return;
+    }
+    const endDate = new Date();
+    const startDate = new Date(endDate);
+    if (dateRange === 'last7') {
+      startDate.setDate(startDate.getDate() - 7);
+    } else if (dateRange === 'last30') {
+      startDate.setDate(startDate.getDate() - 30);
+    } else {
+      startDate.setFullYear(2000, 0, 1);
+    }
+    const params = {
+      metric: 'engineRpm',
+      startDate: startDate.toISOString().slice(0, 19),
+      endDate: endDate.toISOString().slice(0, 19),
+      binWidth: 250
+    };
+    if (selectedVehicle) {
+      params.vehicleId = selectedVehicle;
+    }
+    axios.get('/api/rollups/distribution', { params })
+      .then(response => setRpmDistribution(response.data))
+      .catch(err => {
+        console.error('Error fetching RPM distribution:', err);
+        setRpmDistribution(null);
+      });
+  }, [selectedVehicle, dateRange, refreshKey]);
+
+  // Append the next page of records to the table
+  const loadMoreRecords = async () => {
+    try {
+      const response = await axios.get('/api/engine-data/page', {
+        params: {
+          cursor: nextCursor,
+          size: RECORDS_PAGE_SIZE,
+          vehicleId: selectedVehicle && !isDemoId(selectedVehicle) ? selectedVehicle : undefined,
+        },
+      });
+      const more = normalizeApiData(response.data.items);
+      setEngineData(prev => [...prev.filter(record => !record.isDemo), ...more, ...prev.filter(record => record.isDemo)]);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+    } catch (err) {
+      console.error('Error loading more engine readings:', err);
+    }
+  };
+
   // Handle refresh button click
   const handleRefresh = () => {
     console.log("Manual refresh triggered");
@@ -303,6 +402,20 @@ const EngineMonitoring = () => {
     ],
   };
 
+  // Chart data for the RPM distribution
+  const rpmDistributionChartData = {
+    labels: (rpmDistribution?.bins || []).map(bin => `${bin.lower}-${bin.upper}`),
+    datasets: [
+      {
+        label: 'Readings',
+        data: (rpmDistribution?.bins || []).map(bin => bin.count),
+        backgroundColor: 'rgba(26, 35, 126, 0.6)',
+        borderColor: '#1A237E',
+        borderWidth: 1,
+      },
+    ],
+  };
+
   // Chart data for idling time by vehicle
   const idlingChartData = {
     labels: idlingTimeByVehicle.map(data => data.vehicle),
@@ -548,6 +661,25 @@ const EngineMonitoring = () => {
         </div>
       </div>
 
+      <div className="card transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
+        <h3 className="text-xl font-semibold mb-4">Engine RPM Distribution</h3>
+        {rpmDistribution && rpmDistribution.count > 0 && (
+          <p className="text-sm text-gray-500 dark:text-gray-400 mb-2">
+            p50 {rpmDistribution.p50.toFixed(0)} · p90 {rpmDistribution.p90.toFixed(0)} · p99 {rpmDistribution.p99.toFixed(0)} RPM
+            ({rpmDistribution.count} readings)
+          </p>
+        )}
+        <div className="h-64">
+          {rpmDistribution && rpmDistribution.count > 0 ? (
+            <Bar data={rpmDistributionChartData} options={chartOptions} />
+          ) : (
+            <div className="flex justify-center items-center h-full text-gray-500 dark:text-gray-400">
+              No data available for the selected filters
+            </div>
+          )}
+        </div>
+      </div>
+
       <div className="card transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
         <h3 className="text-xl font-semibold mb-4">Idling Time by Vehicle</h3>
         <div className="h-64">
@@ -644,6 +776,13 @@ const EngineMonitoring = () => {
             </tbody>
           </table>
         </div>
+        {nextCursor && (
+          <div className="flex justify-center mt-4">
+            <button className="btn btn-secondary" onClick={loadMoreRecords}>
+              Load more records
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
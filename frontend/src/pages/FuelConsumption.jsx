@@ -31,6 +31,9 @@ ChartJS.register(
   Filler
 );
 
+// Records loaded into the table per request
+const RECORDS_PAGE_SIZE = 100;
+
 const FuelConsumption = () => {
   const [searchParams] = useSearchParams();
   const location = useLocation();
@@ -38,6 +41,8 @@ const FuelConsumption = () => {
   
   const [vehicles, setVehicles] = useState([]);
   const [fuelData, setFuelData] = useState([]);
+  const [analytics, setAnalytics] = useState(null); // Server-side totals and trends for real vehicles
+  const [nextCursor, setNextCursor] = useState(null);
   const [selectedVehicle, setSelectedVehicle] = useState(vehicleId ? parseInt(vehicleId) : null);
   const [dateRange, setDateRange] = useState('all');
   const [loading, setLoading] = useState(true);
@@ -117,6 +122,18 @@ const FuelConsumption = () => {
     });
   };
 
+  // Start of the selected date range as a LocalDateTime string, or undefined for all time
+  const rangeStart = (range) => {
+    const days = range === 'last30' ? 30 : range === 'last90' ? 90 : null;
+    if (!days) return undefined;
+    const start = new Date();
+    start.setDate(start.getDate() - days);
+    // Whole days keep the request identical within a day, so the server cache is reused
+    return `${start.toISOString().split('T')[0]}T00:00:00`;
+  };
+
+  const isDemoId = (id) => id != null && id.toString().startsWith('demo-');
+
   // Function to fetch data (can be called when refreshing data)
   const fetchData = useCallback(async () => {
     try {
@@ -128,6 +145,10 @@ const FuelConsumption = () => {
       // Fetch real vehicle data
       let realVehicles = [];
       let realFuelData = [];
+      let realAnalytics = null;
+      let cursor = null;
+      const startDate = rangeStart(dateRange);
+      const realSelection = selectedVehicle && !isDemoId(selectedVehicle) ? selectedVehicle : null;
       
       try {
         // Always try to fetch real vehicles and fuel data regardless of environment
@@ -141,15 +162,24 @@ const FuelConsumption = () => {
           isDemo: false
         }));
         
-        // Fetch real fuel consumption data
-        console.log("Fetching real fuel consumption data...");
-        const fuelResponse = await axios.get('/api/fuel-consumption');
-        console.log("Fuel consumption API response:", fuelResponse.data);
-        
-        // Normalize the data to handle different API response formats
-        realFuelData = normalizeApiData(fuelResponse.data);
-        
-        console.log("Normalized real fuel data:", realFuelData);
+        // Totals, monthly figures and trends are computed on the server
+        if (!isDemoId(selectedVehicle)) {
+          const analyticsUrl = realSelection
+            ? `/api/fuel-consumption/vehicle/${realSelection}/analytics`
+            : '/api/fuel-consumption/analytics';
+          const analyticsResponse = await axios.get(analyticsUrl, { params: { startDate } });
+          realAnalytics = realSelection ? analyticsResponse.data : analyticsResponse.data.fleet;
+          
+          // Only the first page of records is loaded for the table
+          console.log("Fetching real fuel consumption data...");
+          const fuelResponse = await axios.get('/api/fuel-consumption/page', {
+            params: { size: RECORDS_PAGE_SIZE, vehicleId: realSelection || undefined, startDate },
+          });
+          
+          // Normalize the data to handle different API response formats
+          realFuelData = normalizeApiData(fuelResponse.data.items);
+          cursor = fuelResponse.data.hasMore ? fuelResponse.data.nextCursor : null;
+        }
       } catch (apiErr) {
         console.error('Error fetching real data:', apiErr);
         // Continue with demo data if API fails
@@ -158,6 +188,8 @@ const FuelConsumption = () => {
       // Combine real and demo data
       setVehicles([...realVehicles, ...demoVehicles]);
       setFuelData([...realFuelData, ...demoFuelData]);
+      setAnalytics(realAnalytics);
+      setNextCursor(cursor);
       
       // If vehicleId is provided in URL but not set in state, set it
       if (vehicleId && !selectedVehicle) {
@@ -172,7 +204,7 @@ const FuelConsumption = () => {
       setLoading(false);
       console.error(err);
     }
-  }, [vehicleId, selectedVehicle]);
+  }, [vehicleId, selectedVehicle, dateRange]);
 
   // Fetch data on component mount or when refreshKey changes
   useEffect(() => {
@@ -212,6 +244,24 @@ const FuelConsumption = () => {
     return () => clearInterval(autoRefreshInterval);
   }, [dataFetchTime]);
 
+  // Append the next page of records to the table
+  const loadMoreRecords = async () => {
+    try {
+      const response = await axios.get('/api/fuel-consumption/page', {
+        params: {
+          cursor: nextCursor,
+          size: RECORDS_PAGE_SIZE,
+          vehicleId: selectedVehicle && !isDemoId(selectedVehicle) ? selectedVehicle : undefined,
+        },
+      });
+      const more = normalizeApiData(response.data.items);
+      setFuelData(prev => [...prev.filter(record => !record.isDemo), ...more, ...prev.filter(record => record.isDemo)]);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+    } catch (err) {
+      console.error('Error loading more fuel records:', err);
+    }
+  };
+
   // Handle refresh button click
   const handleRefresh = () => {
     console.log("Manual refresh triggered");
@@ -255,54 +305,78 @@ const FuelConsumption = () => {
     new Date(a.date) - new Date(b.date)
   );
 
-  // Calculate summary statistics
-  const totalFuelAmount = filteredFuelData.reduce((sum, data) => {
+  // Demo vehicles are summarized locally; everything else comes from the analytics endpoint
+  const localFuelData = analytics ? filteredFuelData.filter(data => data.isDemo) : filteredFuelData;
+  const localFuelAmount = localFuelData.reduce((sum, data) => {
     const amount = parseFloat(data.amount || 0);
     return isNaN(amount) ? sum : sum + amount;
   }, 0);
   
-  const totalDistance = filteredFuelData.reduce((sum, data) => {
+  const localDistance = localFuelData.reduce((sum, data) => {
     const distance = parseFloat(data.distance || 0);
     return isNaN(distance) ? sum : sum + distance;
   }, 0);
   
-  const totalCost = filteredFuelData.reduce((sum, data) => {
+  const localCost = localFuelData.reduce((sum, data) => {
     const cost = parseFloat(data.cost || 0);
     return isNaN(cost) ? sum : sum + cost;
   }, 0);
   
+  const totalFuelAmount = localFuelAmount + (analytics ? analytics.totalFuelAmount : 0);
+  const totalDistance = localDistance + (analytics ? analytics.totalDistanceTraveled : 0);
+  const totalCost = localCost + (analytics ? analytics.totalFuelCost : 0);
   const avgMpg = totalFuelAmount > 0 ? totalDistance / totalFuelAmount : 0;
+  const mpgTrend = analytics && localFuelData.length === 0 ? analytics.mpgTrendPerMonth : null;
+  const costPerMile = analytics && localFuelData.length === 0 ? analytics.costPerMile : null;
+
+  // Real vehicle charts use the server's per fill-up points, the fleet view its monthly figures
+  const vehiclePoints = analytics && analytics.points ? analytics.points : null;
+  const fleetMonths = analytics && !analytics.points && localFuelData.length === 0 ? analytics.monthly : null;
+  const chartLabels = vehiclePoints
+    ? vehiclePoints.map(point => point.fillDate.split('T')[0])
+    : fleetMonths
+      ? fleetMonths.map(month => month.month)
+      : sortedFilteredData.map(data => new Date(data.date).toISOString().split('T')[0]); // YYYY-MM-DD
+  const hasChartData = chartLabels.length > 0;
 
   // Chart data for MPG over time
   const mpgChartData = {
-    labels: sortedFilteredData.map(data => {
-      // Format date for display
-      const date = new Date(data.date);
-      return date.toISOString().split('T')[0]; // YYYY-MM-DD
-    }),
+    labels: chartLabels,
     datasets: [
       {
-        label: 'MPG',
-        data: sortedFilteredData.map(data => parseFloat(data.mpg || 0)),
+        label: fleetMonths ? 'Monthly MPG' : 'MPG',
+        data: vehiclePoints
+          ? vehiclePoints.map(point => point.milesPerGallon)
+          : fleetMonths
+            ? fleetMonths.map(month => month.milesPerGallon)
+            : sortedFilteredData.map(data => parseFloat(data.mpg || 0)),
         borderColor: '#00BCD4',
         backgroundColor: 'rgba(0, 188, 212, 0.2)',
         tension: 0.4,
         fill: true,
       },
+      ...(vehiclePoints ? [{
+        label: 'Rolling MPG',
+        data: vehiclePoints.map(point => point.rollingMpg),
+        borderColor: '#1A237E',
+        backgroundColor: 'rgba(26, 35, 126, 0.2)',
+        tension: 0.4,
+        fill: false,
+      }] : []),
     ],
   };
 
   // Chart data for fuel cost
   const costChartData = {
-    labels: sortedFilteredData.map(data => {
-      // Format date for display
-      const date = new Date(data.date);
-      return date.toISOString().split('T')[0]; // YYYY-MM-DD
-    }),
+    labels: chartLabels,
     datasets: [
       {
-        label: 'Fuel Cost ($)',
-        data: sortedFilteredData.map(data => parseFloat(data.cost || 0)),
+        label: fleetMonths ? 'Monthly Spend ($)' : 'Fuel Cost ($)',
+        data: vehiclePoints
+          ? vehiclePoints.map(point => point.fuelCost || 0)
+          : fleetMonths
+            ? fleetMonths.map(month => month.fuelCost)
+            : sortedFilteredData.map(data => parseFloat(data.cost || 0)),
         backgroundColor: '#1A237E',
       },
     ],
@@ -481,11 +555,19 @@ const FuelConsumption = () => {
         <div className="card bg-white dark:bg-gray-800 transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
           <p className="text-sm text-gray-500 dark:text-gray-400">Average MPG</p>
           <h3 className="text-2xl font-bold dark:text-white">{avgMpg.toFixed(1)}</h3>
+          {mpgTrend != null && (
+            <p className="text-xs text-gray-500 dark:text-gray-400">
+              Trend: {mpgTrend >= 0 ? '+' : ''}{mpgTrend.toFixed(2)} MPG / month
+            </p>
+          )}
         </div>
 
         <div className="card bg-white dark:bg-gray-800 transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
           <p className="text-sm text-gray-500 dark:text-gray-400">Total Cost</p>
           <h3 className="text-2xl font-bold dark:text-white">${totalCost.toFixed(2)}</h3>
+          {costPerMile != null && (
+            <p className="text-xs text-gray-500 dark:text-gray-400">${costPerMile.toFixed(3)} per mile</p>
+          )}
         </div>
       </div>
 
@@ -494,7 +576,7 @@ const FuelConsumption = () => {
         <div className="card transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
           <h3 className="text-xl font-semibold mb-4">MPG Over Time</h3>
           <div className="h-64">
-            {sortedFilteredData.length > 0 ? (
+            {hasChartData ? (
               <Line data={mpgChartData} options={chartOptions} />
             ) : (
               <div className="flex justify-center items-center h-full text-gray-500 dark:text-gray-400">
@@ -505,9 +587,9 @@ const FuelConsumption = () => {
         </div>
 
         <div className="card transition-all duration-300 hover:shadow-lg hover:-translate-y-1 hover:border-primary">
-          <h3 className="text-xl font-semibold mb-4">Fuel Cost</h3>
+          <h3 className="text-xl font-semibold mb-4">{fleetMonths ? 'Monthly Fuel Spend' : 'Fuel Cost'}</h3>
           <div className="h-64">
-            {sortedFilteredData.length > 0 ? (
+            {hasChartData ? (
               <Bar data={costChartData} options={chartOptions} />
             ) : (
               <div className="flex justify-center items-center h-full text-gray-500 dark:text-gray-400">
@@ -581,6 +663,13 @@ const FuelConsumption = () => {
             </tbody>
           </table>
         </div>
+        {nextCursor && (
+          <div className="flex justify-center mt-4">
+            <button className="btn btn-secondary" onClick={loadMoreRecords}>
+              Load more records
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );